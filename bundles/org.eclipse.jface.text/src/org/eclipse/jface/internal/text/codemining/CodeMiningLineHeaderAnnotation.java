@@ -112,11 +112,18 @@ public class CodeMiningLineHeaderAnnotation extends LineHeaderAnnotation impleme
 				fResolvedMinings[i]= mining;
 			}
 		}
-		disposeMinings();
+		// dispose the old minings, except the ones which are kept
+		fMinings.stream().filter(mining -> !minings.contains(mining)).forEach(ICodeMining::dispose);
+		fMinings.clear();
 		fMonitor= monitor;
 		fMinings.addAll(minings);
 	}
 
+	@Override
+	public List<ICodeMining> getMinings() {
+		return new ArrayList<>(fMinings);
+	}
+
 	@Override
 	public void markDeleted(boolean deleted) {
 		super.markDeleted(deleted);
@@ -13,8 +13,11 @@
  */
 package org.eclipse.jface.internal.text.codemining;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.List;
@@ -22,12 +25,14 @@ import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.CancellationException;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import org.osgi.framework.Bundle;
 
 import org.eclipse.swt.graphics.Rectangle;
+import org.eclipse.swt.widgets.Display;
 
 import org.eclipse.core.runtime.Assert;
 import org.eclipse.core.runtime.ILog;
@@ -53,6 +58,12 @@ import org.eclipse.jface.text.source.inlined.InlinedAnnotationSupport;
  */
 public class CodeMiningManager implements Runnable {
 
+	/**
+	 * The time in milliseconds after which the code minings of the providers that are done are
+	 * rendered without waiting for the other providers.
+	 */
+	private static final long PROVIDER_TIMEOUT= 500;
+
 	/**
 	 * The source viewer
 	 */
@@ -73,6 +84,16 @@ public class CodeMiningManager implements Runnable {
 	 */
 	private IProgressMonitor fMonitor;
 
+	/**
+	 * The lock serializing the rendering of code minings.
+	 */
+	private final Object fRenderLock= new Object();
+
+	/**
+	 * The code mining annotations rendered last.
+	 */
+	private Set<AbstractInlinedAnnotation> fRenderedAnnotations= Collections.emptySet();
+
 	/**
 	 * Constructor of codemining manager with the given arguments.
 	 *
@@ -109,7 +130,10 @@ public class CodeMiningManager implements Runnable {
 	public void uninstall() {
 		cancel();
 		if (fInlinedAnnotationSupport != null) {
-			fInlinedAnnotationSupport.updateAnnotations(Collections.emptySet());
+			synchronized (fRenderLock) {
+				fInlinedAnnotationSupport.updateAnnotations(Collections.emptySet());
+				fRenderedAnnotations= Collections.emptySet();
+			}
 		}
 	}
 
@@ -136,15 +160,52 @@ public class CodeMiningManager implements Runnable {
 		// Refresh the code minings by using the new progress monitor.
 		fMonitor= new CancellationExceptionMonitor();
 		IProgressMonitor monitor= fMonitor;
+		List<ICodeMiningProvider> providers= fCodeMiningProviders;
 		// Collect the code minings for the viewer
-		getCodeMinings(fViewer, fCodeMiningProviders, monitor).thenAccept(symbols -> {
+		List<CompletableFuture<List<? extends ICodeMining>>> futures= getCodeMinings(fViewer, providers, monitor);
+		CompletableFuture<Void> all= CompletableFuture.allOf(futures.toArray(new CompletableFuture[futures.size()]));
+		all.thenRun(() -> renderCodeMinings(futures, providers, monitor, true));
+		// don't let slow providers delay the code minings of the others
+		CompletableFuture.runAsync(() -> {
+			if (!all.isDone())
+				renderCodeMinings(futures, providers, monitor, false);
+		}, CompletableFuture.delayedExecutor(PROVIDER_TIMEOUT, TimeUnit.MILLISECONDS));
+	}
+
+	/**
+	 * Groups the code minings of the providers that are done by lines position and renders them.
+	 *
+	 * @param futures   the futures of the code minings of each provider
+	 * @param providers the CodeMining providers used to retrieve code minings
+	 * @param monitor   the progress monitor
+	 * @param complete  <code>true</code> if all providers are done, <code>false</code> if the
+	 *                      code minings of the other providers are rendered later
+	 */
+	private void renderCodeMinings(List<CompletableFuture<List<? extends ICodeMining>>> futures,
+			List<ICodeMiningProvider> providers, IProgressMonitor monitor, boolean complete) {
+		synchronized (fRenderLock) {
 			// check if request was canceled.
 			monitor.isCanceled();
+			if (!complete && futures.stream().allMatch(CompletableFuture::isDone)) {
+				// the code minings of all providers are rendered anyway
+				return;
+			}
+			List<ICodeMining> symbols= futures.stream()
+					.filter(CompletableFuture::isDone)
+					.map(CompletableFuture::join)
+					.flatMap(java.util.Collection::stream)
+					.collect(Collectors.toList());
+			Set<ICodeMiningProvider> pendingProviders= new HashSet<>();
+			for (int i= 0; i < futures.size(); i++) {
+				if (!futures.get(i).isDone()) {
+					pendingProviders.add(providers.get(i));
+				}
+			}
 			// then group code minings by lines position
-			Map<Position, List<ICodeMining>> groups= groupByLines(symbols, fCodeMiningProviders);
+			Map<Position, List<ICodeMining>> groups= groupByLines(symbols, providers);
 			// resolve and render code minings
-			renderCodeMinings(groups, fViewer, monitor);
-		});
+			renderCodeMinings(groups, fViewer, providers, pendingProviders, monitor);
+		}
 	}
 
 	/**
@@ -174,27 +235,32 @@ public class CodeMiningManager implements Runnable {
 	}
 
 	/**
-	 * Return the list of {@link CompletableFuture} which provides the list of {@link ICodeMining}
-	 * for the given <code>viewer</code> by using the given providers.
+	 * Return the list of {@link CompletableFuture} which provide the list of {@link ICodeMining}
+	 * of each provider for the given <code>viewer</code>. Outside of the display thread, the
+	 * providers are asked in parallel.
 	 *
 	 * @param viewer    the text viewer.
 	 * @param providers the CodeMining list providers.
 	 * @param monitor   the progress monitor.
-	 * @return the list of {@link CompletableFuture} which provides the list of {@link ICodeMining}
+	 * @return the list of {@link CompletableFuture} which provide the list of {@link ICodeMining}
 	 *         for the given <code>viewer</code> by using the given providers.
 	 */
-	private static CompletableFuture<List<? extends ICodeMining>> getCodeMinings(ITextViewer viewer,
+	private static List<CompletableFuture<List<? extends ICodeMining>>> getCodeMinings(ITextViewer viewer,
 			List<ICodeMiningProvider> providers, IProgressMonitor monitor) {
-		List<CompletableFuture<List<? extends ICodeMining>>> com= providers.stream()
-				.map(provider -> provider.provideCodeMinings(viewer, monitor))
-				.filter(c -> c != null)
+		boolean parallel= providers.size() > 1 && Display.getCurrent() == null;
+		return providers.stream()
+				.map(provider -> parallel
+						? CompletableFuture.supplyAsync(() -> provider.provideCodeMinings(viewer, monitor)).thenCompose(CodeMiningManager::nonNull)
+						: nonNull(provider.provideCodeMinings(viewer, monitor)))
 				.map(future -> future.exceptionally(e -> {
 					logCodeMiningProviderException(e);
 					return Collections.emptyList();
 				}))
 				.collect(Collectors.toList());
-		return CompletableFuture.allOf(com.toArray(new CompletableFuture[com.size()])).thenApply(
-				v -> com.stream().map(CompletableFuture::join).flatMap(java.util.Collection::stream).collect(Collectors.toList()));
+	}
+
+	private static CompletableFuture<List<? extends ICodeMining>> nonNull(CompletableFuture<List<? extends ICodeMining>> future) {
+		return future != null ? future : CompletableFuture.completedFuture(Collections.emptyList());
 	}
 
 	/**
@@ -227,12 +293,15 @@ public class CodeMiningManager implements Runnable {
 	/**
 	 * Render the codemining grouped by line position.
 	 *
-	 * @param groups  code minings grouped by lines position
-	 * @param viewer  the viewer
-	 * @param monitor the progress monitor
+	 * @param groups           code minings grouped by lines position
+	 * @param viewer           the viewer
+	 * @param providers        the CodeMining providers used to retrieve code minings
+	 * @param pendingProviders the providers which are not done, their existing code minings are
+	 *                             kept
+	 * @param monitor          the progress monitor
 	 */
 	private void renderCodeMinings(Map<Position, List<ICodeMining>> groups, ISourceViewer viewer,
-			IProgressMonitor monitor) {
+			List<ICodeMiningProvider> providers, Set<ICodeMiningProvider> pendingProviders, IProgressMonitor monitor) {
 		// check if request was canceled.
 		monitor.isCanceled();
 		IDocument document= viewer != null ? viewer.getDocument() : null;
@@ -243,6 +312,14 @@ public class CodeMiningManager implements Runnable {
 		}
 		Set<ICodeMiningAnnotation> annotationsToRedraw= new HashSet<>();
 		Set<AbstractInlinedAnnotation> currentAnnotations= new HashSet<>();
+		// index the rendered annotations by their current line position
+		Map<Position, AbstractInlinedAnnotation> existingAnnotations= new HashMap<>();
+		for (AbstractInlinedAnnotation ann : fRenderedAnnotations) {
+			Position position= ann.getPosition();
+			if (!position.isDeleted()) {
+				existingAnnotations.putIfAbsent(new Position(position.offset, position.length), ann);
+			}
+		}
 		// Loop for grouped code minings
 		groups.entrySet().stream().forEach(g -> {
 			// check if request was canceled.
@@ -252,24 +329,53 @@ public class CodeMiningManager implements Runnable {
 			List<ICodeMining> minings= g.getValue();
 			boolean inLineHeader= !minings.isEmpty() ? (minings.get(0) instanceof LineHeaderCodeMining) : true;
 			// Try to find existing annotation
-			AbstractInlinedAnnotation ann= fInlinedAnnotationSupport.findExistingAnnotation(pos);
+			AbstractInlinedAnnotation ann= existingAnnotations.get(pos);
 			if (ann == null) {
 				// The annotation doesn't exists, create it.
 				ann= inLineHeader ? new CodeMiningLineHeaderAnnotation(pos, viewer) : new CodeMiningLineContentAnnotation(pos, viewer);
-			} else if (ann instanceof ICodeMiningAnnotation && ((ICodeMiningAnnotation) ann).isInVisibleLines()) {
-				// annotation is in visible lines
-				annotationsToRedraw.add((ICodeMiningAnnotation) ann);
+			} else {
+				if (!pendingProviders.isEmpty()) {
+					// keep the code minings of the line from the providers which are not done yet
+					minings= withPendingMinings(minings, ((ICodeMiningAnnotation) ann).getMinings(), providers, pendingProviders);
+				}
+				if (((ICodeMiningAnnotation) ann).isInVisibleLines()) {
+					// annotation is in visible lines
+					annotationsToRedraw.add((ICodeMiningAnnotation) ann);
+				}
 			}
 			((ICodeMiningAnnotation) ann).update(minings, monitor);
 			currentAnnotations.add(ann);
 		});
 		// check if request was canceled.
 		monitor.isCanceled();
+		if (!pendingProviders.isEmpty()) {
+			// keep the annotations of the other lines for the providers which are not done yet
+			currentAnnotations.addAll(fRenderedAnnotations);
+		}
 		fInlinedAnnotationSupport.updateAnnotations(currentAnnotations);
+		fRenderedAnnotations= currentAnnotations;
 		// redraw the existing codemining annotations since their content can change
 		annotationsToRedraw.stream().forEach(ICodeMiningAnnotation::redraw);
 	}
 
+	/**
+	 * Returns the given code minings of a line with the existing code minings of the pending
+	 * providers, sorted by provider rank.
+	 *
+	 * @param minings          the new code minings of the line
+	 * @param existingMinings  the code minings which are rendered for the line
+	 * @param providers        the CodeMining providers used to retrieve code minings
+	 * @param pendingProviders the providers which are not done
+	 * @return the code minings to render for the line
+	 */
+	private static List<ICodeMining> withPendingMinings(List<ICodeMining> minings, List<ICodeMining> existingMinings,
+			List<ICodeMiningProvider> providers, Set<ICodeMiningProvider> pendingProviders) {
+		List<ICodeMining> result= new ArrayList<>(minings);
+		existingMinings.stream().filter(mining -> pendingProviders.contains(mining.getProvider())).forEach(result::add);
+		result.sort(Comparator.comparingInt(mining -> providers.indexOf(mining.getProvider())));
+		return result;
+	}
+
 	/**
 	 * Returns <code>true</code> if the given mining has a non empty label and <code>false</code>
 	 * otherwise.
@@ -34,6 +34,13 @@ public interface ICodeMiningAnnotation {
 	 */
 	void update(List<ICodeMining> minings, IProgressMonitor monitor);
 
+	/**
+	 * Returns the code minings of the annotation.
+	 *
+	 * @return the code minings of the annotation.
+	 */
+	List<ICodeMining> getMinings();
+
 	/**
 	 * Redraw the codemining annotation.
 	 */
@@ -95,6 +95,13 @@ public class PresentationReconciler implements IPresentationReconciler, IPresent
 				} catch (BadPositionCategoryException x) {
 					// should not happened for former input documents;
 				}
+
+				if (newDocument == null) {
+					// without a new document the damagers and repairers
+					// would keep listening to the old one
+					setDocumentToDamagers(null);
+					setDocumentToRepairers(null);
+				}
 			}
 		}
 
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2000, 2011 IBM Corporation and others.
+ * Copyright (c) 2000, 2026 IBM Corporation and others.
  *
  * This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License 2.0
@@ -13,6 +13,11 @@
  *******************************************************************************/
 package org.eclipse.jface.text.reconciler;
 
+import java.util.concurrent.Future;
+
+import org.eclipse.swt.custom.StyledText;
+import org.eclipse.swt.widgets.Display;
+
 import org.eclipse.core.runtime.Assert;
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.NullProgressMonitor;
@@ -39,6 +44,11 @@ import org.eclipse.jface.text.ITextViewer;
  * It is the clients responsibility to stop a reconciler using its {@link #uninstall()}
  * method. Unstopped reconcilers do not free their resources.
  * <p>
+ * By default each installed reconciler has a background thread of its own. Reconcilers
+ * configured with {@link #setUseSharedExecutor(boolean)} share a bounded number of threads
+ * instead, which process the reconcilers with a focused or visible text viewer first.
+ * </p>
+ * <p>
  * It is subclass responsibility to specify how dirty regions are processed.
  * </p>
  *
@@ -50,10 +60,40 @@ import org.eclipse.jface.text.ITextViewer;
 abstract public class AbstractReconciler implements IReconciler {
 
 
+	/**
+	 * The reconciling activity, either a background thread or runs scheduled
+	 * on the shared executor.
+	 *
+	 * @since 3.25
+	 */
+	interface Worker {
+
+		boolean isActive();
+
+		boolean isDirty();
+
+		boolean isAlive();
+
+		void start();
+
+		void cancel();
+
+		void suspendCallerWhileDirty();
+
+		void reset();
+
+		/**
+		 * Returns whether the calling thread executes this reconciling activity.
+		 *
+		 * @return <code>true</code> if called from this reconciling activity
+		 */
+		boolean isCurrentThread();
+	}
+
 	/**
 	 * Background thread for the reconciling activity.
 	 */
-	class BackgroundThread extends Thread {
+	class BackgroundThread extends Thread implements Worker {
 
 		/** Has the reconciler been canceled. */
 		private boolean fCanceled= false;
@@ -81,6 +121,7 @@ abstract public class AbstractReconciler implements IReconciler {
 		 *
 		 * @return <code>true</code> if a activity is active
 		 */
+		@Override
 		public boolean isActive() {
 			return fIsActive;
 		}
@@ -91,6 +132,7 @@ abstract public class AbstractReconciler implements IReconciler {
 		 * @return <code>true</code> if changes wait to be processed
 		 * @since 3.0
 		 */
+		@Override
 		public synchronized boolean isDirty() {
 			return fIsDirty;
 		}
@@ -98,6 +140,7 @@ abstract public class AbstractReconciler implements IReconciler {
 		/**
 		 * Cancels the background thread.
 		 */
+		@Override
 		public void cancel() {
 			fCanceled= true;
 			IProgressMonitor pm= fProgressMonitor;
@@ -112,25 +155,15 @@ abstract public class AbstractReconciler implements IReconciler {
 		 * Suspends the caller of this method until this background thread has
 		 * emptied the dirty region queue.
 		 */
+		@Override
 		public void suspendCallerWhileDirty() {
-			AbstractReconciler.this.signalWaitForFinish();
-			boolean isDirty;
-			do {
-				synchronized (fDirtyRegionQueue) {
-					isDirty= fDirtyRegionQueue.getSize() > 0;
-					if (isDirty) {
-						try {
-							fDirtyRegionQueue.wait();
-						} catch (InterruptedException x) {
-						}
-					}
-				}
-			} while (isDirty);
+			waitUntilQueueIsEmpty();
 		}
 
 		/**
 		 * Reset the background thread as the text viewer has been changed,
 		 */
+		@Override
 		public void reset() {
 
 			if (fDelay > 0) {
@@ -158,6 +191,11 @@ abstract public class AbstractReconciler implements IReconciler {
 			reconcilerReset();
 		}
 
+		@Override
+		public boolean isCurrentThread() {
+			return Thread.currentThread() == this;
+		}
+
 		/**
 		 * The background activity. Waits until there is something in the
 		 * queue managing the changes that have been applied to the text viewer.
@@ -220,6 +258,218 @@ abstract public class AbstractReconciler implements IReconciler {
 		}
 	}
 
+	/**
+	 * Reconciling activity executed by the threads shared with other reconcilers.
+	 * Each run either calls {@link AbstractReconciler#initialProcess()} or processes
+	 * one dirty region. As long as changes wait to be processed, the next run is
+	 * scheduled after the configured delay. Changes to the document postpone the
+	 * pending run.
+	 *
+	 * @since 3.25
+	 */
+	class SharedWorker implements Worker {
+
+		/** Has the reconciler been canceled. */
+		private volatile boolean fCanceled= false;
+		/** Some changes need to be processed. */
+		private boolean fIsDirty= false;
+		/** Is a reconciling strategy active. */
+		private volatile boolean fIsActive= false;
+		/** Has the activity been started. */
+		private boolean fStarted= false;
+		/** Has {@link AbstractReconciler#initialProcess()} been called. */
+		private boolean fInitialized= false;
+		/** Is a run executing. */
+		private boolean fRunning= false;
+		/** Must the next run be scheduled when the executing run is done. */
+		private boolean fRescheduleRequested= false;
+		/** The number of the latest scheduled run, earlier runs do nothing. */
+		private int fGeneration;
+		/** The pending run or <code>null</code> if there is none. */
+		private Future<?> fPending;
+		/** The priority of the runs. */
+		private int fPriority= ReconcilerExecutor.PRIORITY_HIDDEN;
+		/** The thread executing the current run. */
+		private volatile Thread fRunner;
+
+		@Override
+		public boolean isActive() {
+			return fIsActive;
+		}
+
+		@Override
+		public synchronized boolean isDirty() {
+			return fIsDirty;
+		}
+
+		@Override
+		public synchronized boolean isAlive() {
+			return fStarted && !fCanceled;
+		}
+
+		@Override
+		public synchronized void start() {
+			if (fStarted)
+				throw new IllegalThreadStateException();
+			fStarted= true;
+			schedule();
+		}
+
+		@Override
+		public void cancel() {
+			fCanceled= true;
+			IProgressMonitor pm= fProgressMonitor;
+			if (pm != null)
+				pm.setCanceled(true);
+			synchronized (fDirtyRegionQueue) {
+				fDirtyRegionQueue.notifyAll();
+			}
+			synchronized (this) {
+				if (fPending != null) {
+					fPending.cancel(false);
+					fPending= null;
+				}
+			}
+		}
+
+		@Override
+		public void suspendCallerWhileDirty() {
+			waitUntilQueueIsEmpty();
+		}
+
+		@Override
+		public void reset() {
+			synchronized (this) {
+				fIsDirty= true;
+			}
+			informNotFinished();
+			reconcilerReset();
+			schedule();
+		}
+
+		@Override
+		public boolean isCurrentThread() {
+			return Thread.currentThread() == fRunner;
+		}
+
+		/**
+		 * Runs the pending run without delay.
+		 */
+		synchronized void wakeUp() {
+			if (fPending != null)
+				schedule();
+		}
+
+		/**
+		 * Schedules the next run, replacing the pending run. If a run is executing,
+		 * the next run is scheduled once it is done.
+		 */
+		private synchronized void schedule() {
+			if (fCanceled)
+				return;
+			if (fRunning) {
+				fRescheduleRequested= true;
+				return;
+			}
+			if (fPending != null)
+				fPending.cancel(false);
+			int generation= ++fGeneration;
+			fPending= ReconcilerExecutor.schedule(() -> run(generation), waitFinish ? 0 : fDelay, computePriority());
+		}
+
+		/**
+		 * Computes the priority of the next run. The focus and visibility of the
+		 * text widget can only be checked in the UI thread, other threads keep
+		 * the last priority.
+		 *
+		 * @return the priority
+		 */
+		private int computePriority() {
+			if (waitFinish)
+				return ReconcilerExecutor.PRIORITY_WAITING;
+			ITextViewer viewer= fViewer;
+			StyledText widget= viewer != null ? viewer.getTextWidget() : null;
+			if (widget != null && isUIThread(widget)) {
+				if (widget.isFocusControl())
+					fPriority= ReconcilerExecutor.PRIORITY_FOCUS;
+				else if (widget.isVisible())
+					fPriority= ReconcilerExecutor.PRIORITY_VISIBLE;
+				else
+					fPriority= ReconcilerExecutor.PRIORITY_HIDDEN;
+			}
+			return fPriority;
+		}
+
+		private boolean isUIThread(StyledText widget) {
+			Display display= Display.getCurrent();
+			return display != null && !widget.isDisposed() && widget.getDisplay() == display;
+		}
+
+		private void run(int generation) {
+			synchronized (this) {
+				if (fCanceled || fRunning || generation != fGeneration)
+					return;
+				fPending= null;
+				fRunning= true;
+			}
+
+			fRunner= Thread.currentThread();
+			boolean completed= false;
+			try {
+				if (!fInitialized) {
+					fInitialized= true;
+					initialProcess();
+				} else {
+					processNextDirtyRegion();
+				}
+				completed= true;
+			} finally {
+				fRunner= null;
+				synchronized (this) {
+					fRunning= false;
+					if (!completed) {
+						// like a background thread terminated by the exception
+						fCanceled= true;
+					} else if (fRescheduleRequested || fIsDirty) {
+						fRescheduleRequested= false;
+						schedule();
+					} else {
+						waitFinish= false; // signalWaitForFinish() was called but nothing todo
+					}
+				}
+			}
+		}
+
+		private void processNextDirtyRegion() {
+			if (!isDirty()) {
+				waitFinish= false;
+				return;
+			}
+
+			DirtyRegion r= null;
+			synchronized (fDirtyRegionQueue) {
+				r= fDirtyRegionQueue.removeNextDirtyRegion();
+			}
+
+			fIsActive= true;
+
+			fProgressMonitor.setCanceled(false);
+
+			process(r);
+
+			synchronized (fDirtyRegionQueue) {
+				if (0 == fDirtyRegionQueue.getSize()) {
+					synchronized (this) {
+						fIsDirty= fProgressMonitor.isCanceled();
+					}
+					fDirtyRegionQueue.notifyAll();
+				}
+			}
+
+			fIsActive= false;
+		}
+	}
+
 	/**
 	 * Internal document listener and text input listener.
 	 */
@@ -233,7 +483,7 @@ abstract public class AbstractReconciler implements IReconciler {
 		public void documentChanged(DocumentEvent e) {
 
 			if (fThread.isActive() || !fThread.isDirty() && fThread.isAlive()) {
-				if (!fIsAllowedToModifyDocument && Thread.currentThread() == fThread)
+				if (!fIsAllowedToModifyDocument && fThread.isCurrentThread())
 					throw new UnsupportedOperationException("The reconciler thread is not allowed to modify the document"); //$NON-NLS-1$
 				aboutToBeReconciledInternal();
 			}
@@ -297,8 +547,8 @@ abstract public class AbstractReconciler implements IReconciler {
 
 	/** Queue to manage the changes applied to the text viewer. */
 	private DirtyRegionQueue fDirtyRegionQueue;
-	/** The background thread. */
-	private BackgroundThread fThread;
+	/** The background thread or the activity on the shared executor. */
+	private Worker fThread;
 	/** Internal document and text input listener. */
 	private Listener fListener;
 	/** The background thread delay. */
@@ -314,6 +564,11 @@ abstract public class AbstractReconciler implements IReconciler {
 	 * @since 3.2
 	 */
 	private boolean fIsAllowedToModifyDocument= true;
+	/**
+	 * Does this reconciler use the shared executor instead of a background thread.
+	 * @since 3.25
+	 */
+	private boolean fUseSharedExecutor= Boolean.getBoolean("org.eclipse.jface.text.reconciler.useSharedExecutor"); //$NON-NLS-1$
 
 
 	/** The text viewer's document. */
@@ -391,6 +646,26 @@ abstract public class AbstractReconciler implements IReconciler {
 		fIsAllowedToModifyDocument= isAllowedToModify;
 	}
 
+	/**
+	 * Tells the reconciler whether to process the changes on the threads it
+	 * shares with other reconcilers instead of a background thread of its
+	 * own. The shared threads process the reconcilers whose text viewer has
+	 * the focus or is visible first. Reconciling strategies are still called
+	 * sequentially and never concurrently for the same reconciler. Must be
+	 * called before the reconciler is installed.
+	 * <p>
+	 * The default is <code>false</code> unless the system property
+	 * <code>org.eclipse.jface.text.reconciler.useSharedExecutor</code> is set
+	 * to <code>true</code>.
+	 * </p>
+	 *
+	 * @param useSharedExecutor <code>true</code> to use the shared threads
+	 * @since 3.25
+	 */
+	public void setUseSharedExecutor(boolean useSharedExecutor) {
+		fUseSharedExecutor= useSharedExecutor;
+	}
+
 	/**
 	 * Sets the progress monitor of this reconciler.
 	 *
@@ -449,7 +724,7 @@ abstract public class AbstractReconciler implements IReconciler {
 		synchronized (this) {
 			if (fThread != null)
 				return;
-			fThread= new BackgroundThread(getClass().getName());
+			fThread= fUseSharedExecutor ? new SharedWorker() : new BackgroundThread(getClass().getName());
 		}
 
 		fDirtyRegionQueue= new DirtyRegionQueue();
@@ -483,7 +758,7 @@ abstract public class AbstractReconciler implements IReconciler {
 
 			synchronized (this) {
 				// http://dev.eclipse.org/bugs/show_bug.cgi?id=19135
-				BackgroundThread bt= fThread;
+				Worker bt= fThread;
 				fThread= null;
 				bt.cancel();
 			}
@@ -550,6 +825,27 @@ abstract public class AbstractReconciler implements IReconciler {
 			waitFinish= true;
 			fDirtyRegionQueue.notifyAll(); // notify AbstractReconciler#delay about waitFinish
 		}
+		if (fThread instanceof SharedWorker worker)
+			worker.wakeUp();
+	}
+
+	/**
+	 * Suspends the caller until the dirty region queue is empty.
+	 */
+	private void waitUntilQueueIsEmpty() {
+		signalWaitForFinish();
+		boolean isDirty;
+		do {
+			synchronized (fDirtyRegionQueue) {
+				isDirty= fDirtyRegionQueue.getSize() > 0;
+				if (isDirty) {
+					try {
+						fDirtyRegionQueue.wait();
+					} catch (InterruptedException x) {
+					}
+				}
+			}
+		} while (isDirty);
 	}
 
 	private void informNotFinished() {
@@ -641,6 +937,7 @@ abstract public class AbstractReconciler implements IReconciler {
 	 * @since 3.4
 	 */
 	protected boolean isRunningInReconcilerThread() {
-		return Thread.currentThread() == fThread;
+		Worker worker= fThread;
+		return worker != null && worker.isCurrentThread();
 	}
 }
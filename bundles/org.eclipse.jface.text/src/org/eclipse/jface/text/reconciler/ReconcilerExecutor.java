@@ -0,0 +1,128 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jface.text.reconciler;
+
+import java.util.concurrent.Future;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+
+/**
+ * The executor shared by the reconcilers that do not have a background thread
+ * of their own. A bounded number of low priority daemon threads executes the
+ * scheduled runs by priority, runs of the same priority in the order they have
+ * been scheduled. Idle threads terminate after a while.
+ *
+ * @see AbstractReconciler#setUseSharedExecutor(boolean)
+ * @since 3.25
+ */
+final class ReconcilerExecutor {
+
+	/** Priority of runs a caller waits for. */
+	static final int PRIORITY_WAITING= 0;
+	/** Priority of runs of reconcilers whose viewer has the focus. */
+	static final int PRIORITY_FOCUS= 1;
+	/** Priority of runs of reconcilers whose viewer is visible. */
+	static final int PRIORITY_VISIBLE= 2;
+	/** Priority of runs of all other reconcilers. */
+	static final int PRIORITY_HIDDEN= 3;
+
+	/** The maximal number of threads executing runs. */
+	private static final int MAX_THREADS= Math.max(2, Runtime.getRuntime().availableProcessors() / 2);
+	/** The time in seconds after which idle threads terminate. */
+	private static final long KEEP_ALIVE_TIME= 30;
+
+	/**
+	 * A run with its priority.
+	 */
+	private static final class PrioritizedRun implements Runnable, Comparable<PrioritizedRun> {
+
+		private final Runnable fRunnable;
+		private final int fPriority;
+		private final long fSequence;
+
+		PrioritizedRun(Runnable runnable, int priority) {
+			fRunnable= runnable;
+			fPriority= priority;
+			fSequence= fgSequence.getAndIncrement();
+		}
+
+		@Override
+		public void run() {
+			fRunnable.run();
+		}
+
+		@Override
+		public int compareTo(PrioritizedRun other) {
+			if (fPriority != other.fPriority)
+				return Integer.compare(fPriority, other.fPriority);
+			return Long.compare(fSequence, other.fSequence);
+		}
+	}
+
+	private static final AtomicLong fgSequence= new AtomicLong();
+	private static final AtomicInteger fgThreadCount= new AtomicInteger();
+
+	private static final ThreadFactory fgThreadFactory= runnable -> {
+		Thread thread= new Thread(runnable, "Reconciler #" + fgThreadCount.incrementAndGet()); //$NON-NLS-1$
+		thread.setPriority(Thread.MIN_PRIORITY);
+		thread.setDaemon(true);
+		return thread;
+	};
+
+	/** Executes the runs. */
+	private static final ThreadPoolExecutor fgExecutor;
+	/** Hands the runs over to the executor once their delay has elapsed. */
+	private static final ScheduledThreadPoolExecutor fgTimer;
+
+	static {
+		fgExecutor= new ThreadPoolExecutor(MAX_THREADS, MAX_THREADS, KEEP_ALIVE_TIME, TimeUnit.SECONDS, new PriorityBlockingQueue<>(), fgThreadFactory);
+		fgExecutor.allowCoreThreadTimeOut(true);
+
+		fgTimer= new ScheduledThreadPoolExecutor(1, fgThreadFactory);
+		fgTimer.setRemoveOnCancelPolicy(true);
+		fgTimer.setKeepAliveTime(KEEP_ALIVE_TIME, TimeUnit.SECONDS);
+		fgTimer.allowCoreThreadTimeOut(true);
+	}
+
+	private ReconcilerExecutor() {
+	}
+
+	/**
+	 * Schedules the given runnable for execution after the given delay.
+	 *
+	 * @param runnable the runnable to execute
+	 * @param delay the delay in milliseconds
+	 * @param priority the priority, one of the <code>PRIORITY_*</code> constants
+	 * @return the future allowing to cancel the run as long as its delay has not elapsed
+	 */
+	static Future<?> schedule(Runnable runnable, long delay, int priority) {
+		PrioritizedRun run= new PrioritizedRun(runnable, priority);
+		return fgTimer.schedule(() -> execute(run), delay, TimeUnit.MILLISECONDS);
+	}
+
+	private static void execute(PrioritizedRun run) {
+		if (run.fPriority == PRIORITY_WAITING && fgExecutor.getActiveCount() >= MAX_THREADS) {
+			// a caller may block until the run is done, do not let it wait for other reconcilers
+			fgThreadFactory.newThread(run).start();
+		} else {
+			fgExecutor.execute(run);
+		}
+	}
+}
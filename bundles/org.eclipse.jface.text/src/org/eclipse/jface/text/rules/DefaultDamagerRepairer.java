@@ -22,6 +22,7 @@ import org.eclipse.core.runtime.Assert;
 import org.eclipse.jface.text.BadLocationException;
 import org.eclipse.jface.text.DocumentEvent;
 import org.eclipse.jface.text.IDocument;
+import org.eclipse.jface.text.IDocumentListener;
 import org.eclipse.jface.text.IRegion;
 import org.eclipse.jface.text.ITypedRegion;
 import org.eclipse.jface.text.Region;
@@ -37,6 +38,11 @@ import org.eclipse.jface.text.presentation.IPresentationRepairer;
  * the document and to determine its damage and new text presentation.
  * The tokens returned by the scanner are supposed to return text attributes
  * as their data.
+ * <p>
+ * Optionally, the damager/repairer remembers the tokens of previous repairs. When the
+ * scanner reaches the start of a remembered token whose text did not change since, the
+ * remembered tokens are reused instead of scanning the rest of the damaged region again.
+ * </p>
  *
  * @see ITokenScanner
  * @since 2.0
@@ -50,6 +56,16 @@ public class DefaultDamagerRepairer implements IPresentationDamager, IPresentati
 	protected ITokenScanner fScanner;
 	/** The default text attribute if non is returned as data by the current token */
 	protected TextAttribute fDefaultTextAttribute;
+	/**
+	 * The tokens of the previous repairs, or <code>null</code> if tokens are not remembered.
+	 * @since 3.25
+	 */
+	private TokenCache fTokenCache;
+	/**
+	 * The document listener keeping the remembered tokens up to date.
+	 * @since 3.25
+	 */
+	private IDocumentListener fDocumentListener;
 
 	/**
 	 * Creates a damager/repairer that uses the given scanner and returns the given default
@@ -84,12 +100,52 @@ public class DefaultDamagerRepairer implements IPresentationDamager, IPresentati
 		fDefaultTextAttribute= new TextAttribute(null);
 	}
 
+	/**
+	 * Creates a damager/repairer that uses the given scanner. The scanner may not be <code>null</code>
+	 * and is assumed to return only token that carry text attributes.
+	 * <p>
+	 * If <code>rememberTokens</code> is <code>true</code>, the tokens of each repair are remembered
+	 * and reused by later repairs for the text that did not change. This requires a scanner
+	 * without state: started at the offset of a token it returned before, it must return the
+	 * same tokens again as long as the text behind that offset is the same. This holds for
+	 * {@link RuleBasedScanner}s using the rules of this package.
+	 * </p>
+	 *
+	 * @param scanner the token scanner to be used, may not be <code>null</code>
+	 * @param rememberTokens <code>true</code> if tokens should be remembered and reused
+	 * @since 3.25
+	 */
+	public DefaultDamagerRepairer(ITokenScanner scanner, boolean rememberTokens) {
+		this(scanner);
+		if (rememberTokens)
+			fTokenCache= new TokenCache();
+	}
+
 	/*
 	 * @see IPresentationDamager#setDocument(IDocument)
 	 * @see IPresentationRepairer#setDocument(IDocument)
 	 */
 	@Override
 	public void setDocument(IDocument document) {
+		if (fTokenCache != null && document != fDocument) {
+			if (fDocumentListener == null) {
+				fDocumentListener= new IDocumentListener() {
+					@Override
+					public void documentAboutToBeChanged(DocumentEvent event) {
+						fTokenCache.documentAboutToBeChanged(event);
+					}
+
+					@Override
+					public void documentChanged(DocumentEvent event) {
+					}
+				};
+			}
+			if (fDocument != null)
+				fDocument.removeDocumentListener(fDocumentListener);
+			fTokenCache.clear();
+			if (document != null)
+				document.addDocumentListener(fDocumentListener);
+		}
 		fDocument= document;
 	}
 
@@ -167,6 +223,11 @@ public class DefaultDamagerRepairer implements IPresentationDamager, IPresentati
 			return;
 		}
 
+		if (fTokenCache != null) {
+			createPresentationReusingTokens(presentation, region);
+			return;
+		}
+
 		int lastStart= region.getOffset();
 		int length= 0;
 		boolean firstToken= true;
@@ -198,6 +259,99 @@ public class DefaultDamagerRepairer implements IPresentationDamager, IPresentati
 		addRange(presentation, lastStart, length, lastAttribute);
 	}
 
+	/**
+	 * Creates the presentation for the given region like
+	 * {@link #createPresentation(TextPresentation, ITypedRegion)}, but reuses the remembered
+	 * tokens whenever the scanner reaches the offset of a remembered token which is still valid.
+	 * Afterwards the tokens of the region are remembered.
+	 *
+	 * @param presentation the text presentation to be filled by this repairer
+	 * @param region the region to be repaired
+	 * @since 3.25
+	 */
+	private void createPresentationReusingTokens(TextPresentation presentation, ITypedRegion region) {
+		int offset= region.getOffset();
+		int end= offset + region.getLength();
+
+		// tokens of the last line are always scanned as the scanner may look ahead up to the end of the range
+		int reuseLimit;
+		try {
+			reuseLimit= fDocument.getLineOffset(fDocument.getLineOfOffset(Math.max(offset, end - 1)));
+		} catch (BadLocationException x) {
+			reuseLimit= offset;
+		}
+
+		TokenCache tokens= new TokenCache();
+		int lastStart= offset;
+		int length= 0;
+		boolean firstToken= true;
+		TextAttribute lastAttribute= getTokenTextAttribute(Token.UNDEFINED);
+
+		fScanner.setRange(fDocument, offset, region.getLength());
+		int position= offset;
+		int index= -1;
+		boolean scannerBehind= false;
+
+		while (true) {
+			IToken token;
+			int tokenOffset;
+			int tokenLength;
+			int validUntil;
+
+			if (position < reuseLimit) {
+				if (index != -1 && index + 1 < fTokenCache.size() && fTokenCache.getOffset(index + 1) == position)
+					++index;
+				else
+					index= fTokenCache.indexOf(position);
+			} else
+				index= -1;
+
+			if (index != -1 && fTokenCache.getValidUntil(index) >= end && position + fTokenCache.getLength(index) <= reuseLimit) {
+				token= fTokenCache.getToken(index);
+				tokenOffset= position;
+				tokenLength= fTokenCache.getLength(index);
+				validUntil= fTokenCache.getValidUntil(index);
+				scannerBehind= true;
+			} else {
+				index= -1;
+				if (scannerBehind) {
+					fScanner.setRange(fDocument, position, end - position);
+					scannerBehind= false;
+				}
+				token= fScanner.nextToken();
+				if (token.isEOF())
+					break;
+				tokenOffset= fScanner.getTokenOffset();
+				tokenLength= fScanner.getTokenLength();
+				validUntil= end;
+			}
+
+			if (tokenLength > 0)
+				tokens.add(tokenOffset, tokenLength, validUntil, token);
+			position= tokenOffset + tokenLength;
+
+			TextAttribute attribute= getTokenTextAttribute(token);
+			if (lastAttribute != null && lastAttribute.equals(attribute)) {
+				length += tokenLength;
+				firstToken= false;
+			} else {
+				if (!firstToken)
+					addRange(presentation, lastStart, length, lastAttribute);
+				firstToken= false;
+				lastAttribute= attribute;
+				lastStart= tokenOffset;
+				length= tokenLength;
+			}
+		}
+
+		addRange(presentation, lastStart, length, lastAttribute);
+
+		// the last token may have been cut by the end of the range
+		if (tokens.size() > 0)
+			tokens.removeLast();
+		fTokenCache.replace(offset, end, tokens);
+	}
+
 	/**
 	 * Returns a text attribute encoded in the given token. If the token's
 	 * data is not <code>null</code> and a text attribute it is assumed that
@@ -0,0 +1,245 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jface.text.rules;
+
+import java.util.Arrays;
+
+import org.eclipse.jface.text.BadLocationException;
+import org.eclipse.jface.text.DocumentEvent;
+import org.eclipse.jface.text.IDocument;
+
+
+/**
+ * The tokens computed by previous scanner passes over a document, ordered by
+ * offset. The cache is kept up to date with document changes: tokens touching
+ * a change or following it on the same line are dropped, the others are
+ * shifted.
+ * <p>
+ * Each token remembers up to which offset it is valid: the end of the range
+ * the scanner had when computing the token, or the offset of a later change
+ * behind the token, whichever is smaller. A stateless scanner started at the
+ * token's offset produces the same token again as long as the range to scan
+ * does not extend beyond this offset.
+ * </p>
+ *
+ * @since 3.25
+ */
+final class TokenCache {
+
+	/** The token offsets. */
+	private int[] fOffsets= new int[64];
+	/** The token lengths. */
+	private int[] fLengths= new int[64];
+	/** The offsets up to which the tokens are valid. */
+	private int[] fValidUntil= new int[64];
+	/** The tokens. */
+	private IToken[] fTokens= new IToken[64];
+	/** The number of tokens. */
+	private int fSize;
+
+	/**
+	 * Removes all tokens.
+	 */
+	void clear() {
+		Arrays.fill(fTokens, 0, fSize, null);
+		fSize= 0;
+	}
+
+	/**
+	 * Returns the number of cached tokens.
+	 *
+	 * @return the number of tokens
+	 */
+	int size() {
+		return fSize;
+	}
+
+	int getOffset(int index) {
+		return fOffsets[index];
+	}
+
+	int getLength(int index) {
+		return fLengths[index];
+	}
+
+	int getValidUntil(int index) {
+		return fValidUntil[index];
+	}
+
+	IToken getToken(int index) {
+		return fTokens[index];
+	}
+
+	/**
+	 * Adds a token behind the last token.
+	 *
+	 * @param offset the token offset
+	 * @param length the token length
+	 * @param validUntil the offset up to which the token is valid
+	 * @param token the token
+	 */
+	void add(int offset, int length, int validUntil, IToken token) {
+		ensureCapacity(fSize + 1);
+		fOffsets[fSize]= offset;
+		fLengths[fSize]= length;
+		fValidUntil[fSize]= validUntil;
+		fTokens[fSize]= token;
+		fSize++;
+	}
+
+	/**
+	 * Removes the last token.
+	 */
+	void removeLast() {
+		fTokens[--fSize]= null;
+	}
+
+	/**
+	 * Returns the index of the token starting at the given offset.
+	 *
+	 * @param offset the offset
+	 * @return the index of the token or <code>-1</code> if there is none
+	 */
+	int indexOf(int offset) {
+		int index= Arrays.binarySearch(fOffsets, 0, fSize, offset);
+		return index >= 0 ? index : -1;
+	}
+
+	/**
+	 * Returns the index of the first token ending after the given offset.
+	 *
+	 * @param offset the offset
+	 * @return the index of the first token ending after the offset
+	 */
+	private int firstEndingAfter(int offset) {
+		int i= -1, j= fSize;
+		while (j - i > 1) {
+			int k= (i + j) >> 1;
+			if (fOffsets[k] + fLengths[k] > offset)
+				j= k;
+			else
+				i= k;
+		}
+		return j;
+	}
+
+	/**
+	 * Returns the index of the first token starting at or after the given offset.
+	 *
+	 * @param offset the offset
+	 * @return the index of the first token starting at or after the offset
+	 */
+	private int firstStartingAt(int offset) {
+		int i= -1, j= fSize;
+		while (j - i > 1) {
+			int k= (i + j) >> 1;
+			if (fOffsets[k] >= offset)
+				j= k;
+			else
+				i= k;
+		}
+		return j;
+	}
+
+	/**
+	 * Replaces the tokens overlapping the given range with the given tokens.
+	 *
+	 * @param offset the offset of the range
+	 * @param end the end offset of the range
+	 * @param tokens the tokens inside the range, ordered by offset
+	 */
+	void replace(int offset, int end, TokenCache tokens) {
+		int first= firstEndingAfter(offset);
+		int last= Math.max(first, firstStartingAt(end));
+		int newSize= fSize - (last - first) + tokens.fSize;
+		ensureCapacity(newSize);
+
+		int tail= fSize - last;
+		int to= first + tokens.fSize;
+		System.arraycopy(fOffsets, last, fOffsets, to, tail);
+		System.arraycopy(fLengths, last, fLengths, to, tail);
+		System.arraycopy(fValidUntil, last, fValidUntil, to, tail);
+		System.arraycopy(fTokens, last, fTokens, to, tail);
+
+		System.arraycopy(tokens.fOffsets, 0, fOffsets, first, tokens.fSize);
+		System.arraycopy(tokens.fLengths, 0, fLengths, first, tokens.fSize);
+		System.arraycopy(tokens.fValidUntil, 0, fValidUntil, first, tokens.fSize);
+		System.arraycopy(tokens.fTokens, 0, fTokens, first, tokens.fSize);
+
+		if (newSize < fSize)
+			Arrays.fill(fTokens, newSize, fSize, null);
+		fSize= newSize;
+	}
+
+	/**
+	 * Adapts the cached tokens to the document change described by the given
+	 * event. Must be called before the document is changed.
+	 *
+	 * @param event the event describing the pending document change
+	 */
+	void documentAboutToBeChanged(DocumentEvent event) {
+		if (fSize == 0)
+			return;
+
+		IDocument document= event.getDocument();
+		int offset= event.getOffset();
+		int end= offset + event.getLength();
+		int delta= (event.getText() == null ? 0 : event.getText().length()) - event.getLength();
+
+		// the columns of the tokens following the change on the same line change
+		int invalidEnd;
+		try {
+			int line= document.getLineOfOffset(end);
+			invalidEnd= line + 1 < document.getNumberOfLines() ? document.getLineOffset(line + 1) : document.getLength() + 1;
+		} catch (BadLocationException x) {
+			clear();
+			return;
+		}
+
+		// scanners may look ahead, so tokens ending at the change are dropped as well
+		int first= firstEndingAfter(offset - 1);
+		int last= Math.max(first, firstStartingAt(invalidEnd));
+
+		for (int i= 0; i < first; i++) {
+			if (fValidUntil[i] > offset)
+				fValidUntil[i]= offset;
+		}
+
+		int tail= fSize - last;
+		System.arraycopy(fOffsets, last, fOffsets, first, tail);
+		System.arraycopy(fLengths, last, fLengths, first, tail);
+		System.arraycopy(fValidUntil, last, fValidUntil, first, tail);
+		System.arraycopy(fTokens, last, fTokens, first, tail);
+		int newSize= first + tail;
+		Arrays.fill(fTokens, newSize, fSize, null);
+		fSize= newSize;
+
+		if (delta != 0) {
+			for (int i= first; i < fSize; i++) {
+				fOffsets[i]+= delta;
+				fValidUntil[i]+= delta;
+			}
+		}
+	}
+
+	private void ensureCapacity(int capacity) {
+		if (capacity > fOffsets.length) {
+			int newCapacity= Math.max(capacity, fOffsets.length * 2);
+			fOffsets= Arrays.copyOf(fOffsets, newCapacity);
+			fLengths= Arrays.copyOf(fLengths, newCapacity);
+			fValidUntil= Arrays.copyOf(fValidUntil, newCapacity);
+			fTokens= Arrays.copyOf(fTokens, newCapacity);
+		}
+	}
+}
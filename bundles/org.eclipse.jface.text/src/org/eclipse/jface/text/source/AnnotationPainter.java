@@ -17,13 +17,13 @@ package org.eclipse.jface.text.source;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.Iterator;
 import java.util.LinkedList;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
-import java.util.Set;
 
 import org.eclipse.swt.SWT;
 import org.eclipse.swt.SWTException;
@@ -443,6 +443,12 @@ public class AnnotationPainter implements IPainter, PaintListener, IAnnotationMo
 	 * @since 3.3
 	 */
 	private ReusableRegion fReusableRegion= new ReusableRegion();
+	/**
+	 * The annotation model events that have been posted to the display thread but not yet
+	 * processed. Events arriving in short succession are processed in one update.
+	 * @since 3.25
+	 */
+	private final List<AnnotationModelEvent> fPendingEvents= new ArrayList<>();
 
 	/**
 	 * Creates a new annotation painter for the given source viewer and with the
@@ -529,6 +535,18 @@ public class AnnotationPainter implements IPainter, PaintListener, IAnnotationMo
 	 * @param event the annotation model event
 	 */
 	private void catchupWithModel(AnnotationModelEvent event) {
+		catchupWithEvents(Collections.singletonList(event));
+	}
+
+	/**
+	 * Updates the set of decorations based on the given annotation model events, which
+	 * are processed in the order given. A <code>null</code> event updates the decorations
+	 * based on the current state of the painter's annotation model.
+	 *
+	 * @param events the annotation model events
+	 * @since 3.25
+	 */
+	private void catchupWithEvents(List<AnnotationModelEvent> events) {
 
 		synchronized (fDecorationMapLock) {
 			if (fDecorationsMap == null)
@@ -568,65 +586,105 @@ public class AnnotationPainter implements IPainter, PaintListener, IAnnotationMo
 
 		boolean isWorldChange= false;
 
-		Iterator<Annotation> e;
-		if (event == null || event.isWorldChange()) {
-			isWorldChange= true;
+		// events before a world change do not matter
+		int first= events.size() - 1;
+		while (first > 0 && !isWorldChange(events.get(first)))
+			first--;
 
-			if (DEBUG && event == null)
-				System.out.println("AP: INTERNAL CHANGE"); //$NON-NLS-1$
+		for (AnnotationModelEvent event : events.subList(first, events.size())) {
 
-			Iterator<Entry<Annotation, Decoration>> iter= decorationsMap.entrySet().iterator();
-			while (iter.hasNext()) {
-				Entry<Annotation, Decoration> entry= iter.next();
-				Annotation annotation= entry.getKey();
-				Decoration decoration= entry.getValue();
-				drawDecoration(decoration, null, annotation, clippingRegion, document);
-			}
+			Iterator<Annotation> e;
+			if (isWorldChange(event)) {
+				isWorldChange= true;
 
-			decorationsMap.clear();
+				if (DEBUG && event == null)
+					System.out.println("AP: INTERNAL CHANGE"); //$NON-NLS-1$
 
-			highlightedDecorationsMap.clear();
+				Iterator<Entry<Annotation, Decoration>> iter= decorationsMap.entrySet().iterator();
+				while (iter.hasNext()) {
+					Entry<Annotation, Decoration> entry= iter.next();
+					Annotation annotation= entry.getKey();
+					Decoration decoration= entry.getValue();
+					drawDecoration(decoration, null, annotation, clippingRegion, document);
+				}
 
-			e= fModel.getAnnotationIterator();
+				decorationsMap.clear();
 
+				highlightedDecorationsMap.clear();
+
+				e= fModel.getAnnotationIterator();
 
-		} else {
 
-			// Remove annotations
-			Annotation[] removedAnnotations= event.getRemovedAnnotations();
-			for (Annotation annotation : removedAnnotations) {
-				Decoration decoration= highlightedDecorationsMap.remove(annotation);
-				if (decoration != null) {
-					Position position= decoration.fPosition;
-					if (position != null) {
-						highlightAnnotationRangeStart= Math.min(highlightAnnotationRangeStart, position.offset);
-						highlightAnnotationRangeEnd= Math.max(highlightAnnotationRangeEnd, position.offset + position.length);
+			} else {
+
+				// Remove annotations
+				Annotation[] removedAnnotations= event.getRemovedAnnotations();
+				for (Annotation annotation : removedAnnotations) {
+					Decoration decoration= highlightedDecorationsMap.remove(annotation);
+					if (decoration != null) {
+						Position position= decoration.fPosition;
+						if (position != null) {
+							highlightAnnotationRangeStart= Math.min(highlightAnnotationRangeStart, position.offset);
+							highlightAnnotationRangeEnd= Math.max(highlightAnnotationRangeEnd, position.offset + position.length);
+						}
 					}
-				}
-				decoration= decorationsMap.remove(annotation);
-				if (decoration != null) {
-					drawDecoration(decoration, null, annotation, clippingRegion, document);
-					Position position= decoration.fPosition;
-					if (position != null) {
-						drawRangeStart= Math.min(drawRangeStart, position.offset);
-						drawRangeEnd= Math.max(drawRangeEnd, position.offset + position.length);
+					decoration= decorationsMap.remove(annotation);
+					if (decoration != null) {
+						drawDecoration(decoration, null, annotation, clippingRegion, document);
+						Position position= decoration.fPosition;
+						if (position != null) {
+							drawRangeStart= Math.min(drawRangeStart, position.offset);
+							drawRangeEnd= Math.max(drawRangeEnd, position.offset + position.length);
+						}
 					}
+
 				}
 
-			}
+				// Update existing annotations
+				Annotation[] changedAnnotations= event.getChangedAnnotations();
+				for (Annotation annotation : changedAnnotations) {
+					boolean isHighlighting= false;
+
+					Decoration decoration= highlightedDecorationsMap.get(annotation);
+
+					if (decoration != null) {
+						isHighlighting= true;
+						// The call below updates the decoration - no need to create new decoration
+						decoration= getDecoration(annotation, decoration);
+						if (decoration == null) {
+							Decoration removedDecoration= highlightedDecorationsMap.remove(annotation);
+							if (removedDecoration != null) {
+								highlightAnnotationRangeStart= Math.min(highlightAnnotationRangeStart, removedDecoration.fPosition.offset);
+								highlightAnnotationRangeEnd= Math.max(highlightAnnotationRangeEnd, removedDecoration.fPosition.offset + removedDecoration.fPosition.length);
+							}
+						}
 
-			// Update existing annotations
-			Annotation[] changedAnnotations= event.getChangedAnnotations();
-			for (Annotation annotation : changedAnnotations) {
-				boolean isHighlighting= false;
+					} else {
+						decoration= getDecoration(annotation, decoration);
+						if (decoration != null && decoration.fPaintingStrategy instanceof ITextStyleStrategy) {
+							highlightedDecorationsMap.put(annotation, decoration);
+							isHighlighting= true;
+						}
+					}
+
+					boolean usesDrawingStrategy= !isHighlighting && decoration != null;
 
-				Decoration decoration= highlightedDecorationsMap.get(annotation);
+					Position position= null;
+					if (decoration == null)
+						position= fModel.getPosition(annotation);
+					else
+						position= decoration.fPosition;
 
-				if (decoration != null) {
-					isHighlighting= true;
-					// The call below updates the decoration - no need to create new decoration
-					decoration= getDecoration(annotation, decoration);
-					if (decoration == null) {
+					if (position != null && !position.isDeleted()) {
+						if (isHighlighting) {
+							highlightAnnotationRangeStart= Math.min(highlightAnnotationRangeStart, position.offset);
+							highlightAnnotationRangeEnd= Math.max(highlightAnnotationRangeEnd, position.offset + position.length);
+						}
+						if (usesDrawingStrategy) {
+							drawRangeStart= Math.min(drawRangeStart, position.offset);
+							drawRangeEnd= Math.max(drawRangeEnd, position.offset + position.length);
+						}
+					} else {
 						Decoration removedDecoration= highlightedDecorationsMap.remove(annotation);
 						if (removedDecoration != null) {
 							highlightAnnotationRangeStart= Math.min(highlightAnnotationRangeStart, removedDecoration.fPosition.offset);
@@ -634,69 +692,37 @@ public class AnnotationPainter implements IPainter, PaintListener, IAnnotationMo
 						}
 					}
 
-				} else {
-					decoration= getDecoration(annotation, decoration);
-					if (decoration != null && decoration.fPaintingStrategy instanceof ITextStyleStrategy) {
-						highlightedDecorationsMap.put(annotation, decoration);
-						isHighlighting= true;
-					}
-				}
-
-				boolean usesDrawingStrategy= !isHighlighting && decoration != null;
-
-				Position position= null;
-				if (decoration == null)
-					position= fModel.getPosition(annotation);
-				else
-					position= decoration.fPosition;
-
-				if (position != null && !position.isDeleted()) {
-					if (isHighlighting) {
-						highlightAnnotationRangeStart= Math.min(highlightAnnotationRangeStart, position.offset);
-						highlightAnnotationRangeEnd= Math.max(highlightAnnotationRangeEnd, position.offset + position.length);
-					}
 					if (usesDrawingStrategy) {
-						drawRangeStart= Math.min(drawRangeStart, position.offset);
-						drawRangeEnd= Math.max(drawRangeEnd, position.offset + position.length);
-					}
-				} else {
-					Decoration removedDecoration= highlightedDecorationsMap.remove(annotation);
-					if (removedDecoration != null) {
-						highlightAnnotationRangeStart= Math.min(highlightAnnotationRangeStart, removedDecoration.fPosition.offset);
-						highlightAnnotationRangeEnd= Math.max(highlightAnnotationRangeEnd, removedDecoration.fPosition.offset + removedDecoration.fPosition.length);
+						Decoration oldDecoration= decorationsMap.get(annotation);
+						if (oldDecoration != null) {
+							drawDecoration(oldDecoration, null, annotation, clippingRegion, document);
+							if (decoration != null)
+								decorationsMap.put(annotation, decoration);
+							else
+								decorationsMap.remove(annotation);
+						}
 					}
 				}
 
-				if (usesDrawingStrategy) {
-					Decoration oldDecoration= decorationsMap.get(annotation);
-					if (oldDecoration != null) {
-						drawDecoration(oldDecoration, null, annotation, clippingRegion, document);
-						if (decoration != null)
-							decorationsMap.put(annotation, decoration);
-						else
-							decorationsMap.remove(annotation);
-					}
-				}
+				e= Arrays.asList(event.getAddedAnnotations()).iterator();
 			}
 
-			e= Arrays.asList(event.getAddedAnnotations()).iterator();
-		}
+			// Add new annotations
+			while (e.hasNext()) {
+				Annotation annotation= e.next();
+				Decoration pp= getDecoration(annotation, null);
+				if (pp != null) {
+					if (pp.fPaintingStrategy instanceof IDrawingStrategy) {
+						decorationsMap.put(annotation, pp);
+						drawRangeStart= Math.min(drawRangeStart, pp.fPosition.offset);
+						drawRangeEnd= Math.max(drawRangeEnd, pp.fPosition.offset + pp.fPosition.length);
+					} else if (pp.fPaintingStrategy instanceof ITextStyleStrategy) {
+						highlightedDecorationsMap.put(annotation, pp);
+						highlightAnnotationRangeStart= Math.min(highlightAnnotationRangeStart, pp.fPosition.offset);
+						highlightAnnotationRangeEnd= Math.max(highlightAnnotationRangeEnd, pp.fPosition.offset + pp.fPosition.length);
+					}
 
-		// Add new annotations
-		while (e.hasNext()) {
-			Annotation annotation= e.next();
-			Decoration pp= getDecoration(annotation, null);
-			if (pp != null) {
-				if (pp.fPaintingStrategy instanceof IDrawingStrategy) {
-					decorationsMap.put(annotation, pp);
-					drawRangeStart= Math.min(drawRangeStart, pp.fPosition.offset);
-					drawRangeEnd= Math.max(drawRangeEnd, pp.fPosition.offset + pp.fPosition.length);
-				} else if (pp.fPaintingStrategy instanceof ITextStyleStrategy) {
-					highlightedDecorationsMap.put(annotation, pp);
-					highlightAnnotationRangeStart= Math.min(highlightAnnotationRangeStart, pp.fPosition.offset);
-					highlightAnnotationRangeEnd= Math.max(highlightAnnotationRangeEnd, pp.fPosition.offset + pp.fPosition.length);
 				}
-
 			}
 		}
 
@@ -711,6 +737,17 @@ public class AnnotationPainter implements IPainter, PaintListener, IAnnotationMo
 		}
 	}
 
+	/**
+	 * Tells whether the given annotation model event requires to update all decorations.
+	 *
+	 * @param event the annotation model event or <code>null</code>
+	 * @return <code>true</code> if the event is <code>null</code> or reports a world change
+	 * @since 3.25
+	 */
+	private static boolean isWorldChange(AnnotationModelEvent event) {
+		return event == null || event.isWorldChange();
+	}
+
 	/**
 	 * Updates the remembered highlight ranges.
 	 *
@@ -944,9 +981,20 @@ public class AnnotationPainter implements IPainter, PaintListener, IAnnotationMo
 	 * @since 3.0
 	 */
 	private void updatePainting(AnnotationModelEvent event) {
-		disablePainting(event == null);
+		updatePaintingForEvents(Collections.singletonList(event));
+	}
 
-		catchupWithModel(event);
+	/**
+	 * Recomputes the squiggles to be drawn for the given annotation model events
+	 * and redraws them, the text widget is redrawn once for all events.
+	 *
+	 * @param events the annotation model events
+	 * @since 3.25
+	 */
+	private void updatePaintingForEvents(List<AnnotationModelEvent> events) {
+		disablePainting(events.contains(null));
+
+		catchupWithEvents(events);
 
 		if (!fInputDocumentAboutToBeChanged)
 			invalidateTextPresentation();
@@ -976,17 +1024,16 @@ public class AnnotationPainter implements IPainter, PaintListener, IAnnotationMo
 
 	@Override
 	public void applyTextPresentation(TextPresentation tp) {
-		Set<Entry<Annotation, Decoration>> decorations;
+		IRegion region= tp.getExtent();
+		Collection<Entry<Annotation, Decoration>> decorations;
 
 		synchronized (fHighlightedDecorationsMapLock) {
 			if (fHighlightedDecorationsMap == null || fHighlightedDecorationsMap.isEmpty())
 				return;
 
-			decorations= new HashSet<>(fHighlightedDecorationsMap.entrySet());
+			decorations= getDecorations(fHighlightedDecorationsMap, region.getOffset(), region.getLength());
 		}
 
-		IRegion region= tp.getExtent();
-
 		if (DEBUG)
 			System.out.println("AP: applying text presentation offset: " + region.getOffset() + ", length= " + region.getLength()); //$NON-NLS-1$ //$NON-NLS-2$
 
@@ -1004,6 +1051,11 @@ public class AnnotationPainter implements IPainter, PaintListener, IAnnotationMo
 					continue;
 
 				Position p= pp.fPosition;
+				int regionEnd= region.getOffset() + region.getLength();
+				int pEnd= p.getOffset() + p.getLength();
+				if (pEnd < region.getOffset() || regionEnd <= p.getOffset())
+					continue;
+
 				if (fSourceViewer instanceof ITextViewerExtension5) {
 					ITextViewerExtension5 extension3= (ITextViewerExtension5) fSourceViewer;
 					if (null == extension3.modelRange2WidgetRange(new Region(p.getOffset(), p.getLength())))
@@ -1012,16 +1064,12 @@ public class AnnotationPainter implements IPainter, PaintListener, IAnnotationMo
 					continue;
 				}
 
-				int regionEnd= region.getOffset() + region.getLength();
-				int pEnd= p.getOffset() + p.getLength();
-				if (pEnd >= region.getOffset() && regionEnd > p.getOffset()) {
-					int start= Math.max(p.getOffset(), region.getOffset());
-					int end= Math.min(regionEnd, pEnd);
-					int length= Math.max(end - start, 0);
-					StyleRange styleRange= new StyleRange(start, length, null, null);
-					((ITextStyleStrategy)pp.fPaintingStrategy).applyTextStyle(styleRange, pp.fColor);
-					tp.mergeStyleRange(styleRange);
-				}
+				int start= Math.max(p.getOffset(), region.getOffset());
+				int end= Math.min(regionEnd, pEnd);
+				int length= Math.max(end - start, 0);
+				StyleRange styleRange= new StyleRange(start, length, null, null);
+				((ITextStyleStrategy)pp.fPaintingStrategy).applyTextStyle(styleRange, pp.fColor);
+				tp.mergeStyleRange(styleRange);
 			}
 		}
 	}
@@ -1070,10 +1118,23 @@ public class AnnotationPainter implements IPainter, PaintListener, IAnnotationMo
 			// changes any more. If the document gets modified between
 			// now and running the posted runnable, the position information
 			// is not accurate any longer.
-			textWidgetDisplay.asyncExec(() -> {
-				if (fTextWidget != null && !fTextWidget.isDisposed())
-					updatePainting(event);
-			});
+			boolean post;
+			synchronized (fPendingEvents) {
+				post= fPendingEvents.isEmpty();
+				fPendingEvents.add(event);
+			}
+			// events posted before the runnable is run are handled by the same update
+			if (post) {
+				textWidgetDisplay.asyncExec(() -> {
+					List<AnnotationModelEvent> events;
+					synchronized (fPendingEvents) {
+						events= new ArrayList<>(fPendingEvents);
+						fPendingEvents.clear();
+					}
+					if (fTextWidget != null && !fTextWidget.isDisposed())
+						updatePaintingForEvents(events);
+				});
+			}
 		}
 	}
 
@@ -1359,8 +1420,7 @@ public class AnnotationPainter implements IPainter, PaintListener, IAnnotationMo
 		// Clone decorations
 		Collection<Entry<Annotation, Decoration>> decorations;
 		synchronized (fDecorationMapLock) {
-			decorations= new ArrayList<>(fDecorationsMap.size());
-			decorations.addAll(fDecorationsMap.entrySet());
+			decorations= getDecorations(fDecorationsMap, vOffset, vLength);
 		}
 
 		/*
@@ -1402,6 +1462,9 @@ public class AnnotationPainter implements IPainter, PaintListener, IAnnotationMo
 		int clippingLength= clippingRegion.getLength();
 
 		Position p= pp.fPosition;
+		if (!regionsTouchOrOverlap(p.getOffset(), p.getLength(), clippingOffset, clippingLength))
+			return;
+
 		try {
 
 			int startLine= document.getLineOfOffset(p.getOffset());
@@ -1504,6 +1567,36 @@ public class AnnotationPainter implements IPainter, PaintListener, IAnnotationMo
 		return clippingRegion;
 	}
 
+	/**
+	 * Returns the decorations of the given map that may touch or overlap the given region of
+	 * the document. If the annotation model can report the annotations of a region, only the
+	 * decorations of these annotations are returned, otherwise all decorations. The caller
+	 * must hold the lock of the map.
+	 *
+	 * @param decorations the decorations
+	 * @param offset the offset of the region
+	 * @param length the length of the region
+	 * @return a copy of the decorations that may touch or overlap the region
+	 * @since 3.25
+	 */
+	private Collection<Entry<Annotation, Decoration>> getDecorations(Map<Annotation, Decoration> decorations, int offset, int length) {
+		IAnnotationModel model= fModel;
+		if (!(model instanceof IAnnotationModelExtension2))
+			return new ArrayList<>(decorations.entrySet());
+
+		// include the decorations touching the region
+		int start= Math.max(0, offset - 1);
+		Iterator<Annotation> iter= ((IAnnotationModelExtension2) model).getAnnotationIterator(start, offset + length + 1 - start, true, true);
+		List<Entry<Annotation, Decoration>> result= new ArrayList<>();
+		while (iter.hasNext()) {
+			Annotation annotation= iter.next();
+			Decoration decoration= decorations.get(annotation);
+			if (decoration != null)
+				result.add(Map.entry(annotation, decoration));
+		}
+		return result;
+	}
+
 	/**
 	 * Should the given annotation be skipped when handling draw requests?
 	 *
@@ -14,6 +14,7 @@
 package org.eclipse.jface.text.source;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
@@ -81,6 +82,7 @@ public class OverviewRuler implements IOverviewRulerExtension, IOverviewRuler {
 		 */
 		@Override
 		public void textChanged(TextEvent e) {
+			invalidateAnnotationLines();
 			if (fTextViewer != null && e.getDocumentEvent() == null && e.getViewerRedrawState()) {
 				// handle only changes of visible document
 				redraw();
@@ -384,6 +386,45 @@ public class OverviewRuler implements IOverviewRulerExtension, IOverviewRuler {
 			visibleLines= bottomIndex - topIndex;
 			invisibleLines= maxLines - visibleLines;
 		}
+
+		/**
+		 * Tells whether the given widget infos map the lines of the text widget to the
+		 * same vertical positions in the overview ruler.
+		 *
+		 * @param other the other widget infos
+		 * @return <code>true</code> if lines are mapped the same way
+		 * @since 3.25
+		 */
+		boolean hasSameScale(WidgetInfos other) {
+			return maxLines == other.maxLines && thumbHeight == other.thumbHeight && visibleLines == other.visibleLines
+					&& invisibleLines == other.invisibleLines && writable == other.writable && bounds.equals(other.bounds);
+		}
+	}
+
+	/**
+	 * The text widget lines of the annotations of one annotation type and style. The
+	 * rectangles painted for them are bucketed by their vertical position and height,
+	 * such that painting does not depend on the number of annotations.
+	 *
+	 * @since 3.25
+	 */
+	private static final class AnnotationLines {
+		/** The annotation type */
+		final Object fType;
+		/** Tells whether the annotations are temporary */
+		final boolean fTemporary;
+		/** The distinct start lines and numbers of lines, encoded as <code>startLine &lt;&lt; 32 | numberOfLines</code> */
+		final long[] fLines;
+		/** The widget infos the rectangles have been computed for */
+		WidgetInfos fInfos;
+		/** The distinct rectangles, encoded as <code>y &lt;&lt; 32 | height</code> */
+		long[] fRectangles;
+
+		AnnotationLines(Object type, boolean temporary, long[] lines) {
+			fType= type;
+			fTemporary= temporary;
+			fLines= lines;
+		}
 	}
 
 	private static final boolean DEBUG_DRAW= false;
@@ -466,6 +507,21 @@ public class OverviewRuler implements IOverviewRulerExtension, IOverviewRuler {
 	 * @since 3.0
 	 */
 	private List<Annotation> fCachedAnnotations= new ArrayList<>();
+	/**
+	 * The lines of the cached annotations in the order they are painted.
+	 * @since 3.25
+	 */
+	private List<AnnotationLines> fAnnotationLines;
+	/**
+	 * Changed whenever the annotations to be painted or their lines may have changed.
+	 * @since 3.25
+	 */
+	private volatile int fAnnotationsStamp;
+	/**
+	 * The value of {@link #fAnnotationsStamp} when the annotations have been cached.
+	 * @since 3.25
+	 */
+	private int fCachedAnnotationsStamp;
 
 	/**
 	 * Redraw runnable lock
@@ -655,6 +711,8 @@ public class OverviewRuler implements IOverviewRulerExtension, IOverviewRuler {
 		fAnnotationTypes2Colors.clear();
 		fAnnotationsSortedByLayer.clear();
 		fLayersSortedByLayer.clear();
+		fCachedAnnotations.clear();
+		fAnnotationLines= null;
 	}
 
 	/**
@@ -684,7 +742,12 @@ public class OverviewRuler implements IOverviewRulerExtension, IOverviewRuler {
 			gc.setBackground(fCanvas.getBackground());
 			gc.fillRectangle(0, 0, size.x, size.y);
 
-			cacheAnnotations();
+			int stamp= fAnnotationsStamp;
+			if (fAnnotationLines == null || fCachedAnnotationsStamp != stamp) {
+				cacheAnnotations();
+				fAnnotationLines= computeAnnotationLines();
+				fCachedAnnotationsStamp= stamp;
+			}
 
 			doPaint(gc);
 
@@ -714,14 +777,25 @@ public class OverviewRuler implements IOverviewRulerExtension, IOverviewRuler {
 	}
 
 	/**
-	 * Draws this overview ruler.
+	 * Invalidates the cached annotations and their lines.
 	 *
-	 * @param gc the GC to draw into
+	 * @since 3.25
 	 */
-	private void doPaint(GC gc) {
+	private void invalidateAnnotationLines() {
+		fAnnotationsStamp++;
+	}
 
-		Rectangle r= new Rectangle(0, 0, 0, 0);
-		int yy, hh= ANNOTATION_HEIGHT;
+	/**
+	 * Computes the text widget lines of the cached annotations for each annotation type
+	 * and style in the order they are painted.
+	 *
+	 * @return the annotation lines
+	 * @since 3.25
+	 */
+	private List<AnnotationLines> computeAnnotationLines() {
+		List<AnnotationLines> result= new ArrayList<>();
+		if (fModel == null)
+			return result;
 
 		IDocument document= fTextViewer.getDocument();
 		StyledText textWidget= fTextViewer.getTextWidget();
@@ -732,17 +806,14 @@ public class OverviewRuler implements IOverviewRulerExtension, IOverviewRuler {
 		else
 			visible= fTextViewer.getVisibleRegion(); // legacy support
 
-		WidgetInfos infos= null;
-
 		for (Object annotationType : fAnnotationsSortedByLayer) {
 			if (skip(annotationType))
 				continue;
 
 			int[] style= new int[] { FilterIterator.PERSISTENT, FilterIterator.TEMPORARY };
 			for (int element : style) {
-				boolean areColorsComputed= false;
-				Color fill= null;
-				Color stroke= null;
+				long[] lines= new long[16];
+				int count= 0;
 
 				Iterator<Annotation> e= new FilterIterator(annotationType, element, fCachedAnnotations.iterator());
 				while (e.hasNext()) {
@@ -767,59 +838,125 @@ public class OverviewRuler implements IOverviewRulerExtension, IOverviewRuler {
 							continue;
 					}
 
-					if (infos == null) {
-						infos= new WidgetInfos(textWidget, fCanvas);
-						r.x= INSET;
-						r.width= infos.bounds.width - (2 * INSET);
-					}
-
 					try {
 						int startOffset= visible != null ? annotationOffset - visible.getOffset() : widgetRegion.getOffset();
 						int startLine= textWidget.getLineAtOffset(startOffset);
 
-						yy= computeY(startLine, infos);
-
-						if (ANNOTATION_HEIGHT_SCALABLE) {
-							int numberOfLines= document.getNumberOfLines(annotationOffset, annotationLength);
-							// don't count empty trailing line
-							IRegion lastLine= document.getLineInformationOfOffset(annotationOffset + annotationLength);
-							if (lastLine.getOffset() == annotationOffset + annotationLength) {
-								numberOfLines--;
-							}
-							if (numberOfLines > 1) {
-								int yy2= computeY(startLine + numberOfLines - 1, infos);
-								hh= Math.max(yy2 - yy, ANNOTATION_HEIGHT);
-							} else {
-								hh= ANNOTATION_HEIGHT;
-							}
+						int numberOfLines= document.getNumberOfLines(annotationOffset, annotationLength);
+						// don't count empty trailing line
+						IRegion lastLine= document.getLineInformationOfOffset(annotationOffset + annotationLength);
+						if (lastLine.getOffset() == annotationOffset + annotationLength) {
+							numberOfLines--;
 						}
-						fAnnotationHeight= hh;
 
-						if (!areColorsComputed) {
-							stroke= getStrokeColor(annotationType, element == FilterIterator.TEMPORARY);
-							fill= fUseSaturatedColors ? stroke : getFillColor(annotationType, element == FilterIterator.TEMPORARY);
-							areColorsComputed= true;
-						}
-
-						if (fill != null) {
-							gc.setBackground(fill);
-							gc.fillRectangle(INSET, yy, infos.bounds.width-(2*INSET), hh);
-						}
-
-						if (stroke != null) {
-							gc.setForeground(stroke);
-							r.y= yy;
-							if (yy + hh == infos.bounds.height)
-								r.y--;
-							r.height= hh;
-							gc.setLineWidth(0); // NOTE: 0 means width is 1 but with optimized performance
-							gc.drawRectangle(r);
-						}
+						if (count == lines.length)
+							lines= Arrays.copyOf(lines, 2 * count);
+						lines[count++]= (long) startLine << 32 | Math.max(numberOfLines, 0);
 					} catch (BadLocationException | IllegalArgumentException x) {
 						// We don't care if the widget's content is changed since the annotation was created
 						// and do not match the annotation line/offset etc
 					}
 				}
+
+				if (count > 0)
+					result.add(new AnnotationLines(annotationType, element == FilterIterator.TEMPORARY, distinct(lines, count)));
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Returns the sorted distinct values of the first <code>count</code> values of the given array.
+	 *
+	 * @param values the values, sorted by this method
+	 * @param count the number of values to consider
+	 * @return the distinct values
+	 * @since 3.25
+	 */
+	private static long[] distinct(long[] values, int count) {
+		Arrays.sort(values, 0, count);
+		int distinct= 0;
+		for (int i= 0; i < count; i++) {
+			if (distinct == 0 || values[distinct - 1] != values[i])
+				values[distinct++]= values[i];
+		}
+		return Arrays.copyOf(values, distinct);
+	}
+
+	/**
+	 * Returns the rectangles to be painted for the given annotation lines, computing them
+	 * if the lines are mapped differently since they have been computed last.
+	 *
+	 * @param lines the annotation lines
+	 * @param infos the cached widget infos
+	 * @return the distinct rectangles, encoded as <code>y &lt;&lt; 32 | height</code>
+	 * @since 3.25
+	 */
+	private long[] getRectangles(AnnotationLines lines, WidgetInfos infos) {
+		if (lines.fInfos != null && lines.fInfos.hasSameScale(infos))
+			return lines.fRectangles;
+
+		long[] rectangles= new long[lines.fLines.length];
+		for (int i= 0; i < rectangles.length; i++) {
+			int startLine= (int) (lines.fLines[i] >>> 32);
+			int numberOfLines= (int) lines.fLines[i];
+
+			int yy= computeY(startLine, infos);
+			int hh= ANNOTATION_HEIGHT;
+			if (ANNOTATION_HEIGHT_SCALABLE && numberOfLines > 1) {
+				int yy2= computeY(startLine + numberOfLines - 1, infos);
+				hh= Math.max(yy2 - yy, ANNOTATION_HEIGHT);
+			}
+			rectangles[i]= (long) yy << 32 | hh;
+		}
+		lines.fRectangles= distinct(rectangles, rectangles.length);
+		lines.fInfos= infos;
+		return lines.fRectangles;
+	}
+
+	/**
+	 * Draws this overview ruler.
+	 *
+	 * @param gc the GC to draw into
+	 */
+	private void doPaint(GC gc) {
+
+		Rectangle r= new Rectangle(0, 0, 0, 0);
+		int yy, hh;
+
+		StyledText textWidget= fTextViewer.getTextWidget();
+
+		WidgetInfos infos= null;
+
+		for (AnnotationLines lines : fAnnotationLines) {
+			if (infos == null) {
+				infos= new WidgetInfos(textWidget, fCanvas);
+				r.x= INSET;
+				r.width= infos.bounds.width - (2 * INSET);
+			}
+
+			Color stroke= getStrokeColor(lines.fType, lines.fTemporary);
+			Color fill= fUseSaturatedColors ? stroke : getFillColor(lines.fType, lines.fTemporary);
+
+			for (long rectangle : getRectangles(lines, infos)) {
+				yy= (int) (rectangle >>> 32);
+				hh= (int) rectangle;
+				fAnnotationHeight= hh;
+
+				if (fill != null) {
+					gc.setBackground(fill);
+					gc.fillRectangle(INSET, yy, infos.bounds.width-(2*INSET), hh);
+				}
+
+				if (stroke != null) {
+					gc.setForeground(stroke);
+					r.y= yy;
+					if (yy + hh == infos.bounds.height)
+						r.y--;
+					r.height= hh;
+					gc.setLineWidth(0); // NOTE: 0 means width is 1 but with optimized performance
+					gc.drawRectangle(r);
+				}
 			}
 		}
 
@@ -882,6 +1019,7 @@ public class OverviewRuler implements IOverviewRulerExtension, IOverviewRuler {
 
 	 @Override
 	public void update() {
+		invalidateAnnotationLines();
 		if (fCanvas != null && !fCanvas.isDisposed()) {
 			Display d= fCanvas.getDisplay();
 			if (d != null) {
@@ -1160,6 +1298,7 @@ public class OverviewRuler implements IOverviewRulerExtension, IOverviewRuler {
 			fConfiguredAnnotationTypes.add(annotationType);
 			fAllowedAnnotationTypes.clear();
 		}
+		invalidateAnnotationLines();
 	}
 
 	@Override
@@ -1168,6 +1307,7 @@ public class OverviewRuler implements IOverviewRulerExtension, IOverviewRuler {
 			fConfiguredAnnotationTypes.remove(annotationType);
 			fAllowedAnnotationTypes.clear();
 		}
+		invalidateAnnotationLines();
 	}
 
 	@Override
@@ -1187,6 +1327,7 @@ public class OverviewRuler implements IOverviewRulerExtension, IOverviewRuler {
 			fLayersSortedByLayer.add(i, layerObj);
 			fAnnotationsSortedByLayer.add(i, annotationType);
 		}
+		invalidateAnnotationLines();
 	}
 
 	@Override
@@ -136,6 +136,10 @@ public abstract class AbstractTableViewer extends ColumnViewer {
 			cachedElements = newCache;
 
 			doSetItemCount(requiredCount);
+			// the items from index on still show the elements that moved down
+			if (index < requiredCount - 1) {
+				doClear(index, requiredCount - 2);
+			}
 		}
 
 		/**
@@ -203,6 +207,14 @@ public abstract class AbstractTableViewer extends ColumnViewer {
 
 	private VirtualManager virtualManager;
 
+	/**
+	 * Whether a refresh of a virtual table updates only the items whose element
+	 * has changed.
+	 *
+	 * @see #setUseIncrementalRefresh(boolean)
+	 */
+	private boolean incrementalRefresh;
+
 	/**
 	 * Create the new viewer for table like widgets
 	 */
@@ -254,6 +266,11 @@ public abstract class AbstractTableViewer extends ColumnViewer {
 		Object[] filtered = filter(elements);
 
 		final int itemsLimit = getItemsLimit();
+		if (virtualManager != null && itemsLimit <= 0
+				&& virtualManager.cachedElements.length == doGetItemCount()) {
+			virtualAdd(filtered);
+			return;
+		}
 		for (Object element : filtered) {
 			int index = indexForElement(element);
 			// 1. Cost is negligible if you don't set limit.
@@ -272,6 +289,85 @@ public abstract class AbstractTableViewer extends ColumnViewer {
 		}
 	}
 
+	/**
+	 * Adds the given elements to the virtual table. The elements are merged
+	 * into the cached elements, so the position of each element is found by a
+	 * binary search in the cache, and the items that show another element
+	 * afterwards are cleared in one go.
+	 *
+	 * @param elements the filtered elements to add
+	 */
+	private void virtualAdd(Object[] elements) {
+		if (elements.length == 0) {
+			return;
+		}
+		ViewerComparator comparator = getComparator();
+		Object[] added = elements;
+		if (comparator != null) {
+			// be sure we're not modifying the original array
+			added = elements.clone();
+			comparator.sort(this, added);
+		}
+		Object[] cache = virtualManager.cachedElements;
+		int count = cache.length;
+		Object[] merged = new Object[count + added.length];
+		int firstIndex = -1;
+		int from = 0;
+		for (int i = 0; i < added.length; i++) {
+			int index = comparator == null ? count : indexForElement(cache, from, added[i], comparator);
+			System.arraycopy(cache, from, merged, from + i, index - from);
+			merged[index + i] = added[i];
+			if (firstIndex == -1) {
+				firstIndex = index;
+			}
+			from = index;
+		}
+		System.arraycopy(cache, from, merged, from + added.length, count - from);
+		virtualManager.cachedElements = merged;
+		doSetItemCount(merged.length);
+		if (firstIndex < count) {
+			clearVirtualItems(cache, firstIndex, count - 1);
+		}
+	}
+
+	/**
+	 * Returns the index after the last element of the given sorted elements,
+	 * starting at the given index, that is not greater than the given element.
+	 */
+	private int indexForElement(Object[] sortedElements, int from, Object element, ViewerComparator comparator) {
+		int min = from, max = sortedElements.length - 1;
+		while (min <= max) {
+			int mid = (min + max) >>> 1;
+			if (comparator.compare(this, sortedElements[mid], element) <= 0) {
+				min = mid + 1;
+			} else {
+				max = mid - 1;
+			}
+		}
+		return min;
+	}
+
+	/**
+	 * Clears the items of the virtual table from the start to the end index
+	 * (inclusive), which show the elements at the same indices of the given
+	 * array.
+	 */
+	private void clearVirtualItems(Object[] shownElements, int start, int end) {
+		if (usingElementMap()) {
+			// only materialized items are mapped, avoid creating the others
+			for (int i = start; i <= end; i++) {
+				disassociateVirtualItem(shownElements[i]);
+			}
+		}
+		doClear(start, end);
+	}
+
+	private void disassociateVirtualItem(Object element) {
+		if (element != null && findItem(element) instanceof Item item && item.getData() != null) {
+			disassociate(item);
+		}
+	}
+
 	/**
 	 * Create a new TableItem at index if required.
 	 *
@@ -615,7 +711,7 @@ public abstract class AbstractTableViewer extends ColumnViewer {
 			if (virtualManager == null) {
 				internalRefreshAll(updateLabels);
 			} else {
-				internalVirtualRefreshAll();
+				internalVirtualRefreshAll(updateLabels);
 			}
 		} else {
 			Widget w = findItem(element);
@@ -628,9 +724,14 @@ public abstract class AbstractTableViewer extends ColumnViewer {
 	/**
 	 * Refresh all with virtual elements.
 	 *
+	 * @param updateLabels
+	 *            <code>true</code> to update the labels of all items,
+	 *            <code>false</code> to update the items whose element has
+	 *            changed only if refreshing incrementally
+	 *
 	 * @since 3.1
 	 */
-	private void internalVirtualRefreshAll() {
+	private void internalVirtualRefreshAll(boolean updateLabels) {
 
 		Object root = getRoot();
 		IContentProvider contentProvider = getContentProvider();
@@ -640,13 +741,147 @@ public abstract class AbstractTableViewer extends ColumnViewer {
 				&& (contentProvider instanceof IStructuredContentProvider)) {
 			// Don't cache if the root is null but cache if it is not lazy.
 			if (root != null) {
-				virtualManager.cachedElements = getSortedChildren(root);
-				doSetItemCount(virtualManager.cachedElements.length);
+				Object[] oldElements = virtualManager.cachedElements;
+				boolean incremental = incrementalRefresh && oldElements.length == doGetItemCount();
+				Object[] children = incremental ? getSortedChildren(root, oldElements) : null;
+				if (children == null) {
+					incremental = false;
+					children = getSortedChildren(root);
+				}
+				virtualManager.cachedElements = children;
+				if (incremental && !updateLabels && updateVirtualItems(oldElements, children)) {
+					return;
+				}
+				doSetItemCount(children.length);
 			}
 		}
 		doClearAll();
 	}
 
+	/**
+	 * Returns the sorted children of the given parent like
+	 * {@link #getSortedChildren(Object)}, but passes the children that were
+	 * shown before to the comparator in the given previous order and the added
+	 * children after them. As the comparator sorts runs of already sorted
+	 * elements in linear time, this is much faster than sorting all children
+	 * when only a few have been added or changed.
+	 *
+	 * @param parent
+	 *            the parent element
+	 * @param previous
+	 *            the previously sorted children
+	 * @return the sorted children, or <code>null</code> if they cannot be
+	 *         sorted incrementally
+	 */
+	private Object[] getSortedChildren(Object parent, Object[] previous) {
+		Object[] children = getFilteredChildren(parent);
+		ViewerComparator comparator = getComparator();
+		if (comparator == null) {
+			return children;
+		}
+		CustomHashtable previousIndices = newHashtable(previous.length * 2 + 1);
+		for (int i = 0; i < previous.length; i++) {
+			if (previous[i] == null) {
+				return null;
+			}
+			previousIndices.put(previous[i], Integer.valueOf(i));
+		}
+		Object[] byPreviousIndex = new Object[previous.length];
+		List<Object> added = new ArrayList<>();
+		for (Object child : children) {
+			Integer index = (Integer) previousIndices.get(child);
+			if (index == null) {
+				added.add(child);
+			} else if (byPreviousIndex[index.intValue()] != null) {
+				// equal siblings
+				return null;
+			} else {
+				byPreviousIndex[index.intValue()] = child;
+			}
+		}
+		Object[] result = new Object[children.length];
+		int count = 0;
+		for (Object child : byPreviousIndex) {
+			if (child != null) {
+				result[count++] = child;
+			}
+		}
+		for (Object child : added) {
+			result[count++] = child;
+		}
+		comparator.sort(this, result);
+		return result;
+	}
+
+	/**
+	 * Updates the items of the virtual table that showed the given old
+	 * elements to show the given new elements. The items of the elements that
+	 * are gone are removed in one go, which moves the following items up, the
+	 * items for the added elements are appended, and only the items that show
+	 * another element afterwards are cleared.
+	 *
+	 * @param oldElements
+	 *            the elements shown by the items
+	 * @param newElements
+	 *            the elements to show
+	 * @return <code>true</code> if the items have been updated,
+	 *         <code>false</code> if the new elements contain equal siblings
+	 *         and nothing has been done
+	 */
+	private boolean updateVirtualItems(Object[] oldElements, Object[] newElements) {
+		CustomHashtable newSet = newHashtable(newElements.length * 2 + 1);
+		for (Object element : newElements) {
+			if (newSet.put(element, element) != null) {
+				return false;
+			}
+		}
+		int[] removed = new int[oldElements.length];
+		int removedCount = 0;
+		Object[] shown = new Object[oldElements.length];
+		int shownCount = 0;
+		// only materialized items are mapped, without the map finding the
+		// items of the removed elements would create all items
+		boolean mapped = usingElementMap();
+		for (int i = 0; i < oldElements.length; i++) {
+			if (newSet.containsKey(oldElements[i])) {
+				shown[shownCount++] = oldElements[i];
+			} else {
+				if (mapped) {
+					disassociateVirtualItem(oldElements[i]);
+				}
+				removed[removedCount++] = i;
+			}
+		}
+		if (removedCount > 0) {
+			doRemove(Arrays.copyOf(removed, removedCount));
+		}
+		if (newElements.length > shownCount) {
+			doSetItemCount(newElements.length);
+		}
+		int start = -1;
+		for (int i = 0; i < shownCount; i++) {
+			if (!equals(newElements[i], shown[i])) {
+				if (start == -1) {
+					start = i;
+				}
+			} else {
+				if (start != -1) {
+					clearVirtualItems(shown, start, i - 1);
+					start = -1;
+				}
+				if (newElements[i] != shown[i] && usingElementMap() && findItem(shown[i]) instanceof Item item) {
+					// associate the new element, even if equal to the old
+					// one, to remove stale references (see bug 31314)
+					associate(newElements[i], item);
+				}
+			}
+		}
+		if (start != -1) {
+			clearVirtualItems(shown, start, shownCount - 1);
+		}
+		return true;
+	}
+
 	/**
 	 * Refresh all of the elements of the table. update the labels if
 	 * updatLabels is true;
@@ -1083,6 +1318,37 @@ public abstract class AbstractTableViewer extends ColumnViewer {
 		refreshItem(item, element);
 	}
 
+	/**
+	 * Sets whether refreshing this viewer updates only the items whose element
+	 * has changed. This applies to viewers on a table with the
+	 * {@link SWT#VIRTUAL} style and an {@link IStructuredContentProvider}.
+	 * <p>
+	 * When enabled, a refresh passes the children to the comparator in the
+	 * order they were shown before, with the added children at the end, which
+	 * sorts a large table in about linear time if only a few children have
+	 * been added or changed. As a consequence, children the comparator
+	 * considers equal keep the order they were shown in instead of getting
+	 * the order of the content provider. A refresh that does not update the
+	 * labels then removes the items of the children that are gone, appends
+	 * items for the added children and clears only the items that show
+	 * another child than before, instead of clearing all items.
+	 * </p>
+	 * <p>
+	 * Subclasses that override {@link #getSortedChildren(Object)} should not
+	 * enable this, as the incremental refresh sorts the filtered children
+	 * itself.
+	 * </p>
+	 *
+	 * @param enable
+	 *            <code>true</code> to refresh incrementally, and
+	 *            <code>false</code> to clear all items on each refresh
+	 *
+	 * @since 3.33
+	 */
+	public void setUseIncrementalRefresh(boolean enable) {
+		incrementalRefresh = enable;
+	}
+
 	/**
 	 * Clear the table item at the specified index
 	 *
@@ -1447,6 +1713,24 @@ public abstract class AbstractTableViewer extends ColumnViewer {
 	 */
 	protected abstract void doClear(int index);
 
+	/**
+	 * Clears the items from the given start index to the given end index
+	 * (inclusive) in the underlying widget. The default implementation clears
+	 * the items one by one.
+	 *
+	 * @param start
+	 *            the index of the first item to clear
+	 * @param end
+	 *            the index of the last item to clear
+	 *
+	 * @since 3.33
+	 */
+	protected void doClear(int start, int end) {
+		for (int i = start; i <= end; i++) {
+			doClear(i);
+		}
+	}
+
 
 
 	/**
@@ -0,0 +1,316 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.jface.viewers;
+
+import org.eclipse.swt.widgets.Widget;
+
+/**
+ * ElementWidgetMap maps the elements of a structured viewer to the widgets
+ * representing them. Elements are compared using the element comparer if one
+ * is set, and using <code>equals</code> and <code>hashCode</code> otherwise.
+ * <p>
+ * The map uses open addressing with linear probing. The elements and their
+ * widgets are stored next to each other in one array, so a mapping does not
+ * need an entry object and a lookup usually touches a single cache line. The
+ * hash codes of the elements are kept to avoid calling the comparer for
+ * elements that cannot be equal. An element represented by a single widget,
+ * the common case, maps to the widget itself; only elements represented by
+ * several widgets map to an array.
+ * </p>
+ */
+/* package */final class ElementWidgetMap {
+
+	private static final Widget[] NO_WIDGETS = new Widget[0];
+
+	/**
+	 * The initial number of slots, a power of two.
+	 */
+	private static final int DEFAULT_CAPACITY = 16;
+
+	private final IElementComparer comparer;
+
+	/**
+	 * The element of slot <code>i</code> at index <code>2 * i</code>,
+	 * <code>null</code> for free slots, and its widgets at index
+	 * <code>2 * i + 1</code>, either a <code>Widget</code> or a
+	 * <code>Widget[]</code> with at least two widgets.
+	 */
+	private Object[] table;
+
+	/**
+	 * The hash codes of the elements.
+	 */
+	private int[] hashes;
+
+	private int size;
+
+	private int threshold;
+
+	/**
+	 * Creates an empty map.
+	 *
+	 * @param comparer the element comparer or <code>null</code>
+	 */
+	public ElementWidgetMap(IElementComparer comparer) {
+		this.comparer = comparer;
+		allocate(DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * Creates a map containing the mappings of the given map, comparing the
+	 * elements using the given comparer.
+	 *
+	 * @param map      the map to copy
+	 * @param comparer the element comparer or <code>null</code>
+	 */
+	public ElementWidgetMap(ElementWidgetMap map, IElementComparer comparer) {
+		this(comparer);
+		for (int i = 0; i < map.table.length; i += 2) {
+			Object key = map.table[i];
+			if (key != null) {
+				Object value = map.table[i + 1];
+				if (value instanceof Widget widget) {
+					add(key, widget);
+				} else {
+					for (Widget widget : (Widget[]) value) {
+						add(key, widget);
+					}
+				}
+			}
+		}
+	}
+
+	private void allocate(int capacity) {
+		table = new Object[capacity << 1];
+		hashes = new int[capacity];
+		threshold = capacity - (capacity >>> 2);
+	}
+
+	/**
+	 * Returns the number of elements in this map.
+	 *
+	 * @return the number of elements
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Returns the first widget the given element maps to.
+	 *
+	 * @param element the element
+	 * @return the widget, or <code>null</code> if the element is not mapped
+	 */
+	public Widget getWidget(Object element) {
+		int slot = indexOf(element, hash(element));
+		if (slot < 0) {
+			return null;
+		}
+		Object value = table[(slot << 1) + 1];
+		return value instanceof Widget widget ? widget : ((Widget[]) value)[0];
+	}
+
+	/**
+	 * Returns the widgets the given element maps to. The returned array must
+	 * not be changed.
+	 *
+	 * @param element the element
+	 * @return the widgets, an empty array if the element is not mapped
+	 */
+	public Widget[] getWidgets(Object element) {
+		int slot = indexOf(element, hash(element));
+		if (slot < 0) {
+			return NO_WIDGETS;
+		}
+		Object value = table[(slot << 1) + 1];
+		return value instanceof Widget widget ? new Widget[] { widget } : (Widget[]) value;
+	}
+
+	/**
+	 * Maps the given element to the given widget in addition to the widgets it
+	 * already maps to. Does nothing if the element already maps to the widget.
+	 *
+	 * @param element the element
+	 * @param widget  the widget
+	 */
+	public void add(Object element, Widget widget) {
+		int hash = hash(element);
+		int slot = indexOf(element, hash);
+		if (slot < 0) {
+			if (size >= threshold) {
+				rehash(hashes.length << 1);
+			}
+			slot = freeSlot(hash);
+			table[slot << 1] = element;
+			table[(slot << 1) + 1] = widget;
+			hashes[slot] = hash;
+			size++;
+			return;
+		}
+		// avoid hanging onto keys that are equal but "old" -- see bug 30607
+		table[slot << 1] = element;
+		Object value = table[(slot << 1) + 1];
+		if (value instanceof Widget) {
+			if (value != widget) {
+				table[(slot << 1) + 1] = new Widget[] { (Widget) value, widget };
+			}
+		} else {
+			Widget[] widgets = (Widget[]) value;
+			for (Widget existing : widgets) {
+				if (existing == widget) {
+					return;
+				}
+			}
+			int length = widgets.length;
+			Widget[] updatedWidgets = new Widget[length + 1];
+			System.arraycopy(widgets, 0, updatedWidgets, 0, length);
+			updatedWidgets[length] = widget;
+			table[(slot << 1) + 1] = updatedWidgets;
+		}
+	}
+
+	/**
+	 * Removes the given element from this map.
+	 *
+	 * @param element the element
+	 */
+	public void remove(Object element) {
+		int slot = indexOf(element, hash(element));
+		if (slot >= 0) {
+			removeSlot(slot);
+		}
+	}
+
+	/**
+	 * Removes the mapping of the given element to the given widget. Does
+	 * nothing if the element does not map to the widget.
+	 *
+	 * @param element the element
+	 * @param widget  the widget
+	 */
+	public void remove(Object element, Widget widget) {
+		int slot = indexOf(element, hash(element));
+		if (slot < 0) {
+			return;
+		}
+		Object value = table[(slot << 1) + 1];
+		if (value instanceof Widget) {
+			if (value == widget) {
+				removeSlot(slot);
+			}
+			return;
+		}
+		Widget[] widgets = (Widget[]) value;
+		int indexOfWidget = -1;
+		for (int i = 0; i < widgets.length; i++) {
+			if (widgets[i] == widget) {
+				indexOfWidget = i;
+				break;
+			}
+		}
+		if (indexOfWidget == -1) {
+			return;
+		}
+		int length = widgets.length;
+		if (length == 2) {
+			table[(slot << 1) + 1] = widgets[1 - indexOfWidget];
+		} else {
+			Widget[] updatedWidgets = new Widget[length - 1];
+			System.arraycopy(widgets, 0, updatedWidgets, 0, indexOfWidget);
+			System.arraycopy(widgets, indexOfWidget + 1, updatedWidgets, indexOfWidget, length - indexOfWidget - 1);
+			table[(slot << 1) + 1] = updatedWidgets;
+		}
+	}
+
+	private int hash(Object element) {
+		int hash = comparer == null ? element.hashCode() : comparer.hashCode(element);
+		// spread the bits, the slot is taken from the low bits only
+		hash *= 0x9E3779B9;
+		return hash ^ (hash >>> 16);
+	}
+
+	private boolean keyEquals(Object a, Object b) {
+		if (comparer == null) {
+			return a.equals(b);
+		}
+		return comparer.equals(a, b);
+	}
+
+	/**
+	 * Returns the slot of the given element, or <code>-1</code> if it is not
+	 * mapped.
+	 */
+	private int indexOf(Object element, int hash) {
+		int mask = hashes.length - 1;
+		for (int slot = hash & mask;; slot = (slot + 1) & mask) {
+			Object key = table[slot << 1];
+			if (key == element) {
+				return slot;
+			}
+			if (key == null) {
+				return -1;
+			}
+			if (hashes[slot] == hash && keyEquals(element, key)) {
+				return slot;
+			}
+		}
+	}
+
+	private int freeSlot(int hash) {
+		int mask = hashes.length - 1;
+		int slot = hash & mask;
+		while (table[slot << 1] != null) {
+			slot = (slot + 1) & mask;
+		}
+		return slot;
+	}
+
+	/**
+	 * Frees the given slot and moves the following elements of the probe
+	 * sequence back, so lookups never need to skip deleted slots.
+	 */
+	private void removeSlot(int slot) {
+		int mask = hashes.length - 1;
+		int free = slot;
+		for (int next = (free + 1) & mask; table[next << 1] != null; next = (next + 1) & mask) {
+			int home = hashes[next] & mask;
+			// move the element if its home slot is not between the free slot and its slot
+			if (((next - home) & mask) >= ((next - free) & mask)) {
+				table[free << 1] = table[next << 1];
+				table[(free << 1) + 1] = table[(next << 1) + 1];
+				hashes[free] = hashes[next];
+				free = next;
+			}
+		}
+		table[free << 1] = null;
+		table[(free << 1) + 1] = null;
+		size--;
+	}
+
+	private void rehash(int capacity) {
+		Object[] oldTable = table;
+		int[] oldHashes = hashes;
+		allocate(capacity);
+		for (int i = 0; i < oldHashes.length; i++) {
+			Object key = oldTable[i << 1];
+			if (key != null) {
+				int slot = freeSlot(oldHashes[i]);
+				table[slot << 1] = key;
+				table[(slot << 1) + 1] = oldTable[(i << 1) + 1];
+				hashes[slot] = oldHashes[i];
+			}
+		}
+	}
+}
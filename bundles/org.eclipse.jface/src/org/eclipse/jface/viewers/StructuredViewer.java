@@ -24,6 +24,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Iterator;
 import java.util.List;
+import java.util.stream.IntStream;
 
 import org.eclipse.core.runtime.Assert;
 import org.eclipse.core.runtime.IStatus;
@@ -69,7 +70,7 @@ public abstract class StructuredViewer extends ContentViewer implements IPostSel
 	 * <code>Object</code>, value type: <code>Widget</code>, or <code>Widget[]</code>).
 	 * <code>null</code> means that the element map is disabled.
 	 */
-	private CustomHashtable elementMap;
+	private ElementWidgetMap elementMap;
 
 	/**
 	 * The comparer to use for comparing elements, or <code>null</code> to use
@@ -157,6 +158,15 @@ public abstract class StructuredViewer extends ContentViewer implements IPostSel
 	 */
 	private static Widget[] NO_WIDGETS = new Widget[0];
 
+	/**
+	 * The number of children from which thread-safe filters and comparators
+	 * are applied in parallel, or <code>0</code> to apply them on the UI
+	 * thread only.
+	 *
+	 * @see #setParallelThreshold(int)
+	 */
+	private int parallelThreshold;
+
 	/**
 	 * The ColorAndFontCollector is a helper class for viewers
 	 * that have color and font support ad optionally decorators.
@@ -712,8 +722,14 @@ public abstract class StructuredViewer extends ContentViewer implements IPostSel
 	 * @return the corresponding widget, or <code>null</code> if none
 	 */
 	protected final Widget findItem(Object element) {
-		Widget[] result = findItems(element);
-		return result.length == 0 ? null : result[0];
+		Widget result = doFindInputItem(element);
+		if (result != null) {
+			return result;
+		}
+		if (usingElementMap()) {
+			return elementMap.getWidget(element);
+		}
+		return doFindItem(element);
 	}
 
 	/**
@@ -748,14 +764,7 @@ public abstract class StructuredViewer extends ContentViewer implements IPostSel
 		}
 		// if we have an element map use it, otherwise search for the item.
 		if (usingElementMap()) {
-			Object widgetOrWidgets = elementMap.get(element);
-			if (widgetOrWidgets==null) {
-				return NO_WIDGETS;
-			} else if (widgetOrWidgets instanceof Widget) {
-				return new Widget[] {(Widget) widgetOrWidgets};
-			} else {
-				return (Widget[])widgetOrWidgets;
-			}
+			return elementMap.getWidgets(element);
 		}
 		result = doFindItem(element);
 		return result == null ? NO_WIDGETS : new Widget[] { result };
@@ -852,7 +861,9 @@ public abstract class StructuredViewer extends ContentViewer implements IPostSel
 		}
 		if (filters != null) {
 			for (ViewerFilter f : filters) {
-				Object[] filteredResult = f.filter(this, parent, result);
+				Object[] filteredResult = isParallel(result.length) && f.isThreadSafe()
+						? filterInParallel(f, parent, result)
+						: f.filter(this, parent, result);
 				if (associateListener != null && filteredResult.length != result.length) {
 					notifyFilteredOut(result, filteredResult);
 				}
@@ -862,6 +873,32 @@ public abstract class StructuredViewer extends ContentViewer implements IPostSel
 		return result;
 	}
 
+	/**
+	 * Filters the given elements like {@link ViewerFilter#filter(Viewer, Object, Object[])}
+	 * does, but calls the filter for the elements in parallel. The order of
+	 * the elements is preserved.
+	 */
+	private Object[] filterInParallel(ViewerFilter filter, Object parent, Object[] elements) {
+		boolean[] selected = new boolean[elements.length];
+		IntStream.range(0, elements.length).parallel()
+				.forEach(i -> selected[i] = filter.select(this, parent, elements[i]));
+		List<Object> out = new ArrayList<>(elements.length);
+		for (int i = 0; i < elements.length; i++) {
+			if (selected[i]) {
+				out.add(elements[i]);
+			}
+		}
+		return out.toArray();
+	}
+
+	/**
+	 * Returns whether filters and comparators that are thread-safe are applied
+	 * in parallel to the given number of elements.
+	 */
+	private boolean isParallel(int count) {
+		return parallelThreshold > 0 && count >= parallelThreshold;
+	}
+
 	/**
 	 * Notifies an AssociateListener of the elements that have been filtered out.
 	 */
@@ -1026,7 +1063,12 @@ public abstract class StructuredViewer extends ContentViewer implements IPostSel
 		if (sorter != null) {
 			// be sure we're not modifying the original array from the model
 			result = result.clone();
-			sorter.sort(this, result);
+			if (isParallel(result.length) && sorter.isThreadSafe()) {
+				ViewerComparator comparator = sorter;
+				Arrays.parallelSort(result, (a, b) -> comparator.compare(this, a, b));
+			} else {
+				sorter.sort(this, result);
+			}
 		}
 		return result;
 	}
@@ -1264,25 +1306,7 @@ public abstract class StructuredViewer extends ContentViewer implements IPostSel
 	 */
 	protected void mapElement(Object element, Widget item) {
 		if (elementMap != null) {
-			Object widgetOrWidgets = elementMap.get(element);
-			if (widgetOrWidgets == null) {
-				elementMap.put(element, item);
-			} else if (widgetOrWidgets instanceof Widget) {
-				if (widgetOrWidgets != item) {
-					elementMap.put(element, new Widget[] {
-							(Widget) widgetOrWidgets, item });
-				}
-			} else {
-				Widget[] widgets = (Widget[]) widgetOrWidgets;
-				int indexOfItem = Arrays.asList(widgets).indexOf(item);
-				if (indexOfItem == -1) {
-					int length = widgets.length;
-					System.arraycopy(widgets, 0,
-							widgets = new Widget[length + 1], 0, length);
-					widgets[length] = item;
-					elementMap.put(element, widgets);
-				}
-			}
+			elementMap.add(element, item);
 		}
 	}
 
@@ -1748,6 +1772,29 @@ public abstract class StructuredViewer extends ContentViewer implements IPostSel
 		}
 	}
 
+	/**
+	 * Sets the number of children from which this viewer filters and sorts
+	 * the children of an element in parallel. Filters and comparators are only
+	 * applied in parallel if they declare themselves thread-safe, see
+	 * {@link ViewerFilter#isThreadSafe()} and
+	 * {@link ViewerComparator#isThreadSafe()}. The order of the children is the
+	 * same as when filtering and sorting them on the UI thread.
+	 * <p>
+	 * By default, the threshold is <code>0</code> and filters and comparators
+	 * are applied on the UI thread only.
+	 * </p>
+	 *
+	 * @param threshold the number of children from which filters and
+	 *                  comparators are applied in parallel, or <code>0</code>
+	 *                  to apply them on the UI thread only
+	 *
+	 * @since 3.33
+	 */
+	public void setParallelThreshold(int threshold) {
+		Assert.isTrue(threshold >= 0);
+		parallelThreshold = threshold;
+	}
+
 	/**
 	 * Configures whether this structured viewer uses an internal hash table to
 	 * speed up the mapping between elements and SWT items. This must be called
@@ -1766,7 +1813,7 @@ public abstract class StructuredViewer extends ContentViewer implements IPostSel
 		Assert.isTrue(getInput() == null,
 				"Can only enable the hash look up before input has been set");//$NON-NLS-1$
 		if (enable) {
-			elementMap = newHashtable(CustomHashtable.DEFAULT_CAPACITY);
+			elementMap = new ElementWidgetMap(getComparer());
 		} else {
 			elementMap = null;
 		}
@@ -1784,7 +1831,7 @@ public abstract class StructuredViewer extends ContentViewer implements IPostSel
 	public void setComparer(IElementComparer comparer) {
 		this.comparer = comparer;
 		if (elementMap != null) {
-			elementMap = new CustomHashtable(elementMap, comparer);
+			elementMap = new ElementWidgetMap(elementMap, comparer);
 		}
 	}
 
@@ -1855,7 +1902,7 @@ public abstract class StructuredViewer extends ContentViewer implements IPostSel
 	 */
 	protected void unmapAllElements() {
 		if (elementMap != null) {
-			elementMap = newHashtable(CustomHashtable.DEFAULT_CAPACITY);
+			elementMap = new ElementWidgetMap(getComparer());
 		}
 	}
 
@@ -1892,39 +1939,8 @@ public abstract class StructuredViewer extends ContentViewer implements IPostSel
 	 * @since 2.0
 	 */
 	protected void unmapElement(Object element, Widget item) {
-		// double-check that the element actually maps to the given item before
-		// unmapping it
 		if (elementMap != null) {
-			Object widgetOrWidgets = elementMap.get(element);
-			if (widgetOrWidgets == null) {
-				// item was not mapped, return
-				return;
-			} else if (widgetOrWidgets instanceof Widget) {
-				if (item == widgetOrWidgets) {
-					elementMap.remove(element);
-				}
-			} else {
-				Widget[] widgets = (Widget[]) widgetOrWidgets;
-				int indexOfItem = Arrays.asList(widgets).indexOf(item);
-				if (indexOfItem == -1) {
-					return;
-				}
-				int length = widgets.length;
-				if (indexOfItem == 0) {
-					if(length == 1) {
-						elementMap.remove(element);
-					} else {
-						Widget[] updatedWidgets = new Widget[length - 1];
-						System.arraycopy(widgets, 1, updatedWidgets, 0, length -1 );
-						elementMap.put(element, updatedWidgets);
-					}
-				} else {
-					Widget[] updatedWidgets = new Widget[length - 1];
-					System.arraycopy(widgets, 0, updatedWidgets, 0, indexOfItem);
-					System.arraycopy(widgets, indexOfItem + 1, updatedWidgets, indexOfItem, length - indexOfItem - 1);
-					elementMap.put(element, updatedWidgets);
-				}
-			}
+			elementMap.remove(element, item);
 		}
 	}
 
@@ -2273,7 +2289,7 @@ public abstract class StructuredViewer extends ContentViewer implements IPostSel
 		comparer = null;
 		if (filters != null)
 			filters.clear();
-		elementMap = newHashtable(1);
+		elementMap = new ElementWidgetMap(null);
 		openListeners.clear();
 		doubleClickListeners.clear();
 		colorAndFontCollector.clear();
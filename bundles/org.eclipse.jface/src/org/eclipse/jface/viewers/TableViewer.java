@@ -330,6 +330,11 @@ public class TableViewer extends AbstractTableViewer {
 		table.clear(index);
 	}
 
+	@Override
+	protected void doClear(int start, int end) {
+		table.clear(start, end);
+	}
+
 	@Override
 	protected void doSelect(int[] indices) {
 		table.select(indices);
@@ -185,6 +185,29 @@ public class ViewerComparator {
 		return false;
 	}
 
+	/**
+	 * Returns whether {@link #compare(Viewer, Object, Object)} may be called
+	 * concurrently from threads other than the UI thread. A viewer that sorts
+	 * large arrays of elements in parallel (see
+	 * {@link StructuredViewer#setParallelThreshold(int)}) calls
+	 * <code>compare</code> instead of {@link #sort(Viewer, Object[])} for
+	 * comparators that are thread-safe.
+	 * <p>
+	 * The default implementation of this method returns <code>false</code>, as
+	 * the default <code>compare</code> method asks the label provider of the
+	 * viewer for the labels of the elements. Subclasses whose
+	 * <code>compare</code> method does not depend on the UI thread or on
+	 * unsynchronized state may reimplement.
+	 * </p>
+	 *
+	 * @return <code>true</code> if <code>compare</code> is thread-safe, and
+	 *         <code>false</code> otherwise
+	 * @since 3.33
+	 */
+	public boolean isThreadSafe() {
+		return false;
+	}
+
 	/**
 	 * Sorts the given elements in-place, modifying the given array.
 	 * <p>
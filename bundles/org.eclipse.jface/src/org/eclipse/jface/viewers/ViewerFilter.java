@@ -107,6 +107,27 @@ public abstract class ViewerFilter {
 		return false;
 	}
 
+	/**
+	 * Returns whether {@link #select(Viewer, Object, Object)} may be called
+	 * concurrently from threads other than the UI thread. A viewer that
+	 * filters large arrays of elements in parallel (see
+	 * {@link StructuredViewer#setParallelThreshold(int)}) calls
+	 * <code>select</code> instead of {@link #filter(Viewer, Object, Object[])}
+	 * for filters that are thread-safe.
+	 * <p>
+	 * The default implementation of this method returns <code>false</code>.
+	 * Subclasses whose <code>select</code> method does not depend on the UI
+	 * thread or on unsynchronized state may reimplement.
+	 * </p>
+	 *
+	 * @return <code>true</code> if <code>select</code> is thread-safe, and
+	 *         <code>false</code> otherwise
+	 * @since 3.33
+	 */
+	public boolean isThreadSafe() {
+		return false;
+	}
+
 	/**
 	 * Returns whether the given element makes it through this filter.
 	 *
@@ -13,11 +13,14 @@
  *******************************************************************************/
 package org.eclipse.jface.viewers.deferred;
 
-import java.util.LinkedList;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Holds a queue of additions, removals, updates, and SET calls for a
- * BackgroundContentProvider
+ * BackgroundContentProvider. The queue does not lock, changes can be enqueued
+ * and dequeued concurrently by any number of threads.
  */
 final class ChangeQueue {
 	/**
@@ -49,6 +52,12 @@ final class ChangeQueue {
 		private int type;
 		private Object[] elements;
 
+		/**
+		 * The number of SET changes enqueued before this change, including this
+		 * change
+		 */
+		private int sets;
+
 		/**
 		 * Create a change of the specified type that affects the given elements.
 		 *
@@ -83,7 +92,18 @@ final class ChangeQueue {
 		}
 	}
 
-	private LinkedList<Change> queue = new LinkedList<>();
+	private final ConcurrentLinkedQueue<Change> queue = new ConcurrentLinkedQueue<>();
+
+	/**
+	 * The number of SET changes started to be enqueued
+	 */
+	private final AtomicInteger issuedSets = new AtomicInteger();
+
+	/**
+	 * The highest number of a SET change that is in the queue or has been
+	 * dequeued. Changes with a lower number are redundant.
+	 */
+	private final AtomicInteger sets = new AtomicInteger();
 
 	/**
 	 * Create a change of the given type and elements and enqueue it.
@@ -91,7 +111,7 @@ final class ChangeQueue {
 	 * @param type the type of change to be created
 	 * @param elements the elements affected by the change
 	 */
-	public synchronized void enqueue(int type, Object[] elements) {
+	public void enqueue(int type, Object[] elements) {
 		enqueue(new Change(type, elements));
 	}
 
@@ -99,37 +119,57 @@ final class ChangeQueue {
 	 * Add the specified change to the queue
 	 * @param toQueue the change to be added
 	 */
-	public synchronized void enqueue(Change toQueue) {
-		// A SET event makes all previous adds, removes, and sets redundant... so remove
-		// them from the queue
-		if (toQueue.type == SET) {
-			LinkedList<Change> newQueue = new LinkedList<>();
-			for (Change next : queue) {
-				if (next.getType() == ADD || next.getType() == REMOVE || next.getType() == SET) {
-					continue;
-				}
-
-				newQueue.add(next);
-			}
-			queue = newQueue;
+	public void enqueue(Change toQueue) {
+		if (toQueue.type != SET) {
+			toQueue.sets = sets.get();
+			queue.add(toQueue);
+			return;
 		}
-
+		// A SET event makes all previous adds, removes, and sets redundant... so remove
+		// them from the queue. Changes enqueued concurrently may still be in the queue,
+		// they are skipped when dequeued. The SET is added before it makes them
+		// redundant, so a consumer skipping them always finds it.
+		toQueue.sets = issuedSets.incrementAndGet();
 		queue.add(toQueue);
+		sets.accumulateAndGet(toQueue.sets, Math::max);
+		queue.removeIf(this::isRedundant);
+	}
+
+	/**
+	 * Returns whether the given change has been made redundant by a later SET
+	 * change.
+	 */
+	private boolean isRedundant(Change change) {
+		return change.type != UPDATE && change.sets < sets.get();
 	}
 
 	/**
 	 * Remove the first change from the queue.
 	 * @return the first change
+	 * @throws NoSuchElementException if the queue is empty
 	 */
-	public synchronized Change dequeue() {
-		return queue.removeFirst();
+	public Change dequeue() {
+		Change change;
+		do {
+			change = queue.poll();
+		} while (change != null && isRedundant(change));
+		if (change == null) {
+			throw new NoSuchElementException();
+		}
+		return change;
 	}
 
 	/**
 	 * Return whether the queue is empty
 	 * @return <code>true</code> if empty, <code>false</code> otherwise
 	 */
-	public synchronized boolean isEmpty() {
-		return queue.isEmpty();
+	public boolean isEmpty() {
+		for (Change change = queue.peek(); change != null; change = queue.peek()) {
+			if (!isRedundant(change)) {
+				return false;
+			}
+			queue.remove(change);
+		}
+		return true;
 	}
 }
@@ -13,33 +13,93 @@
  *******************************************************************************/
 package org.eclipse.jface.viewers.deferred;
 
-import java.util.HashMap;
-
 /**
- * Represents a map of objects onto ints. This is intended for future optimization:
- * using int primitives would allow for an implementation that doesn't require
- * additional object allocations for Integers. However, the current implementation
- * simply delegates to the Java HashMap class.
+ * Represents a map of objects onto ints. Keys are compared using
+ * <code>equals</code> and <code>hashCode</code>, like in a
+ * <code>HashMap</code>. The map uses open addressing with linear probing and
+ * stores the values in an int array, so adding a mapping does not allocate an
+ * entry object or an <code>Integer</code>. The hash codes of the keys are kept
+ * to avoid calling <code>equals</code> for keys that cannot be equal.
  *
  * @since 3.1
  */
 /* package */ class IntHashMap {
-	private HashMap map;
+	private static final int DEFAULT_CAPACITY = 16;
+
+	/**
+	 * Stands for the <code>null</code> key, <code>null</code> marks free slots.
+	 */
+	private static final Object NULL_KEY = new Object();
+
+	private Object[] keys;
+	private int[] hashes;
+	private int[] values;
+	private int size;
+	private int threshold;
+	private final float loadFactor;
 
 	public IntHashMap(int size, float loadFactor) {
-		map = new HashMap(size, loadFactor);
+		if (!(loadFactor > 0 && loadFactor < 1)) {
+			loadFactor = 0.75f;
+		}
+		this.loadFactor = loadFactor;
+		int capacity = DEFAULT_CAPACITY;
+		while (capacity * loadFactor < size && capacity < (1 << 30)) {
+			capacity <<= 1;
+		}
+		allocate(capacity);
 	}
 
 	public IntHashMap() {
-		map = new HashMap();
+		this(0, 0.75f);
+	}
+
+	private void allocate(int capacity) {
+		keys = new Object[capacity];
+		hashes = new int[capacity];
+		values = new int[capacity];
+		threshold = Math.min((int) (capacity * loadFactor), capacity - 1);
 	}
 
 	public void remove(Object key) {
-		map.remove(key);
+		Object k = maskNull(key);
+		int slot = indexOf(k, hash(k));
+		if (slot < 0) {
+			return;
+		}
+		// move the following keys of the probe sequence back, so lookups never
+		// need to skip removed keys
+		int mask = keys.length - 1;
+		int free = slot;
+		for (int next = (free + 1) & mask; keys[next] != null; next = (next + 1) & mask) {
+			int home = hashes[next] & mask;
+			if (((next - home) & mask) >= ((next - free) & mask)) {
+				keys[free] = keys[next];
+				hashes[free] = hashes[next];
+				values[free] = values[next];
+				free = next;
+			}
+		}
+		keys[free] = null;
+		size--;
 	}
 
 	public void put(Object key, int value) {
-		map.put(key, Integer.valueOf(value));
+		Object k = maskNull(key);
+		int hash = hash(k);
+		int slot = indexOf(k, hash);
+		if (slot >= 0) {
+			values[slot] = value;
+			return;
+		}
+		if (size >= threshold) {
+			rehash(keys.length << 1);
+		}
+		slot = freeSlot(hash);
+		keys[slot] = k;
+		hashes[slot] = hash;
+		values[slot] = value;
+		size++;
 	}
 
 	/**
@@ -53,26 +113,74 @@ import java.util.HashMap;
 	 * @return the int value at the given key, or the default value if this map does not contain the given key
 	 */
 	public int get(Object key, int defaultValue) {
-		Integer result = (Integer)map.get(key);
-
-		if (result != null) {
-			return result.intValue();
-		}
-
-		return defaultValue;
+		Object k = maskNull(key);
+		int slot = indexOf(k, hash(k));
+		return slot < 0 ? defaultValue : values[slot];
 	}
 
 	/**
 	 * @return <code>true</code> if this map contains the given key, <code>false</code> otherwise
 	 */
 	public boolean containsKey(Object key) {
-		return map.containsKey(key);
+		Object k = maskNull(key);
+		return indexOf(k, hash(k)) >= 0;
 	}
 
 	/**
 	 * @return the number of key/value pairs
 	 */
 	public int size() {
-		return map.size();
+		return size;
+	}
+
+	private static Object maskNull(Object key) {
+		return key == null ? NULL_KEY : key;
+	}
+
+	private static int hash(Object key) {
+		// spread the bits, the slot is taken from the low bits only
+		int hash = key.hashCode() * 0x9E3779B9;
+		return hash ^ (hash >>> 16);
+	}
+
+	private int indexOf(Object key, int hash) {
+		int mask = keys.length - 1;
+		for (int slot = hash & mask;; slot = (slot + 1) & mask) {
+			Object existing = keys[slot];
+			if (existing == key) {
+				return slot;
+			}
+			if (existing == null) {
+				return -1;
+			}
+			if (hashes[slot] == hash && existing.equals(key)) {
+				return slot;
+			}
+		}
+	}
+
+	private int freeSlot(int hash) {
+		int mask = keys.length - 1;
+		int slot = hash & mask;
+		while (keys[slot] != null) {
+			slot = (slot + 1) & mask;
+		}
+		return slot;
+	}
+
+	private void rehash(int capacity) {
+		Object[] oldKeys = keys;
+		int[] oldHashes = hashes;
+		int[] oldValues = values;
+		allocate(capacity);
+		for (int i = 0; i < oldKeys.length; i++) {
+			Object key = oldKeys[i];
+			if (key != null) {
+				int slot = freeSlot(oldHashes[i]);
+				keys[slot] = key;
+				hashes[slot] = oldHashes[i];
+				values[slot] = oldValues[i];
+			}
+		}
 	}
 }
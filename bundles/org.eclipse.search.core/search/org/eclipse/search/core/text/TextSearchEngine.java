@@ -24,6 +24,7 @@ import org.eclipse.core.resources.IFile;
 import org.eclipse.search.internal.core.SearchCorePlugin;
 import org.eclipse.search.internal.core.text.DirtyFileProvider;
 import org.eclipse.search.internal.core.text.PatternConstructor;
+import org.eclipse.search.internal.core.text.TextSearchIndex;
 import org.eclipse.search.internal.core.text.TextSearchVisitor;
 
 
@@ -49,22 +50,23 @@ public abstract class TextSearchEngine {
 	}
 
 	/**
-	 * Creates the default, built-in, text search engine that implements a brute-force search, not using
-	 * any search index.
+	 * Creates the default, built-in, text search engine that implements a brute-force search. If enabled,
+	 * it uses an index of the trigrams in the workspace files to skip files that cannot contain a match.
 	 * Note that clients should always use the search engine provided by {@link #create()}.
 	 * @return an instance of the default text search engine {@link TextSearchEngine}.
 	 */
 	public static TextSearchEngine createDefault() {
 		DirtyFileProvider discovery = SearchCorePlugin.getDefault().getDirtyFileDiscovery();
+		TextSearchIndex index= SearchCorePlugin.getDefault().getTextSearchIndex();
 		return new TextSearchEngine() {
 			@Override
 			public IStatus search(TextSearchScope scope, TextSearchRequestor requestor, Pattern searchPattern, IProgressMonitor monitor) {
-				return new TextSearchVisitor(requestor, searchPattern, discovery).search(scope, monitor);
+				return new TextSearchVisitor(requestor, searchPattern, discovery, index).search(scope, monitor);
 			}
 
 			@Override
 			public IStatus search(IFile[] scope, TextSearchRequestor requestor, Pattern searchPattern, IProgressMonitor monitor) {
-				return new TextSearchVisitor(requestor, searchPattern, discovery).search(scope, monitor);
+				return new TextSearchVisitor(requestor, searchPattern, discovery, index).search(scope, monitor);
 			}
 		};
 	}
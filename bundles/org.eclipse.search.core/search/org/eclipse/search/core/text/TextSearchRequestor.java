@@ -15,6 +15,8 @@
 
 package org.eclipse.search.core.text;
 
+import java.util.List;
+
 import org.eclipse.core.runtime.CoreException;
 
 import org.eclipse.core.resources.IFile;
@@ -30,7 +32,7 @@ import org.eclipse.core.resources.IFile;
  * then calls {@link #acceptFile(IFile)} for a file visited.
  * If {@link #acceptFile(IFile)} returns <code>true</code> {@link #reportBinaryFile(IFile)} is
  * called if the file could be binary followed by
- * {@link #acceptPatternMatch(TextSearchMatchAccess)} for each pattern match found
+ * {@link #acceptPatternMatches(List)} for batches of the pattern matches found
  * in this file. The end of the search is signaled with a call to {@link #endReporting()}.
  * Note that {@link #acceptFile(IFile)} is called for all files in the search scope,
  * even if no match can be found.
@@ -40,8 +42,8 @@ import org.eclipse.core.resources.IFile;
  * org.eclipse.core.runtime.IProgressMonitor)} can perform parallel processing.
  * To support parallel processing, subclasses of this class must synchronize access
  * to any shared data accumulated by or accessed by overrides of the {@link #acceptFile(IFile)},
- * {@link #reportBinaryFile(IFile)} and {@link #acceptPatternMatch(TextSearchMatchAccess)}
- * methods, and override the {@link #canRunInParallel()} method to return true.
+ * {@link #reportBinaryFile(IFile)}, {@link #acceptPatternMatch(TextSearchMatchAccess)} and
+ * {@link #acceptPatternMatches(List)} methods, and override the {@link #canRunInParallel()} method to return true.
  * </p>
  * <p>
  * The order of the search results is unspecified and may vary from request to request;
@@ -156,6 +158,36 @@ public abstract class TextSearchRequestor {
 		return true;
 	}
 
+	/**
+	 * Accepts a batch of search matches found in one file and decides if the search should
+	 * continue for this file. The matches are ordered by offset; a file with many matches
+	 * is reported in several batches.
+	 * <p>
+	 * The default implementation calls {@link #acceptPatternMatch(TextSearchMatchAccess)} for
+	 * each match until it returns <code>false</code>. Subclasses may override to process all
+	 * matches of a batch at once, e.g. to update shared state only once per batch.
+	 * </p>
+	 * <p>
+	 * If {@link #canRunInParallel()} returns true, this method may be called in parallel by different threads,
+	 * so any access or updates to collections of results or other shared state must be synchronized.
+	 * </p>
+	 *
+	 * @param matches the matches found. The list and its elements are only valid during this call,
+	 * the search engine reuses the list for the next batch.
+	 * @return If false is returned no further matches will be reported for this file.
+	 * @throws CoreException implementors can throw a {@link CoreException} if accessing the resource fails or another
+	 * problem prevented the processing of the search matches.
+	 * @since 3.17
+	 */
+	public boolean acceptPatternMatches(List<TextSearchMatchAccess> matches) throws CoreException {
+		for (TextSearchMatchAccess match : matches) {
+			if (!acceptPatternMatch(match)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
 	/**
 	 * Reports whether this TextSearchRequestor supports executing the text search algorithm
 	 * in parallel.
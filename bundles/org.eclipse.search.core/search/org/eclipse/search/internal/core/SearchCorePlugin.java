@@ -17,11 +17,16 @@ import org.osgi.framework.BundleContext;
 
 import org.eclipse.core.runtime.Assert;
 import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Platform;
 import org.eclipse.core.runtime.Plugin;
 import org.eclipse.core.runtime.Status;
 
+import org.eclipse.core.resources.IResourceChangeEvent;
+import org.eclipse.core.resources.ResourcesPlugin;
+
 import org.eclipse.search.internal.core.text.DirtyFileProvider;
 import org.eclipse.search.internal.core.text.TextSearchEngineRegistry;
+import org.eclipse.search.internal.core.text.TextSearchIndex;
 
 public class SearchCorePlugin extends Plugin {
 	/**
@@ -36,6 +41,7 @@ public class SearchCorePlugin extends Plugin {
 	private TextSearchEngineRegistry fTextSearchEngineRegistry;
 	private DirtyFileProvider fDirtyFileSearchParticipant;
 	private DirtyFileSearchParticipantServiceTracker fDirtyFileSearchParticipantTracker;
+	private TextSearchIndex fTextSearchIndex;
 
 	/**
 	 * @return Returns the search plugin instance.
@@ -58,7 +64,13 @@ public class SearchCorePlugin extends Plugin {
 
 	@Override
 	public void stop(BundleContext context) throws Exception {
-		// do nothing
+		synchronized (this) {
+			if (fTextSearchIndex != null) {
+				ResourcesPlugin.getWorkspace().removeResourceChangeListener(fTextSearchIndex);
+				fTextSearchIndex.save();
+				fTextSearchIndex= null;
+			}
+		}
 	}
 
 	public TextSearchEngineRegistry getTextSearchEngineRegistry() {
@@ -68,6 +80,23 @@ public class SearchCorePlugin extends Plugin {
 		return fTextSearchEngineRegistry;
 	}
 
+	/**
+	 * Returns the index of the workspace files used to skip files in text searches.
+	 *
+	 * @return the index or <code>null</code> if it is disabled by the preference
+	 *         {@link TextSearchIndex#PREF_ENABLED}
+	 */
+	public synchronized TextSearchIndex getTextSearchIndex() {
+		if (!Platform.getPreferencesService().getBoolean(PLUGIN_ID, TextSearchIndex.PREF_ENABLED, false, null)) {
+			return null;
+		}
+		if (fTextSearchIndex == null) {
+			fTextSearchIndex= new TextSearchIndex(getStateLocation());
+			ResourcesPlugin.getWorkspace().addResourceChangeListener(fTextSearchIndex, IResourceChangeEvent.POST_CHANGE);
+		}
+		return fTextSearchIndex;
+	}
+
 	public DirtyFileProvider getDirtyFileDiscovery() {
 		if (fDirtyFileSearchParticipant == null) {
 			this.fDirtyFileSearchParticipantTracker.open();
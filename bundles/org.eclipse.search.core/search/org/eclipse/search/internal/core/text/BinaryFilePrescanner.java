@@ -0,0 +1,156 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.search.internal.core.text;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.Platform;
+import org.eclipse.core.runtime.content.IContentType;
+import org.eclipse.core.runtime.content.IContentTypeManager;
+
+import org.eclipse.core.resources.IContainer;
+import org.eclipse.core.resources.IFile;
+
+/**
+ * Looks at the first bytes of local files to recognize binary files before
+ * their content is read and decoded.
+ * <p>
+ * A file is considered binary if its first bytes contain a zero byte, it does
+ * not start with a UTF-16 or UTF-32 byte order mark and its charset encodes
+ * ASCII characters as single bytes. Decoded with such a charset, the file
+ * would contain a <code>'\0'</code> character, which the search considers
+ * binary as well.
+ * </p>
+ * <p>
+ * Files whose name is associated with a text content type are not looked at,
+ * the search never considers them binary. Instances reuse a direct buffer and
+ * are not thread-safe.
+ * </p>
+ */
+public class BinaryFilePrescanner {
+
+	/** The number of bytes looked at. */
+	private static final int PRESCAN_SIZE= 8192;
+
+	private static final Map<String, Boolean> fgAsciiCompatible= new ConcurrentHashMap<>();
+
+	private final ByteBuffer fBuffer= ByteBuffer.allocateDirect(PRESCAN_SIZE);
+	private long fSize;
+
+	/**
+	 * Returns whether the first bytes of the given file contain a zero byte
+	 * that decodes to a <code>'\0'</code> character.
+	 *
+	 * @param file the file
+	 * @return <code>true</code> if the file looks binary, <code>false</code> if
+	 *         it does not, has a text file name or is not a local file that can be read
+	 */
+	public boolean hasBinaryBytes(IFile file) {
+		fSize= 0;
+		fBuffer.clear().flip();
+		IPath location= file.getLocation();
+		if (location == null || isTextFileName(file.getName())) {
+			return false;
+		}
+		fBuffer.clear();
+		try (FileChannel channel= FileChannel.open(location.toPath(), StandardOpenOption.READ)) {
+			fSize= channel.size();
+			while (fBuffer.hasRemaining() && channel.read(fBuffer) != -1) {
+				// fill the buffer
+			}
+		} catch (IOException e) {
+			// let the search report the problem when reading the file
+			return false;
+		}
+		fBuffer.flip();
+		return !hasUnicodeByteOrderMark() && containsZero() && isAsciiCompatible(file);
+	}
+
+	/**
+	 * Returns the number of bytes of the last file passed to
+	 * {@link #hasBinaryBytes(IFile)} that were not read.
+	 *
+	 * @return the number of bytes not read
+	 */
+	public long getUnreadBytes() {
+		return Math.max(0, fSize - fBuffer.limit());
+	}
+
+	private static boolean isTextFileName(String name) {
+		IContentTypeManager manager= Platform.getContentTypeManager();
+		IContentType contentType= manager.findContentTypeFor(name);
+		return contentType != null && contentType.isKindOf(manager.getContentType(IContentTypeManager.CT_TEXT));
+	}
+
+	private boolean hasUnicodeByteOrderMark() {
+		if (fBuffer.limit() < 2) {
+			return false;
+		}
+		int b0= fBuffer.get(0) & 0xFF, b1= fBuffer.get(1) & 0xFF;
+		if ((b0 == 0xFE && b1 == 0xFF) || (b0 == 0xFF && b1 == 0xFE)) {
+			return true; // UTF-16 or UTF-32LE
+		}
+		return fBuffer.limit() >= 4 && b0 == 0 && b1 == 0 && (fBuffer.get(2) & 0xFF) == 0xFE && (fBuffer.get(3) & 0xFF) == 0xFF;
+	}
+
+	private boolean containsZero() {
+		for (int i= 0, limit= fBuffer.limit(); i < limit; i++) {
+			if (fBuffer.get(i) == 0) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Returns whether the charset of the file encodes ASCII characters as
+	 * single bytes. Only the charsets set for the file or its containers are
+	 * checked, to avoid describing the content of the file.
+	 */
+	private static boolean isAsciiCompatible(IFile file) {
+		String charset;
+		try {
+			charset= file.getCharset(false);
+			if (charset == null) {
+				IContainer parent= file.getParent();
+				charset= parent.getDefaultCharset(true);
+			}
+		} catch (CoreException e) {
+			return false;
+		}
+		if (charset == null) {
+			return false;
+		}
+		return fgAsciiCompatible.computeIfAbsent(charset, BinaryFilePrescanner::encodesAsciiAsBytes).booleanValue();
+	}
+
+	private static Boolean encodesAsciiAsBytes(String charset) {
+		try {
+			byte[] bytes= "\0az".getBytes(Charset.forName(charset)); //$NON-NLS-1$
+			return Boolean.valueOf(Arrays.equals(bytes, "\0az".getBytes(StandardCharsets.US_ASCII))); //$NON-NLS-1$
+		} catch (IllegalArgumentException | UnsupportedOperationException e) {
+			return Boolean.FALSE;
+		}
+	}
+}
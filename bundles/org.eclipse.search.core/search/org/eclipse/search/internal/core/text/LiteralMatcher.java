@@ -0,0 +1,179 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.search.internal.core.text;
+
+import java.util.Arrays;
+import java.util.regex.Pattern;
+
+/**
+ * Finds the occurrences of a literal string, the way a {@link java.util.regex.Matcher}
+ * of a pattern created by {@link PatternConstructor} for a plain search string does,
+ * but without the overhead of the regular expression engine.
+ * <p>
+ * Case sensitive searches in strings use {@link String#indexOf(String, int)}, which
+ * the JVM implements with vector instructions. Other searches use the
+ * Boyer-Moore-Horspool algorithm.
+ * </p>
+ */
+public final class LiteralMatcher {
+
+	private static final int CASE_SENSITIVE_FLAGS= Pattern.MULTILINE;
+	private static final int CASE_INSENSITIVE_FLAGS= Pattern.MULTILINE | Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE;
+	private static final String META_CHARACTERS= "\\^$.|?*+()[]{}"; //$NON-NLS-1$
+
+	private final String fLiteral;
+	private final char[] fChars; // case folded if fIgnoreCase
+	private final boolean fIgnoreCase;
+	private final int[] fShift= new int[256];
+
+	private LiteralMatcher(String literal, boolean ignoreCase) {
+		fLiteral= literal;
+		fIgnoreCase= ignoreCase;
+		fChars= literal.toCharArray();
+		if (ignoreCase) {
+			for (int i= 0; i < fChars.length; i++) {
+				fChars[i]= fold(fChars[i]);
+			}
+		}
+		int last= fChars.length - 1;
+		Arrays.fill(fShift, fChars.length);
+		for (int i= 0; i < last; i++) {
+			fShift[fChars[i] & 0xFF]= last - i;
+		}
+	}
+
+	/**
+	 * Creates a matcher for the given pattern if it matches a literal string.
+	 *
+	 * @param pattern the pattern
+	 * @return the matcher or <code>null</code> if the pattern is not a literal
+	 */
+	public static LiteralMatcher create(Pattern pattern) {
+		int flags= pattern.flags();
+		if (flags != CASE_SENSITIVE_FLAGS && flags != CASE_INSENSITIVE_FLAGS) {
+			return null;
+		}
+		String literal= getLiteral(pattern.pattern());
+		if (literal == null || literal.isEmpty()) {
+			return null;
+		}
+		boolean ignoreCase= flags == CASE_INSENSITIVE_FLAGS;
+		if (ignoreCase) {
+			for (int i= 0; i < literal.length(); i++) {
+				// the regular expression folds supplementary characters by code point
+				if (Character.isSurrogate(literal.charAt(i))) {
+					return null;
+				}
+			}
+		}
+		return new LiteralMatcher(literal, ignoreCase);
+	}
+
+	/**
+	 * Returns the string matched by the given regular expression if it
+	 * consists of quoted sections, escaped and plain characters only.
+	 *
+	 * @param regex the regular expression
+	 * @return the string or <code>null</code> if the expression is not a literal
+	 */
+	private static String getLiteral(String regex) {
+		StringBuilder literal= new StringBuilder(regex.length());
+		int length= regex.length();
+		int i= 0;
+		while (i < length) {
+			char ch= regex.charAt(i++);
+			if (ch != '\\') {
+				if (META_CHARACTERS.indexOf(ch) != -1) {
+					return null;
+				}
+				literal.append(ch);
+			} else if (i == length) {
+				return null;
+			} else if (regex.charAt(i) == 'Q') {
+				int end= regex.indexOf("\\E", ++i); //$NON-NLS-1$
+				if (end == -1) {
+					end= length;
+				}
+				literal.append(regex, i, end);
+				i= end + 2;
+			} else {
+				char escaped= regex.charAt(i++);
+				if (Character.isLetterOrDigit(escaped)) {
+					return null;
+				}
+				literal.append(escaped);
+			}
+		}
+		return literal.toString();
+	}
+
+	/**
+	 * Returns the length of the matches.
+	 *
+	 * @return the length of the literal
+	 */
+	public int length() {
+		return fChars.length;
+	}
+
+	/**
+	 * Returns the offset of the first match in the given text at or after the
+	 * given offset.
+	 *
+	 * @param text the text to search
+	 * @param from the offset to start at
+	 * @return the offset of the match or <code>-1</code>
+	 */
+	public int indexOf(CharSequence text, int from) {
+		if (!fIgnoreCase && text instanceof String string) {
+			return string.indexOf(fLiteral, from);
+		}
+		int last= fChars.length - 1;
+		char lastChar= fChars[last];
+		int end= text.length() - last;
+		int i= from;
+		while (i < end) {
+			char ch= text.charAt(i + last);
+			if (fIgnoreCase) {
+				ch= fold(ch);
+			}
+			if (ch == lastChar && matchesBefore(text, i, last)) {
+				return i;
+			}
+			i+= fShift[ch & 0xFF];
+		}
+		return -1;
+	}
+
+	private boolean matchesBefore(CharSequence text, int offset, int last) {
+		for (int j= last - 1; j >= 0; j--) {
+			char ch= text.charAt(offset + j);
+			if (fIgnoreCase) {
+				ch= fold(ch);
+			}
+			if (ch != fChars[j]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Folds the case of the given character the way {@link Pattern#CASE_INSENSITIVE}
+	 * together with {@link Pattern#UNICODE_CASE} compares characters.
+	 */
+	private static char fold(char ch) {
+		return Character.toLowerCase(Character.toUpperCase(ch));
+	}
+}
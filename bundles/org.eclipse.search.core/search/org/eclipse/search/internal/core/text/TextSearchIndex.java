@@ -0,0 +1,564 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.search.internal.core.text;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IPath;
+
+import org.eclipse.core.filesystem.EFS;
+import org.eclipse.core.filesystem.IFileInfo;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.IResourceChangeEvent;
+import org.eclipse.core.resources.IResourceChangeListener;
+import org.eclipse.core.resources.IResourceDelta;
+
+import org.eclipse.search.internal.core.SearchCorePlugin;
+
+/**
+ * An index of the trigrams contained in workspace files, used to skip files
+ * that cannot contain a match of a search pattern without reading them.
+ * <p>
+ * For each file the index keeps a bit set with one bit per hashed trigram of
+ * the case folded file content, together with the state of the file when it
+ * was indexed (see {@link FileState}). A file can only contain a match if the
+ * bits of all trigrams required by the pattern (see
+ * {@link #getRequiredTrigrams(Pattern)}) are set. Entries of files that were
+ * modified since, in the workspace or on disk, are ignored, so the index never
+ * hides a match; they are dropped when the resource delta arrives and recreated
+ * when the file is searched the next time.
+ * </p>
+ * <p>
+ * The index is stored in the state location of the plug-in when the plug-in
+ * stops. Clients of the index must be thread-safe, it is accessed by the
+ * parallel search jobs.
+ * </p>
+ */
+public class TextSearchIndex implements IResourceChangeListener {
+
+	/**
+	 * Preference key to enable the index (value <code>"textSearchIndex"</code>). The index
+	 * is disabled by default.
+	 */
+	public static final String PREF_ENABLED= "textSearchIndex"; //$NON-NLS-1$
+
+	private static final String FILE_NAME= "textSearchIndex.dat"; //$NON-NLS-1$
+	private static final int VERSION= 2;
+
+	/** Files with longer content are not indexed, the search reads them in chunks. */
+	private static final int MAX_INDEXED_LENGTH= 1_000_000;
+	private static final int MIN_BITS= 64;
+	private static final int MAX_BITS= 1 << 15;
+	/** Bit sets with more bits set let too many files pass to be worth storing. */
+	private static final double MAX_FILL_RATIO= 0.6;
+
+	/** An entry for a file whose bit set was too full. Such files are always searched. */
+	private static final long[] SATURATED= new long[0];
+
+	/**
+	 * The state of a file that must not change for its index entry to stay valid.
+	 * The local time stamp and the length are those of the file on disk, so changes
+	 * made outside of the workspace are noticed before the workspace is refreshed,
+	 * also when they keep the time stamp because of its coarse resolution.
+	 *
+	 * @param modificationStamp the modification stamp of the file resource
+	 * @param localTimeStamp the time stamp of the file on disk
+	 * @param length the length of the file on disk
+	 */
+	public record FileState(long modificationStamp, long localTimeStamp, long length) {
+	}
+
+	private static final class Entry {
+		final FileState fState;
+		final long[] fBits;
+
+		Entry(FileState state, long[] bits) {
+			fState= state;
+			fBits= bits;
+		}
+	}
+
+	private final File fFile;
+	private final Map<String, Entry> fEntries= new ConcurrentHashMap<>();
+	private volatile boolean fDirty;
+
+	/**
+	 * Creates the index and reads the entries stored in the given directory.
+	 *
+	 * @param location the directory to store the index in
+	 */
+	public TextSearchIndex(IPath location) {
+		fFile= location.append(FILE_NAME).toFile();
+		load();
+	}
+
+	/**
+	 * Returns whether the given file may contain all the given trigrams.
+	 *
+	 * @param file the file
+	 * @param trigrams the trigrams as returned by {@link #getRequiredTrigrams(Pattern)}
+	 * @return <code>false</code> if the file is indexed, was not changed since,
+	 *         and does not contain one of the trigrams
+	 */
+	public boolean mayContain(IFile file, int[] trigrams) {
+		Entry entry= fEntries.get(file.getFullPath().toString());
+		if (entry == null || !entry.fState.equals(getState(file))) {
+			return true;
+		}
+		return containsAll(entry.fBits, trigrams);
+	}
+
+	/**
+	 * Indexes the given content of the file if the file is not yet indexed with
+	 * the given state.
+	 *
+	 * @param file the file
+	 * @param state the state of the file as returned by {@link #getState(IFile)}
+	 *            before its content was read
+	 * @param content the content of the file
+	 */
+	public void add(IFile file, FileState state, CharSequence content) {
+		if (state == null || content.length() > MAX_INDEXED_LENGTH) {
+			return;
+		}
+		String key= file.getFullPath().toString();
+		Entry entry= fEntries.get(key);
+		if (entry != null && entry.fState.equals(state)) {
+			return;
+		}
+		fEntries.put(key, new Entry(state, createBits(content)));
+		fDirty= true;
+	}
+
+	/**
+	 * Returns the current state of the given file.
+	 *
+	 * @param file the file
+	 * @return the state or <code>null</code> if the file is not synchronized
+	 *         with the file system, in which case it must not be indexed
+	 */
+	public static FileState getState(IFile file) {
+		long modificationStamp= file.getModificationStamp();
+		long localTimeStamp= file.getLocalTimeStamp();
+		URI location= file.getLocationURI();
+		if (modificationStamp == IResource.NULL_STAMP || localTimeStamp == IResource.NULL_STAMP || location == null) {
+			return null;
+		}
+		try {
+			IFileInfo info= EFS.getStore(location).fetchInfo();
+			if (!info.exists() || info.getLastModified() != localTimeStamp) {
+				return null;
+			}
+			return new FileState(modificationStamp, localTimeStamp, info.getLength());
+		} catch (CoreException e) {
+			return null;
+		}
+	}
+
+	@Override
+	public void resourceChanged(IResourceChangeEvent event) {
+		IResourceDelta delta= event.getDelta();
+		if (delta == null) {
+			return;
+		}
+		try {
+			delta.accept(d -> {
+				IResource resource= d.getResource();
+				if (resource.getType() == IResource.FILE) {
+					if (d.getKind() != IResourceDelta.CHANGED || (d.getFlags() & ~(IResourceDelta.MARKERS | IResourceDelta.SYNC)) != 0) {
+						remove(resource.getFullPath().toString());
+					}
+					return false;
+				}
+				if (d.getKind() == IResourceDelta.REMOVED && resource.getType() != IResource.ROOT) {
+					String prefix= resource.getFullPath().addTrailingSeparator().toString();
+					if (fEntries.keySet().removeIf(key -> key.startsWith(prefix))) {
+						fDirty= true;
+					}
+					return false;
+				}
+				return true;
+			});
+		} catch (CoreException e) {
+			SearchCorePlugin.log(e);
+		}
+	}
+
+	private void remove(String key) {
+		if (fEntries.remove(key) != null) {
+			fDirty= true;
+		}
+	}
+
+	/**
+	 * Writes the index to the state location if it changed since it was read.
+	 */
+	public synchronized void save() {
+		if (!fDirty) {
+			return;
+		}
+		fDirty= false;
+		File tmp= new File(fFile.getPath() + ".tmp"); //$NON-NLS-1$
+		try {
+			try (DataOutputStream out= new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmp)))) {
+				out.writeInt(VERSION);
+				List<Map.Entry<String, Entry>> entries= new ArrayList<>(fEntries.entrySet());
+				out.writeInt(entries.size());
+				for (Map.Entry<String, Entry> e : entries) {
+					Entry entry= e.getValue();
+					out.writeUTF(e.getKey());
+					out.writeLong(entry.fState.modificationStamp());
+					out.writeLong(entry.fState.localTimeStamp());
+					out.writeLong(entry.fState.length());
+					out.writeInt(entry.fBits.length);
+					for (long word : entry.fBits) {
+						out.writeLong(word);
+					}
+				}
+			}
+			Files.move(tmp.toPath(), fFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+		} catch (IOException e) {
+			SearchCorePlugin.log(e);
+			tmp.delete();
+		}
+	}
+
+	private void load() {
+		if (!fFile.isFile()) {
+			return;
+		}
+		try (DataInputStream in= new DataInputStream(new BufferedInputStream(new FileInputStream(fFile)))) {
+			if (in.readInt() != VERSION) {
+				return;
+			}
+			int count= in.readInt();
+			for (int i= 0; i < count; i++) {
+				String key= in.readUTF();
+				FileState state= new FileState(in.readLong(), in.readLong(), in.readLong());
+				int length= in.readInt();
+				long[] bits= length == 0 ? SATURATED : new long[length];
+				for (int j= 0; j < length; j++) {
+					bits[j]= in.readLong();
+				}
+				fEntries.put(key, new Entry(state, bits));
+			}
+		} catch (IOException e) {
+			// start over with an empty index
+			fEntries.clear();
+			SearchCorePlugin.log(e);
+		}
+	}
+
+	/**
+	 * Returns the hashed trigrams contained in every match of the given pattern.
+	 * <p>
+	 * The literal character sequences outside of groups, character classes and
+	 * optional or repeated elements are required in every match. The trigrams are
+	 * computed of the case folded literals, so they also apply to case insensitive
+	 * patterns.
+	 * </p>
+	 *
+	 * @param pattern the pattern
+	 * @return the trigrams or <code>null</code> if the pattern does not require any
+	 *         trigram or uses constructs this method does not understand
+	 */
+	public static int[] getRequiredTrigrams(Pattern pattern) {
+		if ((pattern.flags() & (Pattern.COMMENTS | Pattern.LITERAL | Pattern.CANON_EQ)) != 0) {
+			return null;
+		}
+		String regex= pattern.pattern();
+		int length= regex.length();
+		List<Integer> trigrams= new ArrayList<>();
+		StringBuilder run= new StringBuilder();
+		int i= 0;
+		while (i < length) {
+			char ch= regex.charAt(i++);
+			int literal= -1; // the literal character just read, if any
+			switch (ch) {
+				case '\\':
+					if (i == length) {
+						return null;
+					}
+					char escaped= regex.charAt(i++);
+					if (escaped == 'Q') {
+						int end= regex.indexOf("\\E", i); //$NON-NLS-1$
+						if (end == -1) {
+							end= length;
+						}
+						if (end > i) {
+							run.append(regex, i, end - 1);
+							literal= regex.charAt(end - 1);
+						}
+						i= Math.min(end + 2, length);
+					} else if ("xuc0NkpP".indexOf(escaped) != -1) { //$NON-NLS-1$
+						return null;
+					} else {
+						literal= unescape(escaped);
+					}
+					break;
+				case '|':
+					// top level alternative
+					return null;
+				case '(':
+					if (hasCommentsFlag(regex, i)) {
+						return null;
+					}
+					i= skipGroup(regex, i);
+					break;
+				case '[':
+					i= skipClass(regex, i);
+					break;
+				case '.':
+				case '^':
+				case '$':
+				case ')':
+				case ']':
+				case '{':
+				case '}':
+				case '*':
+				case '+':
+				case '?':
+					break;
+				default:
+					literal= ch;
+					break;
+			}
+			if (literal != -1 && isQuantifier(regex, i)) {
+				if (regex.charAt(i) == '+') {
+					// required, but may be repeated
+					run.append((char) literal);
+				}
+				literal= -1;
+			}
+			if (literal == -1) {
+				i= skipQuantifier(regex, i);
+				addTrigrams(run, trigrams);
+				run.setLength(0);
+			} else {
+				run.append((char) literal);
+			}
+		}
+		addTrigrams(run, trigrams);
+		if (trigrams.isEmpty()) {
+			return null;
+		}
+		int[] result= new int[trigrams.size()];
+		for (int k= 0; k < result.length; k++) {
+			result[k]= trigrams.get(k).intValue();
+		}
+		return result;
+	}
+
+	private static boolean isQuantifier(String regex, int i) {
+		if (i >= regex.length()) {
+			return false;
+		}
+		char ch= regex.charAt(i);
+		return ch == '*' || ch == '+' || ch == '?' || ch == '{';
+	}
+
+	private static int skipQuantifier(String regex, int i) {
+		if (!isQuantifier(regex, i)) {
+			return i;
+		}
+		if (regex.charAt(i) == '{') {
+			int end= regex.indexOf('}', i);
+			i= end == -1 ? regex.length() : end + 1;
+		} else {
+			i++;
+		}
+		// reluctant or possessive quantifier
+		if (i < regex.length() && (regex.charAt(i) == '?' || regex.charAt(i) == '+')) {
+			i++;
+		}
+		return i;
+	}
+
+	private static int skipGroup(String regex, int i) {
+		int depth= 1;
+		while (i < regex.length()) {
+			char ch= regex.charAt(i++);
+			if (ch == '\\') {
+				if (regex.startsWith("Q", i)) { //$NON-NLS-1$
+					int end= regex.indexOf("\\E", i); //$NON-NLS-1$
+					i= end == -1 ? regex.length() : end + 2;
+				} else {
+					i++;
+				}
+			} else if (ch == '[') {
+				i= skipClass(regex, i);
+			} else if (ch == '(') {
+				depth++;
+			} else if (ch == ')' && --depth == 0) {
+				break;
+			}
+		}
+		return Math.min(i, regex.length());
+	}
+
+	private static int skipClass(String regex, int i) {
+		if (regex.startsWith("^", i)) { //$NON-NLS-1$
+			i++;
+		}
+		if (regex.startsWith("]", i)) { //$NON-NLS-1$
+			i++;
+		}
+		int depth= 1;
+		while (i < regex.length()) {
+			char ch= regex.charAt(i++);
+			if (ch == '\\') {
+				i++;
+			} else if (ch == '[') {
+				depth++;
+			} else if (ch == ']' && --depth == 0) {
+				break;
+			}
+		}
+		return Math.min(i, regex.length());
+	}
+
+	private static boolean hasCommentsFlag(String regex, int i) {
+		if (!regex.startsWith("?", i++)) { //$NON-NLS-1$
+			return false;
+		}
+		while (i < regex.length()) {
+			char ch= regex.charAt(i++);
+			if (ch == 'x') {
+				return true;
+			}
+			if (ch != '-' && !Character.isLetter(ch)) {
+				return false;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Returns the character denoted by the given escaped character.
+	 *
+	 * @return the character or <code>-1</code> for classes, boundaries and back
+	 *         references
+	 */
+	private static int unescape(char escaped) {
+		switch (escaped) {
+			case 't':
+				return '\t';
+			case 'n':
+				return '\n';
+			case 'r':
+				return '\r';
+			case 'f':
+				return '\f';
+			case 'a':
+				return '\u0007';
+			case 'e':
+				return '\u001B';
+			default:
+				return Character.isLetterOrDigit(escaped) ? -1 : escaped;
+		}
+	}
+
+	private static void addTrigrams(CharSequence run, List<Integer> trigrams) {
+		for (int i= 0; i + 2 < run.length(); i++) {
+			char c1= run.charAt(i), c2= run.charAt(i + 1), c3= run.charAt(i + 2);
+			// case folding of supplementary characters is not supported
+			if (!Character.isSurrogate(c1) && !Character.isSurrogate(c2) && !Character.isSurrogate(c3)) {
+				trigrams.add(Integer.valueOf(hash(fold(c1), fold(c2), fold(c3))));
+			}
+		}
+	}
+
+	/**
+	 * Returns the bit set of the trigrams of the given content.
+	 *
+	 * @param content the content
+	 * @return the bit set, empty if too many bits are set to be useful
+	 */
+	public static long[] createBits(CharSequence content) {
+		int length= content.length();
+		int bits= Math.max(MIN_BITS, Math.min(MAX_BITS, Integer.highestOneBit(Math.max(1, length / 4)) << 1));
+		long[] words= new long[bits / 64];
+		int mask= bits - 1;
+		char c1= 0, c2= 0;
+		for (int i= 0; i < length; i++) {
+			char c3= fold(content.charAt(i));
+			if (i >= 2) {
+				int bit= hash(c1, c2, c3) & mask;
+				words[bit >>> 6]|= 1L << bit;
+			}
+			c1= c2;
+			c2= c3;
+		}
+		int set= 0;
+		for (long word : words) {
+			set+= Long.bitCount(word);
+		}
+		return set > bits * MAX_FILL_RATIO ? SATURATED : words;
+	}
+
+	/**
+	 * Returns whether the given bit set has the bits of all given trigrams set.
+	 *
+	 * @param words the bit set as returned by {@link #createBits(CharSequence)}
+	 * @param trigrams the trigrams as returned by {@link #getRequiredTrigrams(Pattern)}
+	 * @return <code>true</code> if the content of the bit set may contain all trigrams
+	 */
+	public static boolean containsAll(long[] words, int[] trigrams) {
+		if (words.length == 0) {
+			return true;
+		}
+		int mask= words.length * 64 - 1;
+		for (int trigram : trigrams) {
+			int bit= trigram & mask;
+			if ((words[bit >>> 6] & (1L << bit)) == 0) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Folds the case of the given character the way {@link Pattern#CASE_INSENSITIVE}
+	 * together with {@link Pattern#UNICODE_CASE} compares characters.
+	 */
+	private static char fold(char ch) {
+		if (Character.isSurrogate(ch)) {
+			return ch;
+		}
+		return Character.toLowerCase(Character.toUpperCase(ch));
+	}
+
+	private static int hash(char c1, char c2, char c3) {
+		int h= (c1 * 31 + c2) * 31 + c3;
+		return h * 0x9E3779B9 >>> 7 ^ h;
+	}
+}
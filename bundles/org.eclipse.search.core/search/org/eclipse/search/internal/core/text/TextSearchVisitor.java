@@ -16,17 +16,21 @@
 package org.eclipse.search.internal.core.text;
 
 import java.io.CharConversionException;
+import java.io.File;
 import java.io.IOException;
 import java.nio.charset.IllegalCharsetNameException;
 import java.nio.charset.UnsupportedCharsetException;
 import java.text.MessageFormat;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Queue;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -72,9 +76,16 @@ public class TextSearchVisitor {
 	public static final boolean TRACING= "true".equalsIgnoreCase(Platform.getDebugOption("org.eclipse.search/perf")); //$NON-NLS-1$ //$NON-NLS-2$
 	private static final int NUMBER_OF_LOGICAL_THREADS= Runtime.getRuntime().availableProcessors();
 
+	/**
+	 * Maximal number of matches a job buffers before handing them to the
+	 * requestor. Bounds the memory held per job for files with many matches.
+	 */
+	private static final int MATCH_BATCH_SIZE= 256;
+
 	/**
 	 * Queue of files to be searched. IFile pointing to the same local file are
-	 * grouped together
+	 * grouped together. When searching in parallel, the largest files come
+	 * first, so that the jobs polling the queue end at about the same time.
 	 **/
 	private final Queue<List<IFile>> fileBatches;
 
@@ -144,7 +155,10 @@ public class TextSearchVisitor {
 	private class TextSearchJob extends Job {
 		private final Map<IFile, IDocument> fDocumentsInEditors;
 		private FileCharSequenceProvider fileCharSequenceProvider;
+		private BinaryFilePrescanner fPrescanner;
 		private final int jobCount;
+		/** The matches not yet reported to the requestor, reused for all files of this job. */
+		private final List<TextSearchMatchAccess> fMatchBuffer= new ArrayList<>(MATCH_BATCH_SIZE);
 
 		/**
 		 * Searches for matches in the files.
@@ -168,6 +182,7 @@ public class TextSearchVisitor {
 							SearchCoreMessages.TextSearchEngine_statusMessage, null);
 			SubMonitor subMonitor = SubMonitor.convert(inner, fileBatches.size() / jobCount); // approximate
 			this.fileCharSequenceProvider= new FileCharSequenceProvider();
+			fPrescanner= new BinaryFilePrescanner();
 			List<IFile> sameFiles;
 			while (((sameFiles = fileBatches.poll()) != null) && !fFatalError && !fProgressMonitor.isCanceled()) {
 				IStatus status = processFile(sameFiles, subMonitor.split(1));
@@ -178,6 +193,7 @@ public class TextSearchVisitor {
 				// Stop processing and return the status for the completed jobs.
 			}
 			fileCharSequenceProvider= null;
+			fPrescanner= null;
 			synchronized (fLock) {
 				fLock.notify();
 			}
@@ -195,21 +211,50 @@ public class TextSearchVisitor {
 					return Status.OK_STATUS;
 				}
 
-				List<TextSearchMatchAccess> occurences;
+				// the matches are only needed again to report them for the duplicates
+				List<TextSearchMatchAccess> occurences= sameFiles.isEmpty() ? null : new ArrayList<>();
 				CharSequence charsequence;
 
 				IDocument document= getOpenDocument(file, getDocumentsInEditors());
 				if (document != null) {
 					charsequence = new DocumentCharSequence(document);
 					// assume all documents are non-binary
-					occurences = locateMatches(file, charsequence, matcher, monitor);
+					locateMatches(file, charsequence, matcher, fMatchBuffer, occurences, monitor);
 				} else {
+					if (fRequiredTrigrams != null && !fIndex.mayContain(file, fRequiredTrigrams)) {
+						fNumberOfSkippedFiles.incrementAndGet();
+						return Status.OK_STATUS;
+					}
+					// take the state before reading, a concurrent change must not go unnoticed
+					TextSearchIndex.FileState state= fIndex != null ? TextSearchIndex.getState(file) : null;
 					try {
+						long openStart= TRACING ? System.nanoTime() : 0;
+						// recognize most binary files by their first bytes, before reading and decoding them
+						boolean binaryReported= false;
+						if (fPrescanner.hasBinaryBytes(file) && !isTextContentType(file)) {
+							if (!fCollector.reportBinaryFile(file)) {
+								if (TRACING) {
+									fOpenTime.add(System.nanoTime() - openStart);
+									fNumberOfPrescannedBinaryFiles.increment();
+									fUnreadBinaryBytes.add(fPrescanner.getUnreadBytes());
+								}
+								return Status.OK_STATUS;
+							}
+							binaryReported= true;
+						}
 						charsequence = fileCharSequenceProvider.newCharSequence(file);
-						if (hasBinaryContent(charsequence, file) && !fCollector.reportBinaryFile(file)) {
+						boolean skip= !binaryReported && hasBinaryContent(charsequence, file) && !fCollector.reportBinaryFile(file);
+						if (TRACING) {
+							fOpenTime.add(System.nanoTime() - openStart);
+						}
+						if (skip) {
 							return Status.OK_STATUS;
 						}
-						occurences = locateMatches(file, charsequence, matcher, monitor);
+						locateMatches(file, charsequence, matcher, fMatchBuffer, occurences, monitor);
+						if (state != null && charsequence instanceof String && !monitor.isCanceled()) {
+							// only short files are read completely into a string
+							fIndex.add(file, state, charsequence);
+						}
 					} catch (FileCharSequenceProvider.FileCharSequenceException e) {
 						if (e.getCause() instanceof RuntimeException runtimeEx) {
 							throw runtimeEx;
@@ -221,15 +266,16 @@ public class TextSearchVisitor {
 
 				for (IFile duplicateFiles : sameFiles) {
 					// reuse previous result
-					ReusableMatchAccess matchAccess= new ReusableMatchAccess();
 					for (TextSearchMatchAccess occurence : occurences) {
+						ReusableMatchAccess matchAccess= new ReusableMatchAccess();
 						matchAccess.initialize(duplicateFiles, occurence.getMatchOffset(), occurence.getMatchLength(),
 								charsequence);
-						boolean goOn= fCollector.acceptPatternMatch(matchAccess);
-						if (!goOn) {
+						fMatchBuffer.add(matchAccess);
+						if (fMatchBuffer.size() == MATCH_BATCH_SIZE && !reportMatches(fMatchBuffer, false)) {
 							break;
 						}
 					}
+					reportMatches(fMatchBuffer, false);
 					fCollector.flushMatches(duplicateFiles);
 				}
 				if (document == null) {
@@ -263,10 +309,9 @@ public class TextSearchVisitor {
 				String message= SearchCoreMessages.TextSearchVisitor_patterntoocomplex0;
 				return new Status(IStatus.ERROR, SearchCorePlugin.PLUGIN_ID, IStatus.ERROR, message, e);
 			} finally {
-				synchronized (fLock) {
-					fCurrentFile= file;
-					fNumberOfScannedFiles++;
-				}
+				fMatchBuffer.clear();
+				fCurrentFile= file;
+				fNumberOfScannedFiles.incrementAndGet();
 			}
 			if (monitor.isCanceled()) {
 				fFatalError = true;
@@ -284,12 +329,20 @@ public class TextSearchVisitor {
 
 	private final TextSearchRequestor fCollector;
 	private final Pattern fSearchPattern;
+	private final LiteralMatcher fLiteralMatcher; // null if the pattern is not a literal
 
 	private volatile IProgressMonitor fProgressMonitor;
 
-	private int fNumberOfScannedFiles;  // Protected by fLock
-	private IFile fCurrentFile;  // Protected by fLock
-	private final Object fLock = new Object();
+	private final AtomicInteger fNumberOfScannedFiles= new AtomicInteger();
+	private volatile IFile fCurrentFile;
+	private final Object fLock = new Object(); // Notified when a job finishes
+
+	// Time spent in the phases of the jobs, summed over all jobs. Only updated when TRACING.
+	private final LongAdder fOpenTime= new LongAdder();
+	private final LongAdder fMatchTime= new LongAdder();
+	private final LongAdder fReportTime= new LongAdder();
+	private final LongAdder fNumberOfPrescannedBinaryFiles= new LongAdder();
+	private final LongAdder fUnreadBinaryBytes= new LongAdder();
 
 	private final MultiStatus fStatus;
 	private volatile boolean fFatalError; // If true, terminates the search.
@@ -297,13 +350,31 @@ public class TextSearchVisitor {
 	private volatile boolean fIsLightweightAutoRefresh;
 	private DirtyFileProvider fDirtyDiscovery;
 
+	private final TextSearchIndex fIndex; // may be null
+	private final int[] fRequiredTrigrams; // null if the index cannot tell which files to skip
+	private final AtomicInteger fNumberOfSkippedFiles= new AtomicInteger();
+
 	public TextSearchVisitor(TextSearchRequestor collector, Pattern searchPattern, DirtyFileProvider dirtyDiscovery) {
+		this(collector, searchPattern, dirtyDiscovery, null);
+	}
+
+	/**
+	 * @param collector the requestor to report the results to
+	 * @param searchPattern the pattern to search for
+	 * @param dirtyDiscovery the provider of the dirty files or <code>null</code>
+	 * @param index the index to skip files that cannot match and to add the
+	 *            searched files to, or <code>null</code> to search all files
+	 */
+	public TextSearchVisitor(TextSearchRequestor collector, Pattern searchPattern, DirtyFileProvider dirtyDiscovery, TextSearchIndex index) {
 		fCollector= collector;
+		fIndex= index;
+		fRequiredTrigrams= index == null ? null : TextSearchIndex.getRequiredTrigrams(searchPattern);
 		fDirtyDiscovery = dirtyDiscovery;
 		fStatus = new MultiStatus(SearchCorePlugin.PLUGIN_ID, IStatus.OK,
 				SearchCoreMessages.TextSearchEngine_statusMessage, null);
 
 		fSearchPattern= searchPattern;
+		fLiteralMatcher= LiteralMatcher.create(searchPattern);
 
 		fIsLightweightAutoRefresh= Platform.getPreferencesService().getBoolean(ResourcesPlugin.PI_RESOURCES, ResourcesPlugin.PREF_LIGHTWEIGHT_AUTO_REFRESH, false, null);
 		fileBatches = new ConcurrentLinkedQueue<>();
@@ -314,14 +385,21 @@ public class TextSearchVisitor {
 			return fStatus;
 		}
 		fProgressMonitor = monitor == null ? new NullProgressMonitor() : monitor;
-		synchronized (fLock) {
-			fNumberOfScannedFiles = 0;
-			fCurrentFile = null;
+		fNumberOfScannedFiles.set(0);
+		fNumberOfSkippedFiles.set(0);
+		fCurrentFile = null;
+		if (TRACING) {
+			fOpenTime.reset();
+			fMatchTime.reset();
+			fReportTime.reset();
+			fNumberOfPrescannedBinaryFiles.reset();
+			fUnreadBinaryBytes.reset();
 		}
 		int threadsNeeded = Math.min(files.length, NUMBER_OF_LOGICAL_THREADS);
 		// All but 1 threads should search. 1 thread does the UI updates:
 		int jobCount = fCollector.canRunInParallel() && threadsNeeded > 1 ? threadsNeeded - 1 : 1;
 		long startTime= TRACING ? System.currentTimeMillis() : 0;
+		long searchStartTime= startTime;
 
 		try {
 			String taskName= fSearchPattern.pattern().isEmpty()
@@ -347,9 +425,16 @@ public class TextSearchVisitor {
 					filesByLocation.computeIfAbsent(key, k -> new ArrayList<>()).add(file);
 
 				}
-				localFilesByLocation.values().forEach(fileBatches::offer);
+				if (jobCount > 1) {
+					offerLargestFirst(localFilesByLocation);
+				} else {
+					localFilesByLocation.values().forEach(fileBatches::offer);
+				}
 				remoteFilesByLocation.values().forEach(fileBatches::offer);
 				int numberOfFilesToScan = fileBatches.size();
+				if (TRACING) {
+					searchStartTime= System.currentTimeMillis();
+				}
 				fProgressMonitor.beginTask(taskName, numberOfFilesToScan);
 
 				// Seed count over 1 can cause endless waits, see bug 543629
@@ -369,7 +454,6 @@ public class TextSearchVisitor {
 				int lastNumberOfScannedFiles = 0;
 				while (!fProgressMonitor.isCanceled() && !jobGroup.getActiveJobs().isEmpty()
 						&& numberOfScannedFiles != numberOfFilesToScan) {
-					IFile file;
 					synchronized (fLock) {
 						try {
 							// time only relevant on how often progress is
@@ -379,9 +463,9 @@ public class TextSearchVisitor {
 							fProgressMonitor.setCanceled(true);
 							break;
 						}
-						file = fCurrentFile;
-						numberOfScannedFiles = fNumberOfScannedFiles;
 					}
+					IFile file = fCurrentFile;
+					numberOfScannedFiles = fNumberOfScannedFiles.get();
 					if (file != null) {
 						String fileName = file.getName();
 						Object[] args = { fileName, Integer.valueOf(numberOfScannedFiles),
@@ -415,13 +499,46 @@ public class TextSearchVisitor {
 			fProgressMonitor.done();
 			fCollector.endReporting();
 			if (TRACING) {
-				Object[] args= { Integer.valueOf(fNumberOfScannedFiles), Integer.valueOf(jobCount), Integer.valueOf(NUMBER_OF_LOGICAL_THREADS), Long.valueOf(System.currentTimeMillis() - startTime) };
+				long endTime= System.currentTimeMillis();
+				Object[] args= { Integer.valueOf(fNumberOfScannedFiles.get()), Integer.valueOf(jobCount), Integer.valueOf(NUMBER_OF_LOGICAL_THREADS), Long.valueOf(endTime - startTime) };
 				System.out.println(MessageFormat.format(
 						"[TextSearch] Search duration for {0} files in {1} jobs using {2} threads: {3}ms", args)); //$NON-NLS-1$
+				Object[] phases= { Long.valueOf(searchStartTime - startTime), Long.valueOf(endTime - searchStartTime),
+						Long.valueOf(fOpenTime.sum() / 1000000), Long.valueOf(fMatchTime.sum() / 1000000), Long.valueOf(fReportTime.sum() / 1000000) };
+				System.out.println(MessageFormat.format(
+						"[TextSearch] Phases: preparing {0}ms, searching {1}ms; summed over jobs: opening files {2}ms, matching {3}ms, reporting {4}ms", phases)); //$NON-NLS-1$
+				Object[] binaries= { Long.valueOf(fNumberOfPrescannedBinaryFiles.sum()), Long.valueOf(fUnreadBinaryBytes.sum()) };
+				System.out.println(MessageFormat.format(
+						"[TextSearch] Binary files skipped after reading their first bytes: {0}, bytes not read: {1}", binaries)); //$NON-NLS-1$
+				if (fIndex != null) {
+					Object[] index= { Integer.valueOf(fNumberOfSkippedFiles.get()), fRequiredTrigrams == null ? "none" : String.valueOf(fRequiredTrigrams.length) }; //$NON-NLS-1$
+					System.out.println(MessageFormat.format(
+							"[TextSearch] Index skipped {0} files, required trigrams: {1}", index)); //$NON-NLS-1$
+				}
 			}
 		}
 	}
 
+	/**
+	 * Adds the given groups of local files to the queue of files to search, the
+	 * group of the largest file first. The jobs take the files from the queue
+	 * as they finish the previous ones, so the small files at the end balance
+	 * the load between the jobs.
+	 *
+	 * @param filesByLocation the groups of files, keyed by their local path
+	 */
+	private void offerLargestFirst(Map<String, List<IFile>> filesByLocation) {
+		String[] locations= filesByLocation.keySet().toArray(new String[filesByLocation.size()]);
+		long[] lengths= new long[locations.length];
+		Arrays.parallelSetAll(lengths, i -> new File(locations[i]).length());
+		Integer[] order= new Integer[locations.length];
+		Arrays.setAll(order, i -> Integer.valueOf(i));
+		Arrays.sort(order, (i, j) -> Long.compare(lengths[j], lengths[i]));
+		for (Integer i : order) {
+			fileBatches.offer(filesByLocation.get(locations[i]));
+		}
+	}
+
 	private Map<IFile, IDocument> findDirtyFiles() {
 		if (fDirtyDiscovery != null) {
 			Map<IFile, IDocument> ret = fDirtyDiscovery.dirtyFiles();
@@ -435,6 +552,17 @@ public class TextSearchVisitor {
 		return search(scope.evaluateFilesInScope(fStatus), monitor);
 	}
 
+	private boolean isTextContentType(IFile file) throws CoreException {
+		IContentDescription desc= file.getContentDescription();
+		if (desc != null) {
+			IContentType contentType= desc.getContentType();
+			if (contentType != null && contentType.isKindOf(Platform.getContentTypeManager().getContentType(IContentTypeManager.CT_TEXT))) {
+				return true;
+			}
+		}
+		return false;
+	}
+
 	private boolean hasBinaryContent(CharSequence seq, IFile file) throws CoreException {
 		if (seq instanceof String) {
 			if (!((String) seq).contains("\0")) { //$NON-NLS-1$
@@ -442,12 +570,8 @@ public class TextSearchVisitor {
 				return false;
 			}
 		}
-		IContentDescription desc= file.getContentDescription();
-		if (desc != null) {
-			IContentType contentType= desc.getContentType();
-			if (contentType != null && contentType.isKindOf(Platform.getContentTypeManager().getContentType(IContentTypeManager.CT_TEXT))) {
-				return false;
-			}
+		if (isTextContentType(file)) {
+			return false;
 		}
 
 		// avoid calling seq.length() at it runs through the complete file,
@@ -469,34 +593,102 @@ public class TextSearchVisitor {
 		return false;
 	}
 
-	private List<TextSearchMatchAccess> locateMatches(IFile file, CharSequence searchInput, Matcher matcher, IProgressMonitor monitor) throws CoreException {
-		List<TextSearchMatchAccess> occurences= null;
-		matcher.reset(searchInput);
-		int k= 0;
-		while (matcher.find()) {
-			if (occurences == null) {
-				occurences= new ArrayList<>();
-			}
-			int start= matcher.start();
-			int end= matcher.end();
-			if (end != start) { // don't report 0-length matches
-				ReusableMatchAccess access= new ReusableMatchAccess();
-				access.initialize(file, start, end - start, searchInput);
-				occurences.add(access);
-				boolean res= fCollector.acceptPatternMatch(access);
-				if (!res) {
-					return occurences; // no further reporting requested
+	/**
+	 * Finds the matches in the given file and reports them to the requestor in
+	 * batches of at most {@link #MATCH_BATCH_SIZE} matches. Literal patterns are
+	 * searched without the matcher.
+	 *
+	 * @param file the file
+	 * @param searchInput the content of the file
+	 * @param matcher the matcher to use for patterns that are not literals
+	 * @param buffer the empty buffer to collect the matches of a batch in
+	 * @param occurences the list to add all matches found to or <code>null</code>
+	 * @param monitor the progress monitor, checked for cancellation
+	 * @throws CoreException if the requestor fails to process the matches
+	 */
+	private void locateMatches(IFile file, CharSequence searchInput, Matcher matcher, List<TextSearchMatchAccess> buffer, List<TextSearchMatchAccess> occurences, IProgressMonitor monitor) throws CoreException {
+		long start= TRACING ? System.nanoTime() : 0;
+		try {
+			int k= 0;
+			if (fLiteralMatcher != null) {
+				int length= fLiteralMatcher.length();
+				int matchStart= fLiteralMatcher.indexOf(searchInput, 0);
+				while (matchStart != -1) {
+					if (!addMatch(file, matchStart, length, searchInput, buffer, occurences)) {
+						return; // no further reporting requested
+					}
+					// Periodically check for cancellation and quit working on the current file if the job has been cancelled.
+					if (k++ % 20 == 0 && monitor.isCanceled()) {
+						break;
+					}
+					matchStart= fLiteralMatcher.indexOf(searchInput, matchStart + length);
+				}
+			} else {
+				matcher.reset(searchInput);
+				while (matcher.find()) {
+					int matchStart= matcher.start();
+					int matchEnd= matcher.end();
+					if (matchEnd != matchStart) { // don't report 0-length matches
+						if (!addMatch(file, matchStart, matchEnd - matchStart, searchInput, buffer, occurences)) {
+							return; // no further reporting requested
+						}
+					}
+					// Periodically check for cancellation and quit working on the current file if the job has been cancelled.
+					if (k++ % 20 == 0 && monitor.isCanceled()) {
+						break;
+					}
 				}
 			}
-			// Periodically check for cancellation and quit working on the current file if the job has been cancelled.
-			if (k++ % 20 == 0 && monitor.isCanceled()) {
-				break;
+			reportMatches(buffer, true);
+		} finally {
+			if (TRACING) {
+				// reportMatches subtracts the time spent in the requestor
+				fMatchTime.add(System.nanoTime() - start);
 			}
 		}
-		if (occurences == null) {
-			occurences= Collections.emptyList();
+	}
+
+	/**
+	 * Adds a match to the buffer and reports the buffer if it is full.
+	 *
+	 * @return <code>false</code> if the requestor does not want further matches of the file
+	 * @throws CoreException if the requestor fails to process the matches
+	 */
+	private boolean addMatch(IFile file, int offset, int length, CharSequence searchInput, List<TextSearchMatchAccess> buffer, List<TextSearchMatchAccess> occurences) throws CoreException {
+		ReusableMatchAccess access= new ReusableMatchAccess();
+		access.initialize(file, offset, length, searchInput);
+		if (occurences != null) {
+			occurences.add(access);
+		}
+		buffer.add(access);
+		return buffer.size() < MATCH_BATCH_SIZE || reportMatches(buffer, true);
+	}
+
+	/**
+	 * Reports the buffered matches to the requestor and clears the buffer.
+	 *
+	 * @param buffer the matches to report
+	 * @param whileMatching whether the time spent is part of the time measured for matching
+	 * @return <code>false</code> if the requestor does not want further matches of the file
+	 * @throws CoreException if the requestor fails to process the matches
+	 */
+	private boolean reportMatches(List<TextSearchMatchAccess> buffer, boolean whileMatching) throws CoreException {
+		if (buffer.isEmpty()) {
+			return true;
+		}
+		long start= TRACING ? System.nanoTime() : 0;
+		try {
+			return fCollector.acceptPatternMatches(buffer);
+		} finally {
+			buffer.clear();
+			if (TRACING) {
+				long duration= System.nanoTime() - start;
+				fReportTime.add(duration);
+				if (whileMatching) {
+					fMatchTime.add(-duration);
+				}
+			}
 		}
-		return occurences;
 	}
 
 
@@ -91,23 +91,42 @@ public class FileSearchQuery implements ISearchQuery {
 			if (stop) {
 				return false;
 			}
-			fCachedMatches.compute(matchRequestor.getFile(), (f, matches) -> {
-				// each file is processed by at most one job
-				int matchOffset = matchRequestor.getMatchOffset();
-				LineElement lineElement = getLineElement(matchOffset, matchRequestor, matches);
-				if (lineElement != null) {
-					FileMatch fileMatch = new FileMatch(matchRequestor.getFile(), matchOffset,
-							matchRequestor.getMatchLength(), lineElement);
-					if (matches == null) {
-						matches = new ArrayList<>();
+			// each file is processed by at most one job
+			fCachedMatches.compute(matchRequestor.getFile(), (f, matches) -> addMatch(matchRequestor, matches));
+			return true;
+		}
+
+		@Override
+		public boolean acceptPatternMatches(List<TextSearchMatchAccess> matchRequestors) throws CoreException {
+			if (stop) {
+				return false;
+			}
+			if (!matchRequestors.isEmpty()) {
+				// all matches are in the same file, processed by at most one job
+				fCachedMatches.compute(matchRequestors.get(0).getFile(), (f, matches) -> {
+					for (TextSearchMatchAccess matchRequestor : matchRequestors) {
+						matches= addMatch(matchRequestor, matches);
 					}
-					matches.add(fileMatch);
-				}
-				return matches;
-			});
+					return matches;
+				});
+			}
 			return true;
 		}
 
+		private ArrayList<FileMatch> addMatch(TextSearchMatchAccess matchRequestor, ArrayList<FileMatch> matches) {
+			int matchOffset = matchRequestor.getMatchOffset();
+			LineElement lineElement = getLineElement(matchOffset, matchRequestor, matches);
+			if (lineElement != null) {
+				FileMatch fileMatch = new FileMatch(matchRequestor.getFile(), matchOffset,
+						matchRequestor.getMatchLength(), lineElement);
+				if (matches == null) {
+					matches = new ArrayList<>();
+				}
+				matches.add(fileMatch);
+			}
+			return matches;
+		}
+
 		private LineElement getLineElement(int offset, TextSearchMatchAccess matchRequestor, ArrayList<FileMatch> matches) {
 			int lineNumber= 1;
 			int lineStart= 0;
@@ -13,9 +13,18 @@
 package org.eclipse.text.quicksearch.internal.core;
 
 import java.io.InputStreamReader;
-import java.util.HashSet;
-import java.util.Iterator;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 import org.eclipse.core.resources.IFile;
 import org.eclipse.core.resources.IResource;
@@ -35,11 +44,35 @@ public class QuickTextSearcher {
 	private final QuickTextSearchRequestor requestor;
 	private QuickTextQuery query;
 
+	/**
+	 * Number of threads searching files and filtering matches concurrently.
+	 */
+	private static final int SEARCH_THREADS = Math.min(8, Runtime.getRuntime().availableProcessors());
+
+	/**
+	 * Matches are filtered concurrently when the query changes only if each thread gets at
+	 * least this many of them.
+	 */
+	private static final int MIN_FILTER_SHARD_SIZE = 500;
+
+	/**
+	 * Threads shared by all searchers. Idle threads terminate after a while.
+	 */
+	private static final ThreadPoolExecutor executor = createExecutor();
+
 	/**
 	 * Keeps track of currently found matches. Items are added as they are found and may also
-	 * be removed when the query changed and they become invalid.
+	 * be removed when the query changed and they become invalid. Since files are searched
+	 * in order of their priority, the matches are ordered by priority as well.
 	 */
-	private Set<LineItem> matches = new HashSet<>(2000);
+	private Set<LineItem> matches = new LinkedHashSet<>(2000);
+
+	/**
+	 * The files whose search stopped in the middle because maxResults was reached.
+	 * Only accessed by Jobs holding the matchesRule. The cursors keep their files open,
+	 * so they must be closed when they are dropped.
+	 */
+	private Map<IFile, FileCursor> cursors = new HashMap<>();
 
 	/**
 	 * Scheduling rule used by Jobs that work on the matches collection.
@@ -58,10 +91,8 @@ public class QuickTextSearcher {
 
 	public static final int DEFAULT_MAX_RESULTS = 200;
 	/**
-	 * If number of accumulated results reaches maxResults the search will be suspended.
-	 * <p>
-	 * Note that more results may still arrive beyond the limit since the searcher does not (yet) have the
-	 * capability to suspend/resume a search in the middle of a file.
+	 * If number of accumulated results reaches maxResults the search will be suspended, also in
+	 * the middle of a file. Requesting more results resumes the search where it stopped.
 	 */
 	private int maxResults = DEFAULT_MAX_RESULTS;
 
@@ -75,7 +106,7 @@ public class QuickTextSearcher {
 	 * While searching in a file, this field will be set. This can be used to show the name
 	 * of the 'current file' in the progress area of the quicksearch dialog.
 	 */
-	private IFile currentFile = null;
+	private volatile IFile currentFile = null;
 
 	/**
 	 * Flag to disable incremental filtering logic based on incremental
@@ -114,6 +145,16 @@ public class QuickTextSearcher {
 		});
 	}
 
+	private static ThreadPoolExecutor createExecutor() {
+		ThreadPoolExecutor pool = new ThreadPoolExecutor(SEARCH_THREADS, SEARCH_THREADS, 10, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), r -> {
+			Thread thread = new Thread(r, "Quick Search"); //$NON-NLS-1$
+			thread.setDaemon(true);
+			return thread;
+		});
+		pool.allowCoreThreadTimeOut(true);
+		return pool;
+	}
+
 	private SearchInFilesWalker createWalker(PriorityFunction priorities) {
 		final SearchInFilesWalker job = new SearchInFilesWalker();
 		job.setPriorityFun(priorities);
@@ -122,37 +163,156 @@ public class QuickTextSearcher {
 		return job;
 	}
 
+	/**
+	 * The position where the search in a file stopped because enough matches were found,
+	 * together with the matches found but not added yet.
+	 */
+	private static final class FileCursor {
+		final IFile file;
+		/**
+		 * The reader positioned at the next line, kept open while the search is suspended
+		 * so that it can continue without reading the file again from its start.
+		 */
+		LineReader reader;
+		/**
+		 * Line number of the next line to read.
+		 */
+		int lineIndex = 1;
+		/**
+		 * Set when the end of the file was reached or reading the file failed.
+		 */
+		boolean done = false;
+		final ArrayDeque<LineItem> found = new ArrayDeque<>();
+
+		FileCursor(IFile file) {
+			this.file = file;
+		}
+
+		void close() {
+			if (reader!=null) {
+				reader.close();
+				reader = null;
+			}
+		}
+	}
+
+	/**
+	 * Walks the resources in order of their priority. Batches of files with the highest
+	 * priorities are searched concurrently, their matches are added in order of priority
+	 * as soon as the files before them are done.
+	 * <p>
+	 * The search in a file stops as soon as enough matches have been found to reach
+	 * maxResults. The file is then put back at the head of the work queue, with a cursor
+	 * remembering where to continue when more results are requested.
+	 */
 	private final class SearchInFilesWalker extends ResourceWalker {
 
+		@Override
+		protected int getBatchSize() {
+			return SEARCH_THREADS;
+		}
 
 		@Override
 		protected void visit(IFile f, IProgressMonitor mon) {
-			if (checkCanceled(mon)) {
+			currentFile = f;
+			try {
+				FileCursor cursor = takeCursor(f);
+				search(cursor, query, getRemainingResults(), mon);
+				addMatches(cursor);
+			} finally {
+				currentFile = null;
+			}
+		}
+
+		@Override
+		protected void visit(List<IFile> files, IProgressMonitor mon) {
+			if (files.size()==1) {
+				visit(files.get(0), mon);
 				return;
 			}
+			QuickTextQuery q = query;
+			int limit = getRemainingResults();
+			List<FileCursor> batch = new ArrayList<>(files.size());
+			List<Future<?>> results = new ArrayList<>(files.size());
+			for (IFile f : files) {
+				FileCursor cursor = takeCursor(f);
+				batch.add(cursor);
+				results.add(executor.submit(() -> search(cursor, q, limit, mon)));
+			}
+			try {
+				for (int i = 0; i < files.size(); i++) {
+					currentFile = files.get(i);
+					results.get(i).get();
+					addMatches(batch.get(i));
+				}
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			} catch (ExecutionException e) {
+				throw new IllegalStateException(e.getCause());
+			} finally {
+				currentFile = null;
+			}
+		}
 
-			currentFile = f;
-			try (LineReader lr = new LineReader(new InputStreamReader(f.getContents(true), f.getCharset()), MAX_LINE_LEN)) {
+		private FileCursor takeCursor(IFile f) {
+			FileCursor cursor = cursors.remove(f);
+			return cursor!=null ? cursor : new FileCursor(f);
+		}
+
+		private int getRemainingResults() {
+			return Math.max(1, maxResults - matches.size());
+		}
+
+		/**
+		 * Continues the search in a file until the cursor holds at least the given number
+		 * of matches or the end of the file is reached. The matches found before a problem
+		 * with reading the file are kept as well.
+		 */
+		private void search(FileCursor cursor, QuickTextQuery q, int limit, IProgressMonitor mon) {
+			if (cursor.done || cursor.found.size()>=limit || checkCanceled(mon)) {
+				return;
+			}
+			IFile f = cursor.file;
+			try {
+				if (cursor.reader==null) {
+					cursor.reader = new LineReader(new InputStreamReader(f.getContents(true), f.getCharset()), MAX_LINE_LEN);
+				}
+				LineReader lr = cursor.reader;
 				String line = null;
-				int lineIndex = 1;
-				while ((line = lr.readLine()) != null) {
+				while (cursor.found.size()<limit && (line = lr.readLine()) != null) {
 					int offset = lr.getLastLineOffset();
 					if (checkCanceled(mon)) {
 						return;
 					}
 
-					boolean found = query.matchItem(line);
-					if (found) {
-						LineItem lineItem = new LineItem(f, line, lineIndex, offset);
-						add(lineItem);
+					if (q.matchItem(line)) {
+						cursor.found.add(new LineItem(f, line, cursor.lineIndex, offset));
 					}
 
-					lineIndex++;
+					cursor.lineIndex++;
 				}
+				cursor.done = line==null;
 			} catch (Exception e) {
 				// ignored
-			} finally {
-				currentFile = null;
+				cursor.done = true;
+			}
+			if (cursor.done) {
+				cursor.close();
+			}
+		}
+
+		/**
+		 * Adds the matches of the cursor until maxResults is reached. If matches are left
+		 * or the file has not been searched to its end, the file is visited again first when
+		 * the walker resumes.
+		 */
+		private void addMatches(FileCursor cursor) {
+			while (!cursor.found.isEmpty() && matches.size()<maxResults) {
+				add(cursor.found.removeFirst());
+			}
+			if (!cursor.found.isEmpty() || !cursor.done) {
+				cursors.put(cursor.file, cursor);
+				revisit(cursor.file);
 			}
 		}
 
@@ -209,15 +369,18 @@ public class QuickTextSearcher {
 		}
 
 		private void performIncrementalUpdate(IProgressMonitor mon) {
-			Iterator<LineItem> items = matches.iterator();
-			while (items.hasNext() && !mon.isCanceled()) {
-
-				LineItem item = items.next();
-				if (query.matchItem(item)) {
+			for (FileCursor cursor : cursors.values()) {
+				cursor.found.removeIf(item -> !query.matchItem(item));
+			}
+			LineItem[] items = matches.toArray(new LineItem[matches.size()]);
+			boolean[] valid = filter(items, mon);
+			for (int i = 0; i < items.length && !mon.isCanceled(); i++) {
+				LineItem item = items[i];
+				if (valid[i]) {
 					//Match still valid but may need updating highlighted text in the UI:
 					requestor.update(item);
 				} else {
-					items.remove();
+					matches.remove(item);
 					requestor.revoke(item);
 				}
 			}
@@ -227,6 +390,41 @@ public class QuickTextSearcher {
 			}
 		}
 
+		/**
+		 * Matches the items against the query. Large numbers of items are split into shards
+		 * that are matched concurrently.
+		 */
+		private boolean[] filter(LineItem[] items, IProgressMonitor mon) {
+			boolean[] valid = new boolean[items.length];
+			QuickTextQuery q = query;
+			int shards = Math.max(1, Math.min(SEARCH_THREADS, items.length / MIN_FILTER_SHARD_SIZE));
+			int shardSize = (items.length + shards - 1) / shards;
+			List<Future<?>> pending = new ArrayList<>(shards - 1);
+			for (int shard = 1; shard < shards; shard++) {
+				int start = shard * shardSize;
+				int end = Math.min(items.length, start + shardSize);
+				pending.add(executor.submit(() -> filter(items, start, end, q, valid, mon)));
+			}
+			filter(items, 0, Math.min(items.length, shardSize), q, valid, mon);
+			try {
+				for (Future<?> f : pending) {
+					f.get();
+				}
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				mon.setCanceled(true);
+			} catch (ExecutionException e) {
+				throw new IllegalStateException(e.getCause());
+			}
+			return valid;
+		}
+
+		private void filter(LineItem[] items, int start, int end, QuickTextQuery q, boolean[] valid, IProgressMonitor mon) {
+			for (int i = start; i < end && !mon.isCanceled(); i++) {
+				valid[i] = q.matchItem(items[i]);
+			}
+		}
+
 		private void performRestart(IProgressMonitor mon) {
 			//walker may be null if dialog got closed already before we managed to
 			// 'performRestart'.
@@ -234,6 +432,7 @@ public class QuickTextSearcher {
 				//since we are inside Job here that uses same scheduling rule as walker, we
 				//know walker is not currently executing. so walker cancel should be instantenous
 				matches.clear();
+				closeCursors();
 				requestor.clear();
 				walker.cancel();
 				if (!query.isTrivial()) {
@@ -317,7 +516,22 @@ public class QuickTextSearcher {
 		if (walker!=null) {
 			walker.cancel();
 			walker = null;
+			Job job = Job.create("Close suspended quick search files", mon -> { closeCursors(); }); //$NON-NLS-1$
+			job.setSystem(true);
+			job.setRule(matchesRule); //Must not close the files while the walker searches in them.
+			job.schedule();
+		}
+	}
+
+	/**
+	 * Closes the files of the suspended searches and drops their cursors. Must only be
+	 * called by Jobs holding the matchesRule.
+	 */
+	private void closeCursors() {
+		for (FileCursor cursor : cursors.values()) {
+			cursor.close();
 		}
+		cursors.clear();
 	}
 
 	public IFile getCurrentFile() {
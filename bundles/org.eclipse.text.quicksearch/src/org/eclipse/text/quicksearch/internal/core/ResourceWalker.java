@@ -12,6 +12,8 @@
  *******************************************************************************/
 package org.eclipse.text.quicksearch.internal.core;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.PriorityQueue;
 
 import org.eclipse.core.resources.IContainer;
@@ -128,7 +130,7 @@ public abstract class ResourceWalker extends Job {
 				if (r!=null) {
 					if (r instanceof IFile) {
 						IFile f = (IFile) r;
-						visit(f, monitor);
+						visit(takeFiles(f), monitor);
 					} else if (r instanceof IContainer) {
 						IContainer f = (IContainer) r;
 						if (f.isAccessible()) {
@@ -169,6 +171,50 @@ public abstract class ResourceWalker extends Job {
 
 	protected abstract void visit(IFile r, IProgressMonitor m);
 
+	/**
+	 * Puts a file visited before back into the work queue, for walkers that stop visiting
+	 * a file in the middle. Since the file had the highest priority when it was taken from
+	 * the queue, it is visited again before any other resource.
+	 */
+	protected void revisit(IFile f) {
+		enqueue(f);
+	}
+
+	/**
+	 * Visits a batch of files taken from the head of the work queue. The files are
+	 * ordered by decreasing priority. The default implementation visits them one after
+	 * the other; subclasses may visit them concurrently. All files of the batch must be
+	 * visited, even if the walker gets suspended in the mean time.
+	 */
+	protected void visit(List<IFile> files, IProgressMonitor m) {
+		for (IFile f : files) {
+			visit(f, m);
+		}
+	}
+
+	/**
+	 * The maximum number of files passed to {@link #visit(List, IProgressMonitor)} at once.
+	 * The default is 1.
+	 */
+	protected int getBatchSize() {
+		return 1;
+	}
+
+	/**
+	 * Takes the files following the given file from the head of the work queue, as long as
+	 * no container has a higher priority than the next file.
+	 */
+	private List<IFile> takeFiles(IFile first) {
+		int batchSize = getBatchSize();
+		List<IFile> files = new ArrayList<>(batchSize);
+		files.add(first);
+		PriorityQueue<QItem> q = queue;
+		while (q!=null && files.size()<batchSize && !q.isEmpty() && q.peek().resource.getType()==IResource.FILE) {
+			files.add((IFile) q.remove().resource);
+		}
+		return files;
+	}
+
 	/**
 	 * Assigns a priority to a given resource. This priority will affect the order in which
 	 * resources get visited. Resources to be visited are tracked in a priority queue and
@@ -17,7 +17,9 @@ package org.eclipse.jface.text;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
@@ -67,6 +69,13 @@ public abstract class AbstractDocument implements IDocument, IDocumentExtension,
 	 */
 	private static final boolean DEBUG= false;
 
+	/**
+	 * Number of positions up to which {@link #replacePositions(String, Position[], Position[])}
+	 * updates the position lists position by position.
+	 * @since 3.14
+	 */
+	private static final int BATCH_THRESHOLD= 8;
+
 
 	/**
 	 * Inner class to bundle a registered post notification replace operation together with its
@@ -351,7 +360,7 @@ public abstract class AbstractDocument implements IDocument, IDocumentExtension,
 		List<Position> endPositions= fEndPositions.get(category);
 		if (endPositions == null)
 			throw new BadPositionCategoryException();
-		endPositions.add(computeIndexInPositionList(endPositions, position.offset + position.length - 1, false), position);
+		endPositions.add(computeIndexInPositionList(endPositions, getOffset(false, position), false), position);
 	}
 
 	@Override
@@ -675,7 +684,73 @@ public abstract class AbstractDocument implements IDocument, IDocumentExtension,
 		}
 
 		if (!fPositions.isEmpty())
-			updatePositions(event);
+			updatePositionsKeepingOrder(event);
+	}
+
+	/**
+	 * Updates the positions to the given change and restores the order of the position lists
+	 * afterwards. Position updaters do not change the offset of positions starting before the
+	 * change, nor do they change positions ending more than one character before the change.
+	 * Hence only the tails of the lists following these positions can get out of order and need
+	 * to be sorted again. If all position updaters are {@link DefaultPositionUpdater}s, only the
+	 * lists of their categories are sorted. This keeps the lists sorted, which in turn allows the
+	 * {@link DefaultPositionUpdater} and the range queries to find the affected positions by binary
+	 * search.
+	 *
+	 * @param event the document event describing the change to which to adapt the positions
+	 * @since 3.14
+	 */
+	private void updatePositionsKeepingOrder(DocumentEvent event) {
+		int offset= event.getOffset();
+		List<String> categories= getUpdatedCategories();
+		int[] startIndices= new int[categories.size()];
+		int[] endIndices= new int[categories.size()];
+		for (int i= 0; i < categories.size(); i++) {
+			String category= categories.get(i);
+			startIndices[i]= computeIndexInPositionList(fPositions.get(category), offset, true);
+			endIndices[i]= computeIndexInPositionList(fEndPositions.get(category), offset - 1, false);
+		}
+
+		updatePositions(event);
+
+		for (int i= 0; i < categories.size(); i++) {
+			String category= categories.get(i);
+			sortTail(fPositions.get(category), startIndices[i], true);
+			sortTail(fEndPositions.get(category), endIndices[i], false);
+		}
+	}
+
+	/**
+	 * Returns the position categories whose positions can be changed by the position updaters.
+	 *
+	 * @return the existing categories of the default position updaters, or all categories if
+	 *         there is another position updater
+	 * @since 3.14
+	 */
+	private List<String> getUpdatedCategories() {
+		List<String> categories= new ArrayList<>();
+		for (IPositionUpdater u : fPositionUpdaters) {
+			if (!(u instanceof DefaultPositionUpdater))
+				return new ArrayList<>(fPositions.keySet());
+			String category= ((DefaultPositionUpdater) u).getCategory();
+			if (fPositions.containsKey(category) && !categories.contains(category))
+				categories.add(category);
+		}
+		return categories;
+	}
+
+	/**
+	 * Sorts the given list of positions starting at the given index.
+	 *
+	 * @param positions the list of positions, may be <code>null</code>
+	 * @param index the index of the first position to sort
+	 * @param orderedByOffset <code>true</code> if ordered by offset, false if ordered by end position
+	 * @since 3.14
+	 */
+	private void sortTail(List<Position> positions, int index, boolean orderedByOffset) {
+		if (positions == null || positions.size() - index < 2)
+			return;
+		positions.subList(index, positions.size()).sort(Comparator.comparingInt(p -> getOffset(orderedByOffset, p)));
 	}
 
 	/**
@@ -1001,7 +1076,7 @@ public abstract class AbstractDocument implements IDocument, IDocumentExtension,
 		int size= positions.size();
 
 		//Assume position is somewhere near it was before
-		int index= computeIndexInPositionList(positions, orderedByOffset ? position.offset : position.offset + position.length - 1, orderedByOffset);
+		int index= computeIndexInPositionList(positions, getOffset(orderedByOffset, position), orderedByOffset);
 		if (index < size && positions.get(index) == position) {
 			positions.remove(index);
 			return;
@@ -1036,6 +1111,123 @@ public abstract class AbstractDocument implements IDocument, IDocumentExtension,
 		}
 	}
 
+	/**
+	 * Removes the given positions from and then adds the given positions to the
+	 * given category. This is equivalent to calling
+	 * {@link #removePosition(String, Position)} for each position to remove and
+	 * {@link #addPosition(String, Position)} for each position to add, but large
+	 * batches are handled in a single pass over the category's position lists
+	 * instead of shifting the lists once per position.
+	 * <p>
+	 * If one of the positions to add is not a valid document position, the
+	 * category is not modified at all.
+	 * </p>
+	 *
+	 * @param category the position category
+	 * @param positionsToRemove the positions to remove, may be <code>null</code>
+	 * @param positionsToAdd the positions to add, may be <code>null</code>
+	 * @throws BadLocationException if one of the positions to add does not
+	 *             describe a valid range in this document
+	 * @throws BadPositionCategoryException if the category is undefined in this
+	 *             document
+	 * @since 3.14
+	 */
+	public void replacePositions(String category, Position[] positionsToRemove, Position[] positionsToAdd) throws BadLocationException, BadPositionCategoryException {
+
+		if (category == null)
+			throw new BadPositionCategoryException();
+
+		List<Position> positions= fPositions.get(category);
+		List<Position> endPositions= fEndPositions.get(category);
+		if (positions == null || endPositions == null)
+			throw new BadPositionCategoryException();
+
+		if (positionsToAdd != null) {
+			int length= getLength();
+			for (Position position : positionsToAdd) {
+				if ((0 > position.offset) || (0 > position.length) || (position.offset + position.length > length))
+					throw new BadLocationException();
+			}
+		}
+
+		if (positionsToRemove != null && positionsToRemove.length > 0) {
+			if (positionsToRemove.length <= BATCH_THRESHOLD) {
+				for (Position position : positionsToRemove) {
+					if (position != null) {
+						removeFromPositionsList(positions, position, true);
+						removeFromPositionsList(endPositions, position, false);
+					}
+				}
+			} else {
+				removeFromPositionsList(positions, positionsToRemove);
+				removeFromPositionsList(endPositions, positionsToRemove);
+			}
+		}
+
+		if (positionsToAdd != null && positionsToAdd.length > 0) {
+			if (positionsToAdd.length <= BATCH_THRESHOLD) {
+				for (Position position : positionsToAdd) {
+					positions.add(computeIndexInPositionList(positions, position.offset), position);
+					endPositions.add(computeIndexInPositionList(endPositions, getOffset(false, position), false), position);
+				}
+			} else {
+				mergeIntoPositionsList(positions, positionsToAdd, true);
+				mergeIntoPositionsList(endPositions, positionsToAdd, false);
+			}
+		}
+	}
+
+	/**
+	 * Removes the given positions from the given list of positions in one pass. Like
+	 * {@link #removePosition(String, Position)}, each listed position is removed once,
+	 * a position added several times stays in the list as often as it is added more
+	 * often than listed.
+	 *
+	 * @param positions a list of positions
+	 * @param positionsToRemove the positions to remove, may contain <code>null</code>
+	 * @since 3.14
+	 */
+	private static void removeFromPositionsList(List<Position> positions, Position[] positionsToRemove) {
+		Map<Position, int[]> counts= new IdentityHashMap<>(2 * positionsToRemove.length);
+		for (Position position : positionsToRemove) {
+			if (position != null)
+				counts.computeIfAbsent(position, p -> new int[1])[0]++;
+		}
+		positions.removeIf(position -> {
+			int[] count= counts.get(position);
+			return count != null && count[0]-- > 0;
+		});
+	}
+
+	/**
+	 * Merges the given positions into the given sorted list of positions. Like
+	 * in {@link #addPosition(String, Position)}, an added position is inserted
+	 * before the existing positions with the same offset.
+	 *
+	 * @param positions a sorted list of positions
+	 * @param positionsToAdd the positions to add, in any order
+	 * @param orderedByOffset true if <code>positions</code> is ordered by offset, false if ordered by end position
+	 * @since 3.14
+	 */
+	private void mergeIntoPositionsList(List<Position> positions, Position[] positionsToAdd, boolean orderedByOffset) {
+		Position[] added= positionsToAdd.clone();
+		Arrays.sort(added, Comparator.comparingInt(p -> getOffset(orderedByOffset, p)));
+
+		List<Position> merged= new ArrayList<>(positions.size() + added.length);
+		int i= 0;
+		for (Position position : positions) {
+			int offset= getOffset(orderedByOffset, position);
+			while (i < added.length && getOffset(orderedByOffset, added[i]) <= offset)
+				merged.add(added[i++]);
+			merged.add(position);
+		}
+		while (i < added.length)
+			merged.add(added[i++]);
+
+		positions.clear();
+		positions.addAll(merged);
+	}
+
 	@Override
 	public void removePositionCategory(String category) throws BadPositionCategoryException {
 
@@ -1585,11 +1777,10 @@ public abstract class AbstractDocument implements IDocument, IDocumentExtension,
 		if (canStartBefore && canEndAfter || (!canStartBefore && !canEndAfter)) {
 			List<Position> documentPositions;
 			if (canStartBefore && canEndAfter) {
-				if (offset < getLength() / 2) {
-					documentPositions= getStartingPositions(category, 0, offset + length);
-				} else {
-					documentPositions= getEndingPositions(category, offset, getLength() - offset + 1);
-				}
+				// both sub lists are views computed by binary search, filter the shorter one
+				List<Position> starting= getStartingPositions(category, 0, offset + length);
+				List<Position> ending= getEndingPositions(category, offset, getLength() - offset + 1);
+				documentPositions= starting.size() <= ending.size() ? starting : ending;
 			} else {
 				documentPositions= getStartingPositions(category, offset, length);
 			}
@@ -211,6 +211,33 @@ public abstract class AbstractLineTracker implements ILineTracker, ILineTrackerE
 		sessionData = new SessionData(null);
 	}
 
+	/**
+	 * Creates a new line tracker which optionally keeps its line information in compact arrays of
+	 * primitive integers, using about five bytes per line instead of an object per line. Queries
+	 * are slightly slower, edits adding or removing lines are linear in the number of lines
+	 * divided by a constant chunk size.
+	 *
+	 * @param compact <code>true</code> to keep the line information in compact arrays
+	 * @since 3.14
+	 */
+	protected AbstractLineTracker(boolean compact) {
+		this();
+		if (compact) {
+			fNeedsConversion= false;
+			fDelegate= new CompactLineTracker() {
+				@Override
+				protected DelimiterInfo nextDelimiterInfo(String text, int offset) {
+					return AbstractLineTracker.this.nextDelimiterInfo(text, offset);
+				}
+
+				@Override
+				public String[] getLegalLineDelimiters() {
+					return AbstractLineTracker.this.getLegalLineDelimiters();
+				}
+			};
+		}
+	}
+
 	@Override
 	public int computeNumberOfLines(String text) {
 		return fDelegate.computeNumberOfLines(text);
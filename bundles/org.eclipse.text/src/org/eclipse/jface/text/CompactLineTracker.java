@@ -0,0 +1,447 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jface.text;
+
+import java.util.Arrays;
+
+import org.eclipse.core.runtime.Assert;
+
+import org.eclipse.jface.text.AbstractLineTracker.DelimiterInfo;
+
+/**
+ * Abstract implementation of <code>ILineTracker</code> storing the line information in
+ * arrays of primitive integers. It lets the definition of line delimiters to subclasses and
+ * defines the same line scheme as {@link TreeLineTracker}.
+ * <p>
+ * The lines are split into chunks of at most {@link #CHUNK_SIZE} lines. A chunk stores the
+ * offsets of its lines relative to the start of the chunk and the index of their delimiter in
+ * the table of delimiters seen so far, five bytes per line. Two Fenwick trees sum up the
+ * lengths and the number of lines of the chunks.
+ * </p>
+ * <p>
+ * <strong>Performance:</strong> The query operations perform in <i>O(log n)</i> where
+ * <var>n</var> is the number of lines in the document. Modifications within a line perform in
+ * <i>O(c + log n)</i> where <var>c</var> is the chunk size, modifications adding or removing
+ * <var>l</var> lines in <i>O(c + l + n / c)</i>.
+ * </p>
+ *
+ * @since 3.14
+ */
+abstract class CompactLineTracker implements ILineTracker {
+
+	/**
+	 * The maximal number of lines of a chunk.
+	 */
+	static final int CHUNK_SIZE= 1024;
+
+	/**
+	 * The empty delimiter of the last line. The last line and only the last line must have this
+	 * zero-length delimiter.
+	 */
+	private static final String NO_DELIM= ""; //$NON-NLS-1$
+
+	/**
+	 * A sequence of consecutive lines.
+	 */
+	private static final class Chunk {
+		/** The offsets of the lines relative to the start of the chunk. */
+		int[] starts;
+		/** The indices of the line delimiters in {@link CompactLineTracker#fDelimiters}. */
+		byte[] delimiters;
+		/** The number of lines. */
+		int size;
+		/** The number of characters. */
+		int length;
+
+		Chunk(int[] starts, byte[] delimiters, int size, int length) {
+			this.starts= starts;
+			this.delimiters= delimiters;
+			this.size= size;
+			this.length= length;
+		}
+
+		int lineLength(int index) {
+			return (index + 1 < size ? starts[index + 1] : length) - starts[index];
+		}
+
+		/**
+		 * Returns the index of the line starting at or containing the given offset relative to
+		 * the start of the chunk.
+		 */
+		int lineByOffset(int offset) {
+			int index= Arrays.binarySearch(starts, 0, size, offset);
+			return index >= 0 ? index : -index - 2;
+		}
+	}
+
+	/**
+	 * The lines to insert into the chunks, an array list of primitive integers.
+	 */
+	private static final class Lines {
+		int[] lengths= new int[16];
+		byte[] delimiters= new byte[16];
+		int size;
+
+		void add(int length, byte delimiter) {
+			if (size == lengths.length) {
+				lengths= Arrays.copyOf(lengths, size * 2);
+				delimiters= Arrays.copyOf(delimiters, size * 2);
+			}
+			lengths[size]= length;
+			delimiters[size]= delimiter;
+			size++;
+		}
+	}
+
+	/** The delimiters seen so far, indexed by the line delimiter indices. */
+	private String[] fDelimiters= { NO_DELIM };
+	/** The chunks, never empty. */
+	private Chunk[] fChunks;
+	/** The number of chunks. */
+	private int fChunkCount;
+	/** The Fenwick tree of the chunk lengths. */
+	private int[] fLengthTree;
+	/** The Fenwick tree of the number of lines of the chunks. */
+	private int[] fLineTree;
+	/** The number of characters. */
+	private int fLength;
+	/** The number of lines. */
+	private int fLineCount;
+
+	/**
+	 * Creates a new line tracker.
+	 */
+	protected CompactLineTracker() {
+		fChunks= new Chunk[] { new Chunk(new int[1], new byte[1], 1, 0) };
+		fChunkCount= 1;
+		fLineCount= 1;
+		rebuildTrees();
+	}
+
+	/**
+	 * Returns the information about the first delimiter found in the given text starting at the
+	 * given offset.
+	 *
+	 * @param text the text to be searched
+	 * @param offset the offset in the given text
+	 * @return the information of the first found delimiter or <code>null</code>
+	 */
+	protected abstract DelimiterInfo nextDelimiterInfo(String text, int offset);
+
+	/* Fenwick trees */
+
+	private void rebuildTrees() {
+		int n= fChunkCount;
+		fLengthTree= new int[n + 1];
+		fLineTree= new int[n + 1];
+		for (int i= 1; i <= n; i++) {
+			fLengthTree[i]+= fChunks[i - 1].length;
+			fLineTree[i]+= fChunks[i - 1].size;
+			int parent= i + (i & -i);
+			if (parent <= n) {
+				fLengthTree[parent]+= fLengthTree[i];
+				fLineTree[parent]+= fLineTree[i];
+			}
+		}
+	}
+
+	private void updateTrees(int chunk, int lengthDelta, int lineDelta) {
+		for (int i= chunk + 1; i <= fChunkCount; i+= i & -i) {
+			fLengthTree[i]+= lengthDelta;
+			fLineTree[i]+= lineDelta;
+		}
+	}
+
+	/**
+	 * Returns the sum of the given tree's values of the chunks before the given chunk.
+	 */
+	private static int prefixSum(int[] tree, int chunk) {
+		int sum= 0;
+		for (int i= chunk; i > 0; i-= i & -i)
+			sum+= tree[i];
+		return sum;
+	}
+
+	/**
+	 * Returns the first chunk whose values sum up to more than the given value together with the
+	 * values of the chunks before it, or the number of chunks if there is none.
+	 */
+	private int search(int[] tree, int value) {
+		int chunk= 0;
+		int remaining= value;
+		for (int step= Integer.highestOneBit(fChunkCount); step > 0; step>>= 1) {
+			int next= chunk + step;
+			if (next <= fChunkCount && tree[next] <= remaining) {
+				chunk= next;
+				remaining-= tree[next];
+			}
+		}
+		return chunk;
+	}
+
+	/* lookup */
+
+	/**
+	 * Returns the chunk containing the given line.
+	 */
+	private int chunkByLine(int line) throws BadLocationException {
+		if (line < 0 || line >= fLineCount)
+			throw new BadLocationException();
+		return search(fLineTree, line);
+	}
+
+	/**
+	 * Returns the chunk containing the line starting at or containing the given offset. The last
+	 * chunk is returned if the offset is the document length.
+	 */
+	private int chunkByOffset(int offset) throws BadLocationException {
+		if (offset < 0 || offset > fLength)
+			throw new BadLocationException();
+		return Math.min(search(fLengthTree, offset), fChunkCount - 1);
+	}
+
+	/**
+	 * Returns the line number for the given offset. If the offset is between two lines, the line
+	 * starting at <code>offset</code> is returned. The last line is returned if
+	 * <code>offset</code> is equal to the document length.
+	 */
+	private int lineByOffset(int offset) throws BadLocationException {
+		int chunk= chunkByOffset(offset);
+		int index= fChunks[chunk].lineByOffset(offset - prefixSum(fLengthTree, chunk));
+		return prefixSum(fLineTree, chunk) + index;
+	}
+
+	private int offsetByLine(int line) throws BadLocationException {
+		int chunk= chunkByLine(line);
+		return prefixSum(fLengthTree, chunk) + fChunks[chunk].starts[line - prefixSum(fLineTree, chunk)];
+	}
+
+	private String delimiter(int line) throws BadLocationException {
+		int chunk= chunkByLine(line);
+		return fDelimiters[fChunks[chunk].delimiters[line - prefixSum(fLineTree, chunk)]];
+	}
+
+	private int length(int line) throws BadLocationException {
+		int chunk= chunkByLine(line);
+		return fChunks[chunk].lineLength(line - prefixSum(fLineTree, chunk));
+	}
+
+	private byte delimiterIndex(String delimiter) {
+		for (int i= 0; i < fDelimiters.length; i++) {
+			if (fDelimiters[i].equals(delimiter))
+				return (byte) i;
+		}
+		Assert.isTrue(fDelimiters.length <= Byte.MAX_VALUE);
+		fDelimiters= Arrays.copyOf(fDelimiters, fDelimiters.length + 1);
+		fDelimiters[fDelimiters.length - 1]= delimiter;
+		return (byte) (fDelimiters.length - 1);
+	}
+
+	/* ILineTracker */
+
+	@Override
+	public final String getLineDelimiter(int line) throws BadLocationException {
+		String delimiter= delimiter(line);
+		return delimiter == NO_DELIM ? null : delimiter;
+	}
+
+	@Override
+	public final int computeNumberOfLines(String text) {
+		int count= 0;
+		int start= 0;
+		DelimiterInfo delimiterInfo= nextDelimiterInfo(text, start);
+		while (delimiterInfo != null && delimiterInfo.delimiterIndex > -1) {
+			++count;
+			start= delimiterInfo.delimiterIndex + delimiterInfo.delimiterLength;
+			delimiterInfo= nextDelimiterInfo(text, start);
+		}
+		return count;
+	}
+
+	@Override
+	public final int getNumberOfLines() {
+		return fLineCount;
+	}
+
+	@Override
+	public final int getNumberOfLines(int offset, int length) throws BadLocationException {
+		if (length == 0)
+			return 1;
+
+		int startLine= lineByOffset(offset);
+		int endLine= lineByOffset(offset + length);
+
+		return endLine - startLine + 1;
+	}
+
+	@Override
+	public final int getLineOffset(int line) throws BadLocationException {
+		return offsetByLine(line);
+	}
+
+	@Override
+	public final int getLineLength(int line) throws BadLocationException {
+		return length(line);
+	}
+
+	@Override
+	public final int getLineNumberOfOffset(int offset) throws BadLocationException {
+		return lineByOffset(offset);
+	}
+
+	@Override
+	public final IRegion getLineInformationOfOffset(int offset) throws BadLocationException {
+		int chunk= chunkByOffset(offset);
+		int chunkOffset= prefixSum(fLengthTree, chunk);
+		Chunk c= fChunks[chunk];
+		int index= c.lineByOffset(offset - chunkOffset);
+		return new Region(chunkOffset + c.starts[index], c.lineLength(index) - fDelimiters[c.delimiters[index]].length());
+	}
+
+	@Override
+	public final IRegion getLineInformation(int line) throws BadLocationException {
+		if (line > 0 && line == fLineCount) {
+			/*
+			 * Compatibility with TreeLineTracker, see
+			 * LineTrackerTest3#testFunnyLastLineCompatibility().
+			 */
+			int length= length(line - 1);
+			if (length > 0)
+				return new Region(offsetByLine(line - 1) + length, 0);
+		}
+		int chunk= chunkByLine(line);
+		Chunk c= fChunks[chunk];
+		int index= line - prefixSum(fLineTree, chunk);
+		return new Region(prefixSum(fLengthTree, chunk) + c.starts[index], c.lineLength(index) - fDelimiters[c.delimiters[index]].length());
+	}
+
+	@Override
+	public final void set(String text) {
+		Lines lines= new Lines();
+		addLines(lines, 0, text == null ? NO_DELIM : text, 0, NO_DELIM);
+		fChunkCount= 0;
+		fChunks= new Chunk[Math.max(1, (lines.size + CHUNK_SIZE - 1) / CHUNK_SIZE)];
+		appendChunks(lines);
+		fLength= text == null ? 0 : text.length();
+		fLineCount= lines.size;
+		rebuildTrees();
+	}
+
+	@Override
+	public final void replace(int offset, int length, String text) throws BadLocationException {
+		int firstChunk= chunkByOffset(offset);
+		int firstChunkOffset= prefixSum(fLengthTree, firstChunk);
+		Chunk first= fChunks[firstChunk];
+		int firstIndex= first.lineByOffset(offset - firstChunkOffset);
+
+		int end= offset + length;
+		int lastChunk= chunkByOffset(end);
+		int lastChunkOffset= prefixSum(fLengthTree, lastChunk);
+		Chunk last= fChunks[lastChunk];
+		int lastIndex= last.lineByOffset(end - lastChunkOffset);
+
+		int added= text == null ? 0 : text.length();
+		DelimiterInfo info= text == null ? null : nextDelimiterInfo(text, 0);
+
+		// the characters of the first line before and of the last line after the replaced range
+		int prefix= offset - firstChunkOffset - first.starts[firstIndex];
+		int suffix= lastChunkOffset + last.starts[lastIndex] + last.lineLength(lastIndex) - end;
+
+		if ((info == null || info.delimiterIndex < 0) && firstChunk == lastChunk && firstIndex == lastIndex) {
+			// no line mangling
+			int delta= added - length;
+			for (int i= firstIndex + 1; i < first.size; i++)
+				first.starts[i]+= delta;
+			first.length+= delta;
+			fLength+= delta;
+			updateTrees(firstChunk, delta, 0);
+			return;
+		}
+
+		// collect the lines replacing the chunks from the first to the last affected chunk
+		Lines lines= new Lines();
+		for (int i= 0; i < firstIndex; i++)
+			lines.add(first.lineLength(i), first.delimiters[i]);
+		addLines(lines, prefix, text == null ? NO_DELIM : text, suffix, fDelimiters[last.delimiters[lastIndex]]);
+		for (int i= lastIndex + 1; i < last.size; i++)
+			lines.add(last.lineLength(i), last.delimiters[i]);
+
+		int lineDelta= 0;
+		for (int chunk= firstChunk; chunk <= lastChunk; chunk++)
+			lineDelta-= fChunks[chunk].size;
+		lineDelta+= lines.size;
+
+		if (firstChunk == lastChunk && lines.size <= CHUNK_SIZE) {
+			// rewrite the chunk in place
+			fChunks[firstChunk]= createChunk(lines, 0, lines.size);
+			updateTrees(firstChunk, fChunks[firstChunk].length - first.length, lineDelta);
+		} else {
+			int chunks= (lines.size + CHUNK_SIZE - 1) / CHUNK_SIZE;
+			int tail= fChunkCount - lastChunk - 1;
+			Chunk[] newChunks= new Chunk[firstChunk + chunks + tail];
+			System.arraycopy(fChunks, 0, newChunks, 0, firstChunk);
+			System.arraycopy(fChunks, lastChunk + 1, newChunks, firstChunk + chunks, tail);
+			fChunks= newChunks;
+			fChunkCount= firstChunk;
+			appendChunks(lines);
+			fChunkCount+= tail;
+			rebuildTrees();
+		}
+		fLength+= added - length;
+		fLineCount+= lineDelta;
+	}
+
+	/**
+	 * Adds the lines of the given text to the given lines. The first line is extended by
+	 * <code>prefix</code> characters, the last line by <code>suffix</code> characters and gets the
+	 * given delimiter.
+	 */
+	private void addLines(Lines lines, int prefix, String text, int suffix, String lastDelimiter) {
+		int consumed= 0;
+		int extra= prefix;
+		DelimiterInfo info= nextDelimiterInfo(text, 0);
+		while (info != null && info.delimiterIndex > -1) {
+			int lineLength= info.delimiterIndex - consumed + info.delimiterLength;
+			lines.add(extra + lineLength, delimiterIndex(info.delimiter));
+			consumed+= lineLength;
+			extra= 0;
+			info= nextDelimiterInfo(text, consumed);
+		}
+		lines.add(extra + text.length() - consumed + suffix, delimiterIndex(lastDelimiter));
+	}
+
+	/**
+	 * Appends chunks holding the given lines to the chunks.
+	 */
+	private void appendChunks(Lines lines) {
+		for (int start= 0; start < lines.size; start+= CHUNK_SIZE)
+			fChunks[fChunkCount++]= createChunk(lines, start, Math.min(lines.size, start + CHUNK_SIZE));
+	}
+
+	private static Chunk createChunk(Lines lines, int from, int to) {
+		int size= to - from;
+		int[] starts= new int[size];
+		int offset= 0;
+		for (int i= 0; i < size; i++) {
+			starts[i]= offset;
+			offset+= lines.lengths[from + i];
+		}
+		return new Chunk(starts, Arrays.copyOfRange(lines.delimiters, from, to), size, offset);
+	}
+
+	@Override
+	public String toString() {
+		return "CompactLineTracker [lines=" + fLineCount + ", length=" + fLength + ", chunks=" + fChunkCount + "]"; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+	}
+}
@@ -48,6 +48,21 @@ public class ConfigurableLineTracker extends AbstractLineTracker {
 	 *		may not be <code>null</code> and must be longer than 0
 	 */
 	public ConfigurableLineTracker(String[] legalLineDelimiters) {
+		this(legalLineDelimiters, false);
+	}
+
+	/**
+	 * Creates a standard line tracker for the given line delimiters which optionally keeps its
+	 * line information in compact arrays.
+	 *
+	 * @param legalLineDelimiters the tracker's legal line delimiters,
+	 *		may not be <code>null</code> and must be longer than 0
+	 * @param compact <code>true</code> to keep the line information in compact arrays
+	 * @see AbstractLineTracker#AbstractLineTracker(boolean)
+	 * @since 3.14
+	 */
+	public ConfigurableLineTracker(String[] legalLineDelimiters, boolean compact) {
+		super(compact);
 		Assert.isTrue(legalLineDelimiters != null && legalLineDelimiters.length > 0);
 		fDelimiters= TextUtilities.copy(legalLineDelimiters);
 		fMatcher= legalLineDelimiters.length > 1 ? MultiStringMatcher.create(legalLineDelimiters) : null;
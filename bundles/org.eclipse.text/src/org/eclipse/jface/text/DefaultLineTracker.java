@@ -38,6 +38,18 @@ public class DefaultLineTracker extends AbstractLineTracker {
 	public DefaultLineTracker() {
 	}
 
+	/**
+	 * Creates a standard line tracker which optionally keeps its line information in compact
+	 * arrays, which is recommended for documents with millions of lines.
+	 *
+	 * @param compact <code>true</code> to keep the line information in compact arrays
+	 * @see AbstractLineTracker#AbstractLineTracker(boolean)
+	 * @since 3.14
+	 */
+	public DefaultLineTracker(boolean compact) {
+		super(compact);
+	}
+
 	@Override
 	public String[] getLegalLineDelimiters() {
 		return TextUtilities.copy(DELIMITERS);
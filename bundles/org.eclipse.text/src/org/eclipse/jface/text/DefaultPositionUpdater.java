@@ -41,6 +41,14 @@ package org.eclipse.jface.text;
  * This class can be used as is or be adapted by subclasses. Fields are protected to allow
  * subclasses direct access. Because of the frequency with which position updaters are used this is
  * a performance decision.
+ * <p>
+ * <strong>Performance:</strong> On an {@link AbstractDocument}, positions which end more than one
+ * character before the offset of a change are not investigated at all, since they cannot be
+ * affected by the change. They are skipped using the document's index of positions ordered by end
+ * offset, so a change performs in <i>O(log n + k)</i>, where <var>k</var> is the number of
+ * positions ending after the change. Subclasses whose adaptation needs to see every position must
+ * override {@link #update(DocumentEvent)}.
+ * </p>
  */
 public class DefaultPositionUpdater implements IPositionUpdater {
 
@@ -212,7 +220,14 @@ public class DefaultPositionUpdater implements IPositionUpdater {
 			fReplaceLength= (event.getText() == null ? 0 : event.getText().length());
 			fDocument= event.getDocument();
 
-			Position[] category= fDocument.getPositions(fCategory);
+			Position[] category;
+			if (fDocument instanceof AbstractDocument) {
+				// keep one character of slack for subclasses which extend positions ending at the change
+				int start= Math.max(0, fOffset - 1);
+				category= ((AbstractDocument) fDocument).getPositions(fCategory, start, Integer.MAX_VALUE - start, true, false);
+			} else {
+				category= fDocument.getPositions(fCategory);
+			}
 			for (Position element : category) {
 
 				fPosition= element;
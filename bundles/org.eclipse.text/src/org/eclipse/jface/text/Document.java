@@ -13,6 +13,8 @@
  *******************************************************************************/
 package org.eclipse.jface.text;
 
+import org.eclipse.core.runtime.Assert;
+
 
 /**
  * Default document implementation. Uses a {@link org.eclipse.jface.text.GapTextStore} wrapped
@@ -42,6 +44,7 @@ package org.eclipse.jface.text;
  *
  * @see org.eclipse.jface.text.GapTextStore
  * @see org.eclipse.jface.text.CopyOnWriteTextStore
+ * @see org.eclipse.jface.text.PieceTableTextStore
  */
 public class Document extends AbstractDocument {
 	/**
@@ -68,6 +71,26 @@ public class Document extends AbstractDocument {
 		completeInitialization();
 	}
 
+	/**
+	 * Creates a new document with the given initial content which is kept in the given text
+	 * store. Use this constructor to select a text store whose performance characteristics fit the
+	 * expected document size and editing pattern, e.g. a {@link PieceTableTextStore} for very large
+	 * documents which receive scattered edits.
+	 *
+	 * @param textStore the text store to use, may not be <code>null</code>
+	 * @param initialContent the document's initial content
+	 * @since 3.14
+	 */
+	public Document(ITextStore textStore, String initialContent) {
+		super();
+		Assert.isNotNull(textStore);
+		setTextStore(textStore);
+		setLineTracker(new DefaultLineTracker());
+		getStore().set(initialContent);
+		getTracker().set(initialContent);
+		completeInitialization();
+	}
+
 	@Override
 	public boolean isLineInformationRepairNeeded(int offset, int length, String text) throws BadLocationException {
 		if ((0 > offset) || (0 > length) || (offset + length > getLength()))
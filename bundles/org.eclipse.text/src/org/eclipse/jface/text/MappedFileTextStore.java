@@ -0,0 +1,611 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jface.text;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.eclipse.core.runtime.Assert;
+import org.eclipse.core.runtime.IProgressMonitor;
+
+
+/**
+ * A read-only <code>ITextStore</code> for the content of a file which is memory-mapped instead of
+ * being read into the heap. Trying to {@link #replace} a text range or {@link #set} new content
+ * throws an <code>UnsupportedOperationException</code>, hence the store can only back documents
+ * which are not modified. The file must not be modified either while it is mapped.
+ * <p>
+ * Clients must call {@link #dispose()} when the text store is no longer used. Afterwards the
+ * mapping is released as soon as it is garbage collected; until then the file may stay locked on
+ * some platforms.
+ * </p>
+ * <p>
+ * The file is decoded in blocks on demand. An index of the block boundaries and of the line
+ * delimiters is built incrementally while the content is accessed, or in the background using
+ * {@link #buildIndex(IProgressMonitor)}. Only a small number of decoded blocks is cached, hence
+ * the heap consumption does not depend on the file size but on the number of lines.
+ * {@link #getLineTracker()} returns a line tracker which is backed by the line index.
+ * </p>
+ * <p>
+ * <strong>Performance:</strong> For <code>ISO-8859-1</code> and <code>US-ASCII</code> encoded
+ * files {@link #get(int)} and {@link #getLength()} perform in <i>O(1)</i> without any decoding.
+ * For other encodings, accessing an offset requires the index to be built up to that offset, and
+ * {@link #getLength()} requires the complete index. Afterwards, {@link #get(int)} performs in
+ * <i>O(log b)</i> where <var>b</var> is the number of blocks, plus the decoding of the block if it
+ * is not cached.
+ * </p>
+ * <p>
+ * Stateful encodings whose decoding depends on the preceding bytes beyond a single character,
+ * like <code>ISO-2022</code>, are not supported. A byte order mark at the start of the file is not
+ * part of the content.
+ * </p>
+ * <p>
+ * This class is thread-safe. This class is not intended to be subclassed.
+ * </p>
+ *
+ * @since 3.14
+ * @noextend This class is not intended to be subclassed by clients.
+ */
+public class MappedFileTextStore implements ITextStore {
+
+	/** The number of bytes decoded at once. */
+	private static final int BLOCK_SIZE= 64 * 1024;
+
+	/** The maximal number of decoded blocks kept in the cache. */
+	private static final int CACHE_SIZE= 16;
+
+	/** The content of the file, including a potential byte order mark, <code>null</code> once disposed */
+	private ByteBuffer fBytes;
+	/** The index of the first content byte */
+	private final int fByteStart;
+	/** The charset used to decode blocks */
+	private final Charset fCharset;
+	/** <code>true</code> if each byte maps to one character without decoding */
+	private final boolean fSingleByte;
+
+	/** The byte offsets of the indexed blocks, relative to {@link #fByteStart} */
+	private int[] fBlockByteOffsets= new int[16];
+	/** The character offsets of the indexed blocks */
+	private int[] fBlockCharOffsets= new int[16];
+	/** The number of indexed blocks */
+	private int fBlockCount;
+	/** The number of indexed bytes */
+	private int fIndexedBytes;
+	/** The number of indexed characters */
+	private int fIndexedChars;
+	/** <code>true</code> if the whole file is indexed */
+	private boolean fIndexComplete;
+	/** The number of bytes consumed by the last call to {@link #decode(int)} */
+	private int fLastConsumed;
+
+	/** The offsets of the line starts, the first line always starts at 0 */
+	private int[] fLineOffsets= new int[256];
+	/** The number of known lines */
+	private int fLineCount= 1;
+	/** <code>true</code> if the last indexed character is a '\r' */
+	private boolean fPendingCR;
+
+	/** The most recently decoded blocks */
+	private final Map<Integer, char[]> fBlockCache= new LinkedHashMap<>(CACHE_SIZE, 0.75f, true) {
+		private static final long serialVersionUID= 1L;
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<Integer, char[]> eldest) {
+			return size() > CACHE_SIZE;
+		}
+	};
+	/** The index of the block last accessed, or -1 */
+	private int fLastBlock= -1;
+	/** The characters of the block last accessed */
+	private char[] fLastBlockChars;
+
+	/** The line tracker backed by the line index, created lazily */
+	private ILineTracker fLineTracker;
+
+	/**
+	 * Creates a text store for the content of the given file.
+	 *
+	 * @param file the file, may not be <code>null</code>
+	 * @param charset the encoding of the file, may not be <code>null</code>
+	 * @throws IOException if the file cannot be mapped or is larger than 2GB
+	 */
+	public MappedFileTextStore(Path file, Charset charset) throws IOException {
+		Assert.isNotNull(file);
+		Assert.isNotNull(charset);
+		try (FileChannel channel= FileChannel.open(file, StandardOpenOption.READ)) {
+			long size= channel.size();
+			if (size > Integer.MAX_VALUE)
+				throw new IOException("File too large: " + file); //$NON-NLS-1$
+			// the mapping stays valid after the channel is closed
+			fBytes= channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+		}
+
+		int bomLength= 0;
+		if (StandardCharsets.UTF_8.equals(charset)) {
+			if (startsWith(0xEF, 0xBB, 0xBF))
+				bomLength= 3;
+		} else if (StandardCharsets.UTF_16.equals(charset)) {
+			// decode blocks with an explicit byte order, since only the first block has the BOM
+			if (startsWith(0xFF, 0xFE)) {
+				charset= StandardCharsets.UTF_16LE;
+				bomLength= 2;
+			} else {
+				charset= StandardCharsets.UTF_16BE;
+				if (startsWith(0xFE, 0xFF))
+					bomLength= 2;
+			}
+		} else if (StandardCharsets.UTF_16LE.equals(charset)) {
+			if (startsWith(0xFF, 0xFE))
+				bomLength= 2;
+		} else if (StandardCharsets.UTF_16BE.equals(charset)) {
+			if (startsWith(0xFE, 0xFF))
+				bomLength= 2;
+		}
+		fByteStart= bomLength;
+		fCharset= charset;
+		fSingleByte= StandardCharsets.ISO_8859_1.equals(charset) || StandardCharsets.US_ASCII.equals(charset);
+	}
+
+	@Override
+	public synchronized char get(int offset) {
+		if (fSingleByte) {
+			if (offset < 0 || offset >= byteLength())
+				throw new IndexOutOfBoundsException(String.valueOf(offset));
+			return toChar(bytes().get(fByteStart + offset));
+		}
+
+		if (fLastBlock != -1) {
+			int blockOffset= offset - fBlockCharOffsets[fLastBlock];
+			if (blockOffset >= 0 && blockOffset < fLastBlockChars.length)
+				return fLastBlockChars[blockOffset];
+		}
+
+		int block= findBlock(offset);
+		if (block == -1)
+			throw new IndexOutOfBoundsException(String.valueOf(offset));
+		return getBlock(block)[offset - fBlockCharOffsets[block]];
+	}
+
+	@Override
+	public synchronized String get(int offset, int length) {
+		if (offset < 0 || length < 0)
+			throw new IndexOutOfBoundsException("offset: " + offset + ", length: " + length); //$NON-NLS-1$ //$NON-NLS-2$
+		if (length == 0)
+			return ""; //$NON-NLS-1$
+
+		if (fSingleByte) {
+			if (offset + length > byteLength())
+				throw new IndexOutOfBoundsException("offset: " + offset + ", length: " + length); //$NON-NLS-1$ //$NON-NLS-2$
+			char[] chars= new char[length];
+			for (int i= 0; i < length; i++)
+				chars[i]= toChar(bytes().get(fByteStart + offset + i));
+			return new String(chars);
+		}
+
+		int end= offset + length;
+		if (findBlock(end - 1) == -1)
+			throw new IndexOutOfBoundsException("offset: " + offset + ", length: " + length); //$NON-NLS-1$ //$NON-NLS-2$
+
+		StringBuilder buffer= new StringBuilder(length);
+		int block= findBlock(offset);
+		while (offset < end) {
+			char[] chars= getBlock(block);
+			int blockOffset= fBlockCharOffsets[block];
+			int count= Math.min(end, blockOffset + chars.length) - offset;
+			buffer.append(chars, offset - blockOffset, count);
+			offset += count;
+			block++;
+		}
+		return buffer.toString();
+	}
+
+	@Override
+	public synchronized int getLength() {
+		if (fSingleByte)
+			return byteLength();
+		indexTo(Integer.MAX_VALUE);
+		return fIndexedChars;
+	}
+
+	@Override
+	public void replace(int offset, int length, String text) {
+		// modification not supported
+		throw new UnsupportedOperationException();
+	}
+
+	@Override
+	public void set(String text) {
+		// modification not supported
+		throw new UnsupportedOperationException();
+	}
+
+	/**
+	 * Builds the complete block and line index. Clients may call this method from a background
+	 * thread right after creating the text store so that subsequent accesses do not have to wait
+	 * for the index. The lock of this text store is released after each block, hence concurrent
+	 * accesses are delayed by the decoding of at most one block.
+	 *
+	 * @param monitor the progress monitor, may be <code>null</code>; indexing stops when it is
+	 *            canceled
+	 */
+	public void buildIndex(IProgressMonitor monitor) {
+		while (monitor == null || !monitor.isCanceled()) {
+			synchronized (this) {
+				if (fIndexComplete || fBytes == null)
+					return;
+				indexNextBlock();
+			}
+		}
+	}
+
+	/**
+	 * Disposes this text store and drops its reference to the mapped file, so that the mapping is
+	 * released once it is garbage collected. Accessing the content of a disposed text store throws
+	 * an <code>IllegalStateException</code>.
+	 */
+	public synchronized void dispose() {
+		fBytes= null;
+		fBlockCache.clear();
+		fLastBlock= -1;
+		fLastBlockChars= null;
+	}
+
+	/**
+	 * Returns whether the block and line index is complete.
+	 *
+	 * @return <code>true</code> if the whole file has been indexed
+	 */
+	public synchronized boolean isIndexComplete() {
+		return fIndexComplete;
+	}
+
+	/**
+	 * Returns a read-only line tracker for the content of this text store. The line tracker is
+	 * backed by the line index of this text store; queries beyond the indexed part of the file
+	 * extend the index as needed.
+	 *
+	 * @return the line tracker
+	 */
+	public synchronized ILineTracker getLineTracker() {
+		if (fLineTracker == null)
+			fLineTracker= new IndexLineTracker();
+		return fLineTracker;
+	}
+
+	private boolean startsWith(int... bom) {
+		if (fBytes.limit() < bom.length)
+			return false;
+		for (int i= 0; i < bom.length; i++) {
+			if ((fBytes.get(i) & 0xFF) != bom[i])
+				return false;
+		}
+		return true;
+	}
+
+	private char toChar(byte b) {
+		if (b < 0 && StandardCharsets.US_ASCII.equals(fCharset))
+			return '\uFFFD';
+		return (char) (b & 0xFF);
+	}
+
+	private int byteLength() {
+		return bytes().limit() - fByteStart;
+	}
+
+	/**
+	 * Returns the content of the file.
+	 *
+	 * @return the mapped bytes
+	 * @throws IllegalStateException if this text store is disposed
+	 */
+	private ByteBuffer bytes() {
+		if (fBytes == null)
+			throw new IllegalStateException("Text store is disposed"); //$NON-NLS-1$
+		return fBytes;
+	}
+
+	/**
+	 * Returns the index of the block containing the given offset, building the index up to the
+	 * offset if needed.
+	 *
+	 * @param offset the character offset
+	 * @return the block index or -1 if the offset is outside of the content
+	 */
+	private int findBlock(int offset) {
+		if (offset < 0)
+			return -1;
+		indexTo(offset + 1);
+		if (offset >= fIndexedChars)
+			return -1;
+		int index= Arrays.binarySearch(fBlockCharOffsets, 0, fBlockCount, offset);
+		if (index < 0)
+			index= -index - 2;
+		// skip empty blocks
+		while (index + 1 < fBlockCount && fBlockCharOffsets[index + 1] == offset)
+			index++;
+		return index;
+	}
+
+	/**
+	 * Returns the decoded characters of the given indexed block.
+	 *
+	 * @param block the block index
+	 * @return the characters of the block
+	 */
+	private char[] getBlock(int block) {
+		if (block == fLastBlock)
+			return fLastBlockChars;
+		char[] chars= fBlockCache.get(Integer.valueOf(block));
+		if (chars == null) {
+			CharBuffer buffer= decode(fBlockByteOffsets[block]);
+			chars= new char[buffer.remaining()];
+			buffer.get(chars);
+			fBlockCache.put(Integer.valueOf(block), chars);
+		}
+		fLastBlock= block;
+		fLastBlockChars= chars;
+		return chars;
+	}
+
+	/**
+	 * Decodes the block starting at the given byte offset. The number of consumed bytes is stored
+	 * in {@link #fLastConsumed}.
+	 *
+	 * @param byteOffset the byte offset relative to {@link #fByteStart}
+	 * @return the decoded characters, ready to be read
+	 */
+	private CharBuffer decode(int byteOffset) {
+		ByteBuffer bytes= bytes();
+		ByteBuffer in= bytes.duplicate();
+		int end= bytes.limit();
+		in.limit(Math.min(end, fByteStart + byteOffset + BLOCK_SIZE));
+		in.position(fByteStart + byteOffset);
+		boolean endOfInput= in.limit() == end;
+
+		CharsetDecoder decoder= fCharset.newDecoder()
+				.onMalformedInput(CodingErrorAction.REPLACE)
+				.onUnmappableCharacter(CodingErrorAction.REPLACE);
+		CharBuffer out= CharBuffer.allocate((int) Math.ceil(in.remaining() * (double) decoder.maxCharsPerByte()) + 2);
+		decoder.decode(in, out, endOfInput);
+		if (endOfInput)
+			decoder.flush(out);
+		out.flip();
+		fLastConsumed= in.position() - fByteStart - byteOffset;
+		return out;
+	}
+
+	/**
+	 * Extends the index until it covers at least the given number of characters or the whole
+	 * file.
+	 *
+	 * @param charCount the number of characters to index
+	 */
+	private void indexTo(int charCount) {
+		while (!fIndexComplete && fIndexedChars < charCount)
+			indexNextBlock();
+	}
+
+	/**
+	 * Indexes the next block of the file.
+	 */
+	private void indexNextBlock() {
+		if (fIndexedBytes >= byteLength()) {
+			fIndexComplete= true;
+			return;
+		}
+
+		CharBuffer chars= decode(fIndexedBytes);
+		int consumed= fLastConsumed;
+		if (consumed == 0) {
+			// a truncated character at the end of the file
+			fIndexComplete= true;
+			return;
+		}
+
+		if (fBlockCount == fBlockByteOffsets.length) {
+			fBlockByteOffsets= Arrays.copyOf(fBlockByteOffsets, fBlockCount * 2);
+			fBlockCharOffsets= Arrays.copyOf(fBlockCharOffsets, fBlockCount * 2);
+		}
+		fBlockByteOffsets[fBlockCount]= fIndexedBytes;
+		fBlockCharOffsets[fBlockCount]= fIndexedChars;
+		fBlockCount++;
+
+		int offset= fIndexedChars;
+		while (chars.hasRemaining()) {
+			char c= chars.get();
+			offset++;
+			if (c == '\r') {
+				addLine(offset);
+				fPendingCR= true;
+			} else if (c == '\n') {
+				if (fPendingCR)
+					fLineOffsets[fLineCount - 1]= offset;
+				else
+					addLine(offset);
+				fPendingCR= false;
+			} else {
+				fPendingCR= false;
+			}
+		}
+
+		fIndexedBytes += consumed;
+		fIndexedChars= offset;
+		if (fIndexedBytes >= byteLength())
+			fIndexComplete= true;
+	}
+
+	private void addLine(int offset) {
+		if (fLineCount == fLineOffsets.length)
+			fLineOffsets= Arrays.copyOf(fLineOffsets, fLineCount * 2);
+		fLineOffsets[fLineCount++]= offset;
+	}
+
+	/**
+	 * Extends the index until the given line is known or the whole file is indexed.
+	 *
+	 * @param line the line
+	 */
+	private void indexToLine(int line) {
+		// a pending '\r' may still be followed by '\n' which moves the start of the last line
+		while (!fIndexComplete && (fLineCount <= line || fLineCount == line + 1 && fPendingCR))
+			indexNextBlock();
+	}
+
+	/**
+	 * A read-only line tracker backed by the line index of the enclosing text store. The
+	 * delimiters are those of the {@link DefaultLineTracker}.
+	 */
+	private class IndexLineTracker implements ILineTracker {
+
+		@Override
+		public String[] getLegalLineDelimiters() {
+			return TextUtilities.copy(DefaultLineTracker.DELIMITERS);
+		}
+
+		@Override
+		public String getLineDelimiter(int line) throws BadLocationException {
+			synchronized (MappedFileTextStore.this) {
+				checkLine(line);
+				indexToLine(line + 1);
+				if (line + 1 >= fLineCount)
+					return null;
+				int next= fLineOffsets[line + 1];
+				if (get(next - 1) == '\n' && next - 2 >= fLineOffsets[line] && get(next - 2) == '\r')
+					return DefaultLineTracker.DELIMITERS[2];
+				return get(next - 1) == '\n' ? DefaultLineTracker.DELIMITERS[1] : DefaultLineTracker.DELIMITERS[0];
+			}
+		}
+
+		@Override
+		public int computeNumberOfLines(String text) {
+			int count= 0;
+			int length= text.length();
+			for (int i= 0; i < length; i++) {
+				char c= text.charAt(i);
+				if (c == '\r') {
+					count++;
+					if (i + 1 < length && text.charAt(i + 1) == '\n')
+						i++;
+				} else if (c == '\n') {
+					count++;
+				}
+			}
+			return count;
+		}
+
+		@Override
+		public int getNumberOfLines() {
+			synchronized (MappedFileTextStore.this) {
+				indexTo(Integer.MAX_VALUE);
+				return fLineCount;
+			}
+		}
+
+		@Override
+		public int getNumberOfLines(int offset, int length) throws BadLocationException {
+			synchronized (MappedFileTextStore.this) {
+				if (offset < 0 || length < 0)
+					throw new BadLocationException();
+				indexTo(offset + length);
+				if (offset + length > fIndexedChars)
+					throw new BadLocationException();
+				if (length == 0)
+					return 1;
+				return getLineNumberOfOffset(offset + length) - getLineNumberOfOffset(offset) + 1;
+			}
+		}
+
+		@Override
+		public int getLineOffset(int line) throws BadLocationException {
+			synchronized (MappedFileTextStore.this) {
+				checkLine(line);
+				return fLineOffsets[line];
+			}
+		}
+
+		@Override
+		public int getLineLength(int line) throws BadLocationException {
+			synchronized (MappedFileTextStore.this) {
+				checkLine(line);
+				indexToLine(line + 1);
+				int end= line + 1 < fLineCount ? fLineOffsets[line + 1] : getLength();
+				return end - fLineOffsets[line];
+			}
+		}
+
+		@Override
+		public int getLineNumberOfOffset(int offset) throws BadLocationException {
+			synchronized (MappedFileTextStore.this) {
+				if (offset < 0)
+					throw new BadLocationException("Negative offset : " + offset); //$NON-NLS-1$
+				// a '\r' right before the offset may be followed by a '\n' at the offset
+				indexTo(offset + 1);
+				if (offset > fIndexedChars)
+					throw new BadLocationException("Offset > length: " + offset + " > " + fIndexedChars); //$NON-NLS-1$ //$NON-NLS-2$
+				int line= Arrays.binarySearch(fLineOffsets, 0, fLineCount, offset);
+				return line < 0 ? -line - 2 : line;
+			}
+		}
+
+		@Override
+		public IRegion getLineInformationOfOffset(int offset) throws BadLocationException {
+			synchronized (MappedFileTextStore.this) {
+				return getLineInformation(getLineNumberOfOffset(offset));
+			}
+		}
+
+		@Override
+		public IRegion getLineInformation(int line) throws BadLocationException {
+			synchronized (MappedFileTextStore.this) {
+				int offset= getLineOffset(line);
+				int length= getLineLength(line);
+				String delimiter= getLineDelimiter(line);
+				if (delimiter != null)
+					length-= delimiter.length();
+				return new Region(offset, length);
+			}
+		}
+
+		@Override
+		public void replace(int offset, int length, String text) throws BadLocationException {
+			// modification not supported
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public void set(String text) {
+			// modification not supported
+			throw new UnsupportedOperationException();
+		}
+
+		private void checkLine(int line) throws BadLocationException {
+			if (line < 0)
+				throw new BadLocationException();
+			indexToLine(line);
+			if (line >= fLineCount)
+				throw new BadLocationException();
+		}
+	}
+}
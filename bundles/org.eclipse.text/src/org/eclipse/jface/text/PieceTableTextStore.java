@@ -0,0 +1,407 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jface.text;
+
+
+/**
+ * Implements a piece table text store. The content is described by a sequence of <em>pieces</em>,
+ * each referring to a range of an immutable buffer: either the text passed to {@link #set(String)}
+ * or an append-only chunk holding inserted text. The pieces are kept in a balanced search tree
+ * (a treap keyed by the piece offsets) whose nodes are never modified once created.
+ * <p>
+ * Unlike the {@link GapTextStore}, this text store does not rely on the assumption that
+ * consecutive changes are co-located. It is suited for very large documents which receive
+ * scattered edits, like generated logs or database dumps.
+ * </p>
+ * <p>
+ * <strong>Performance:</strong> Let <var>p</var> be the number of pieces, which is bounded by
+ * twice the number of changes since the last {@link #set(String) set}. Then
+ * {@link #replace(int, int, String) replace} performs in expected <i>O(log p)</i> plus the length
+ * of the inserted text, {@linkplain #get(int, int) get(int, <var>length</var>)} performs in
+ * <i>O(log p + length)</i> and {@link #get(int)} in <i>O(log p)</i>, or <i>O(1)</i> when called
+ * repeatedly for offsets inside the same piece. {@link #set(String)} performs in <i>O(1)</i> and
+ * does not copy the given text. Consecutive insertions at the end of the previously inserted
+ * text, which is the typing case, extend the previous piece instead of creating a new one.
+ * </p>
+ * <p>
+ * As the piece tree is persistent, {@link #snapshot()} creates an independent copy of this text
+ * store in <i>O(1)</i>.
+ * </p>
+ * <p>
+ * This class is not intended to be subclassed.
+ * </p>
+ *
+ * @see GapTextStore
+ * @since 3.14
+ * @noextend This class is not intended to be subclassed by clients.
+ */
+public class PieceTableTextStore implements ITextStore {
+
+	/** The size of the chunks inserted text is copied to. */
+	private static final int CHUNK_SIZE= 16 * 1024;
+
+	/**
+	 * Inserted texts longer than this are referenced as is instead of being copied into a chunk.
+	 */
+	private static final int COPY_LIMIT= CHUNK_SIZE / 4;
+
+	/**
+	 * A node of the piece tree. A node describes one piece and the total length of the pieces in
+	 * its subtree. Nodes are immutable.
+	 */
+	private static final class Node {
+		/** The buffer if it is a string, <code>null</code> otherwise */
+		final String fString;
+		/** The buffer if it is a chunk, <code>null</code> otherwise */
+		final char[] fChars;
+		/** The start of the piece in the buffer */
+		final int fStart;
+		/** The length of the piece */
+		final int fLength;
+		/** The treap priority */
+		final int fPriority;
+		/** The left subtree, may be <code>null</code> */
+		final Node fLeft;
+		/** The right subtree, may be <code>null</code> */
+		final Node fRight;
+		/** The length of the pieces in this subtree */
+		final int fTotalLength;
+
+		Node(String string, char[] chars, int start, int length, int priority, Node left, Node right) {
+			fString= string;
+			fChars= chars;
+			fStart= start;
+			fLength= length;
+			fPriority= priority;
+			fLeft= left;
+			fRight= right;
+			fTotalLength= length(left) + length + length(right);
+		}
+
+		/**
+		 * Returns a node for the given range of this piece with the given subtrees.
+		 *
+		 * @param start the start relative to this piece
+		 * @param length the length of the sub-piece
+		 * @param left the left subtree
+		 * @param right the right subtree
+		 * @return the new node
+		 */
+		Node derive(int start, int length, Node left, Node right) {
+			return new Node(fString, fChars, fStart + start, length, fPriority, left, right);
+		}
+
+		/**
+		 * Returns a node for this piece with the given subtrees.
+		 *
+		 * @param left the left subtree
+		 * @param right the right subtree
+		 * @return the new node, or this node if the subtrees did not change
+		 */
+		Node with(Node left, Node right) {
+			if (left == fLeft && right == fRight)
+				return this;
+			return derive(0, fLength, left, right);
+		}
+
+		char charAt(int index) {
+			if (fChars != null)
+				return fChars[fStart + index];
+			return fString.charAt(fStart + index);
+		}
+
+		void appendTo(StringBuilder buffer, int from, int to) {
+			if (fChars != null)
+				buffer.append(fChars, fStart + from, to - from);
+			else
+				buffer.append(fString, fStart + from, fStart + to);
+		}
+
+		String substring(int from, int to) {
+			if (fChars != null)
+				return new String(fChars, fStart + from, to - from);
+			return fString.substring(fStart + from, fStart + to);
+		}
+	}
+
+	/** The root of the piece tree, <code>null</code> if the store is empty */
+	private Node fRoot;
+	/** The chunk inserted text is currently appended to, may be <code>null</code> */
+	private char[] fChunk;
+	/** The number of used characters in {@link #fChunk} */
+	private int fChunkUsed;
+	/** The state of the priority generator */
+	private int fSeed= 0x2545F491;
+	/** The node found by the last character lookup, may be <code>null</code> */
+	private Node fCachedNode;
+	/** The offset of the piece of {@link #fCachedNode} */
+	private int fCachedOffset;
+
+	/**
+	 * Creates a new empty text store.
+	 */
+	public PieceTableTextStore() {
+	}
+
+	@Override
+	public char get(int offset) {
+		Node cached= fCachedNode;
+		if (cached != null && fCachedOffset <= offset && offset < fCachedOffset + cached.fLength)
+			return cached.charAt(offset - fCachedOffset);
+
+		if (offset < 0 || offset >= getLength())
+			throw new IndexOutOfBoundsException(String.valueOf(offset));
+
+		Node node= fRoot;
+		int base= 0;
+		while (true) {
+			int leftLength= length(node.fLeft);
+			if (offset < base + leftLength) {
+				node= node.fLeft;
+			} else if (offset < base + leftLength + node.fLength) {
+				fCachedNode= node;
+				fCachedOffset= base + leftLength;
+				return node.charAt(offset - fCachedOffset);
+			} else {
+				base += leftLength + node.fLength;
+				node= node.fRight;
+			}
+		}
+	}
+
+	@Override
+	public String get(int offset, int length) {
+		if (offset < 0 || length < 0 || offset + length > getLength())
+			throw new IndexOutOfBoundsException("offset: " + offset + ", length: " + length); //$NON-NLS-1$ //$NON-NLS-2$
+		if (length == 0)
+			return ""; //$NON-NLS-1$
+
+		// fast path: the range is covered by a single piece
+		Node node= fRoot;
+		int base= 0;
+		while (node != null) {
+			int leftLength= length(node.fLeft);
+			int pieceOffset= base + leftLength;
+			if (offset + length <= pieceOffset) {
+				node= node.fLeft;
+			} else if (offset >= pieceOffset + node.fLength) {
+				base= pieceOffset + node.fLength;
+				node= node.fRight;
+			} else if (offset >= pieceOffset && offset + length <= pieceOffset + node.fLength) {
+				return node.substring(offset - pieceOffset, offset - pieceOffset + length);
+			} else {
+				break;
+			}
+		}
+
+		StringBuilder buffer= new StringBuilder(length);
+		appendRange(node, offset - base, offset - base + length, buffer);
+		return buffer.toString();
+	}
+
+	@Override
+	public int getLength() {
+		return length(fRoot);
+	}
+
+	@Override
+	public void replace(int offset, int length, String text) {
+		Node[] split= split(fRoot, offset);
+		Node left= split[0];
+		Node right= split[1];
+		if (length > 0)
+			right= split(right, length)[1];
+		if (text != null && !text.isEmpty())
+			left= insertAtEnd(left, text);
+		fRoot= merge(left, right);
+		fCachedNode= null;
+	}
+
+	@Override
+	public void set(String text) {
+		fCachedNode= null;
+		if (text == null || text.isEmpty())
+			fRoot= null;
+		else
+			fRoot= new Node(text, null, 0, text.length(), nextPriority(), null, null);
+	}
+
+	/**
+	 * Returns an independent copy of this text store. The copy shares the piece tree with this
+	 * text store, so creating it performs in <i>O(1)</i> and needs no additional memory for the
+	 * content. Subsequent modifications of either store are not visible in the other one.
+	 * <p>
+	 * The copy may be handed to another thread, e.g. for background processing of the content,
+	 * provided this is done through proper synchronization.
+	 * </p>
+	 *
+	 * @return a copy of this text store
+	 */
+	public PieceTableTextStore snapshot() {
+		PieceTableTextStore snapshot= new PieceTableTextStore();
+		snapshot.fRoot= fRoot;
+		snapshot.fSeed= nextPriority();
+		return snapshot;
+	}
+
+	/**
+	 * Appends the text to the end of the given tree, either by extending its last piece or by
+	 * adding a new piece.
+	 *
+	 * @param tree the tree, may be <code>null</code>
+	 * @param text the text to append, not empty
+	 * @return the new tree
+	 */
+	private Node insertAtEnd(Node tree, String text) {
+		int textLength= text.length();
+		if (textLength > COPY_LIMIT)
+			return merge(tree, new Node(text, null, 0, textLength, nextPriority(), null, null));
+
+		if (fChunk == null || fChunkUsed + textLength > CHUNK_SIZE) {
+			fChunk= new char[CHUNK_SIZE];
+			fChunkUsed= 0;
+		}
+		int start= fChunkUsed;
+		text.getChars(0, textLength, fChunk, start);
+		fChunkUsed += textLength;
+
+		Node last= tree;
+		while (last != null && last.fRight != null)
+			last= last.fRight;
+		if (last != null && last.fChars == fChunk && last.fStart + last.fLength == start)
+			return extendLast(tree, textLength);
+
+		return merge(tree, new Node(null, fChunk, start, textLength, nextPriority(), null, null));
+	}
+
+	/**
+	 * Returns a copy of the given tree whose last piece is extended by the given number of
+	 * characters.
+	 *
+	 * @param tree the tree, not <code>null</code>
+	 * @param delta the number of characters to add to the last piece
+	 * @return the new tree
+	 */
+	private static Node extendLast(Node tree, int delta) {
+		if (tree.fRight == null)
+			return tree.derive(0, tree.fLength + delta, tree.fLeft, null);
+		return tree.with(tree.fLeft, extendLast(tree.fRight, delta));
+	}
+
+	/**
+	 * Splits the given tree at the given offset.
+	 *
+	 * @param tree the tree to split, may be <code>null</code>
+	 * @param offset the offset relative to the start of the tree
+	 * @return the tree with the content before <code>offset</code> and the tree with the content
+	 *         after it
+	 */
+	private Node[] split(Node tree, int offset) {
+		if (tree == null)
+			return new Node[2];
+
+		int leftLength= length(tree.fLeft);
+		if (offset <= leftLength) {
+			Node[] split= split(tree.fLeft, offset);
+			Node tail= split[1];
+			if (tail == null || tail.fPriority <= tree.fPriority)
+				split[1]= tree.with(tail, tree.fRight);
+			else // the tail has a new piece with a higher priority on top
+				split[1]= merge(tail, tree.with(null, tree.fRight));
+			return split;
+		}
+
+		int pieceEnd= leftLength + tree.fLength;
+		if (offset >= pieceEnd) {
+			Node[] split= split(tree.fRight, offset - pieceEnd);
+			Node head= split[0];
+			if (head == null || head.fPriority <= tree.fPriority)
+				split[0]= tree.with(tree.fLeft, head);
+			else // the head has a new piece with a higher priority on top
+				split[0]= merge(tree.with(tree.fLeft, null), head);
+			return split;
+		}
+
+		// the offset is inside the piece, the halves become pieces with priorities of their own,
+		// otherwise repeated splits of one piece would degenerate the tree into a list. A half
+		// with a higher priority than the ancestors of the piece moves up when they are merged
+		// with it above.
+		int index= offset - leftLength;
+		Node head= merge(tree.fLeft, new Node(tree.fString, tree.fChars, tree.fStart, index, nextPriority(), null, null));
+		Node tail= merge(new Node(tree.fString, tree.fChars, tree.fStart + index, tree.fLength - index, nextPriority(), null, null), tree.fRight);
+		return new Node[] { head, tail };
+	}
+
+	/**
+	 * Concatenates the given trees.
+	 *
+	 * @param left the tree with the leading content, may be <code>null</code>
+	 * @param right the tree with the trailing content, may be <code>null</code>
+	 * @return the concatenated tree
+	 */
+	private static Node merge(Node left, Node right) {
+		if (left == null)
+			return right;
+		if (right == null)
+			return left;
+		if (left.fPriority >= right.fPriority)
+			return left.with(left.fLeft, merge(left.fRight, right));
+		return right.with(merge(left, right.fLeft), right.fRight);
+	}
+
+	/**
+	 * Appends the content of the given range of the tree to the buffer.
+	 *
+	 * @param tree the tree, may be <code>null</code>
+	 * @param from the start of the range relative to the start of the tree
+	 * @param to the end of the range relative to the start of the tree
+	 * @param buffer the buffer to append to
+	 */
+	private static void appendRange(Node tree, int from, int to, StringBuilder buffer) {
+		if (tree == null || from >= to)
+			return;
+
+		int leftLength= length(tree.fLeft);
+		if (from < leftLength)
+			appendRange(tree.fLeft, from, Math.min(to, leftLength), buffer);
+
+		int pieceEnd= leftLength + tree.fLength;
+		int start= Math.max(from, leftLength);
+		int end= Math.min(to, pieceEnd);
+		if (start < end)
+			tree.appendTo(buffer, start - leftLength, end - leftLength);
+
+		if (to > pieceEnd)
+			appendRange(tree.fRight, Math.max(from - pieceEnd, 0), to - pieceEnd, buffer);
+	}
+
+	private static int length(Node tree) {
+		return tree == null ? 0 : tree.fTotalLength;
+	}
+
+	/**
+	 * Returns a new pseudo random treap priority.
+	 *
+	 * @return the priority
+	 */
+	private int nextPriority() {
+		// xorshift
+		int seed= fSeed;
+		seed^= seed << 13;
+		seed^= seed >>> 17;
+		seed^= seed << 5;
+		fSeed= seed;
+		return seed;
+	}
+}
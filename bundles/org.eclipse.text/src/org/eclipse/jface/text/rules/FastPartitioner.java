@@ -15,11 +15,15 @@ package org.eclipse.jface.text.rules;
 
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Set;
 
 import org.eclipse.core.runtime.Assert;
 import org.eclipse.core.runtime.Platform;
 
+import org.eclipse.jface.text.AbstractDocument;
 import org.eclipse.jface.text.BadLocationException;
 import org.eclipse.jface.text.BadPositionCategoryException;
 import org.eclipse.jface.text.DefaultPositionUpdater;
@@ -286,6 +290,11 @@ public class FastPartitioner implements IDocumentPartitioner, IDocumentPartition
 	/**
 	 * {@inheritDoc}
 	 * <p>
+	 * The document is rescanned synchronously from the damaged partition until the
+	 * partitioning no longer changes, which may be the end of the document. The changed
+	 * partitions are applied to the document in one batch.
+	 * </p>
+	 * <p>
 	 * May be extended by subclasses.
 	 * </p>
 	 */
@@ -340,6 +349,12 @@ public class FastPartitioner implements IDocumentPartitioner, IDocumentPartition
 
 			fScanner.setPartialRange(fDocument, reparseStart, fDocument.getLength() - reparseStart, contentType, partitionStart);
 
+			// the partition changes are collected and applied at once, as removing and adding
+			// positions one by one shifts the category's position lists for each of them
+			Set<Position> removed= Collections.newSetFromMap(new IdentityHashMap<>());
+			List<Position> added= new ArrayList<>();
+			boolean converged= false;
+
 			int behindLastScannedPosition= reparseStart;
 			IToken token= fScanner.nextToken();
 
@@ -363,11 +378,11 @@ public class FastPartitioner implements IDocumentPartitioner, IDocumentPartition
 					TypedPosition p= (TypedPosition) category[first];
 					if (lastScannedPosition >= p.offset + p.length ||
 							(p.overlapsWith(start, length) &&
-							 	(!fDocument.containsPosition(fPositionCategory, start, length) ||
+							 	(!containsPosition(category, removed, added, start, length) ||
 							 	 !contentType.equals(p.getType())))) {
 
 						rememberRegion(p.offset, p.length);
-						fDocument.removePosition(fPositionCategory, p);
+						removed.add(p);
 						++ first;
 
 					} else
@@ -376,34 +391,36 @@ public class FastPartitioner implements IDocumentPartitioner, IDocumentPartition
 
 				// if position already exists and we have scanned at least the
 				// area covered by the event, we are done
-				if (fDocument.containsPosition(fPositionCategory, start, length)) {
-					if (lastScannedPosition >= e.getOffset() + newLength)
-						return createRegion();
+				if (containsPosition(category, removed, added, start, length)) {
+					if (lastScannedPosition >= e.getOffset() + newLength) {
+						converged= true;
+						break;
+					}
 					++ first;
 				} else {
 					// insert the new type position
-					try {
-						fDocument.addPosition(fPositionCategory, new TypedPosition(start, length, contentType));
-						rememberRegion(start, length);
-					} catch (BadPositionCategoryException x) {
-					} catch (BadLocationException x) {
-					}
+					added.add(new TypedPosition(start, length, contentType));
+					rememberRegion(start, length);
 				}
 
 				token= fScanner.nextToken();
 			}
 
-			first= fDocument.computeIndexInCategory(fPositionCategory, behindLastScannedPosition);
-
-			clearPositionCache();
-			category= getPositions();
-			TypedPosition p;
-			while (first < category.length) {
-				p= (TypedPosition) category[first++];
-				fDocument.removePosition(fPositionCategory, p);
-				rememberRegion(p.offset, p.length);
+			if (!converged) {
+				// remove all positions behind the last scanned position
+				for (int i= added.size() - 1; i >= 0 && added.get(i).offset >= behindLastScannedPosition; i--) {
+					Position p= added.remove(i);
+					rememberRegion(p.offset, p.length);
+				}
+				for (int i= getFirstIndexStartingAfterOffset(category, behindLastScannedPosition); i < category.length; i++) {
+					Position p= category[i];
+					if (removed.add(p))
+						rememberRegion(p.offset, p.length);
+				}
 			}
 
+			replacePositions(removed, added);
+
 		} catch (BadPositionCategoryException x) {
 			// should never happen on connected documents
 		} catch (BadLocationException x) {
@@ -414,6 +431,62 @@ public class FastPartitioner implements IDocumentPartitioner, IDocumentPartition
 		return createRegion();
 	}
 
+	/**
+	 * Returns whether the partitioning contains a position with the given offset
+	 * and length, taking the not yet applied changes into account.
+	 *
+	 * @param positions the positions of the partitioning before the changes
+	 * @param removed the positions to be removed from the partitioning
+	 * @param added the positions to be added to the partitioning, in linear order
+	 * @param offset the offset of the position
+	 * @param length the length of the position
+	 * @return <code>true</code> if such a position exists
+	 */
+	private boolean containsPosition(Position[] positions, Set<Position> removed, List<Position> added, int offset, int length) {
+		for (int i= added.size() - 1; i >= 0 && added.get(i).offset >= offset; i--) {
+			Position p= added.get(i);
+			if (p.offset == offset && p.length == length)
+				return true;
+		}
+		for (int i= getFirstIndexStartingAfterOffset(positions, offset); i < positions.length && positions[i].offset == offset; i++) {
+			Position p= positions[i];
+			if (p.length == length && !removed.contains(p))
+				return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Removes the given positions from and adds the given positions to the
+	 * partitioner's position category.
+	 *
+	 * @param removed the positions to remove
+	 * @param added the positions to add
+	 * @throws BadPositionCategoryException if the partitioner's position category is undefined
+	 */
+	private void replacePositions(Set<Position> removed, List<Position> added) throws BadPositionCategoryException {
+		if (removed.isEmpty() && added.isEmpty())
+			return;
+
+		if (fDocument instanceof AbstractDocument) {
+			try {
+				((AbstractDocument) fDocument).replacePositions(fPositionCategory, removed.toArray(new Position[removed.size()]), added.toArray(new Position[added.size()]));
+				return;
+			} catch (BadLocationException x) {
+				// cannot happen as offsets come from scanner, otherwise add the valid positions one by one
+			}
+		}
+
+		for (Position p : removed)
+			fDocument.removePosition(fPositionCategory, p);
+		for (Position p : added) {
+			try {
+				fDocument.addPosition(fPositionCategory, p);
+			} catch (BadLocationException x) {
+			}
+		}
+	}
+
 	/**
 	 * Returns the position in the partitoner's position category which is
 	 * close to the given offset. This is, the position has either an offset which
@@ -238,6 +238,59 @@ public class AnnotationModel implements IAnnotationModel, IAnnotationModelExtens
 		}
 	}
 
+	/**
+	 * Collects the document position changes of a batch of annotation model
+	 * changes so that they can be applied to the document in one go.
+	 * <p>
+	 * Like the document, the batch counts how often a position is added and
+	 * removed, so that a position shared by several annotations stays in the
+	 * document until the last of them is removed.
+	 * </p>
+	 *
+	 * @since 3.14
+	 */
+	private static final class PositionBatch {
+
+		/** The thread which performs the batch. */
+		private final Thread fOwner= Thread.currentThread();
+		/**
+		 * The number of times each position is to be added to the document,
+		 * negative if it is to be removed.
+		 */
+		private final Map<Position, int[]> fCounts= new IdentityHashMap<>();
+
+		void addPosition(IDocument document, Position position) throws BadLocationException {
+			if ((0 > position.offset) || (0 > position.length) || (position.offset + position.length > document.getLength()))
+				throw new BadLocationException();
+			fCounts.computeIfAbsent(position, p -> new int[1])[0]++;
+		}
+
+		void removePosition(Position position) {
+			if (position != null)
+				fCounts.computeIfAbsent(position, p -> new int[1])[0]--;
+		}
+
+		void apply(AbstractDocument document) {
+			List<Position> removed= new ArrayList<>();
+			List<Position> added= new ArrayList<>();
+			for (Entry<Position, int[]> entry : fCounts.entrySet()) {
+				int count= entry.getValue()[0];
+				for (int i= count; i < 0; i++)
+					removed.add(entry.getKey());
+				for (int i= 0; i < count; i++)
+					added.add(entry.getKey());
+			}
+			if (removed.isEmpty() && added.isEmpty())
+				return;
+
+			try {
+				document.replacePositions(IDocument.DEFAULT_CATEGORY, removed.toArray(new Position[removed.size()]), added.toArray(new Position[added.size()]));
+			} catch (BadLocationException | BadPositionCategoryException e) {
+				// cannot happen, added positions have been checked
+			}
+		}
+	}
+
 	/**
 	 * Internal annotation model listener for forwarding annotation model changes from the attached models to the
 	 * registered listeners of the outer most annotation model.
@@ -298,6 +351,11 @@ public class AnnotationModel implements IAnnotationModel, IAnnotationModelExtens
 	 * @since 3.0
 	 */
 	private Object fModificationStamp= new Object();
+	/**
+	 * The document position changes deferred by the current batch, or <code>null</code>.
+	 * @since 3.14
+	 */
+	private PositionBatch fPositionBatch;
 
 	/**
 	 * Creates a new annotation model. The annotation is empty, i.e. does not
@@ -379,6 +437,11 @@ public class AnnotationModel implements IAnnotationModel, IAnnotationModelExtens
 	/**
 	 * Replaces the given annotations in this model and if advised fires a
 	 * model change event.
+	 * <p>
+	 * All changes are reported in a single model change event. When connected
+	 * to an {@link AbstractDocument}, the annotation positions are removed from
+	 * and added to the document in one batch.
+	 * </p>
 	 *
 	 * @param annotationsToRemove the annotations to be removed
 	 * @param annotationsToAdd the annotations to be added
@@ -390,19 +453,25 @@ public class AnnotationModel implements IAnnotationModel, IAnnotationModelExtens
 	 */
 	protected void replaceAnnotations(Annotation[] annotationsToRemove, Map<? extends Annotation, ? extends Position> annotationsToAdd, boolean fireModelChanged) throws BadLocationException {
 
-		if (annotationsToRemove != null) {
-			for (Annotation element : annotationsToRemove)
-				removeAnnotation(element, false);
-		}
+		boolean batch= startPositionBatch();
+		try {
+			if (annotationsToRemove != null) {
+				for (Annotation element : annotationsToRemove)
+					removeAnnotation(element, false);
+			}
 
-		if (annotationsToAdd != null) {
-			Iterator<? extends Entry<? extends Annotation, ? extends Position>> iter= annotationsToAdd.entrySet().iterator();
-			while (iter.hasNext()) {
-				Map.Entry<? extends Annotation, ? extends Position> mapEntry= iter.next();
-				Annotation annotation= mapEntry.getKey();
-				Position position= mapEntry.getValue();
-				addAnnotation(annotation, position, false);
+			if (annotationsToAdd != null) {
+				Iterator<? extends Entry<? extends Annotation, ? extends Position>> iter= annotationsToAdd.entrySet().iterator();
+				while (iter.hasNext()) {
+					Map.Entry<? extends Annotation, ? extends Position> mapEntry= iter.next();
+					Annotation annotation= mapEntry.getKey();
+					Position position= mapEntry.getValue();
+					addAnnotation(annotation, position, false);
+				}
 			}
+		} finally {
+			if (batch)
+				endPositionBatch();
 		}
 
 		if (fireModelChanged)
@@ -459,8 +528,13 @@ public class AnnotationModel implements IAnnotationModel, IAnnotationModelExtens
 	 * @throws BadLocationException if the position is not a valid document position
 	 */
 	protected void addPosition(IDocument document, Position position) throws BadLocationException {
-		if (document != null)
-			document.addPosition(position);
+		if (document != null) {
+			PositionBatch batch= getPositionBatch(document);
+			if (batch != null)
+				batch.addPosition(document, position);
+			else
+				document.addPosition(position);
+		}
 	}
 
 	/**
@@ -473,8 +547,55 @@ public class AnnotationModel implements IAnnotationModel, IAnnotationModelExtens
 	 * @since 3.0
 	 */
 	protected void removePosition(IDocument document, Position position) {
-		if (document != null)
-			document.removePosition(position);
+		if (document != null) {
+			PositionBatch batch= getPositionBatch(document);
+			if (batch != null)
+				batch.removePosition(position);
+			else
+				document.removePosition(position);
+		}
+	}
+
+	/**
+	 * Starts to defer the position changes of the connected document if the
+	 * document supports batched position changes and no batch is active yet.
+	 *
+	 * @return <code>true</code> if a batch has been started and must be ended
+	 *         by calling {@link #endPositionBatch()}
+	 * @since 3.14
+	 */
+	private boolean startPositionBatch() {
+		if (fPositionBatch != null || !(fDocument instanceof AbstractDocument))
+			return false;
+		fPositionBatch= new PositionBatch();
+		return true;
+	}
+
+	/**
+	 * Applies the position changes deferred by the current batch to the
+	 * connected document.
+	 *
+	 * @since 3.14
+	 */
+	private void endPositionBatch() {
+		PositionBatch batch= fPositionBatch;
+		fPositionBatch= null;
+		batch.apply((AbstractDocument) fDocument);
+	}
+
+	/**
+	 * Returns the active batch if position changes of the given document
+	 * made by the calling thread are currently deferred.
+	 *
+	 * @param document the document
+	 * @return the active batch or <code>null</code>
+	 * @since 3.14
+	 */
+	private PositionBatch getPositionBatch(IDocument document) {
+		PositionBatch batch= fPositionBatch;
+		if (batch != null && document == fDocument && batch.fOwner == Thread.currentThread())
+			return batch;
+		return null;
 	}
 
 	@Override
@@ -483,13 +604,19 @@ public class AnnotationModel implements IAnnotationModel, IAnnotationModelExtens
 
 		if (fDocument == null) {
 			fDocument= document;
-			Iterator<Position> e= getAnnotationMap().valuesIterator();
-			while (e.hasNext())
-				try {
-					addPosition(document, e.next());
-				} catch (BadLocationException x) {
-					// ignore invalid position
-				}
+			boolean batch= startPositionBatch();
+			try {
+				Iterator<Position> e= getAnnotationMap().valuesIterator();
+				while (e.hasNext())
+					try {
+						addPosition(document, e.next());
+					} catch (BadLocationException x) {
+						// ignore invalid position
+					}
+			} finally {
+				if (batch)
+					endPositionBatch();
+			}
 		}
 
 		++ fOpenConnections;
@@ -532,10 +659,16 @@ public class AnnotationModel implements IAnnotationModel, IAnnotationModelExtens
 			disconnected();
 			document.removeDocumentListener(fDocumentListener);
 
-			Iterator<Position> e= getAnnotationMap().valuesIterator();
-			while (e.hasNext()) {
-				Position p= e.next();
-				removePosition(document, p);
+			boolean batch= startPositionBatch();
+			try {
+				Iterator<Position> e= getAnnotationMap().valuesIterator();
+				while (e.hasNext()) {
+					Position p= e.next();
+					removePosition(document, p);
+				}
+			} finally {
+				if (batch)
+					endPositionBatch();
 			}
 			fDocument= null;
 		}
@@ -607,9 +740,15 @@ public class AnnotationModel implements IAnnotationModel, IAnnotationModelExtens
 	 */
 	protected void removeAnnotations(List<? extends Annotation> annotations, boolean fireModelChanged, boolean modelInitiated) {
 		if (!annotations.isEmpty()) {
-			Iterator<? extends Annotation> e= annotations.iterator();
-			while (e.hasNext())
-				removeAnnotation(e.next(), false);
+			boolean batch= startPositionBatch();
+			try {
+				Iterator<? extends Annotation> e= annotations.iterator();
+				while (e.hasNext())
+					removeAnnotation(e.next(), false);
+			} finally {
+				if (batch)
+					endPositionBatch();
+			}
 
 			if (fireModelChanged)
 				fireModelChanged();
@@ -801,15 +940,21 @@ public class AnnotationModel implements IAnnotationModel, IAnnotationModelExtens
 	protected void removeAllAnnotations(boolean fireModelChanged) {
 		IAnnotationMap annotations= getAnnotationMap();
 		if (fDocument != null) {
-			Iterator<Annotation> e= getAnnotationMap().keySetIterator();
-			while (e.hasNext()) {
-				Annotation a= e.next();
-				Position p= annotations.get(a);
-				removePosition(fDocument, p);
-//				p.delete();
-				synchronized (getLockObject()) {
-					getAnnotationModelEvent().annotationRemoved(a, p);
+			boolean batch= startPositionBatch();
+			try {
+				Iterator<Annotation> e= getAnnotationMap().keySetIterator();
+				while (e.hasNext()) {
+					Annotation a= e.next();
+					Position p= annotations.get(a);
+					removePosition(fDocument, p);
+//					p.delete();
+					synchronized (getLockObject()) {
+						getAnnotationModelEvent().annotationRemoved(a, p);
+					}
 				}
+			} finally {
+				if (batch)
+					endPositionBatch();
 			}
 		}
 
@@ -0,0 +1,437 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.text.edits;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.jface.text.BadLocationException;
+import org.eclipse.jface.text.BadPositionCategoryException;
+import org.eclipse.jface.text.FindReplaceDocumentAdapter;
+import org.eclipse.jface.text.IDocument;
+import org.eclipse.jface.text.IDocumentListener;
+import org.eclipse.jface.text.IDocumentPartitioner;
+import org.eclipse.jface.text.IDocumentPartitioningListener;
+import org.eclipse.jface.text.IPositionUpdater;
+import org.eclipse.jface.text.IRegion;
+import org.eclipse.jface.text.ITypedRegion;
+import org.eclipse.jface.text.Position;
+
+/**
+ * A document collecting the replacements of an edit tree in order to apply
+ * them to the underlying document as a single replacement.
+ * <p>
+ * The replacements are collected as long as each of them lies in front of or
+ * behind all replacements collected so far, which is the case for the edits of
+ * a tree applied from the last to the first and for the edits of an undo edit
+ * applied from the first to the last. Any other replacement and any other
+ * method of the document first applies the collected replacements, then
+ * delegates to the underlying document.
+ * </p>
+ *
+ * @since 3.14
+ */
+class CoalescingDocument implements IDocument {
+
+	/**
+	 * A collected replacement, in the coordinates of the underlying document.
+	 */
+	private static final class Replacement {
+
+		final int fOffset;
+		final int fLength;
+		final String fText;
+		/** The offset at the time of the replacement */
+		final int fEventOffset;
+
+		Replacement(int offset, int length, String text, int eventOffset) {
+			fOffset= offset;
+			fLength= length;
+			fText= text;
+			fEventOffset= eventOffset;
+		}
+	}
+
+	private final IDocument fDocument;
+	private final UndoCollector fCollector;
+
+	/** The collected replacements, in document order */
+	private final ArrayDeque<Replacement> fReplacements= new ArrayDeque<>();
+	/** The collected replacements, in the order they have been made */
+	private final List<Replacement> fHistory= new ArrayList<>();
+	/** The difference between the length of the collected texts and the replaced lengths */
+	private int fDelta;
+
+	/**
+	 * Creates a new coalescing document.
+	 *
+	 * @param document the underlying document
+	 * @param collector the collector for the undo of the replacements, or <code>null</code>
+	 */
+	public CoalescingDocument(IDocument document, UndoCollector collector) {
+		fDocument= document;
+		fCollector= collector;
+	}
+
+	/**
+	 * Applies the collected replacements to the underlying document.
+	 *
+	 * @throws BadLocationException if the underlying document rejects the replacement
+	 */
+	public void flush() throws BadLocationException {
+		if (fReplacements.isEmpty())
+			return;
+
+		int start= fReplacements.getFirst().fOffset;
+		Replacement last= fReplacements.getLast();
+		int end= last.fOffset + last.fLength;
+		String original= fDocument.get(start, end - start);
+
+		StringBuilder text= new StringBuilder(original.length() + fDelta);
+		int position= start;
+		for (Replacement replacement : fReplacements) {
+			text.append(original, position - start, replacement.fOffset - start);
+			text.append(replacement.fText);
+			position= replacement.fOffset + replacement.fLength;
+		}
+
+		if (fCollector != null) {
+			for (Replacement replacement : fHistory) {
+				int offset= replacement.fOffset - start;
+				fCollector.add(replacement.fEventOffset, replacement.fText.length(), original.substring(offset, offset + replacement.fLength));
+			}
+			fCollector.setCoalescing(true);
+		}
+		try {
+			fDocument.replace(start, end - start, text.toString());
+		} finally {
+			if (fCollector != null)
+				fCollector.setCoalescing(false);
+			fReplacements.clear();
+			fHistory.clear();
+			fDelta= 0;
+		}
+	}
+
+	/**
+	 * Applies the collected replacements to the underlying document for the methods that cannot
+	 * report a bad location.
+	 */
+	private void flushUnchecked() {
+		try {
+			flush();
+		} catch (BadLocationException e) {
+			// cannot happen, the replacements have been checked when they were collected
+			throw new IllegalStateException(e);
+		}
+	}
+
+	@Override
+	public void addDocumentListener(IDocumentListener listener) {
+		flushUnchecked();
+		fDocument.addDocumentListener(listener);
+	}
+
+	@Override
+	public void addDocumentPartitioningListener(IDocumentPartitioningListener listener) {
+		flushUnchecked();
+		fDocument.addDocumentPartitioningListener(listener);
+	}
+
+	@Override
+	public void addPosition(Position position) throws BadLocationException {
+		flush();
+		fDocument.addPosition(position);
+	}
+
+	@Override
+	public void addPosition(String category, Position position) throws BadLocationException, BadPositionCategoryException {
+		flush();
+		fDocument.addPosition(category, position);
+	}
+
+	@Override
+	public void addPositionCategory(String category) {
+		flushUnchecked();
+		fDocument.addPositionCategory(category);
+	}
+
+	@Override
+	public void addPositionUpdater(IPositionUpdater updater) {
+		flushUnchecked();
+		fDocument.addPositionUpdater(updater);
+	}
+
+	@Override
+	public void addPrenotifiedDocumentListener(IDocumentListener documentAdapter) {
+		flushUnchecked();
+		fDocument.addPrenotifiedDocumentListener(documentAdapter);
+	}
+
+	@Override
+	public int computeIndexInCategory(String category, int offset) throws BadLocationException, BadPositionCategoryException {
+		flush();
+		return fDocument.computeIndexInCategory(category, offset);
+	}
+
+	@Override
+	public int computeNumberOfLines(String text) {
+		flushUnchecked();
+		return fDocument.computeNumberOfLines(text);
+	}
+
+	@Override
+	public ITypedRegion[] computePartitioning(int offset, int length) throws BadLocationException {
+		flush();
+		return fDocument.computePartitioning(offset, length);
+	}
+
+	@Override
+	public boolean containsPosition(String category, int offset, int length) {
+		flushUnchecked();
+		return fDocument.containsPosition(category, offset, length);
+	}
+
+	@Override
+	public boolean containsPositionCategory(String category) {
+		flushUnchecked();
+		return fDocument.containsPositionCategory(category);
+	}
+
+	@Override
+	public String get() {
+		flushUnchecked();
+		return fDocument.get();
+	}
+
+	@Override
+	public String get(int offset, int length) throws BadLocationException {
+		flush();
+		return fDocument.get(offset, length);
+	}
+
+	@Override
+	public char getChar(int offset) throws BadLocationException {
+		flush();
+		return fDocument.getChar(offset);
+	}
+
+	@Override
+	public String getContentType(int offset) throws BadLocationException {
+		flush();
+		return fDocument.getContentType(offset);
+	}
+
+	@Override
+	public IDocumentPartitioner getDocumentPartitioner() {
+		flushUnchecked();
+		return fDocument.getDocumentPartitioner();
+	}
+
+	@Override
+	public String[] getLegalContentTypes() {
+		flushUnchecked();
+		return fDocument.getLegalContentTypes();
+	}
+
+	@Override
+	public String[] getLegalLineDelimiters() {
+		flushUnchecked();
+		return fDocument.getLegalLineDelimiters();
+	}
+
+	@Override
+	public int getLength() {
+		flushUnchecked();
+		return fDocument.getLength();
+	}
+
+	@Override
+	public String getLineDelimiter(int line) throws BadLocationException {
+		flush();
+		return fDocument.getLineDelimiter(line);
+	}
+
+	@Override
+	public IRegion getLineInformation(int line) throws BadLocationException {
+		flush();
+		return fDocument.getLineInformation(line);
+	}
+
+	@Override
+	public IRegion getLineInformationOfOffset(int offset) throws BadLocationException {
+		flush();
+		return fDocument.getLineInformationOfOffset(offset);
+	}
+
+	@Override
+	public int getLineLength(int line) throws BadLocationException {
+		flush();
+		return fDocument.getLineLength(line);
+	}
+
+	@Override
+	public int getLineOffset(int line) throws BadLocationException {
+		flush();
+		return fDocument.getLineOffset(line);
+	}
+
+	@Override
+	public int getLineOfOffset(int offset) throws BadLocationException {
+		flush();
+		return fDocument.getLineOfOffset(offset);
+	}
+
+	@Override
+	public int getNumberOfLines() {
+		flushUnchecked();
+		return fDocument.getNumberOfLines();
+	}
+
+	@Override
+	public int getNumberOfLines(int offset, int length) throws BadLocationException {
+		flush();
+		return fDocument.getNumberOfLines(offset, length);
+	}
+
+	@Override
+	public ITypedRegion getPartition(int offset) throws BadLocationException {
+		flush();
+		return fDocument.getPartition(offset);
+	}
+
+	@Override
+	public String[] getPositionCategories() {
+		flushUnchecked();
+		return fDocument.getPositionCategories();
+	}
+
+	@Override
+	public Position[] getPositions(String category) throws BadPositionCategoryException {
+		flushUnchecked();
+		return fDocument.getPositions(category);
+	}
+
+	@Override
+	public IPositionUpdater[] getPositionUpdaters() {
+		flushUnchecked();
+		return fDocument.getPositionUpdaters();
+	}
+
+	@Override
+	public void insertPositionUpdater(IPositionUpdater updater, int index) {
+		flushUnchecked();
+		fDocument.insertPositionUpdater(updater, index);
+	}
+
+	@Override
+	public void removeDocumentListener(IDocumentListener listener) {
+		flushUnchecked();
+		fDocument.removeDocumentListener(listener);
+	}
+
+	@Override
+	public void removeDocumentPartitioningListener(IDocumentPartitioningListener listener) {
+		flushUnchecked();
+		fDocument.removeDocumentPartitioningListener(listener);
+	}
+
+	@Override
+	public void removePosition(Position position) {
+		flushUnchecked();
+		fDocument.removePosition(position);
+	}
+
+	@Override
+	public void removePosition(String category, Position position) throws BadPositionCategoryException {
+		flushUnchecked();
+		fDocument.removePosition(category, position);
+	}
+
+	@Override
+	public void removePositionCategory(String category) throws BadPositionCategoryException {
+		flushUnchecked();
+		fDocument.removePositionCategory(category);
+	}
+
+	@Override
+	public void removePositionUpdater(IPositionUpdater updater) {
+		flushUnchecked();
+		fDocument.removePositionUpdater(updater);
+	}
+
+	@Override
+	public void removePrenotifiedDocumentListener(IDocumentListener documentAdapter) {
+		flushUnchecked();
+		fDocument.removePrenotifiedDocumentListener(documentAdapter);
+	}
+
+	@Override
+	public void replace(int offset, int length, String text) throws BadLocationException {
+		if (text == null)
+			text= ""; //$NON-NLS-1$
+		if (!fReplacements.isEmpty()) {
+			Replacement first= fReplacements.getFirst();
+			Replacement last= fReplacements.getLast();
+			if (offset >= 0 && offset + length <= first.fOffset) {
+				// in front of the collected replacements, the offsets are unchanged
+				add(new Replacement(offset, length, text, offset), true);
+				return;
+			}
+			if (offset - fDelta >= last.fOffset + last.fLength) {
+				// behind the collected replacements
+				add(new Replacement(offset - fDelta, length, text, offset), false);
+				return;
+			}
+			flush();
+		}
+		add(new Replacement(offset, length, text, offset), false);
+	}
+
+	private void add(Replacement replacement, boolean first) throws BadLocationException {
+		if (replacement.fOffset < 0 || replacement.fLength < 0 || replacement.fOffset + replacement.fLength > fDocument.getLength())
+			throw new BadLocationException();
+		if (first)
+			fReplacements.addFirst(replacement);
+		else
+			fReplacements.addLast(replacement);
+		fHistory.add(replacement);
+		fDelta+= replacement.fText.length() - replacement.fLength;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * @deprecated As of 3.0 search is provided by {@link FindReplaceDocumentAdapter}
+	 */
+	@Deprecated
+	@Override
+	public int search(int startOffset, String findString, boolean forwardSearch, boolean caseSensitive, boolean wholeWord) throws BadLocationException {
+		flush();
+		return fDocument.search(startOffset, findString, forwardSearch, caseSensitive, wholeWord);
+	}
+
+	@Override
+	public void set(String text) {
+		flushUnchecked();
+		fDocument.set(text);
+	}
+
+	@Override
+	public void setDocumentPartitioner(IDocumentPartitioner partitioner) {
+		flushUnchecked();
+		fDocument.setDocumentPartitioner(partitioner);
+	}
+}
@@ -105,6 +105,20 @@ public abstract class TextEdit {
 	 */
 	public static final int UPDATE_REGIONS= 1 << 1;
 
+	/**
+	 * Flag indicating that the changes of the edit tree are applied to the
+	 * document as a single replacement of the range they cover, instead of
+	 * one replacement per edit. Document listeners receive one event and the
+	 * document updates its line information and positions once, which makes
+	 * applying trees with many edits a lot faster. Positions inside the
+	 * covered range are updated as for any replacement of that range, and not
+	 * as for the individual edits. The undo edit still consists of the
+	 * reverse changes of the individual edits.
+	 *
+	 * @since 3.14
+	 */
+	public static final int COALESCE_CHANGES= 1 << 2;
+
 	private static class InsertionComparator implements Comparator<TextEdit> {
 		@Override
 		public int compare(TextEdit edit1, TextEdit edit2) throws MalformedTreeException {
@@ -695,7 +709,8 @@ public abstract class TextEdit {
 	 *
 	 * @param document the document to be manipulated
 	 * @param style flags controlling the execution of the edit tree. Valid
-	 *  flags are: <code>CREATE_UNDO</code> and <code>UPDATE_REGIONS</code>.
+	 *  flags are: <code>CREATE_UNDO</code>, <code>UPDATE_REGIONS</code> and
+	 *  <code>COALESCE_CHANGES</code>.
 	 * @return a undo edit, if <code>CREATE_UNDO</code> is specified. Otherwise
 	 *  <code>null</code> is returned.
 	 *
@@ -55,7 +55,8 @@ public class TextEditProcessor {
 	 *  text edit processors. Clients must not modify the edit
 	 *  (e.g adding new children) any longer.
 	 *
-	 * @param style {@link TextEdit#NONE}, {@link TextEdit#CREATE_UNDO} or {@link TextEdit#UPDATE_REGIONS})
+	 * @param style {@link TextEdit#NONE} or a combination of {@link TextEdit#CREATE_UNDO},
+	 *  {@link TextEdit#UPDATE_REGIONS} and {@link TextEdit#COALESCE_CHANGES}
 	 */
 	public TextEditProcessor(IDocument document, TextEdit root, int style) {
 		this(document, root, style, false);
@@ -113,6 +114,7 @@ public class TextEditProcessor {
 	 * @return the style bits
 	 * @see TextEdit#CREATE_UNDO
 	 * @see TextEdit#UPDATE_REGIONS
+	 * @see TextEdit#COALESCE_CHANGES
 	 */
 	public int getStyle() {
 		return fStyle;
@@ -193,7 +195,13 @@ public class TextEditProcessor {
 			if (createUndo())
 				collector.connect(fDocument);
 			computeSources();
-			fRoot.traverseDocumentUpdating(this, fDocument);
+			if (coalesceChanges()) {
+				CoalescingDocument document= new CoalescingDocument(fDocument, createUndo() ? collector : null);
+				fRoot.traverseDocumentUpdating(this, document);
+				document.flush();
+			} else {
+				fRoot.traverseDocumentUpdating(this, fDocument);
+			}
 			if (updateRegions()) {
 				fRoot.traverseRegionUpdating(this, fDocument, 0, false);
 			}
@@ -219,9 +227,17 @@ public class TextEditProcessor {
 			if (createUndo())
 				collector.connect(fDocument);
 			TextEdit[] edits= fRoot.getChildren();
+			CoalescingDocument coalescingDocument= null;
+			IDocument document= fDocument;
+			if (coalesceChanges()) {
+				coalescingDocument= new CoalescingDocument(fDocument, createUndo() ? collector : null);
+				document= coalescingDocument;
+			}
 			for (int i= edits.length - 1; i >= 0; i--) {
-				edits[i].performDocumentUpdating(fDocument);
+				edits[i].performDocumentUpdating(document);
 			}
+			if (coalescingDocument != null)
+				coalescingDocument.flush();
 		} finally {
 			collector.disconnect(fDocument);
 		}
@@ -235,4 +251,8 @@ public class TextEditProcessor {
 	private boolean updateRegions() {
 		return (fStyle & TextEdit.UPDATE_REGIONS) != 0;
 	}
+
+	private boolean coalesceChanges() {
+		return (fStyle & TextEdit.COALESCE_CHANGES) != 0;
+	}
 }
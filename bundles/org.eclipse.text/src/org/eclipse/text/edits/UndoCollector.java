@@ -32,6 +32,14 @@ class UndoCollector implements IDocumentListener {
 	 */
 	private String fLastCurrentText;
 
+	/**
+	 * Tells whether the document changes are coalesced changes whose undo is
+	 * added by {@link #add(int, int, String)}.
+	 *
+	 * @since 3.14
+	 */
+	private boolean fCoalescing;
+
 	public UndoCollector(TextEdit root) {
 		fOffset= root.getOffset();
 		fLength= root.getLength();
@@ -61,6 +69,9 @@ class UndoCollector implements IDocumentListener {
 
 	@Override
 	public void documentAboutToBeChanged(DocumentEvent event) {
+		if (fCoalescing)
+			return;
+
 		int offset= event.getOffset();
 		int currentLength= event.getLength();
 		String currentText= null;
@@ -70,6 +81,19 @@ class UndoCollector implements IDocumentListener {
 			Assert.isTrue(false, "Can't happen"); //$NON-NLS-1$
 		}
 
+		String newText= event.getText();
+		add(offset, newText != null ? newText.length() : 0, currentText);
+	}
+
+	/**
+	 * Adds the undo of a replacement.
+	 *
+	 * @param offset the offset of the replacement
+	 * @param length the length of the new text
+	 * @param currentText the replaced text
+	 * @since 3.14
+	 */
+	void add(int offset, int length, String currentText) {
 		/*
 		 * see https://bugs.eclipse.org/bugs/show_bug.cgi?id=93634
 		 * If the same string is replaced on many documents (e.g. rename
@@ -82,7 +106,17 @@ class UndoCollector implements IDocumentListener {
 		else
 			fLastCurrentText= currentText;
 
-		String newText= event.getText();
-		undo.add(new ReplaceEdit(offset, newText != null ? newText.length() : 0, currentText));
+		undo.add(new ReplaceEdit(offset, length, currentText));
+	}
+
+	/**
+	 * Sets whether the following document changes are coalesced changes whose
+	 * undo has already been added by {@link #add(int, int, String)}.
+	 *
+	 * @param coalescing <code>true</code> if the changes are coalesced
+	 * @since 3.14
+	 */
+	void setCoalescing(boolean coalescing) {
+		fCoalescing= coalescing;
 	}
 }
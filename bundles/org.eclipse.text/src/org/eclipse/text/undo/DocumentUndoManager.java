@@ -14,8 +14,13 @@
  *******************************************************************************/
 package org.eclipse.text.undo;
 
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
 
 import org.eclipse.core.commands.ExecutionException;
 import org.eclipse.core.commands.operations.AbstractOperation;
@@ -69,6 +74,28 @@ import org.eclipse.jface.text.TextUtilities;
  */
 public class DocumentUndoManager implements IDocumentUndoManager {
 
+	/**
+	 * The name of the system property holding the default for
+	 * {@link #setMaximalUndoSize(long)}.
+	 *
+	 * @since 3.14
+	 */
+	public static final String MAXIMAL_UNDO_SIZE_PROPERTY= "org.eclipse.text.undo.maximalUndoSize"; //$NON-NLS-1$
+
+	/**
+	 * The name of the system property holding the default for
+	 * {@link #setCompressionThreshold(int)}.
+	 *
+	 * @since 3.14
+	 */
+	public static final String COMPRESSION_THRESHOLD_PROPERTY= "org.eclipse.text.undo.compressionThreshold"; //$NON-NLS-1$
+
+	/**
+	 * The capacity above which the text buffers are trimmed once their content has
+	 * been committed, so that a single large change does not keep them large.
+	 */
+	private static final int MAXIMAL_BUFFER_CAPACITY= 8 * 1024;
+
 
 	/**
 	 * Represents an undo-able text change, described as the
@@ -91,6 +118,18 @@ public class DocumentUndoManager implements IDocumentUndoManager {
 		/** The replaced text. */
 		protected String fPreservedText;
 
+		/**
+		 * The newly inserted text compressed by {@link DocumentUndoManager#compress(String)},
+		 * <code>null</code> if the text is not compressed.
+		 */
+		protected byte[] fCompressedText;
+
+		/**
+		 * The replaced text compressed by {@link DocumentUndoManager#compress(String)},
+		 * <code>null</code> if the text is not compressed.
+		 */
+		protected byte[] fCompressedPreservedText;
+
 		/** The undo modification stamp. */
 		protected long fUndoModificationStamp= IDocumentExtension4.UNKNOWN_MODIFICATION_STAMP;
 
@@ -117,6 +156,7 @@ public class DocumentUndoManager implements IDocumentUndoManager {
 		protected void reinitialize() {
 			fStart= fEnd= -1;
 			fText= fPreservedText= null;
+			fCompressedText= fCompressedPreservedText= null;
 			fUndoModificationStamp= IDocumentExtension4.UNKNOWN_MODIFICATION_STAMP;
 			fRedoModificationStamp= IDocumentExtension4.UNKNOWN_MODIFICATION_STAMP;
 		}
@@ -132,6 +172,59 @@ public class DocumentUndoManager implements IDocumentUndoManager {
 			fEnd= end;
 			fText= null;
 			fPreservedText= null;
+			fCompressedText= null;
+			fCompressedPreservedText= null;
+		}
+
+		/**
+		 * Returns the newly inserted text.
+		 *
+		 * @return the inserted text
+		 */
+		protected String getText() {
+			return fCompressedText != null ? decompress(fCompressedText) : fText;
+		}
+
+		/**
+		 * Returns the replaced text.
+		 *
+		 * @return the replaced text
+		 */
+		protected String getPreservedText() {
+			return fCompressedPreservedText != null ? decompress(fCompressedPreservedText) : fPreservedText;
+		}
+
+		/**
+		 * Compresses the texts of this change which are at least as long as the
+		 * compression threshold of the undo manager. Must only be called once the
+		 * change is complete.
+		 */
+		protected void compact() {
+			int threshold= fDocumentUndoManager.fCompressionThreshold;
+			if (threshold < 0) {
+				return;
+			}
+			if (fText != null && fText.length() >= threshold) {
+				fCompressedText= compress(fText);
+				if (fCompressedText != null) {
+					fText= null;
+				}
+			}
+			if (fPreservedText != null && fPreservedText.length() >= threshold) {
+				fCompressedPreservedText= compress(fPreservedText);
+				if (fCompressedPreservedText != null) {
+					fPreservedText= null;
+				}
+			}
+		}
+
+		/**
+		 * Returns the estimated number of bytes retained by the texts of this change.
+		 *
+		 * @return the estimated size in bytes
+		 */
+		protected long getHistorySize() {
+			return getSize(fText, fCompressedText) + getSize(fPreservedText, fCompressedPreservedText);
 		}
 
 		@Override
@@ -143,13 +236,23 @@ public class DocumentUndoManager implements IDocumentUndoManager {
 		 * Undo the change described by this change.
 		 */
 		protected void undoTextChange() {
+			undoTextChange(getText(), getPreservedText());
+		}
+
+		/**
+		 * Undo the change described by this change.
+		 *
+		 * @param text the inserted text, as returned by {@link #getText()}
+		 * @param preservedText the replaced text, as returned by {@link #getPreservedText()}
+		 */
+		protected void undoTextChange(String text, String preservedText) {
 			try {
 				if (fDocumentUndoManager.fDocument instanceof IDocumentExtension4) {
-					((IDocumentExtension4) fDocumentUndoManager.fDocument).replace(fStart, fText
-							.length(), fPreservedText, fUndoModificationStamp);
+					((IDocumentExtension4) fDocumentUndoManager.fDocument).replace(fStart, text
+							.length(), preservedText, fUndoModificationStamp);
 				} else {
-					fDocumentUndoManager.fDocument.replace(fStart, fText.length(),
-							fPreservedText);
+					fDocumentUndoManager.fDocument.replace(fStart, text.length(),
+							preservedText);
 				}
 			} catch (BadLocationException x) {
 			}
@@ -258,10 +361,13 @@ public class DocumentUndoManager implements IDocumentUndoManager {
 		@Override
 		public IStatus undo(IProgressMonitor monitor, IAdaptable uiInfo) {
 			if (isValid()) {
-				fDocumentUndoManager.fireDocumentUndo(fStart, fPreservedText, fText, uiInfo, DocumentUndoEvent.ABOUT_TO_UNDO, false);
-				undoTextChange();
+				// decompress the texts only once
+				String text= getText();
+				String preservedText= getPreservedText();
+				fDocumentUndoManager.fireDocumentUndo(fStart, preservedText, text, uiInfo, DocumentUndoEvent.ABOUT_TO_UNDO, false);
+				undoTextChange(text, preservedText);
 				fDocumentUndoManager.resetProcessChangeState();
-				fDocumentUndoManager.fireDocumentUndo(fStart, fPreservedText, fText, uiInfo, DocumentUndoEvent.UNDONE, false);
+				fDocumentUndoManager.fireDocumentUndo(fStart, preservedText, text, uiInfo, DocumentUndoEvent.UNDONE, false);
 				return Status.OK_STATUS;
 			}
 			return IOperationHistory.OPERATION_INVALID_STATUS;
@@ -271,11 +377,20 @@ public class DocumentUndoManager implements IDocumentUndoManager {
 		 * Re-applies the change described by this change.
 		 */
 		protected void redoTextChange() {
+			redoTextChange(getText());
+		}
+
+		/**
+		 * Re-applies the change described by this change.
+		 *
+		 * @param text the inserted text, as returned by {@link #getText()}
+		 */
+		protected void redoTextChange(String text) {
 			try {
 				if (fDocumentUndoManager.fDocument instanceof IDocumentExtension4) {
-					((IDocumentExtension4) fDocumentUndoManager.fDocument).replace(fStart, fEnd - fStart, fText, fRedoModificationStamp);
+					((IDocumentExtension4) fDocumentUndoManager.fDocument).replace(fStart, fEnd - fStart, text, fRedoModificationStamp);
 				} else {
-					fDocumentUndoManager.fDocument.replace(fStart, fEnd - fStart, fText);
+					fDocumentUndoManager.fDocument.replace(fStart, fEnd - fStart, text);
 				}
 			} catch (BadLocationException x) {
 			}
@@ -292,10 +407,13 @@ public class DocumentUndoManager implements IDocumentUndoManager {
 		@Override
 		public IStatus redo(IProgressMonitor monitor, IAdaptable uiInfo) {
 			if (isValid()) {
-				fDocumentUndoManager.fireDocumentUndo(fStart, fText, fPreservedText, uiInfo, DocumentUndoEvent.ABOUT_TO_REDO, false);
-				redoTextChange();
+				// decompress the texts only once
+				String text= getText();
+				String preservedText= getPreservedText();
+				fDocumentUndoManager.fireDocumentUndo(fStart, text, preservedText, uiInfo, DocumentUndoEvent.ABOUT_TO_REDO, false);
+				redoTextChange(text);
 				fDocumentUndoManager.resetProcessChangeState();
-				fDocumentUndoManager.fireDocumentUndo(fStart, fText, fPreservedText, uiInfo, DocumentUndoEvent.REDONE, false);
+				fDocumentUndoManager.fireDocumentUndo(fStart, text, preservedText, uiInfo, DocumentUndoEvent.REDONE, false);
 				return Status.OK_STATUS;
 			}
 			return IOperationHistory.OPERATION_INVALID_STATUS;
@@ -310,6 +428,7 @@ public class DocumentUndoManager implements IDocumentUndoManager {
 			fDocumentUndoManager.fTextBuffer.setLength(0);
 			fPreservedText= fDocumentUndoManager.fPreservedTextBuffer.toString();
 			fDocumentUndoManager.fPreservedTextBuffer.setLength(0);
+			fDocumentUndoManager.trimBuffers();
 		}
 
 		/**
@@ -337,6 +456,7 @@ public class DocumentUndoManager implements IDocumentUndoManager {
 				}
 			} else {
 				updateTextChange();
+				compact();
 				fDocumentUndoManager.fCurrent= createCurrent();
 			}
 			fDocumentUndoManager.resetProcessChangeState();
@@ -375,7 +495,7 @@ public class DocumentUndoManager implements IDocumentUndoManager {
 		 * @return <code>true</code> if the change is valid for undo or redo
 		 */
 		protected boolean isValid() {
-			return fStart > -1 && fEnd > -1 && fText != null;
+			return fStart > -1 && fEnd > -1 && (fText != null || fCompressedText != null);
 		}
 
 		@Override
@@ -395,11 +515,11 @@ public class DocumentUndoManager implements IDocumentUndoManager {
 			text.append(fEnd);
 			text.append(delimiter);
 			text.append("text: '"); //$NON-NLS-1$
-			text.append(fText);
+			text.append(getText());
 			text.append('\'');
 			text.append(delimiter);
 			text.append("preservedText: '"); //$NON-NLS-1$
-			text.append(fPreservedText);
+			text.append(getPreservedText());
 			text.append('\'');
 			return text.toString();
 		}
@@ -433,6 +553,9 @@ public class DocumentUndoManager implements IDocumentUndoManager {
 		/** The list of individual changes */
 		private List<UndoableTextChange> fChanges= new ArrayList<>();
 
+		/** The estimated number of bytes retained by the individual changes */
+		private long fChangesSize;
+
 		/**
 		 * Creates a new compound text change.
 		 *
@@ -449,6 +572,7 @@ public class DocumentUndoManager implements IDocumentUndoManager {
 		 */
 		protected void add(UndoableTextChange change) {
 			fChanges.add(change);
+			fChangesSize+= change.getHistorySize();
 		}
 
 		@Override
@@ -459,7 +583,10 @@ public class DocumentUndoManager implements IDocumentUndoManager {
 				UndoableTextChange c;
 
 				c= fChanges.get(0);
-				fDocumentUndoManager.fireDocumentUndo(c.fStart, c.fPreservedText, c.fText, uiInfo, DocumentUndoEvent.ABOUT_TO_UNDO, size > 1);
+				// decompress the texts of the first change only once
+				String text= c.getText();
+				String preservedText= c.getPreservedText();
+				fDocumentUndoManager.fireDocumentUndo(c.fStart, preservedText, text, uiInfo, DocumentUndoEvent.ABOUT_TO_UNDO, size > 1);
 
 				DocumentRewriteSession rewriteSession= null;
 				if (size > 25 && fDocumentUndoManager.fDocument instanceof IDocumentExtension4
@@ -468,16 +595,16 @@ public class DocumentUndoManager implements IDocumentUndoManager {
 					rewriteSession= ((IDocumentExtension4) fDocumentUndoManager.fDocument).startRewriteSession(sessionType);
 				}
 
-				for (int i= size - 1; i >= 0; --i) {
-					c= fChanges.get(i);
-					c.undoTextChange();
+				for (int i= size - 1; i > 0; --i) {
+					fChanges.get(i).undoTextChange();
 				}
+				c.undoTextChange(text, preservedText);
 
 				if (rewriteSession != null) {
 					((IDocumentExtension4) fDocumentUndoManager.fDocument).stopRewriteSession(rewriteSession);
 				}
 				fDocumentUndoManager.resetProcessChangeState();
-				fDocumentUndoManager.fireDocumentUndo(c.fStart, c.fPreservedText, c.fText, uiInfo,
+				fDocumentUndoManager.fireDocumentUndo(c.fStart, preservedText, text, uiInfo,
 						DocumentUndoEvent.UNDONE, size > 1);
 			}
 			return Status.OK_STATUS;
@@ -491,7 +618,10 @@ public class DocumentUndoManager implements IDocumentUndoManager {
 
 				UndoableTextChange c;
 				c= fChanges.get(size - 1);
-				fDocumentUndoManager.fireDocumentUndo(c.fStart, c.fText, c.fPreservedText, uiInfo, DocumentUndoEvent.ABOUT_TO_REDO, size > 1);
+				// decompress the texts of the last change only once
+				String text= c.getText();
+				String preservedText= c.getPreservedText();
+				fDocumentUndoManager.fireDocumentUndo(c.fStart, text, preservedText, uiInfo, DocumentUndoEvent.ABOUT_TO_REDO, size > 1);
 
 				DocumentRewriteSession rewriteSession= null;
 				if (size > 25 && fDocumentUndoManager.fDocument instanceof IDocumentExtension4
@@ -500,16 +630,16 @@ public class DocumentUndoManager implements IDocumentUndoManager {
 					rewriteSession= ((IDocumentExtension4) fDocumentUndoManager.fDocument).startRewriteSession(sessionType);
 				}
 
-				for (int i= 0; i < size; ++i) {
-					c= fChanges.get(i);
-					c.redoTextChange();
+				for (int i= 0; i < size - 1; ++i) {
+					fChanges.get(i).redoTextChange();
 				}
+				c.redoTextChange(text);
 
 				if (rewriteSession != null) {
 					((IDocumentExtension4) fDocumentUndoManager.fDocument).stopRewriteSession(rewriteSession);
 				}
 				fDocumentUndoManager.resetProcessChangeState();
-				fDocumentUndoManager.fireDocumentUndo(c.fStart, c.fText, c.fPreservedText, uiInfo, DocumentUndoEvent.REDONE, size > 1);
+				fDocumentUndoManager.fireDocumentUndo(c.fStart, text, preservedText, uiInfo, DocumentUndoEvent.REDONE, size > 1);
 			}
 
 			return Status.OK_STATUS;
@@ -528,6 +658,7 @@ public class DocumentUndoManager implements IDocumentUndoManager {
 			c.fPreservedText= fPreservedText;
 			c.fUndoModificationStamp= fUndoModificationStamp;
 			c.fRedoModificationStamp= fRedoModificationStamp;
+			c.compact();
 			add(c);
 
 			// clear out all indexes now that the child is added
@@ -560,6 +691,11 @@ public class DocumentUndoManager implements IDocumentUndoManager {
 			return fStart > -1 || !fChanges.isEmpty();
 		}
 
+		@Override
+		protected long getHistorySize() {
+			return fChangesSize + super.getHistorySize();
+		}
+
 		@Override
 		protected long getUndoModificationStamp() {
 			if (fStart > -1) {
@@ -773,6 +909,18 @@ public class DocumentUndoManager implements IDocumentUndoManager {
 	/** The list of clients connected. */
 	private List<Object> fConnected;
 
+	/**
+	 * The maximal estimated number of bytes retained by the undo history, negative
+	 * if the size is not limited.
+	 */
+	private long fMaximalUndoSize= Long.getLong(MAXIMAL_UNDO_SIZE_PROPERTY, -1).longValue();
+
+	/**
+	 * The minimal length of the texts that are compressed, negative if texts are not
+	 * compressed.
+	 */
+	private int fCompressionThreshold= Integer.getInteger(COMPRESSION_THRESHOLD_PROPERTY, -1).intValue();
+
 	/**
 	 *
 	 * Create a DocumentUndoManager for the given document.
@@ -816,6 +964,7 @@ public class DocumentUndoManager implements IDocumentUndoManager {
 			}
 		}
 		fCurrent.commit();
+		enforceMaximalUndoSize();
 	}
 
 	@Override
@@ -895,6 +1044,168 @@ public class DocumentUndoManager implements IDocumentUndoManager {
 		fHistory.setLimit(fUndoContext, undoLimit);
 	}
 
+	/**
+	 * Limits the estimated number of bytes retained by the texts of the undo
+	 * history. When a change is committed, the oldest changes are removed from
+	 * the history until it fits into the limit again. The most recent change is
+	 * always kept. The limit applies in addition to the maximal undo level.
+	 * <p>
+	 * The default is taken from the system property
+	 * {@value #MAXIMAL_UNDO_SIZE_PROPERTY}, no limit if it is not set.
+	 * </p>
+	 *
+	 * @param maxSize the maximal size in bytes, a negative value for no limit
+	 * @see #getUndoHistorySize()
+	 * @since 3.14
+	 */
+	public void setMaximalUndoSize(long maxSize) {
+		fMaximalUndoSize= maxSize;
+		enforceMaximalUndoSize();
+	}
+
+	/**
+	 * Sets the minimal length of the inserted and replaced texts that are
+	 * compressed once their change is complete. Compressed texts are
+	 * decompressed when the change is undone or redone. Texts that do not get
+	 * smaller are kept as they are.
+	 * <p>
+	 * The default is taken from the system property
+	 * {@value #COMPRESSION_THRESHOLD_PROPERTY}, no compression if it is not set.
+	 * </p>
+	 *
+	 * @param threshold the minimal length in characters, a negative value to not
+	 *            compress texts
+	 * @since 3.14
+	 */
+	public void setCompressionThreshold(int threshold) {
+		fCompressionThreshold= threshold;
+	}
+
+	/**
+	 * Returns the estimated number of bytes retained by the texts of the undo
+	 * and redo history of this undo manager. Uncompressed texts are counted with
+	 * two bytes per character.
+	 *
+	 * @return the estimated size of the history in bytes
+	 * @since 3.14
+	 */
+	public long getUndoHistorySize() {
+		long size= 0;
+		for (IUndoableOperation operation : fHistory.getUndoHistory(fUndoContext)) {
+			size+= getHistorySize(operation);
+		}
+		for (IUndoableOperation operation : fHistory.getRedoHistory(fUndoContext)) {
+			size+= getHistorySize(operation);
+		}
+		return size;
+	}
+
+	/**
+	 * Removes the oldest changes from the undo history until it fits into the
+	 * maximal undo size.
+	 */
+	private void enforceMaximalUndoSize() {
+		if (fMaximalUndoSize < 0) {
+			return;
+		}
+		long size= getUndoHistorySize();
+		if (size <= fMaximalUndoSize) {
+			return;
+		}
+		IUndoableOperation[] operations= fHistory.getUndoHistory(fUndoContext);
+		for (int i= 0; i < operations.length - 1 && size > fMaximalUndoSize; i++) {
+			IUndoableOperation operation= operations[i];
+			size-= getHistorySize(operation);
+			if (operation.getContexts().length == 1) {
+				fHistory.replaceOperation(operation, new IUndoableOperation[0]);
+			} else {
+				// the operation is shared with other contexts, only leave our history
+				operation.removeContext(fUndoContext);
+			}
+		}
+	}
+
+	private static long getHistorySize(IUndoableOperation operation) {
+		if (operation instanceof UndoableTextChange) {
+			return ((UndoableTextChange) operation).getHistorySize();
+		}
+		return 0;
+	}
+
+	private static long getSize(String text, byte[] compressedText) {
+		if (compressedText != null) {
+			return compressedText.length;
+		}
+		return text != null ? 2L * text.length() : 0;
+	}
+
+	/**
+	 * Compresses the characters of the given text.
+	 *
+	 * @param text the text to compress
+	 * @return the compressed text, <code>null</code> if it would not be smaller
+	 *         than the text
+	 */
+	private static byte[] compress(String text) {
+		ByteBuffer chars= ByteBuffer.allocate(2 * text.length());
+		chars.asCharBuffer().put(text);
+		Deflater deflater= new Deflater(Deflater.BEST_SPEED);
+		try {
+			deflater.setInput(chars.array());
+			deflater.finish();
+			ByteArrayOutputStream out= new ByteArrayOutputStream(text.length() / 4);
+			byte[] buffer= new byte[8192];
+			while (!deflater.finished()) {
+				out.write(buffer, 0, deflater.deflate(buffer));
+				if (out.size() >= text.length()) {
+					return null;
+				}
+			}
+			return out.toByteArray();
+		} finally {
+			deflater.end();
+		}
+	}
+
+	/**
+	 * Decompresses a text compressed by {@link #compress(String)}.
+	 *
+	 * @param compressedText the compressed text
+	 * @return the text
+	 */
+	private static String decompress(byte[] compressedText) {
+		Inflater inflater= new Inflater();
+		try {
+			inflater.setInput(compressedText);
+			ByteArrayOutputStream out= new ByteArrayOutputStream(compressedText.length * 4);
+			byte[] buffer= new byte[8192];
+			while (!inflater.finished()) {
+				int count= inflater.inflate(buffer);
+				if (count == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+					throw new IllegalStateException("Truncated undo text"); //$NON-NLS-1$
+				}
+				out.write(buffer, 0, count);
+			}
+			return ByteBuffer.wrap(out.toByteArray()).asCharBuffer().toString();
+		} catch (DataFormatException e) {
+			throw new IllegalStateException(e);
+		} finally {
+			inflater.end();
+		}
+	}
+
+	/**
+	 * Trims the text buffers if a large change made them grow.
+	 */
+	private void trimBuffers() {
+		if (fTextBuffer.capacity() > MAXIMAL_BUFFER_CAPACITY) {
+			fTextBuffer.trimToSize();
+		}
+		if (fPreservedTextBuffer.capacity() > MAXIMAL_BUFFER_CAPACITY) {
+			fPreservedTextBuffer.trimToSize();
+		}
+	}
+
 	/**
 	 * Fires a document undo event to all registered document undo listeners.
 	 * Uses a robust iterator.
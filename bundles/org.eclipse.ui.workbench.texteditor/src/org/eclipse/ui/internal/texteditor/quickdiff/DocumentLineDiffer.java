@@ -138,6 +138,13 @@ public class DocumentLineDiffer implements ILineDiffer, IDocumentListener, IAnno
 
 	/** The delay after which the initialization job is triggered. */
 	private static final int INITIALIZE_DELAY= 500;
+	/** The maximal number of lines of a document change that is diffed incrementally. */
+	private static final int MAX_INCREMENTAL_CHANGE= 500;
+	/**
+	 * The maximal product of the numbers of lines that are diffed incrementally on
+	 * both sides, larger changes are diffed by the initialization job.
+	 */
+	private static final int MAX_INCREMENTAL_DIFF= 50 * 50;
 
 	/** Suspended state */
 	private static final int SUSPENDED= 0;
@@ -206,6 +213,16 @@ public class DocumentLineDiffer implements ILineDiffer, IDocumentListener, IAnno
 	private int fNLines;
 	/** The most recent range difference returned in a getLineInfo call, so it can be recyled. */
 	private QuickDiffRangeDifference fLastDifference;
+	/**
+	 * The line hashes of the reference document computed by the last initialization. They
+	 * are reused by the next initialization if the reference document has not been
+	 * modified in the meantime, e.g. when resuming after a document rewrite session.
+	 */
+	private DocumentEquivalenceClass fReferenceHashes;
+	/** The reference document of <code>fReferenceHashes</code>. */
+	private IDocument fReferenceHashesDocument;
+	/** The modification stamp of the reference document of <code>fReferenceHashes</code>. */
+	private long fReferenceHashesStamp;
 	/**
 	 * <code>true</code> if incoming document events should be ignored,
 	 * <code>false</code> if not.
@@ -583,9 +600,12 @@ public class DocumentLineDiffer implements ILineDiffer, IDocumentListener, IAnno
 
 				// create the reference copy - note that any changes on the
 				// reference will trigger re-initialization anyway
+				long referenceStamp= getModificationStamp(left);
 				reference= createCopy(left);
 				if (reference == null)
 					return Status.CANCEL_STATUS;
+				if (referenceStamp != getModificationStamp(left))
+					referenceStamp= IDocumentExtension4.UNKNOWN_MODIFICATION_STAMP;
 
 				// create the actual copy
 
@@ -638,7 +658,11 @@ public class DocumentLineDiffer implements ILineDiffer, IDocumentListener, IAnno
 				}
 
 				IHashFunction hash= new DJBHashFunction();
-				DocumentEquivalenceClass leftEquivalent= new DocumentEquivalenceClass(reference, hash);
+				DocumentEquivalenceClass leftEquivalent= getReferenceHashes(left, referenceStamp);
+				if (leftEquivalent != null)
+					leftEquivalent.setDocument(reference);
+				else
+					leftEquivalent= new DocumentEquivalenceClass(reference, hash);
 				fLeftEquivalent= leftEquivalent;
 				IRangeComparator ref= new DocEquivalenceComparator(leftEquivalent, null);
 
@@ -674,6 +698,12 @@ public class DocumentLineDiffer implements ILineDiffer, IDocumentListener, IAnno
 								leftEquivalent.setDocument(left);
 								rightEquivalent.setDocument(right);
 
+								if (referenceStamp != IDocumentExtension4.UNKNOWN_MODIFICATION_STAMP) {
+									fReferenceHashes= leftEquivalent;
+									fReferenceHashesDocument= left;
+									fReferenceHashesStamp= referenceStamp;
+								}
+
 								break;
 							}
 
@@ -716,6 +746,25 @@ public class DocumentLineDiffer implements ILineDiffer, IDocumentListener, IAnno
 				return fInitializationJob != this || monitor != null && monitor.isCanceled();
 			}
 
+			/**
+			 * Returns the line hashes of the last initialization if they have been computed
+			 * for the given reference document at the given modification stamp.
+			 *
+			 * @param left the reference document
+			 * @param stamp the modification stamp of the reference document
+			 * @return the line hashes or <code>null</code> if they cannot be reused
+			 */
+			private DocumentEquivalenceClass getReferenceHashes(IDocument left, long stamp) {
+				synchronized (DocumentLineDiffer.this) {
+					if (stamp == IDocumentExtension4.UNKNOWN_MODIFICATION_STAMP || fReferenceHashesDocument != left || fReferenceHashesStamp != stamp)
+						return null;
+					DocumentEquivalenceClass hashes= fReferenceHashes;
+					fReferenceHashes= null;
+					fReferenceHashesDocument= null;
+					return hashes;
+				}
+			}
+
 			private void clearModel() {
 				synchronized (DocumentLineDiffer.this) {
 					fLeftDocument= null;
@@ -754,6 +803,12 @@ public class DocumentLineDiffer implements ILineDiffer, IDocumentListener, IAnno
 			private IDocument createUnprotectedCopy(IDocument document) {
 				return new Document(document.get());
 			}
+
+			private long getModificationStamp(IDocument document) {
+				if (document instanceof IDocumentExtension4)
+					return ((IDocumentExtension4) document).getModificationStamp();
+				return IDocumentExtension4.UNKNOWN_MODIFICATION_STAMP;
+			}
 		};
 
 		fInitializationJob.setSystem(true);
@@ -936,7 +991,7 @@ public class DocumentLineDiffer implements ILineDiffer, IDocumentListener, IAnno
 		// size: the size of the document change in lines
 
 		// put an upper bound to the delay we can afford
-		if (added > 50 || fNLines > 50) {
+		if (added > MAX_INCREMENTAL_CHANGE || fNLines > MAX_INCREMENTAL_CHANGE) {
 			initialize();
 			return;
 		}
@@ -999,8 +1054,6 @@ public class DocumentLineDiffer implements ILineDiffer, IDocumentListener, IAnno
 		if (leftToRight)
 			leftLine += lineDelta;
 		int leftEndLine= leftLine - shiftAfter;
-		ILineRange leftRange= new LineRange(leftStartLine, leftEndLine - leftStartLine);
-		IRangeComparator reference= new DocEquivalenceComparator(leftEquivalent, leftRange);
 
 		// right (actual) document
 		int rightStartLine= consistentBefore.rightStart() + shiftBefore;
@@ -1008,15 +1061,41 @@ public class DocumentLineDiffer implements ILineDiffer, IDocumentListener, IAnno
 		if (!leftToRight)
 			rightLine += lineDelta;
 		int rightEndLine= rightLine - shiftAfter;
-		ILineRange rightRange= new LineRange(rightStartLine, rightEndLine - rightStartLine);
-		IRangeComparator change= new DocEquivalenceComparator(rightEquivalent, rightRange);
+
+		// lines at the borders of the regions with equal hashes are unchanged and need not be
+		// rediffed, the cached hashes make this cheap
+		int maxTrim= Math.min(leftEndLine - leftStartLine, rightEndLine - rightStartLine);
+		int trimBefore= 0;
+		while (trimBefore < maxTrim && leftEquivalent.getHash(leftStartLine + trimBefore).equals(rightEquivalent.getHash(rightStartLine + trimBefore)))
+			trimBefore++;
+		int trimAfter= 0;
+		while (trimBefore + trimAfter < maxTrim && leftEquivalent.getHash(leftEndLine - trimAfter - 1).equals(rightEquivalent.getHash(rightEndLine - trimAfter - 1)))
+			trimAfter++;
+		if (trimBefore + trimAfter == maxTrim && leftEndLine - leftStartLine == rightEndLine - rightStartLine && maxTrim > 0) {
+			// the regions are equal, diff one line to get a single unchanged range
+			if (trimAfter > 0)
+				trimAfter--;
+			else
+				trimBefore--;
+		}
+		leftStartLine+= trimBefore;
+		rightStartLine+= trimBefore;
+		shiftBefore+= trimBefore;
+		leftEndLine-= trimAfter;
+		rightEndLine-= trimAfter;
+		shiftAfter+= trimAfter;
 
 		// put an upper bound to the delay we can afford
-		if (leftLine - shiftAfter - leftStartLine > 50 || rightLine - shiftAfter - rightStartLine > 50) {
+		if ((long) (leftEndLine - leftStartLine) * (rightEndLine - rightStartLine) > MAX_INCREMENTAL_DIFF) {
 			initialize();
 			return;
 		}
 
+		ILineRange leftRange= new LineRange(leftStartLine, leftEndLine - leftStartLine);
+		IRangeComparator reference= new DocEquivalenceComparator(leftEquivalent, leftRange);
+		ILineRange rightRange= new LineRange(rightStartLine, rightEndLine - rightStartLine);
+		IRangeComparator change= new DocEquivalenceComparator(rightEquivalent, rightRange);
+
 		// debug
 //			System.out.println("compare window: "+size+"\n\n<" + left.get(leftRegion.getOffset(), leftRegion.getLength()) +  //$NON-NLS-1$//$NON-NLS-2$
 //					">\n\n<" + right.get(rightRegion.getOffset(), rightRegion.getLength()) + ">\n"); //$NON-NLS-1$ //$NON-NLS-2$
@@ -1455,6 +1534,9 @@ public class DocumentLineDiffer implements ILineDiffer, IDocumentListener, IAnno
 			fRightDocument= null;
 			fRightEquivalent= null;
 
+			fReferenceHashes= null;
+			fReferenceHashesDocument= null;
+
 			fDifferences.clear();
 		}
 
@@ -489,7 +489,11 @@ public class FilteredTree extends Composite {
 							}
 						}
 					}
-					treeViewer.refresh(true);
+					if (treeViewer instanceof NotifyingTreeViewer notifyingViewer) {
+						notifyingViewer.refreshFilter();
+					} else {
+						treeViewer.refresh(true);
+					}
 
 					if (text.length() > 0 && !initial) {
 						/*
@@ -960,6 +964,15 @@ public class FilteredTree extends Composite {
 			super.insert(parentElementOrTreePath, element, position);
 		}
 
+		/**
+		 * Refreshes the tree after the filter pattern has changed. Unlike the other
+		 * refresh methods, this keeps the match results the pattern filter can reuse
+		 * for the new pattern.
+		 */
+		void refreshFilter() {
+			super.refresh(true);
+		}
+
 		@Override
 		public void refresh() {
 			getPatternFilter().clearCaches();
@@ -1026,6 +1039,18 @@ public class FilteredTree extends Composite {
 			super.setHasChildren(elementOrTreePath, hasChildren);
 		}
 
+		@Override
+		public void update(Object element, String[] properties) {
+			getPatternFilter().clearCaches();
+			super.update(element, properties);
+		}
+
+		@Override
+		public void update(Object[] elements, String[] properties) {
+			getPatternFilter().clearCaches();
+			super.update(elements, properties);
+		}
+
 	}
 
 }
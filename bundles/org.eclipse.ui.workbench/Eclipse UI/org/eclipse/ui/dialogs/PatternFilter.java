@@ -15,8 +15,12 @@
  *******************************************************************************/
 package org.eclipse.ui.dialogs;
 
+import java.lang.reflect.Method;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import org.eclipse.jface.viewers.AbstractTreeViewer;
 import org.eclipse.jface.viewers.ContentViewer;
 import org.eclipse.jface.viewers.ILabelProvider;
@@ -39,12 +43,30 @@ public class PatternFilter extends ViewerFilter {
 	/*
 	 * Cache of filtered elements in the tree
 	 */
-	private Map cache = new HashMap();
+	private Map<Object, Object[]> cache = new HashMap<>();
 
 	/*
 	 * Maps parent elements to TRUE or FALSE
 	 */
-	private Map foundAnyCache = new HashMap();
+	private Map<Object, Boolean> foundAnyCache = new HashMap<>();
+
+	/*
+	 * Maps elements to TRUE or FALSE, depending on whether they are visible
+	 */
+	private Map<Object, Boolean> visibleCache = new HashMap<>();
+
+	/*
+	 * The filtered elements of the previous pattern, if the current pattern is a
+	 * refinement of it. Only these elements need to be filtered again.
+	 */
+	private Map<Object, Object[]> narrowedCache = new HashMap<>();
+
+	/*
+	 * The pattern and the leading wildcard setting of the cached results
+	 */
+	private String cachedPattern;
+
+	private boolean cachedLeadingWildcard;
 
 	private boolean useCache = false;
 
@@ -63,6 +85,28 @@ public class PatternFilter extends ViewerFilter {
 
 	private static Object[] EMPTY = new Object[0];
 
+	private static final Set<String> MATCH_METHODS = Set.of("isElementVisible", "isParentMatch", "isLeafMatch", //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+			"wordMatches"); //$NON-NLS-1$
+
+	/*
+	 * Whether the match results of a filter class only depend on the pattern, so
+	 * they can be kept when the pattern changes. This is not the case if the
+	 * class overrides any of the match methods.
+	 */
+	private static final ClassValue<Boolean> REUSES_MATCHES = new ClassValue<>() {
+		@Override
+		protected Boolean computeValue(Class<?> type) {
+			for (Class<?> c = type; c != PatternFilter.class; c = c.getSuperclass()) {
+				for (Method method : c.getDeclaredMethods()) {
+					if (MATCH_METHODS.contains(method.getName())) {
+						return Boolean.FALSE;
+					}
+				}
+			}
+			return Boolean.TRUE;
+		}
+	};
+
 	@Override
 	public Object[] filter(Viewer viewer, Object parent, Object[] elements) {
 		// we don't want to optimize if we've extended the filter ... this
@@ -76,11 +120,14 @@ public class PatternFilter extends ViewerFilter {
 			return super.filter(viewer, parent, elements);
 		}
 
-		Object[] filtered = (Object[]) cache.get(parent);
+		Object[] filtered = cache.get(parent);
 		if (filtered == null) {
-			Boolean foundAny = (Boolean) foundAnyCache.get(parent);
+			Boolean foundAny = foundAnyCache.get(parent);
+			Object[] candidates = narrowedCache.remove(parent);
 			if (foundAny != null && !foundAny.booleanValue()) {
 				filtered = EMPTY;
+			} else if (candidates != null && candidates.length <= elements.length) {
+				filtered = super.filter(viewer, parent, candidates);
 			} else {
 				filtered = super.filter(viewer, parent, elements);
 			}
@@ -105,12 +152,16 @@ public class PatternFilter extends ViewerFilter {
 			return computeAnyVisible(viewer, elements);
 		}
 
-		Object[] filtered = (Object[]) cache.get(parent);
+		Object[] filtered = cache.get(parent);
 		if (filtered != null) {
 			return filtered.length > 0;
 		}
-		Boolean foundAny = (Boolean) foundAnyCache.get(parent);
+		Boolean foundAny = foundAnyCache.get(parent);
 		if (foundAny == null) {
+			Object[] candidates = narrowedCache.get(parent);
+			if (candidates != null && candidates.length <= elements.length) {
+				elements = candidates;
+			}
 			foundAny = computeAnyVisible(viewer, elements) ? Boolean.TRUE : Boolean.FALSE;
 			foundAnyCache.put(parent, foundAny);
 		}
@@ -128,14 +179,35 @@ public class PatternFilter extends ViewerFilter {
 		boolean elementFound = false;
 		for (int i = 0; i < elements.length && !elementFound; i++) {
 			Object element = elements[i];
-			elementFound = isElementVisible(viewer, element);
+			elementFound = isVisible(viewer, element);
 		}
 		return elementFound;
 	}
 
+	/**
+	 * Returns whether the element is visible. This method uses caching if enabled;
+	 * the computation is done in isElementVisible.
+	 *
+	 * @param viewer  the viewer
+	 * @param element the element to test
+	 * @return <code>true</code> if the element makes it through the filter
+	 */
+	private boolean isVisible(Viewer viewer, Object element) {
+		if (!useCache) {
+			return isElementVisible(viewer, element);
+		}
+
+		Boolean visible = visibleCache.get(element);
+		if (visible == null) {
+			visible = isElementVisible(viewer, element) ? Boolean.TRUE : Boolean.FALSE;
+			visibleCache.put(element, visible);
+		}
+		return visible.booleanValue();
+	}
+
 	@Override
 	public final boolean select(Viewer viewer, Object parentElement, Object element) {
-		return isElementVisible(viewer, element);
+		return isVisible(viewer, element);
 	}
 
 	/**
@@ -163,7 +235,7 @@ public class PatternFilter extends ViewerFilter {
 			useEarlyReturnIfMatcherIsNull = false;
 			return;
 		}
-		clearCaches();
+		updateCaches(patternString == null || patternString.isEmpty() ? null : patternString);
 		if (patternString == null || patternString.isEmpty()) {
 			matcher = null;
 		} else {
@@ -184,6 +256,71 @@ public class PatternFilter extends ViewerFilter {
 	/* package */ void clearCaches() {
 		cache.clear();
 		foundAnyCache.clear();
+		visibleCache.clear();
+		narrowedCache.clear();
+	}
+
+	/**
+	 * Keeps the cached results that are still valid for the given pattern. If the
+	 * pattern is a refinement of the previous one, elements that did not match
+	 * still do not match and only the elements that did match need to be tested
+	 * again. If the previous pattern is a refinement of the given one, elements
+	 * that did match still match.
+	 *
+	 * @param pattern the new pattern, <code>null</code> if there is none
+	 */
+	private void updateCaches(String pattern) {
+		String previousPattern = cachedPattern;
+		boolean sameLeadingWildcard = cachedLeadingWildcard == includeLeadingWildcard;
+		cachedPattern = pattern;
+		cachedLeadingWildcard = includeLeadingWildcard;
+		if (!useCache || !sameLeadingWildcard || !REUSES_MATCHES.get(getClass()).booleanValue()) {
+			clearCaches();
+		} else if (Objects.equals(pattern, previousPattern)) {
+			// all results are still valid
+		} else if (isRefinement(pattern, previousPattern)) {
+			retainResults(Boolean.FALSE);
+			narrowedCache.putAll(cache);
+			cache.clear();
+		} else if (isRefinement(previousPattern, pattern)) {
+			retainResults(Boolean.TRUE);
+			narrowedCache.clear();
+			cache.clear();
+		} else {
+			clearCaches();
+		}
+	}
+
+	private void retainResults(Boolean visible) {
+		visibleCache.values().retainAll(Collections.singleton(visible));
+		foundAnyCache.values().retainAll(Collections.singleton(visible));
+	}
+
+	/**
+	 * Returns whether every text matching the given pattern matches the previous
+	 * pattern as well. This is the case if the pattern only appends characters to
+	 * the last word of the previous pattern.
+	 *
+	 * @param pattern         the pattern
+	 * @param previousPattern the previous pattern
+	 * @return <code>true</code> if the pattern is a refinement of the previous one
+	 */
+	private static boolean isRefinement(String pattern, String previousPattern) {
+		if (pattern == null || previousPattern == null || pattern.length() <= previousPattern.length()
+				|| !pattern.startsWith(previousPattern)) {
+			return false;
+		}
+		char last = previousPattern.charAt(previousPattern.length() - 1);
+		if (Character.isWhitespace(last) || last == '\\') {
+			// the previous pattern has no trailing wildcard or ends with an escape
+			return false;
+		}
+		for (int i = previousPattern.length(); i < pattern.length(); i++) {
+			if (Character.isWhitespace(pattern.charAt(i))) {
+				return false;
+			}
+		}
+		return true;
 	}
 
 	/**
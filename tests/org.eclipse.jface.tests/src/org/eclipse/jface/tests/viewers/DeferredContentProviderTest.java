@@ -0,0 +1,133 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jface.tests.viewers;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Comparator;
+
+import org.eclipse.jface.viewers.LabelProvider;
+import org.eclipse.jface.viewers.StructuredViewer;
+import org.eclipse.jface.viewers.TableViewer;
+import org.eclipse.jface.viewers.deferred.AbstractConcurrentModel;
+import org.eclipse.jface.viewers.deferred.DeferredContentProvider;
+import org.eclipse.jface.viewers.deferred.IConcurrentModelListener;
+import org.eclipse.swt.SWT;
+import org.eclipse.swt.widgets.Composite;
+import org.eclipse.swt.widgets.Table;
+import org.junit.Test;
+
+/**
+ * Tests the DeferredContentProvider with models changed by several threads.
+ */
+public class DeferredContentProviderTest extends ViewerTestCase {
+
+	private static final int CONTENT_SIZE = 100;
+
+	/**
+	 * A model that sends the changes it is told to send from any thread.
+	 */
+	private static final class ConcurrentModel extends AbstractConcurrentModel {
+		private final Object[] contents;
+
+		ConcurrentModel(Object[] contents) {
+			this.contents = contents;
+		}
+
+		void add(Object[] added) {
+			fireAdd(added);
+		}
+
+		void remove(Object[] removed) {
+			fireRemove(removed);
+		}
+
+		void reset() {
+			for (IConcurrentModelListener listener : getListeners()) {
+				listener.setContents(contents);
+			}
+		}
+
+		@Override
+		public void requestUpdate(IConcurrentModelListener listener) {
+			listener.setContents(contents);
+		}
+	}
+
+	private ConcurrentModel model;
+
+	@Override
+	protected void setUpModel() {
+		Object[] contents = new Object[CONTENT_SIZE];
+		for (int i = 0; i < contents.length; i++) {
+			contents[i] = "element " + i;
+		}
+		model = new ConcurrentModel(contents);
+	}
+
+	@Override
+	protected StructuredViewer createViewer(Composite parent) {
+		TableViewer viewer = new TableViewer(parent, SWT.VIRTUAL);
+		viewer.setContentProvider(new DeferredContentProvider(Comparator.naturalOrder()));
+		viewer.setLabelProvider(new LabelProvider());
+		return viewer;
+	}
+
+	@Override
+	protected void setInput() {
+		fViewer.setInput(model);
+	}
+
+	@Test
+	public void testConcurrentProducers() throws Exception {
+		// one thread keeps resetting the contents while the others add and
+		// remove elements, so every change races with a reset
+		Thread[] producers = new Thread[4];
+		for (int t = 0; t < producers.length; t++) {
+			int producer = t;
+			producers[t] = new Thread(() -> {
+				for (int i = 0; i < 500; i++) {
+					if (producer == 0) {
+						model.reset();
+					} else {
+						Object[] changed = { "added " + producer + " " + i };
+						model.add(changed);
+						model.remove(changed);
+					}
+				}
+			});
+		}
+		for (Thread producer : producers) {
+			producer.start();
+		}
+		for (Thread producer : producers) {
+			producer.join();
+		}
+		waitForItemCount(CONTENT_SIZE);
+
+		// the viewer still processes changes
+		model.add(new Object[] { "last" });
+		waitForItemCount(CONTENT_SIZE + 1);
+	}
+
+	private void waitForItemCount(int count) {
+		Table table = ((TableViewer) fViewer).getTable();
+		long stopTime = System.currentTimeMillis() + 10000;
+		while (table.getItemCount() != count && System.currentTimeMillis() < stopTime) {
+			processEvents();
+			sleep(10);
+		}
+		assertEquals(count, table.getItemCount());
+	}
+}
@@ -17,6 +17,7 @@ import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 
 import java.util.Arrays;
+import java.util.Comparator;
 import java.util.Iterator;
 import java.util.TreeSet;
 
@@ -465,6 +466,44 @@ public class LazySortedCollectionTest {
 		assertContentsValid();
 	}
 
+	/**
+	 * Adds the input in batches, queries a visible range and removes elements, as
+	 * a table scrolled while its contents change would.
+	 */
+	@Test
+	public void testBatchedInput() {
+		int count = 20_000;
+		int removed = 1000;
+		Integer[] input = new Integer[count];
+		for (int i = 0; i < count; i++) {
+			input[i] = Integer.valueOf((int) ((i * 7919L) % count));
+		}
+		LazySortedCollection large = new LazySortedCollection(Comparator.naturalOrder());
+
+		for (int i = 0; i < count; i += 1000) {
+			large.addAll(Arrays.copyOfRange(input, i, i + 1000));
+		}
+		Object[] range = new Object[100];
+		large.getRange(range, count / 2, true);
+		for (int i = 0; i < removed; i++) {
+			large.remove(input[i]);
+		}
+		Object[] first = new Object[100];
+		large.getFirst(first, true);
+
+		for (int i = 0; i < range.length; i++) {
+			assertEquals(Integer.valueOf(count / 2 + i), range[i]);
+		}
+		assertEquals(count - removed, large.size());
+		int expected = 0;
+		for (Object element : first) {
+			while (!large.contains(Integer.valueOf(expected))) {
+				expected++;
+			}
+			assertEquals(Integer.valueOf(expected++), element);
+		}
+	}
+
 	//
 //
 //    public static void testAdditions() {
@@ -16,6 +16,9 @@ package org.eclipse.jface.tests.viewers;
 
 import static org.junit.Assert.assertEquals;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import org.eclipse.jface.viewers.ColumnLabelProvider;
 import org.eclipse.jface.viewers.ILabelProvider;
 import org.eclipse.jface.viewers.ILabelProviderListener;
@@ -24,11 +27,15 @@ import org.eclipse.jface.viewers.LabelProvider;
 import org.eclipse.jface.viewers.StructuredViewer;
 import org.eclipse.jface.viewers.TableViewer;
 import org.eclipse.jface.viewers.TableViewerColumn;
+import org.eclipse.jface.viewers.Viewer;
+import org.eclipse.jface.viewers.ViewerComparator;
+import org.eclipse.jface.viewers.ViewerFilter;
 import org.eclipse.swt.SWT;
 import org.eclipse.swt.graphics.Image;
 import org.eclipse.swt.widgets.Composite;
 import org.eclipse.swt.widgets.Table;
 import org.eclipse.swt.widgets.TableColumn;
+import org.eclipse.swt.widgets.TableItem;
 import org.eclipse.ui.tests.harness.util.Mocks;
 import org.junit.Test;
 
@@ -37,6 +44,39 @@ import org.junit.Test;
  */
 public class SimpleTableViewerTest extends ViewerTestCase {
 
+	/**
+	 * Selects the elements at even positions. Only reads the id of the element, which
+	 * does not change, so it may be called from several threads.
+	 */
+	private static class EvenPositionFilter extends ViewerFilter {
+		@Override
+		public boolean select(Viewer viewer, Object parent, Object element) {
+			String id = ((TestElement) element).getID();
+			return Integer.parseInt(id.substring(id.lastIndexOf('-') + 1)) % 2 == 0;
+		}
+
+		@Override
+		public boolean isThreadSafe() {
+			return true;
+		}
+	}
+
+	/**
+	 * Puts greater ids first. Only reads the ids of the elements, which do not change,
+	 * so it may be called from several threads.
+	 */
+	private static class ReverseIdComparator extends ViewerComparator {
+		@Override
+		public int compare(Viewer viewer, Object e1, Object e2) {
+			return ((TestElement) e2).getID().compareTo(((TestElement) e1).getID());
+		}
+
+		@Override
+		public boolean isThreadSafe() {
+			return true;
+		}
+	}
+
 	private TableViewer tableViewer;
 
 	@Override
@@ -177,4 +217,24 @@ public class SimpleTableViewerTest extends ViewerTestCase {
 		tableViewer.getTable().dispose();
 		assertEquals(1, disposeCounter[0]);
 	}
+
+	@Test
+	public void testParallelFilterAndSort() {
+		tableViewer.addFilter(new EvenPositionFilter());
+		tableViewer.setComparator(new ReverseIdComparator());
+		List<String> sequential = getItemTexts();
+
+		tableViewer.setParallelThreshold(2);
+		tableViewer.refresh();
+		assertEquals(sequential, getItemTexts());
+		assertEquals(5, tableViewer.getTable().getItemCount());
+	}
+
+	private List<String> getItemTexts() {
+		List<String> texts = new ArrayList<>();
+		for (TableItem item : tableViewer.getTable().getItems()) {
+			texts.add(item.getText());
+		}
+		return texts;
+	}
 }
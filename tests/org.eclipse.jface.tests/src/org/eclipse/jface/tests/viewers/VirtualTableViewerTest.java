@@ -21,6 +21,7 @@ import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
 import java.util.Arrays;
+import java.util.Comparator;
 import java.util.HashSet;
 import java.util.Set;
 
@@ -307,4 +308,42 @@ public class VirtualTableViewerTest extends TableViewerTest {
 		Set<?> selectedSet = new HashSet<Object>(result.toList());
 		assertTrue("Elements do not match ", childrenSet.equals(selectedSet));
 	}
+
+	@Test
+	public void testIncrementalRefresh() {
+		TableViewer viewer = (TableViewer) fViewer;
+		viewer.setUseIncrementalRefresh(true);
+		viewer.setComparator(new TestLabelComparator());
+		processEvents();
+
+		TestElement added = addChild("name-5000");
+		fRootElement.basicDeleteChild(fRootElement.getChildAt(3));
+		fRootElement.basicDeleteChild(fRootElement.getChildAt(5));
+		viewer.refresh(false);
+		assertSortedItems();
+
+		fRootElement.basicDeleteChild(added);
+		addChild("name-0000");
+		addChild("name-9999");
+		viewer.refresh(false);
+		assertSortedItems();
+
+		viewer.add(addChild("name-4444"));
+		assertSortedItems();
+	}
+
+	private TestElement addChild(String label) {
+		TestElement child = fRootElement.basicAddChild();
+		child.setLabel(label);
+		return child;
+	}
+
+	private void assertSortedItems() {
+		TestElement[] children = fRootElement.getChildren().clone();
+		Arrays.sort(children, Comparator.comparing(TestElement::getLabel).reversed());
+		assertEquals("item count", children.length, ((TableViewer) fViewer).getTable().getItemCount());
+		for (int i = 0; i < children.length; i++) {
+			assertEquals("item " + i, children[i].toString(), getItemText(i));
+		}
+	}
 }
@@ -26,11 +26,14 @@ import org.eclipse.jface.text.tests.contentassist.FilteringAsyncContentAssistTes
 import org.eclipse.jface.text.tests.contentassist.IncrementalAsyncContentAssistTests;
 import org.eclipse.jface.text.tests.reconciler.AbstractReconcilerTest;
 import org.eclipse.jface.text.tests.reconciler.FastAbstractReconcilerTest;
+import org.eclipse.jface.text.tests.reconciler.SharedExecutorReconcilerTest;
+import org.eclipse.jface.text.tests.rules.DefaultDamagerRepairerTest;
 import org.eclipse.jface.text.tests.rules.DefaultPartitionerTest;
 import org.eclipse.jface.text.tests.rules.DefaultPartitionerZeroLengthTest;
 import org.eclipse.jface.text.tests.rules.FastPartitionerTest;
 import org.eclipse.jface.text.tests.rules.ScannerColumnTest;
 import org.eclipse.jface.text.tests.rules.WordRuleTest;
+import org.eclipse.jface.text.tests.source.AnnotationPainterTest;
 import org.eclipse.jface.text.tests.source.LineNumberRulerColumnTest;
 import org.eclipse.jface.text.tests.source.inlined.AnnotationOnTabTest;
 import org.eclipse.jface.text.tests.source.inlined.LineContentBoundsDrawingTest;
@@ -61,16 +64,19 @@ import org.eclipse.jface.text.tests.templates.persistence.TemplatePersistenceDat
 
 		AbstractReconcilerTest.class,
 		FastAbstractReconcilerTest.class,
+		SharedExecutorReconcilerTest.class,
 
 		DefaultPartitionerTest.class,
 		DefaultPartitionerZeroLengthTest.class,
 		FastPartitionerTest.class,
 		ScannerColumnTest.class,
 		WordRuleTest.class,
+		DefaultDamagerRepairerTest.class,
 
 		TemplatePersistenceDataTest.class,
 		LineContentBoundsDrawingTest.class,
 		AnnotationOnTabTest.class,
+		AnnotationPainterTest.class,
 		CodeMiningTest.class,
 		CodeMiningProjectionViewerTest.class,
 
@@ -13,6 +13,7 @@
  *******************************************************************************/
 package org.eclipse.jface.text.tests.codemining;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
@@ -39,6 +40,8 @@ import org.eclipse.core.runtime.IProgressMonitor;
 
 import org.eclipse.jface.util.Util;
 
+import org.eclipse.jface.internal.text.codemining.ICodeMiningAnnotation;
+
 import org.eclipse.jface.text.BadLocationException;
 import org.eclipse.jface.text.Document;
 import org.eclipse.jface.text.IDocument;
@@ -222,6 +225,72 @@ public class CodeMiningTest {
 		}.waitForCondition(fViewer.getTextWidget().getDisplay(), 1000));
 	}
 
+	@Test
+	public void testSlowProviderKeepsCodeMiningsOnPartialRender() {
+		AtomicInteger fastRuns= new AtomicInteger();
+		AtomicInteger slowDelay= new AtomicInteger();
+		ICodeMiningProvider fastProvider= new ICodeMiningProvider() {
+			@Override
+			public CompletableFuture<List<? extends ICodeMining>> provideCodeMinings(ITextViewer viewer, IProgressMonitor monitor) {
+				String label= "fast " + fastRuns.incrementAndGet();
+				return CompletableFuture.completedFuture(Collections.singletonList(new StaticContentLineCodeMining(new Position(0, 1), label, this)));
+			}
+
+			@Override
+			public void dispose() {
+			}
+		};
+		ICodeMiningProvider slowProvider= new ICodeMiningProvider() {
+			@Override
+			public CompletableFuture<List<? extends ICodeMining>> provideCodeMinings(ITextViewer viewer, IProgressMonitor monitor) {
+				int delay= slowDelay.get();
+				return CompletableFuture.supplyAsync(() -> {
+					try {
+						Thread.sleep(delay);
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+					}
+					return Collections.singletonList(new StaticContentLineCodeMining(new Position(0, 1), "slow", this));
+				});
+			}
+
+			@Override
+			public void dispose() {
+			}
+		};
+		fViewer.getDocument().set("abc");
+		fViewer.setCodeMiningProviders(new ICodeMiningProvider[] { fastProvider, slowProvider });
+		Display display= fViewer.getControl().getDisplay();
+		Assert.assertTrue(new DisplayHelper() {
+			@Override
+			protected boolean condition() {
+				return getCodeMiningLabels().contains("slow");
+			}
+		}.waitForCondition(display, 3000));
+
+		// the fast provider is rendered alone first, the line must keep the code mining of the slow one
+		slowDelay.set(3000);
+		int run= fastRuns.get() + 1;
+		fViewer.updateCodeMinings();
+		Assert.assertTrue(new DisplayHelper() {
+			@Override
+			protected boolean condition() {
+				return getCodeMiningLabels().contains("fast " + run);
+			}
+		}.waitForCondition(display, 2000));
+		Assert.assertEquals(List.of("fast " + run, "slow"), getCodeMiningLabels());
+	}
+
+	private List<String> getCodeMiningLabels() {
+		List<String> labels= new ArrayList<>();
+		fViewer.getAnnotationModel().getAnnotationIterator().forEachRemaining(annotation -> {
+			if (annotation instanceof ICodeMiningAnnotation) {
+				((ICodeMiningAnnotation) annotation).getMinings().forEach(mining -> labels.add(mining.getLabel()));
+			}
+		});
+		return labels;
+	}
+
 	private static boolean hasCodeMiningPrintedAfterTextOnLine(ITextViewer viewer, int line) throws BadLocationException {
 		StyledText widget = viewer.getTextWidget();
 		IDocument document= viewer.getDocument();
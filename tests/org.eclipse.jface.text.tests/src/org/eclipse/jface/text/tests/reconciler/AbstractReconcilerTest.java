@@ -182,6 +182,7 @@ public class AbstractReconcilerTest {
 				};
 		fReconciler.setIsIncrementalReconciler(false);
 		fReconciler.setDelay(getDelay());
+		fReconciler.setUseSharedExecutor(useSharedExecutor());
 
 		fProgressMonitor= new NullProgressMonitor();
 		fReconciler.setProgressMonitor(fProgressMonitor);
@@ -198,6 +199,10 @@ public class AbstractReconcilerTest {
 		return 50; // make tests run faster
 	}
 
+	boolean useSharedExecutor() {
+		return false;
+	}
+
 	void aboutToWork(@SuppressWarnings("unused") AbstractReconciler reconciler) {
 		// nothing
 	}
@@ -0,0 +1,27 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jface.text.tests.reconciler;
+
+/**
+ * Runs the reconciler tests with a reconciler using the shared executor.
+ *
+ * @since 3.25
+ */
+public class SharedExecutorReconcilerTest extends AbstractReconcilerTest {
+
+	@Override
+	boolean useSharedExecutor() {
+		return true;
+	}
+}
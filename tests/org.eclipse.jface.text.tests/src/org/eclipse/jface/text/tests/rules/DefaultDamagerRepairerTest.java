@@ -0,0 +1,160 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jface.text.tests.rules;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import org.eclipse.swt.SWT;
+import org.eclipse.swt.custom.StyleRange;
+
+import org.eclipse.jface.text.BadLocationException;
+import org.eclipse.jface.text.Document;
+import org.eclipse.jface.text.IDocument;
+import org.eclipse.jface.text.IDocumentListener;
+import org.eclipse.jface.text.IRegion;
+import org.eclipse.jface.text.TextAttribute;
+import org.eclipse.jface.text.TextPresentation;
+import org.eclipse.jface.text.TypedRegion;
+import org.eclipse.jface.text.presentation.PresentationReconciler;
+import org.eclipse.jface.text.rules.DefaultDamagerRepairer;
+import org.eclipse.jface.text.rules.IRule;
+import org.eclipse.jface.text.rules.IToken;
+import org.eclipse.jface.text.rules.IWordDetector;
+import org.eclipse.jface.text.rules.MultiLineRule;
+import org.eclipse.jface.text.rules.RuleBasedScanner;
+import org.eclipse.jface.text.rules.SingleLineRule;
+import org.eclipse.jface.text.rules.Token;
+import org.eclipse.jface.text.rules.WhitespaceRule;
+import org.eclipse.jface.text.rules.WordRule;
+
+import org.eclipse.jface.text.tests.TestTextViewer;
+
+/**
+ * @since 3.25
+ */
+public class DefaultDamagerRepairerTest {
+
+	private static RuleBasedScanner createScanner() {
+		IToken comment= new Token(new TextAttribute(null, null, SWT.ITALIC));
+		IToken string= new Token(new TextAttribute(null, null, TextAttribute.UNDERLINE));
+		IToken keyword= new Token(new TextAttribute(null, null, SWT.BOLD));
+		IToken word= new Token(new TextAttribute(null, null, TextAttribute.STRIKETHROUGH));
+
+		WordRule words= new WordRule(new IWordDetector() {
+			@Override
+			public boolean isWordStart(char c) {
+				return Character.isJavaIdentifierStart(c);
+			}
+
+			@Override
+			public boolean isWordPart(char c) {
+				return Character.isJavaIdentifierPart(c);
+			}
+		}, word);
+		words.addWord("class", keyword);
+		words.addWord("int", keyword);
+
+		RuleBasedScanner scanner= new RuleBasedScanner();
+		scanner.setRules(new IRule[] {
+				new MultiLineRule("/*", "*/", comment),
+				new SingleLineRule("\"", "\"", string, '\\'),
+				new WhitespaceRule(Character::isWhitespace),
+				words
+		});
+		return scanner;
+	}
+
+	@Test
+	public void testRememberedTokensGiveSamePresentation() throws Exception {
+		StringBuilder buffer= new StringBuilder();
+		for (int i= 0; i < 100; i++)
+			buffer.append("class C").append(i).append(" { /* comment\n  more */ int \"s").append(i).append("\"; }\n");
+		IDocument document= new Document(buffer.toString());
+
+		DefaultDamagerRepairer reference= new DefaultDamagerRepairer(createScanner());
+		reference.setDocument(document);
+		DefaultDamagerRepairer repairer= new DefaultDamagerRepairer(createScanner(), true);
+		repairer.setDocument(document);
+
+		assertSamePresentation(reference, repairer, document, 0, document.getLength());
+
+		Random random= new Random(7);
+		String[] texts= { "", "x", "/*", "*/", "\"", "\n", " int ", "class" };
+		for (int i= 0; i < 300; i++) {
+			int offset= random.nextInt(document.getLength() + 1);
+			int length= Math.min(random.nextInt(3), document.getLength() - offset);
+			document.replace(offset, length, texts[random.nextInt(texts.length)]);
+
+			// repair from the changed line to either the end of the line or the end of the document
+			IRegion line= document.getLineInformationOfOffset(offset);
+			int end= random.nextBoolean() ? line.getOffset() + line.getLength() : document.getLength();
+			assertSamePresentation(reference, repairer, document, line.getOffset(), end);
+		}
+	}
+
+	@Test
+	public void testUninstallRemovesDocumentListener() {
+		List<IDocumentListener> listeners= new ArrayList<>();
+		Document document= new Document("class C { int i; }") {
+			@Override
+			public void addDocumentListener(IDocumentListener listener) {
+				super.addDocumentListener(listener);
+				listeners.add(listener);
+			}
+
+			@Override
+			public void removeDocumentListener(IDocumentListener listener) {
+				super.removeDocumentListener(listener);
+				listeners.remove(listener);
+			}
+		};
+		TestTextViewer viewer= new TestTextViewer();
+		viewer.setDocument(document);
+		List<IDocumentListener> viewerListeners= new ArrayList<>(listeners);
+
+		PresentationReconciler reconciler= new PresentationReconciler();
+		DefaultDamagerRepairer repairer= new DefaultDamagerRepairer(createScanner(), true);
+		reconciler.setDamager(repairer, IDocument.DEFAULT_CONTENT_TYPE);
+		reconciler.setRepairer(repairer, IDocument.DEFAULT_CONTENT_TYPE);
+		reconciler.install(viewer);
+		assertTrue(listeners.size() > viewerListeners.size());
+
+		reconciler.uninstall();
+		assertEquals(viewerListeners, listeners);
+	}
+
+	private void assertSamePresentation(DefaultDamagerRepairer reference, DefaultDamagerRepairer repairer, IDocument document, int start, int end) throws BadLocationException {
+		TypedRegion region= new TypedRegion(start, end - start, IDocument.DEFAULT_CONTENT_TYPE);
+		List<StyleRange> expected= createPresentation(reference, region);
+		List<StyleRange> actual= createPresentation(repairer, region);
+		assertEquals(document.get(start, end - start), expected, actual);
+	}
+
+	private List<StyleRange> createPresentation(DefaultDamagerRepairer repairer, TypedRegion region) {
+		TextPresentation presentation= new TextPresentation(region, 100);
+		repairer.createPresentation(presentation, region);
+		List<StyleRange> ranges= new ArrayList<>();
+		for (Iterator<StyleRange> e= presentation.getAllStyleRangeIterator(); e.hasNext();)
+			ranges.add(e.next());
+		return ranges;
+	}
+}
@@ -15,6 +15,8 @@ package org.eclipse.jface.text.tests.rules;
 
 import static org.junit.Assert.assertEquals;
 
+import java.util.Random;
+
 import org.junit.Before;
 import org.junit.Test;
 
@@ -321,6 +323,43 @@ public class FastPartitionerTest {
 
 	}
 
+	@Test
+	public void testUpdatesMatchFullPartitioning() throws Exception {
+		StringBuilder buffer= new StringBuilder();
+		for (int i= 0; i < 200; i++)
+			buffer.append("code /* comment ").append(i).append(" */ more code\n");
+		fDoc.set(buffer.toString());
+
+		Random random= new Random(42);
+		String[] texts= { "/*", "*/", "x", "", "/* c */", "\n" };
+		for (int i= 0; i < 200; i++) {
+			int offset= random.nextInt(fDoc.getLength() + 1);
+			int length= Math.min(random.nextInt(4), fDoc.getLength() - offset);
+			fDoc.replace(offset, length, texts[random.nextInt(texts.length)]);
+
+			IDocument reference= new Document(fDoc.get());
+			IDocumentPartitioner partitioner= createPartitioner(createCommentScanner());
+			reference.setDocumentPartitioner(partitioner);
+			partitioner.connect(reference);
+
+			ITypedRegion[] expected= partitioner.computePartitioning(0, reference.getLength());
+			ITypedRegion[] actual= fPartitioner.computePartitioning(0, fDoc.getLength());
+			assertEquals(expected.length, actual.length);
+			for (int j= 0; j < expected.length; j++)
+				assertTypedRegion(actual[j], expected[j].getOffset(), expected[j].getOffset() + expected[j].getLength(), expected[j].getType());
+		}
+	}
+
+	private IPartitionTokenScanner createCommentScanner() {
+		return new RuleBasedPartitionScanner() {
+			{
+				IToken comment= new Token(COMMENT);
+				IPredicateRule[] rules= new IPredicateRule[] { new MultiLineRule("/*", "*/", comment) };
+				setPredicateRules(rules);
+			}
+		};
+	}
+
 	private void assertComputePartitioning_InterleavingPartitions(int[] offsets) {
 		assertComputePartitioning_InterleavingPartitions(0, fDoc.getLength(), offsets, DEFAULT);
 	}
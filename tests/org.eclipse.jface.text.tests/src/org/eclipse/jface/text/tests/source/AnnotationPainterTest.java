@@ -0,0 +1,145 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jface.text.tests.source;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import org.eclipse.swt.SWT;
+import org.eclipse.swt.custom.StyleRange;
+import org.eclipse.swt.graphics.Color;
+import org.eclipse.swt.layout.FillLayout;
+import org.eclipse.swt.widgets.Shell;
+
+import org.eclipse.jface.text.Document;
+import org.eclipse.jface.text.IPainter;
+import org.eclipse.jface.text.Position;
+import org.eclipse.jface.text.source.Annotation;
+import org.eclipse.jface.text.source.AnnotationModel;
+import org.eclipse.jface.text.source.AnnotationPainter;
+import org.eclipse.jface.text.source.SourceViewer;
+
+import org.eclipse.jface.text.tests.util.DisplayHelper;
+
+/**
+ * Tests that the decorations the {@link AnnotationPainter} keeps up to date with
+ * annotation model events are the same as the ones it computes from the whole model.
+ */
+public class AnnotationPainterTest {
+
+	private static final String DRAWN= "drawn";
+	private static final String HIGHLIGHTED= "highlighted";
+
+	private Shell fShell;
+	private SourceViewer fViewer;
+	private AnnotationModel fModel;
+	private AnnotationPainter fPainter;
+
+	private boolean fRecording;
+	private final List<String> fDrawn= new ArrayList<>();
+
+	@Before
+	public void setUp() {
+		fShell= new Shell();
+		fShell.setLayout(new FillLayout());
+		fShell.setSize(500, 800);
+		fViewer= new SourceViewer(fShell, null, SWT.NONE);
+		// short enough to be visible completely
+		fModel= new AnnotationModel();
+		fViewer.setDocument(new Document("line\n".repeat(20)), fModel);
+
+		Color color= fShell.getDisplay().getSystemColor(SWT.COLOR_RED);
+		fPainter= new AnnotationPainter(fViewer, null);
+		fPainter.addDrawingStrategy(DRAWN, (annotation, gc, textWidget, offset, length, c) -> {
+			if (fRecording) {
+				fDrawn.add(annotation.getText() + "@" + offset + ":" + length);
+			}
+		});
+		fPainter.addAnnotationType(DRAWN, DRAWN);
+		fPainter.setAnnotationTypeColor(DRAWN, color);
+		fPainter.addTextStyleStrategy(HIGHLIGHTED, new AnnotationPainter.HighlightingStrategy());
+		fPainter.addAnnotationType(HIGHLIGHTED, HIGHLIGHTED);
+		fPainter.setAnnotationTypeColor(HIGHLIGHTED, color);
+		fViewer.addPainter(fPainter);
+		fShell.open();
+	}
+
+	@After
+	public void tearDown() {
+		fShell.dispose();
+	}
+
+	@Test
+	public void testEventsGiveSameDecorationsAsFullUpdate() {
+		Random random= new Random(13);
+		List<Annotation> annotations= new ArrayList<>();
+		int count= 0;
+		for (int round= 0; round < 100; round++) {
+			for (int i= random.nextInt(4); i >= 0; i--) {
+				int change= random.nextInt(10);
+				if (change < 4 || annotations.isEmpty()) {
+					Annotation annotation= new Annotation(random.nextBoolean() ? DRAWN : HIGHLIGHTED, false, "a" + count++);
+					annotations.add(annotation);
+					fModel.addAnnotation(annotation, createPosition(random));
+				} else if (change < 7) {
+					fModel.modifyAnnotationPosition(annotations.get(random.nextInt(annotations.size())), createPosition(random));
+				} else if (change < 9) {
+					fModel.removeAnnotation(annotations.remove(random.nextInt(annotations.size())));
+				} else {
+					// world change, events before it are not processed
+					fModel.removeAllAnnotations();
+					annotations.clear();
+				}
+			}
+			List<String> updated= getDecorations();
+			fPainter.paint(IPainter.CONFIGURATION);
+			assertEquals("round " + round, getDecorations(), updated);
+		}
+	}
+
+	private static Position createPosition(Random random) {
+		return new Position(random.nextInt(95), 1 + random.nextInt(5));
+	}
+
+	/**
+	 * Processes the posted model events and returns the drawn decorations together with
+	 * the styles of the highlighted ones.
+	 */
+	private List<String> getDecorations() {
+		DisplayHelper.driveEventQueue(fShell.getDisplay());
+		fDrawn.clear();
+		fRecording= true;
+		try {
+			fPainter.paintControl(null);
+		} finally {
+			fRecording= false;
+		}
+		List<String> decorations= new ArrayList<>(fDrawn);
+		Collections.sort(decorations);
+		for (StyleRange range : fViewer.getTextWidget().getStyleRanges()) {
+			if (range.background != null) {
+				decorations.add("highlight@" + range.start + ":" + range.length);
+			}
+		}
+		return decorations;
+	}
+}
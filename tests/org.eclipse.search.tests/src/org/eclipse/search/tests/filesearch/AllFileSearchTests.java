@@ -23,10 +23,12 @@ import org.junit.runners.Suite.SuiteClasses;
 		AnnotationManagerTest.class,
 		FileSearchTests.class,
 		LineAnnotationManagerTest.class,
+		LiteralMatcherTest.class,
 		PositionTrackerTest.class,
 		ResultUpdaterTest.class,
 		SearchResultPageTest.class,
-		SortingTest.class
+		SortingTest.class,
+		TextSearchIndexTest.class
 })
 public class AllFileSearchTests {
 	@ClassRule
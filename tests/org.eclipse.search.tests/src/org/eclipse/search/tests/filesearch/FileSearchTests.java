@@ -16,6 +16,7 @@
 package org.eclipse.search.tests.filesearch;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -113,6 +114,32 @@ public class FileSearchTests {
 
 	}
 
+	private static class BatchTestResultCollector extends TestResultCollector {
+
+		private final int fMaxBatches;
+		private int fNumberOfBatches;
+
+		public BatchTestResultCollector(int maxBatches) {
+			fMaxBatches= maxBatches;
+		}
+
+		@Override
+		public boolean canRunInParallel() {
+			return true;
+		}
+
+		@Override
+		public boolean acceptPatternMatches(List<TextSearchMatchAccess> matches) throws CoreException {
+			synchronized(fResult) {
+				for (TextSearchMatchAccess match : matches) {
+					fResult.add(new TestResult(match.getFile(), match.getMatchOffset(), match.getMatchLength()));
+				}
+				return ++fNumberOfBatches < fMaxBatches;
+			}
+		}
+
+	}
+
 	@ClassRule
 	public static JUnitSourceSetup fgJUnitSource= new JUnitSourceSetup();
 
@@ -160,6 +187,56 @@ public class FileSearchTests {
 		assertMatches(results, 2, file2, buf.toString(), "hello");
 	}
 
+	@Test
+	public void testBatchedMatches() throws Exception {
+		StringBuilder buf= new StringBuilder();
+		for (int i= 0; i < 1000; i++) {
+			buf.append("hello world\n");
+		}
+		IFolder folder= ResourceHelper.createFolder(fProject.getFolder("folder1"));
+		IFile file1= ResourceHelper.createFile(folder, "file1", buf.toString());
+
+		Pattern searchPattern= PatternConstructor.createPattern("hello", false, true);
+		FileTextSearchScope scope= FileTextSearchScope.newSearchScope(new IResource[] {fProject}, (String[]) null, false);
+
+		BatchTestResultCollector collector= new BatchTestResultCollector(Integer.MAX_VALUE);
+		TextSearchEngine.create().search(scope, collector, searchPattern, null);
+		assertMatches(collector.getResults(), 1000, file1, buf.toString(), "hello");
+
+		// no further batches are reported once the requestor returned false
+		collector= new BatchTestResultCollector(1);
+		TextSearchEngine.create().search(scope, collector, searchPattern, null);
+		int numberOfResults= collector.getNumberOfResults();
+		assertTrue("Results of a single batch", numberOfResults > 0 && numberOfResults < 1000);
+	}
+
+	@Test
+	public void testBinaryFiles() throws Exception {
+		IFolder folder= ResourceHelper.createFolder(fProject.getFolder("folder1"));
+		IFile binary= ResourceHelper.createFile(folder, "data.bin", "hello\0world");
+		IFile utf16= ResourceHelper.createFile(folder, "utf16.bin", "hello world", "UTF-16");
+
+		Pattern searchPattern= PatternConstructor.createPattern("hello", true, false);
+		FileTextSearchScope scope= FileTextSearchScope.newSearchScope(new IResource[] {fProject}, (String[]) null, false);
+
+		TestResultCollector collector= new SerialTestResultCollector();
+		TextSearchEngine.create().search(scope, collector, searchPattern, null);
+		TestResult[] results= collector.getResults();
+		assertMatches(results, 0, binary, "hello\0world", "hello");
+		assertMatches(results, 1, utf16, "hello world", "hello");
+
+		collector= new SerialTestResultCollector() {
+			@Override
+			public boolean reportBinaryFile(IFile file) {
+				return true;
+			}
+		};
+		TextSearchEngine.create().search(scope, collector, searchPattern, null);
+		results= collector.getResults();
+		assertMatches(results, 1, binary, "hello\0world", "hello");
+		assertMatches(results, 1, utf16, "hello world", "hello");
+	}
+
 	@Test
 	public void testWildCards1Serial() throws Exception {
 		testWildCards1(new SerialTestResultCollector());
@@ -0,0 +1,84 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.search.tests.filesearch;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.junit.Test;
+
+import org.eclipse.search.internal.core.text.LiteralMatcher;
+import org.eclipse.search.internal.core.text.PatternConstructor;
+
+public class LiteralMatcherTest {
+
+	private static final String ALPHABET= "aAbB.*\\EßİiıäÄ\n";
+
+	@Test
+	public void testLiteralPatterns() {
+		assertNotNull(LiteralMatcher.create(PatternConstructor.createPattern("hello", false, true)));
+		assertNotNull(LiteralMatcher.create(PatternConstructor.createPattern("a\\Eb.*", false, false, true, false)));
+		assertNotNull(LiteralMatcher.create(PatternConstructor.createPattern("a\\*b", false, false)));
+		assertNotNull(LiteralMatcher.create(PatternConstructor.createPattern("foo\\.bar", true, true)));
+		assertNull(LiteralMatcher.create(PatternConstructor.createPattern("a*b", false, false)));
+		assertNull(LiteralMatcher.create(PatternConstructor.createPattern("a.b", true, true)));
+		assertNull(LiteralMatcher.create(PatternConstructor.createPattern("hello", false, false, true, true)));
+		assertNull(LiteralMatcher.create(PatternConstructor.createPattern("", false, true)));
+	}
+
+	@Test
+	public void testSameMatchesAsPattern() {
+		Random random= new Random(3);
+		for (int i= 0; i < 5000; i++) {
+			String literal= randomText(random, 1 + random.nextInt(4));
+			String text= randomText(random, random.nextInt(60));
+			boolean caseSensitive= random.nextBoolean();
+			Pattern pattern= PatternConstructor.createPattern(literal, false, false, caseSensitive, false);
+			LiteralMatcher matcher= LiteralMatcher.create(pattern);
+			assertNotNull(pattern.pattern(), matcher);
+
+			List<Integer> expected= new ArrayList<>();
+			Matcher m= pattern.matcher(text);
+			while (m.find()) {
+				expected.add(Integer.valueOf(m.start()));
+			}
+			String message= pattern + " in " + text;
+			assertEquals(message, expected, find(matcher, text));
+			assertEquals(message, expected, find(matcher, new StringBuilder(text)));
+		}
+	}
+
+	private static List<Integer> find(LiteralMatcher matcher, CharSequence text) {
+		List<Integer> offsets= new ArrayList<>();
+		for (int offset= matcher.indexOf(text, 0); offset != -1; offset= matcher.indexOf(text, offset + matcher.length())) {
+			offsets.add(Integer.valueOf(offset));
+		}
+		return offsets;
+	}
+
+	private static String randomText(Random random, int length) {
+		StringBuilder text= new StringBuilder(length);
+		for (int i= 0; i < length; i++) {
+			text.append(ALPHABET.charAt(random.nextInt(ALPHABET.length())));
+		}
+		return text.toString();
+	}
+}
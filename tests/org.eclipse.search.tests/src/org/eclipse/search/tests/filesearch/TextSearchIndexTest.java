@@ -0,0 +1,110 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.search.tests.filesearch;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.Random;
+import java.util.regex.Pattern;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import org.eclipse.core.runtime.IPath;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IFolder;
+import org.eclipse.core.resources.IProject;
+
+import org.eclipse.search.internal.core.text.PatternConstructor;
+import org.eclipse.search.internal.core.text.TextSearchIndex;
+import org.eclipse.search.tests.ResourceHelper;
+
+public class TextSearchIndexTest {
+
+	@Rule
+	public TemporaryFolder fIndexLocation= new TemporaryFolder();
+
+	private static final String[] WORDS= { "hello", "Hello", "HELLO", "world", "foo.bar", "a*b", "x+y", "(paren)", "[]", "\\E", "Ärger", "äRGER", "i", "ı", "𐐀bc", "𐐨BC", "\n", "\t" };
+
+	@Test
+	public void testRequiredTrigrams() {
+		assertNull(TextSearchIndex.getRequiredTrigrams(Pattern.compile("ab")));
+		assertNull(TextSearchIndex.getRequiredTrigrams(Pattern.compile("hello|world")));
+		assertNull(TextSearchIndex.getRequiredTrigrams(Pattern.compile("(?x)h e l l o")));
+		assertNull(TextSearchIndex.getRequiredTrigrams(Pattern.compile("h.e.l.l.o")));
+		assertNotNull(TextSearchIndex.getRequiredTrigrams(Pattern.compile("(hi|ho)hello")));
+
+		int[] trigrams= TextSearchIndex.getRequiredTrigrams(PatternConstructor.createPattern("hello", false, false));
+		assertTrue(TextSearchIndex.containsAll(TextSearchIndex.createBits("say HeLLo"), trigrams));
+		assertFalse(TextSearchIndex.containsAll(TextSearchIndex.createBits("say hell no"), trigrams));
+	}
+
+	@Test
+	public void testNoMatchIsMissed() {
+		String[] patterns= { "hello", "hel*lo", "he?lo", "foo.bar", "a\\*b", "x+y", "(paren)", "\\E", "Ärger", "İ", "𐐀bc" };
+		String[] regexes= { "hel+o", "hel{1,2}o", "h[ae]llo", "(?i)hello", "\\bworld\\b", "wor(ld)?", "foo\\.bar", "x\\+y", "\\Qa*b\\E", "hello\\Rworld", "l+o\\sw", "\\(paren\\)", "[\\]\\[]+" };
+		Random random= new Random(42);
+		for (int i= 0; i < 2000; i++) {
+			StringBuilder text= new StringBuilder();
+			for (int k= random.nextInt(6); k >= 0; k--) {
+				text.append(WORDS[random.nextInt(WORDS.length)]);
+				if (random.nextBoolean()) {
+					text.append(random.nextBoolean() ? ' ' : '\n');
+				}
+			}
+			boolean isRegex= random.nextBoolean();
+			String[] sources= isRegex ? regexes : patterns;
+			Pattern pattern= PatternConstructor.createPattern(sources[random.nextInt(sources.length)], isRegex, true, random.nextBoolean(), false);
+			int[] trigrams= TextSearchIndex.getRequiredTrigrams(pattern);
+			if (trigrams != null && pattern.matcher(text).find()) {
+				assertTrue(pattern + " in " + text, TextSearchIndex.containsAll(TextSearchIndex.createBits(text), trigrams));
+			}
+		}
+	}
+
+	@Test
+	public void testFileChangedOnDiskIsNotSkipped() throws Exception {
+		IProject project= ResourceHelper.createProject("TextSearchIndexTest");
+		try {
+			IFolder folder= ResourceHelper.createFolder(project.getFolder("folder"));
+			IFile file= ResourceHelper.createFile(folder, "file.txt", "say hello");
+			TextSearchIndex index= new TextSearchIndex(IPath.fromOSString(fIndexLocation.getRoot().getAbsolutePath()));
+			index.add(file, TextSearchIndex.getState(file), "say hello");
+			int[] trigrams= TextSearchIndex.getRequiredTrigrams(PatternConstructor.createPattern("world", false, false));
+			assertFalse(index.mayContain(file, trigrams));
+
+			// change the file without refreshing the workspace, keeping its time stamp
+			File location= file.getLocation().toFile();
+			long lastModified= location.lastModified();
+			Files.writeString(location.toPath(), "say hello world");
+			assertTrue(location.setLastModified(lastModified));
+			assertTrue(index.mayContain(file, trigrams));
+
+			// change the file again with a new time stamp, keeping its length
+			Files.writeString(location.toPath(), "say hello there");
+			assertTrue(location.setLastModified(lastModified + 2000));
+			assertNull(TextSearchIndex.getState(file));
+			assertTrue(index.mayContain(file, trigrams));
+		} finally {
+			ResourceHelper.deleteProject("TextSearchIndexTest");
+		}
+	}
+}
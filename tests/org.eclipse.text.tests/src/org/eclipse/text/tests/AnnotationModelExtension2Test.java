@@ -13,6 +13,7 @@
  *******************************************************************************/
 package org.eclipse.text.tests;
 
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
 import java.util.ArrayList;
@@ -20,8 +21,11 @@ import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
 
 import org.junit.After;
+import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 
@@ -30,8 +34,10 @@ import org.eclipse.jface.text.IDocument;
 import org.eclipse.jface.text.Position;
 import org.eclipse.jface.text.source.Annotation;
 import org.eclipse.jface.text.source.AnnotationModel;
+import org.eclipse.jface.text.source.AnnotationModelEvent;
 import org.eclipse.jface.text.source.IAnnotationModel;
 import org.eclipse.jface.text.source.IAnnotationModelListener;
+import org.eclipse.jface.text.source.IAnnotationModelListenerExtension;
 
 /**
  * Tests the {@link org.eclipse.jface.text.source.IAnnotationModelExtension2}.
@@ -276,4 +282,104 @@ public class AnnotationModelExtension2Test {
 		assertPermutations(true, true, expected);
 	}
 
+	@Test
+	public void testReplaceAnnotations() throws Exception {
+		List<AnnotationModelEvent> events= new ArrayList<>();
+		class Listener implements IAnnotationModelListener, IAnnotationModelListenerExtension {
+			@Override
+			public void modelChanged(AnnotationModelEvent event) {
+				events.add(event);
+			}
+
+			@Override
+			public void modelChanged(IAnnotationModel model) {
+			}
+		}
+		fAnnotationModel.addAnnotationModelListener(new Listener());
+		events.clear();
+
+		int length= fDocument.getLength();
+		Map<Annotation, Position> added= new HashMap<>();
+		for (int i= 0; i < 100; i++)
+			added.put(new Annotation(false), new Position((i * 7) % (length - 5), 1 + i % 5));
+		fAnnotationModel.replaceAnnotations(null, added);
+
+		Assert.assertEquals(1, events.size());
+		Assert.assertEquals(added.size(), events.get(0).getAddedAnnotations().length);
+		assertDocumentPositionsSorted();
+
+		Iterator<Annotation> iterator= fAnnotationModel.getAnnotationIterator(10, 11, false, false);
+		HashSet<Annotation> expected= new HashSet<>();
+		for (Map.Entry<Annotation, Position> entry : added.entrySet()) {
+			Position position= entry.getValue();
+			if (position.getOffset() >= 10 && position.getOffset() + position.getLength() <= 21)
+				expected.add(entry.getKey());
+		}
+		HashSet<Annotation> actual= new HashSet<>();
+		while (iterator.hasNext())
+			actual.add(iterator.next());
+		Assert.assertEquals(expected, actual);
+
+		events.clear();
+		Annotation[] removed= added.keySet().toArray(new Annotation[added.size()]);
+		Map<Annotation, Position> replacement= new HashMap<>();
+		Annotation annotation= new Annotation(false);
+		Position position= new Position(3, 4);
+		replacement.put(annotation, position);
+		fAnnotationModel.replaceAnnotations(removed, replacement);
+
+		Assert.assertEquals(1, events.size());
+		Assert.assertEquals(removed.length, events.get(0).getRemovedAnnotations().length);
+		Position[] positions= fDocument.getPositions(IDocument.DEFAULT_CATEGORY);
+		Assert.assertEquals(1, positions.length);
+		assertSame(position, positions[0]);
+		assertSame(annotation, fAnnotationModel.getAnnotationIterator().next());
+	}
+
+	@Test
+	public void testReplaceAnnotationsWithSharedPosition() throws Exception {
+		Position shared= new Position(3, 4);
+		Annotation first= new Annotation(false);
+		Annotation second= new Annotation(false);
+		Map<Annotation, Position> added= new HashMap<>();
+		added.put(first, shared);
+		added.put(second, shared);
+		// enough other annotations for the document to remove them all in one pass
+		List<Annotation> others= new ArrayList<>();
+		for (int i= 0; i < 20; i++) {
+			Annotation annotation= new Annotation(false);
+			others.add(annotation);
+			added.put(annotation, new Position(20 + i, 1));
+		}
+		fAnnotationModel.replaceAnnotations(null, added);
+		Assert.assertEquals(22, fDocument.getPositions(IDocument.DEFAULT_CATEGORY).length);
+
+		// the position stays in the document as long as one of its annotations is left
+		others.add(first);
+		fAnnotationModel.replaceAnnotations(others.toArray(new Annotation[others.size()]), null);
+		Position[] positions= fDocument.getPositions(IDocument.DEFAULT_CATEGORY);
+		Assert.assertEquals(1, positions.length);
+		assertSame(shared, positions[0]);
+
+		// removing and adding an annotation of the position in one batch keeps it once
+		Annotation third= new Annotation(false);
+		fAnnotationModel.replaceAnnotations(new Annotation[] { second }, Map.of(third, shared));
+		positions= fDocument.getPositions(IDocument.DEFAULT_CATEGORY);
+		Assert.assertEquals(1, positions.length);
+		assertSame(shared, positions[0]);
+
+		fDocument.replace(0, 0, "xx");
+		Assert.assertEquals(5, shared.getOffset());
+
+		fAnnotationModel.removeAnnotation(third);
+		Assert.assertEquals(0, fDocument.getPositions(IDocument.DEFAULT_CATEGORY).length);
+	}
+
+	private void assertDocumentPositionsSorted() throws Exception {
+		Position[] positions= fDocument.getPositions(IDocument.DEFAULT_CATEGORY);
+		for (int i= 1; i < positions.length; i++)
+			assertTrue(positions[i - 1].getOffset() <= positions[i].getOffset());
+		Assert.assertEquals(100, positions.length);
+	}
+
 }
@@ -0,0 +1,167 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.text.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+import org.eclipse.jface.text.BadLocationException;
+import org.eclipse.jface.text.ConfigurableLineTracker;
+import org.eclipse.jface.text.DefaultLineTracker;
+import org.eclipse.jface.text.GapTextStore;
+import org.eclipse.jface.text.ILineTracker;
+import org.eclipse.jface.text.IRegion;
+import org.eclipse.jface.text.ITextStore;
+
+/**
+ * Tests the compact line tracker created by {@link DefaultLineTracker#DefaultLineTracker(boolean)}
+ * against the tree and list based line trackers.
+ */
+public class CompactLineTrackerTest {
+
+	private static final String[] FRAGMENTS= { "", "a", "xyz", "\n", "\r", "\r\n", "a\nb", "\n\n", "a\r\nb\rc\n", "\r\r\n\n", "some longer line\n" };
+
+	@Test
+	public void testSet() throws Exception {
+		String text= "a\nbc\r\ndef\r\rg\n";
+		ILineTracker reference= new DefaultLineTracker();
+		ILineTracker compact= new DefaultLineTracker(true);
+		reference.set(text);
+		compact.set(text);
+		assertSameLines(reference, compact, text.length());
+
+		reference.set("");
+		compact.set("");
+		assertSameLines(reference, compact, 0);
+	}
+
+	@Test
+	public void testRandomEdits() throws Exception {
+		Random random= new Random(4711);
+		ITextStore store= new GapTextStore();
+		ILineTracker reference= new DefaultLineTracker();
+		ILineTracker compact= new DefaultLineTracker(true);
+		for (int i= 0; i < 3000; i++) {
+			int length= store.getLength();
+			int offset= random.nextInt(length + 1);
+			int replaced= random.nextInt(Math.min(length - offset, 20) + 1);
+			String text= FRAGMENTS[random.nextInt(FRAGMENTS.length)];
+			if (random.nextInt(8) == 0)
+				text= text.repeat(random.nextInt(800));
+			store.replace(offset, replaced, text);
+			reference.replace(offset, replaced, text);
+			compact.replace(offset, replaced, text);
+			if (i % 50 == 0)
+				assertSameLines(reference, compact, store.getLength());
+		}
+		assertSameLines(reference, compact, store.getLength());
+	}
+
+	@Test
+	public void testManyLines() throws Exception {
+		String text= "line\n".repeat(5000);
+		ILineTracker reference= new DefaultLineTracker();
+		ILineTracker compact= new DefaultLineTracker(true);
+		reference.set(text);
+		compact.set(text);
+		// join the lines around a chunk boundary and split them again
+		reference.replace(1024 * 5 - 1, 2, "");
+		compact.replace(1024 * 5 - 1, 2, "");
+		assertSameLines(reference, compact, text.length() - 2);
+		reference.replace(100, 20000, "\r\n\r\n");
+		compact.replace(100, 20000, "\r\n\r\n");
+		assertSameLines(reference, compact, text.length() - 20000 + 2);
+	}
+
+	@Test
+	public void testConfigurableDelimiters() throws Exception {
+		String[] delimiters= { "\n", "<br>", "<br/>" };
+		String text= "a<br>b<br/>c\n<br<br>>";
+		ILineTracker reference= new ConfigurableLineTracker(delimiters);
+		ILineTracker compact= new ConfigurableLineTracker(delimiters, true);
+		reference.set(text);
+		compact.set(text);
+		assertSameLines(reference, compact, text.length());
+		reference.replace(2, 5, "<br/><br>");
+		compact.replace(2, 5, "<br/><br>");
+		assertSameLines(reference, compact, text.length() + 4);
+	}
+
+	@Test
+	public void testIllegalArguments() throws Exception {
+		ILineTracker compact= new DefaultLineTracker(true);
+		compact.set("a\nb");
+		assertBadLocation(() -> compact.getLineOffset(3));
+		assertBadLocation(() -> compact.getLineNumberOfOffset(4));
+		assertBadLocation(() -> compact.getLineInformationOfOffset(-1));
+		assertBadLocation(() -> compact.replace(2, 2, ""));
+		assertBadLocation(() -> compact.getNumberOfLines(1, 3));
+	}
+
+	private interface Query {
+		void run() throws BadLocationException;
+	}
+
+	private static void assertBadLocation(Query query) {
+		try {
+			query.run();
+			fail("BadLocationException expected");
+		} catch (BadLocationException e) {
+			// expected
+		}
+	}
+
+	private static void assertSameLines(ILineTracker expected, ILineTracker actual, int length) throws BadLocationException {
+		int lines= expected.getNumberOfLines();
+		assertEquals(lines, actual.getNumberOfLines());
+		for (int line= 0; line < lines; line++) {
+			assertEquals(expected.getLineOffset(line), actual.getLineOffset(line));
+			assertEquals(expected.getLineLength(line), actual.getLineLength(line));
+			assertEquals(expected.getLineDelimiter(line), actual.getLineDelimiter(line));
+			assertRegion(expected.getLineInformation(line), actual.getLineInformation(line));
+		}
+		IRegion beyond;
+		try {
+			beyond= expected.getLineInformation(lines);
+		} catch (BadLocationException e) {
+			beyond= null;
+		}
+		if (beyond != null)
+			assertRegion(beyond, actual.getLineInformation(lines));
+		else
+			assertBadLocation(() -> actual.getLineInformation(lines));
+		int step= Math.max(1, length / 500);
+		for (int offset= 0; offset <= length; offset+= offset + step > length && offset < length ? length - offset : step) {
+			assertEquals(expected.getLineNumberOfOffset(offset), actual.getLineNumberOfOffset(offset));
+			assertRegion(expected.getLineInformationOfOffset(offset), actual.getLineInformationOfOffset(offset));
+			int count= Math.min(length - offset, step * 3);
+			assertEquals(expected.getNumberOfLines(offset, count), actual.getNumberOfLines(offset, count));
+			if (offset == length)
+				break;
+		}
+	}
+
+	private static void assertRegion(IRegion expected, IRegion actual) {
+		if (expected == null) {
+			assertEquals(null, actual);
+			return;
+		}
+		assertEquals(expected.getOffset(), actual.getOffset());
+		assertEquals(expected.getLength(), actual.getLength());
+	}
+}
@@ -107,6 +107,68 @@ public class DocumentUndoManagerTest {
 		assertEquals(original, reverted);
 	}
 
+	/**
+	 * Tests that compressed texts are restored by undo and redo.
+	 *
+	 * @throws ExecutionException   if undo fails
+	 * @throws BadLocationException if document change fails
+	 */
+	@Test
+	public void testCompressedHistory() throws ExecutionException, BadLocationException {
+		final String original = "some text to be replaced\n".repeat(1000);
+		final IDocument document = new Document(original);
+		createUndoManager(document);
+		DocumentUndoManager undoManager = (DocumentUndoManager) fUndoManager;
+		undoManager.setCompressionThreshold(100);
+
+		document.replace(0, document.getLength(), "short");
+		document.replace(5, 0, "\u00e4\ud800".repeat(100));
+		fUndoManager.commit();
+		final String changed = document.get();
+
+		assertTrue(undoManager.getUndoHistorySize() < original.length() / 10);
+		fUndoManager.undo();
+		fUndoManager.undo();
+		assertEquals(original, document.get());
+		fUndoManager.redo();
+		fUndoManager.redo();
+		assertEquals(changed, document.get());
+	}
+
+	/**
+	 * Tests that the oldest changes are removed when the history exceeds its maximal size.
+	 *
+	 * @throws ExecutionException   if undo fails
+	 * @throws BadLocationException if document change fails
+	 */
+	@Test
+	public void testMaximalUndoSize() throws ExecutionException, BadLocationException {
+		final IDocument document = new Document("");
+		createUndoManager(document);
+		DocumentUndoManager undoManager = (DocumentUndoManager) fUndoManager;
+		undoManager.setMaximalUndoSize(10000);
+
+		String intermediate = null;
+		for (int i = 0; i < 10; i++) {
+			if (i == 8)
+				intermediate = document.get();
+			document.replace(document.getLength(), 0, createRandomString(2000));
+		}
+		fUndoManager.commit();
+
+		assertTrue(undoManager.getUndoHistorySize() <= 10000);
+		int undone = 0;
+		while (fUndoManager.undoable()) {
+			fUndoManager.undo();
+			undone++;
+		}
+		assertEquals(2, undone);
+		assertEquals(intermediate, document.get());
+
+		undoManager.setMaximalUndoSize(100);
+		assertTrue(fUndoManager.redoable());
+	}
+
 	private void createUndoManager(final IDocument document) {
 		fUndoManager = new DocumentUndoManager(document);
 		fUndoManager.connect(this);
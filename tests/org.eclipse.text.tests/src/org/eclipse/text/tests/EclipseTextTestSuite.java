@@ -34,6 +34,7 @@ import org.eclipse.text.tests.templates.TemplatesTestSuite;
 		LineTrackerTest4.class,
 		DocumentExtensionTest.class,
 		LineTrackerTest3.class,
+		CompactLineTrackerTest.class,
 		DocumentTest.class,
 		FindReplaceDocumentAdapterTest.class,
 		PositionUpdatingCornerCasesTest.class,
@@ -41,6 +42,8 @@ import org.eclipse.text.tests.templates.TemplatesTestSuite;
 		TextEditTests.class,
 		GapTextTest.class,
 		GapTextStoreTest.class,
+		PieceTableTextStoreTest.class,
+		MappedFileTextStoreTest.class,
 		ChildDocumentTest.class,
 		ProjectionTestSuite.class,
 		LinkTestSuite.class,
@@ -0,0 +1,65 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.text.tests;
+
+import org.eclipse.jface.text.BadLocationException;
+import org.eclipse.jface.text.DefaultLineTracker;
+import org.eclipse.jface.text.ILineTracker;
+
+/**
+ * Prints the heap retained by the list, tree and compact line trackers for a text with many
+ * lines. The figures depend on the VM and its garbage collector, so this is not part of the
+ * test suite and asserts nothing; run it as a Java application.
+ */
+public class LineTrackerMemoryBenchmark {
+
+	public static void main(String[] args) throws BadLocationException {
+		int lines= args.length > 0 ? Integer.parseInt(args[0]) : 500_000;
+		String text= "a line of text\n".repeat(lines);
+
+		long before= usedMemory();
+		ILineTracker list= new DefaultLineTracker();
+		list.set(text);
+		long listMemory= usedMemory() - before;
+
+		before= usedMemory();
+		ILineTracker tree= new DefaultLineTracker();
+		tree.set(text);
+		tree.replace(0, 0, "x"); // converts the list into a tree
+		long treeMemory= usedMemory() - before;
+
+		before= usedMemory();
+		ILineTracker compact= new DefaultLineTracker(true);
+		compact.set(text);
+		compact.replace(0, 0, "x");
+		long compactMemory= usedMemory() - before;
+
+		System.out.println("Line tracker memory for " + lines + " lines:");
+		print("list", listMemory, list);
+		print("tree", treeMemory, tree);
+		print("compact", compactMemory, compact);
+	}
+
+	private static void print(String name, long memory, ILineTracker tracker) {
+		// also keeps the tracker reachable until its memory has been measured
+		System.out.println("  " + name + ": " + memory + " bytes, " + tracker.getNumberOfLines() + " lines");
+	}
+
+	private static long usedMemory() {
+		Runtime runtime= Runtime.getRuntime();
+		for (int i= 0; i < 5; i++)
+			System.gc();
+		return runtime.totalMemory() - runtime.freeMemory();
+	}
+}
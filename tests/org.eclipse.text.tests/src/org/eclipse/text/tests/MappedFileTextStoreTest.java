@@ -0,0 +1,157 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.text.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Test;
+
+import org.eclipse.jface.text.AbstractDocument;
+import org.eclipse.jface.text.DefaultLineTracker;
+import org.eclipse.jface.text.ILineTracker;
+import org.eclipse.jface.text.MappedFileTextStore;
+
+public class MappedFileTextStoreTest {
+
+	private final List<Path> fFiles= new ArrayList<>();
+	private final List<MappedFileTextStore> fStores= new ArrayList<>();
+
+	@After
+	public void tearDown() throws IOException {
+		for (MappedFileTextStore store : fStores)
+			store.dispose();
+		for (Path file : fFiles)
+			Files.deleteIfExists(file);
+	}
+
+	private MappedFileTextStore createStore(String content, Charset charset, byte... bom) throws IOException {
+		Path file= Files.createTempFile("MappedFileTextStoreTest", ".txt");
+		fFiles.add(file);
+		byte[] bytes= content.getBytes(charset);
+		byte[] all= new byte[bom.length + bytes.length];
+		System.arraycopy(bom, 0, all, 0, bom.length);
+		System.arraycopy(bytes, 0, all, bom.length, bytes.length);
+		Files.write(file, all);
+		MappedFileTextStore store= new MappedFileTextStore(file, charset);
+		fStores.add(store);
+		return store;
+	}
+
+	private static String createContent(String line, int lines) {
+		StringBuilder buffer= new StringBuilder();
+		String[] delimiters= { "\n", "\r\n", "\r" };
+		for (int i= 0; i < lines; i++)
+			buffer.append(line).append(i).append(delimiters[i % 3]);
+		return buffer.toString();
+	}
+
+	private static void assertContent(String expected, MappedFileTextStore store) throws Exception {
+		assertEquals(expected.length(), store.getLength());
+		assertEquals(expected, store.get(0, store.getLength()));
+		for (int i= 0; i < expected.length(); i += 97)
+			assertEquals(expected.charAt(i), store.get(i));
+		assertEquals(expected.substring(65530, 65600), store.get(65530, 70));
+
+		ILineTracker expectedLines= new DefaultLineTracker();
+		expectedLines.set(expected);
+		ILineTracker lines= store.getLineTracker();
+		assertEquals(expectedLines.getNumberOfLines(), lines.getNumberOfLines());
+		for (int i= 0; i < expectedLines.getNumberOfLines(); i++) {
+			assertEquals(expectedLines.getLineInformation(i).getOffset(), lines.getLineInformation(i).getOffset());
+			assertEquals(expectedLines.getLineInformation(i).getLength(), lines.getLineInformation(i).getLength());
+			assertEquals(expectedLines.getLineLength(i), lines.getLineLength(i));
+			assertEquals(expectedLines.getLineDelimiter(i), lines.getLineDelimiter(i));
+		}
+		for (int i= 0; i <= expected.length(); i += 31)
+			assertEquals(expectedLines.getLineNumberOfOffset(i), lines.getLineNumberOfOffset(i));
+		assertEquals(expectedLines.getLineNumberOfOffset(expected.length()), lines.getLineNumberOfOffset(expected.length()));
+		assertEquals(expectedLines.getNumberOfLines(10, 5000), lines.getNumberOfLines(10, 5000));
+	}
+
+	@Test
+	public void testSingleByte() throws Exception {
+		String content= createContent("line \u00E4 ", 20000);
+		assertContent(content, createStore(content, StandardCharsets.ISO_8859_1));
+	}
+
+	@Test
+	public void testUTF8() throws Exception {
+		String content= createContent("line \u00E4\u20AC\uD83D\uDE00 ", 20000);
+		assertContent(content, createStore(content, StandardCharsets.UTF_8, (byte) 0xEF, (byte) 0xBB, (byte) 0xBF));
+	}
+
+	@Test
+	public void testUTF16() throws Exception {
+		String content= createContent("line \u00E4\u20AC ", 20000);
+		assertContent(content, createStore(content, StandardCharsets.UTF_16LE, (byte) 0xFF, (byte) 0xFE));
+		String bigEndian= createContent("x\u20AC", 50000);
+		assertContent(bigEndian, createStore(bigEndian, StandardCharsets.UTF_16));
+	}
+
+	@Test
+	public void testIncrementalIndex() throws Exception {
+		String content= createContent("line \u00E4 ", 50000);
+		MappedFileTextStore store= createStore(content, StandardCharsets.UTF_8);
+		assertEquals(content.charAt(10), store.get(10));
+		assertEquals(2, store.getLineTracker().getLineNumberOfOffset(content.indexOf("line \u00E4 2")));
+		assertFalse(store.isIndexComplete());
+		store.buildIndex(null);
+		assertTrue(store.isIndexComplete());
+		assertEquals(content.length(), store.getLength());
+	}
+
+	@Test
+	public void testReadOnlyDocument() throws Exception {
+		String content= createContent("line ", 10);
+		MappedFileTextStore store= createStore(content, StandardCharsets.UTF_8);
+		AbstractDocument document= new AbstractDocument() {
+			{
+				setTextStore(store);
+				setLineTracker(store.getLineTracker());
+				completeInitialization();
+			}
+		};
+		assertEquals(content, document.get());
+		assertEquals(11, document.getNumberOfLines());
+		assertEquals("line 1\r\n", document.get(document.getLineOffset(1), document.getLineLength(1)));
+	}
+
+	@Test(expected= UnsupportedOperationException.class)
+	public void testReplace() throws Exception {
+		createStore("x", StandardCharsets.UTF_8).replace(0, 0, "y");
+	}
+
+	@Test
+	public void testDispose() throws Exception {
+		String content= createContent("line \u00E4 ", 50000);
+		MappedFileTextStore store= createStore(content, StandardCharsets.UTF_8);
+		assertEquals(content.charAt(10), store.get(10));
+		store.dispose();
+		assertThrows(IllegalStateException.class, () -> store.get(content.length() - 1));
+		store.buildIndex(null);
+		assertFalse(store.isIndexComplete());
+	}
+}
@@ -0,0 +1,122 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.text.tests;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+import org.eclipse.jface.text.Document;
+import org.eclipse.jface.text.GapTextStore;
+import org.eclipse.jface.text.ITextStore;
+import org.eclipse.jface.text.PieceTableTextStore;
+
+public class PieceTableTextStoreTest extends TextStoreTest {
+
+	@Override
+	protected ITextStore createTextStore() {
+		return new PieceTableTextStore();
+	}
+
+	@Test
+	public void testRandomEditsAgainstGapTextStore() {
+		Random random= new Random(4711);
+		ITextStore expected= new GapTextStore();
+		PieceTableTextStore store= new PieceTableTextStore();
+		String initial= "abcdefghijklmnopqrstuvwxyz\n".repeat(100);
+		expected.set(initial);
+		store.set(initial);
+
+		for (int i= 0; i < 5000; i++) {
+			int length= expected.getLength();
+			int offset= random.nextInt(length + 1);
+			int removed= random.nextInt(Math.min(length - offset, 20) + 1);
+			String text= random.nextInt(4) == 0 ? "" : "x".repeat(random.nextInt(i % 100 == 0 ? 10000 : 10));
+			expected.replace(offset, removed, text);
+			store.replace(offset, removed, text);
+
+			assertEquals(expected.getLength(), store.getLength());
+			int from= random.nextInt(store.getLength() + 1);
+			int count= random.nextInt(store.getLength() - from + 1);
+			assertEquals(expected.get(from, count), store.get(from, count));
+		}
+		assertEquals(expected.get(0, expected.getLength()), store.get(0, store.getLength()));
+		for (int i= 0; i < store.getLength(); i++)
+			assertEquals(expected.get(i), store.get(i));
+	}
+
+	/**
+	 * Scattered deletions split the pieces over and over again, which must not degenerate the
+	 * piece tree into a list.
+	 */
+	@Test
+	public void testScatteredDeletions() {
+		Random random= new Random(42);
+		String initial= "0123456789".repeat(20000);
+		ITextStore expected= new GapTextStore();
+		PieceTableTextStore store= new PieceTableTextStore();
+		expected.set(initial);
+		store.set(initial);
+
+		for (int i= 0; i < 60000; i++) {
+			int offset= random.nextInt(store.getLength());
+			expected.replace(offset, 1, "");
+			store.replace(offset, 1, "");
+		}
+		assertEquals(expected.getLength(), store.getLength());
+		assertEquals(expected.get(0, expected.getLength()), store.get(0, store.getLength()));
+		for (int i= 0; i < 1000; i++) {
+			int offset= random.nextInt(store.getLength());
+			assertEquals(expected.get(offset), store.get(offset));
+		}
+	}
+
+	@Test
+	public void testTyping() {
+		PieceTableTextStore store= new PieceTableTextStore();
+		store.set("0123456789");
+		StringBuilder expected= new StringBuilder("0123456789");
+		for (int i= 0; i < 40000; i++) {
+			store.replace(5 + i, 0, "y");
+			expected.insert(5 + i, 'y');
+		}
+		assertEquals(expected.toString(), store.get(0, store.getLength()));
+	}
+
+	@Test
+	public void testSnapshot() {
+		PieceTableTextStore store= new PieceTableTextStore();
+		store.set("xxxxx");
+		store.replace(2, 1, "yy");
+
+		PieceTableTextStore snapshot= store.snapshot();
+		store.replace(0, 1, "z");
+		store.replace(store.getLength(), 0, "zz");
+		snapshot.replace(snapshot.getLength(), 0, "w");
+
+		assertEquals("zxyyxxzz", store.get(0, store.getLength()));
+		assertEquals("xxyyxxw", snapshot.get(0, snapshot.getLength()));
+	}
+
+	@Test
+	public void testDocument() throws Exception {
+		Document document= new Document(new PieceTableTextStore(), "x\nx\nx\n");
+		document.replace(2, 1, "yy");
+		assertEquals("x\nyy\nx\n", document.get());
+		assertEquals(4, document.getNumberOfLines());
+		assertEquals(5, document.getLineOffset(2));
+	}
+}
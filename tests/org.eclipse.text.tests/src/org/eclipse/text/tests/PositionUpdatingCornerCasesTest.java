@@ -16,12 +16,19 @@ package org.eclipse.text.tests;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
 import org.junit.After;
 import org.junit.Test;
 
 import org.eclipse.jface.text.BadPositionCategoryException;
+import org.eclipse.jface.text.DefaultPositionUpdater;
 import org.eclipse.jface.text.Document;
+import org.eclipse.jface.text.DocumentEvent;
 import org.eclipse.jface.text.IDocument;
+import org.eclipse.jface.text.IPositionUpdater;
 import org.eclipse.jface.text.Position;
 
 
@@ -93,4 +100,148 @@ public class PositionUpdatingCornerCasesTest {
 		checkPositions(positions);
 
 	}
+
+	/**
+	 * Updater investigating all positions of its category, as done before positions ending before
+	 * the change were skipped.
+	 */
+	private static class FullScanPositionUpdater extends DefaultPositionUpdater {
+
+		FullScanPositionUpdater(String category) {
+			super(category);
+		}
+
+		@Override
+		public void update(DocumentEvent event) {
+			try {
+				fOffset= event.getOffset();
+				fLength= event.getLength();
+				fReplaceLength= (event.getText() == null ? 0 : event.getText().length());
+				fDocument= event.getDocument();
+
+				for (Position element : fDocument.getPositions(getCategory())) {
+					fPosition= element;
+					fOriginalPosition.offset= fPosition.offset;
+					fOriginalPosition.length= fPosition.length;
+
+					if (notDeleted())
+						adaptToReplace();
+				}
+			} catch (BadPositionCategoryException x) {
+				// do nothing
+			} finally {
+				fDocument= null;
+			}
+		}
+	}
+
+	@Test
+	public void testSkippingUnaffectedPositions() throws Exception {
+		fDocument= new Document("x-x-x-x-x-x-x-x-x-x-x".repeat(20));
+		fDocument.addPositionCategory("fast");
+		fDocument.addPositionCategory("full");
+		fDocument.addPositionUpdater(new DefaultPositionUpdater("fast"));
+		fDocument.addPositionUpdater(new FullScanPositionUpdater("full"));
+
+		Random random= new Random(42);
+		List<Position> fast= new ArrayList<>();
+		List<Position> full= new ArrayList<>();
+		for (int i= 0; i < 300; i++) {
+			int offset= random.nextInt(fDocument.getLength());
+			int length= random.nextInt(Math.min(10, fDocument.getLength() - offset) + 1);
+			Position position= new Position(offset, length);
+			fast.add(position);
+			fDocument.addPosition("fast", position);
+			position= new Position(offset, length);
+			full.add(position);
+			fDocument.addPosition("full", position);
+		}
+
+		for (int i= 0; i < 500; i++) {
+			int offset= random.nextInt(fDocument.getLength() + 1);
+			int length= random.nextInt(Math.min(5, fDocument.getLength() - offset) + 1);
+			fDocument.replace(offset, length, "y".repeat(random.nextInt(4)));
+
+			for (int j= 0; j < fast.size(); j++) {
+				assertEquals(print(full.get(j)), full.get(j), fast.get(j));
+				assertEquals(full.get(j).isDeleted(), fast.get(j).isDeleted());
+			}
+			assertEquals(fDocument.getPositions("full").length, fDocument.getPositions("fast").length);
+		}
+	}
+
+	@Test
+	public void testPositionsOfOtherCategoriesOverlappingChange() throws Exception {
+		fDocument= new Document("x-x-x-x-x-x-x-x-x-x-x".repeat(20));
+		fDocument.addPositionCategory("updated");
+		fDocument.addPositionCategory("other");
+		fDocument.addPositionUpdater(new DefaultPositionUpdater("updated"));
+		addRandomPositions(new Random(3), "updated", "other");
+
+		// the positions of "other" are not updated, so they keep overlapping the changes
+		replaceAndCheckQueries(new Random(4), "updated", "other");
+	}
+
+	@Test
+	public void testPositionsOfCategoryWithCustomUpdater() throws Exception {
+		fDocument= new Document("x-x-x-x-x-x-x-x-x-x-x".repeat(20));
+		fDocument.addPositionCategory("updated");
+		fDocument.addPositionCategory("shifted");
+		fDocument.addPositionUpdater(new DefaultPositionUpdater("updated"));
+		// shifts the positions starting at or after the change, the changes never shrink the document
+		IPositionUpdater updater= event -> {
+			int delta= event.getText().length() - event.getLength();
+			try {
+				for (Position position : event.getDocument().getPositions("shifted")) {
+					if (position.offset >= event.getOffset())
+						position.offset+= delta;
+				}
+			} catch (BadPositionCategoryException e) {
+				// cannot happen, the category is added above
+			}
+		};
+		fDocument.addPositionUpdater(updater);
+		addRandomPositions(new Random(5), "updated", "shifted");
+
+		replaceAndCheckQueries(new Random(6), "updated", "shifted");
+	}
+
+	private void addRandomPositions(Random random, String... categories) throws Exception {
+		for (String category : categories) {
+			for (int i= 0; i < 200; i++) {
+				int offset= random.nextInt(fDocument.getLength());
+				int length= random.nextInt(Math.min(10, fDocument.getLength() - offset) + 1);
+				fDocument.addPosition(category, new Position(offset, length));
+			}
+		}
+	}
+
+	private void replaceAndCheckQueries(Random random, String... categories) throws Exception {
+		for (int i= 0; i < 300; i++) {
+			int offset= random.nextInt(fDocument.getLength() + 1);
+			int length= random.nextInt(Math.min(5, fDocument.getLength() - offset) + 1);
+			// the document does not shrink, so positions which are not updated stay inside of it
+			fDocument.replace(offset, length, "y".repeat(length + random.nextInt(3)));
+
+			int queryOffset= random.nextInt(fDocument.getLength());
+			int queryLength= 1 + random.nextInt(20);
+			for (String category : categories)
+				assertSameOverlappingPositions(category, queryOffset, queryLength);
+		}
+	}
+
+	private void assertSameOverlappingPositions(String category, int offset, int length) throws BadPositionCategoryException {
+		Position region= new Position(offset, length);
+		List<String> expected= new ArrayList<>();
+		for (Position position : fDocument.getPositions(category)) {
+			if (region.overlapsWith(position.offset, position.length))
+				expected.add(print(position));
+		}
+		List<String> actual= new ArrayList<>();
+		for (Position position : fDocument.getPositions(category, offset, length, true, true))
+			actual.add(print(position));
+		expected.sort(null);
+		actual.sort(null);
+		assertEquals(category + " " + print(region), expected, actual);
+	}
 }
@@ -41,7 +41,9 @@ import org.eclipse.text.edits.TextEditCopier;
 import org.eclipse.text.edits.UndoEdit;
 
 import org.eclipse.jface.text.Document;
+import org.eclipse.jface.text.DocumentEvent;
 import org.eclipse.jface.text.IDocument;
+import org.eclipse.jface.text.IDocumentListener;
 import org.eclipse.jface.text.IRegion;
 
 public class TextEditTests {
@@ -1385,6 +1387,68 @@ public class TextEditTests {
 		assertEquals(result, 2, 1);
 	}
 
+	@Test
+	public void testCoalescedChanges() throws Exception {
+		String original= "line of text\n".repeat(2000);
+		IDocument document= new Document(original);
+		IDocument expected= new Document(original);
+		MultiTextEdit root= new MultiTextEdit();
+		for (int i= 0; i < 2000; i++) {
+			int offset= i * 13;
+			switch (i % 4) {
+				case 0 -> root.addChild(new ReplaceEdit(offset, 4, "LINE"));
+				case 1 -> root.addChild(new InsertEdit(offset, "> "));
+				case 2 -> root.addChild(new DeleteEdit(offset + 5, 3));
+				default -> root.addChild(new RangeMarker(offset, 4));
+			}
+		}
+		TextEdit copy= root.copy();
+		copy.apply(expected, TextEdit.UPDATE_REGIONS);
+
+		int[] events= new int[1];
+		document.addDocumentListener(new IDocumentListener() {
+			@Override
+			public void documentAboutToBeChanged(DocumentEvent event) {
+				events[0]++;
+			}
+
+			@Override
+			public void documentChanged(DocumentEvent event) {
+			}
+		});
+		UndoEdit undo= root.apply(document, TextEdit.CREATE_UNDO | TextEdit.UPDATE_REGIONS | TextEdit.COALESCE_CHANGES);
+		Assert.assertEquals("Buffer content", expected.get(), document.get());
+		Assert.assertEquals("Document events", 1, events[0]);
+		Assert.assertEquals("Undo edits", 1500, undo.getChildrenSize());
+		assertSameRegions(copy, root);
+
+		UndoEdit redo= undo.apply(document, TextEdit.CREATE_UNDO | TextEdit.COALESCE_CHANGES);
+		Assert.assertEquals("Buffer content restored", original, document.get());
+		Assert.assertEquals("Document events", 2, events[0]);
+		redo.apply(document);
+		Assert.assertEquals("Buffer content redo", expected.get(), document.get());
+	}
+
+	@Test
+	public void testCoalescedMoveAndCopy() throws Exception {
+		MoveSourceEdit s1= new MoveSourceEdit(2, 2);
+		MoveTargetEdit t1= new MoveTargetEdit(7, s1);
+		CopySourceEdit s2= new CopySourceEdit(5, 1);
+		CopyTargetEdit t2= new CopyTargetEdit(0, s2);
+		fRoot.addChild(t2);
+		fRoot.addChild(s1);
+		fRoot.addChild(s2);
+		fRoot.addChild(new ReplaceEdit(6, 1, "x"));
+		fRoot.addChild(t1);
+		IDocument expected= new Document(fDocument.get());
+		TextEdit copy= fRoot.copy();
+		copy.apply(expected, TextEdit.UPDATE_REGIONS);
+		UndoEdit undo= fRoot.apply(fDocument, TextEdit.CREATE_UNDO | TextEdit.UPDATE_REGIONS | TextEdit.COALESCE_CHANGES);
+		Assert.assertEquals("Buffer content", expected.get(), fDocument.get());
+		assertSameRegions(copy, fRoot);
+		doUndoRedo(undo, expected.get());
+	}
+
 	private void doUndoRedo(UndoEdit undo, String redoResult) throws Exception {
 		UndoEdit redo= undo.apply(fDocument);
 		assertBufferContent();
@@ -1394,6 +1458,16 @@ public class TextEditTests {
 		assertBufferContent();
 	}
 
+	private void assertSameRegions(TextEdit expected, TextEdit actual) {
+		assertEquals(actual, expected.getOffset(), expected.getLength());
+		TextEdit[] expectedChildren= expected.getChildren();
+		TextEdit[] actualChildren= actual.getChildren();
+		Assert.assertEquals("Children", expectedChildren.length, actualChildren.length);
+		for (int i= 0; i < expectedChildren.length; i++) {
+			assertSameRegions(expectedChildren[i], actualChildren[i]);
+		}
+	}
+
 	private void assertEquals(TextEdit edit, int offset, int length) {
 		Assert.assertEquals("Offset", offset, edit.getOffset());
 		Assert.assertEquals("Length", length, edit.getLength());
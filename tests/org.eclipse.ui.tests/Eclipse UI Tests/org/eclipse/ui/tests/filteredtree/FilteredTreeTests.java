@@ -15,17 +15,22 @@
 
 package org.eclipse.ui.tests.filteredtree;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import org.eclipse.core.runtime.Assert;
 import org.eclipse.jface.dialogs.Dialog;
 import org.eclipse.jface.tests.viewers.TestElement;
 import org.eclipse.jface.tests.viewers.TestModelContentProvider;
 import org.eclipse.jface.viewers.LabelProvider;
+import org.eclipse.jface.viewers.Viewer;
 import org.eclipse.swt.SWT;
 import org.eclipse.swt.layout.GridData;
 import org.eclipse.swt.layout.GridLayout;
 import org.eclipse.swt.widgets.Composite;
 import org.eclipse.swt.widgets.Control;
 import org.eclipse.swt.widgets.Shell;
+import org.eclipse.swt.widgets.TreeItem;
 import org.eclipse.ui.dialogs.FilteredTree;
 import org.eclipse.ui.dialogs.PatternFilter;
 import org.eclipse.ui.tests.harness.util.UITestCase;
@@ -133,6 +138,85 @@ public class FilteredTreeTests extends UITestCase {
 		dialog.close();
 	}
 
+	@Test
+	public void testNarrowAndWidenPattern() {
+		Dialog dialog = createFilteredTreeDialog();
+
+		typePattern("0-1");
+		assertNumberOfTopLevelItems(11);
+		assertSameItemsAsFullRefresh();
+
+		typePattern("0-12");
+		assertNumberOfTopLevelItems(1);
+		assertSameItemsAsFullRefresh();
+
+		typePattern("0-1");
+		assertNumberOfTopLevelItems(11);
+		assertSameItemsAsFullRefresh();
+
+		typePattern("");
+		assertNumberOfTopLevelItems(NUM_ITEMS);
+
+		dialog.close();
+	}
+
+	@Test
+	public void testRefinePatternWithSpaceBackslashAndWildcards() {
+		Dialog dialog = createFilteredTreeDialog();
+
+		// patterns ending in a space or a backslash are not refined by the next character
+		String[][] sequences = { { "0-1", "0-1 ", "0-1 n" }, { "0-1\\", "0-1\\*", "0-1\\*5" },
+				{ "0-*", "0-*2", "0-*2-" }, { "0-?", "0-?3", "0-?" } };
+		for (String[] sequence : sequences) {
+			for (String pattern : sequence) {
+				typePattern(pattern);
+				assertSameItemsAsFullRefresh();
+			}
+			typePattern("");
+			assertNumberOfTopLevelItems(NUM_ITEMS);
+		}
+
+		dialog.close();
+	}
+
+	@Test
+	public void testRefinePatternWithOverriddenMatch() {
+		String[] hiddenPrefix = { "0-12" };
+		PatternFilter filter = new PatternFilter() {
+			@Override
+			protected boolean isLeafMatch(Viewer viewer, Object element) {
+				return !element.toString().startsWith(hiddenPrefix[0]) && super.isLeafMatch(viewer, element);
+			}
+		};
+		Dialog dialog = createFilteredTreeDialog(filter);
+
+		typePattern("0-1");
+		assertNumberOfTopLevelItems(10);
+
+		// the filter does not only depend on the pattern, so its results are not reused
+		hiddenPrefix[0] = "none";
+		typePattern("0-12");
+		assertNumberOfTopLevelItems(1);
+
+		dialog.close();
+	}
+
+	@Test
+	public void testRefinePatternAfterUpdate() {
+		Dialog dialog = createFilteredTreeDialog();
+
+		typePattern("re");
+		assertNumberOfTopLevelItems(0);
+
+		TestElement element = fRootElement.getChildAt(5);
+		element.setLabel("renamed");
+		fTreeViewer.getViewer().update(element, null);
+		typePattern("ren");
+		assertNumberOfTopLevelItems(1);
+
+		dialog.close();
+	}
+
 	private void runFilteredTreeTest(final int treeStyle){
 		Dialog dialog = createFilteredTreeDialog(treeStyle);
 
@@ -147,12 +231,20 @@ public class FilteredTreeTests extends UITestCase {
 	}
 
 	private Dialog createFilteredTreeDialog(final int treeStyle) {
+		return createFilteredTreeDialog(treeStyle, new PatternFilter());
+	}
+
+	private Dialog createFilteredTreeDialog(PatternFilter filter) {
+		return createFilteredTreeDialog(SWT.SINGLE | SWT.H_SCROLL | SWT.V_SCROLL | SWT.BORDER, filter);
+	}
+
+	private Dialog createFilteredTreeDialog(final int treeStyle, PatternFilter filter) {
 		fRootElement = TestElement.createModel(DEPTH, NUM_ITEMS);
 
 		Dialog dialog = new FilteredTreeDialog((Shell)null, treeStyle){
 			@Override
 			protected FilteredTree doCreateFilteredTree(Composite comp, int style) {
-				return createFilteredTree(comp, treeStyle);
+				return createFilteredTree(comp, treeStyle, filter);
 			}
 		};
 
@@ -160,10 +252,10 @@ public class FilteredTreeTests extends UITestCase {
 		return dialog;
 	}
 
-	private FilteredTree createFilteredTree(Composite parent, int style){
+	private FilteredTree createFilteredTree(Composite parent, int style, PatternFilter filter){
 		Composite c = new Composite(parent, SWT.NONE);
 		c.setLayout(new GridLayout());
-		FilteredTree fTree = new FilteredTree(c, style, new PatternFilter());
+		FilteredTree fTree = new FilteredTree(c, style, filter);
 
 		GridData gd = new GridData(SWT.FILL, SWT.FILL, true, true);
 		gd.widthHint = 400;
@@ -199,6 +291,30 @@ public class FilteredTreeTests extends UITestCase {
 		fTreeViewer.getViewer().refresh();
 	}
 
+	/*
+	 * Types the pattern into the filter text and waits for the refresh job, which
+	 * may reuse the match results of the previous pattern.
+	 */
+	private void typePattern(String pattern) {
+		fTreeViewer.getFilterControl().setText(pattern);
+		waitForJobs(500, 5000);
+	}
+
+	private void assertSameItemsAsFullRefresh() {
+		List<String> items = getTopLevelItems();
+		// a full refresh drops the cached match results
+		fTreeViewer.getViewer().refresh();
+		assertEquals(getTopLevelItems(), items);
+	}
+
+	private List<String> getTopLevelItems() {
+		List<String> items = new ArrayList<>();
+		for (TreeItem item : fTreeViewer.getViewer().getTree().getItems()) {
+			items.add(item.getText());
+		}
+		return items;
+	}
+
 	private void setInput() {
 		fTreeViewer.getViewer().setInput(fRootElement);
 	}
@@ -14,21 +14,66 @@
 package org.eclipse.ui.workbench.texteditor.tests;
 
 import static org.eclipse.jface.text.DocumentRewriteSessionType.SEQUENTIAL;
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
 import org.junit.Test;
 
+import org.eclipse.core.runtime.IProgressMonitor;
+
+import org.eclipse.jface.text.BadLocationException;
 import org.eclipse.jface.text.Document;
 import org.eclipse.jface.text.IDocument;
+import org.eclipse.jface.text.source.ILineDiffInfo;
 
 import org.eclipse.ui.internal.texteditor.quickdiff.DocumentLineDiffer;
 
+import org.eclipse.ui.texteditor.ITextEditor;
+import org.eclipse.ui.texteditor.quickdiff.IQuickDiffReferenceProvider;
+
 /**
  * Tests for the {@link DocumentLineDiffer}.
  */
 public class DocumentLineDifferTest {
 
+	/** A reference provider always returning the same document. */
+	private static final class ReferenceProvider implements IQuickDiffReferenceProvider {
+
+		private final IDocument fReference;
+
+		ReferenceProvider(IDocument reference) {
+			fReference= reference;
+		}
+
+		@Override
+		public IDocument getReference(IProgressMonitor monitor) {
+			return fReference;
+		}
+
+		@Override
+		public void dispose() {
+		}
+
+		@Override
+		public String getId() {
+			return "test";
+		}
+
+		@Override
+		public void setActiveEditor(ITextEditor editor) {
+		}
+
+		@Override
+		public boolean isEnabled() {
+			return true;
+		}
+
+		@Override
+		public void setId(String id) {
+		}
+	}
+
 	/** The document to connect to the {@link #fLineDiffer}. */
 	private final Document fDocument= new Document();
 
@@ -169,4 +214,124 @@ public class DocumentLineDifferTest {
 		assertFalse(fLineDiffer.isSuspended());
 	}
 
+	/**
+	 * Test that the lines at the borders of a large change which are equal in the reference are
+	 * not diffed, so that the change is still diffed incrementally.
+	 *
+	 * @throws Exception unexpected exception
+	 */
+	@Test
+	public void incrementalDiffTrimsCommonPrefixAndSuffix() throws Exception {
+		// given
+		connectToReference();
+
+		// when
+		replaceLines(50, 200, getLines(50, 100) + "changed 150\n" + getLines(151, 99));
+
+		// then
+		assertTrue(fLineDiffer.isSynchronized());
+		assertEquals(ILineDiffInfo.CHANGED, fLineDiffer.getLineInfo(150).getChangeType());
+		assertEquals(ILineDiffInfo.UNCHANGED, fLineDiffer.getLineInfo(149).getChangeType());
+		assertEquals(ILineDiffInfo.UNCHANGED, fLineDiffer.getLineInfo(151).getChangeType());
+		assertSameAsFullDiff();
+	}
+
+	/**
+	 * Test that changes next to existing differences and changes that leave only lines on one side
+	 * after trimming give the same differences as a full diff.
+	 *
+	 * @throws Exception unexpected exception
+	 */
+	@Test
+	public void incrementalDiffAtTrimmedBoundary() throws Exception {
+		// given
+		connectToReference();
+		replaceLines(100, 1, "changed 100\n");
+
+		// when
+		// change the line after the existing difference and remove the one after it
+		replaceLines(101, 150, "changed 101\n" + getLines(103, 148));
+		// then
+		assertTrue(fLineDiffer.isSynchronized());
+		assertSameAsFullDiff();
+
+		// when
+		// add a line after the trimmed lines, the reference side of the window becomes empty
+		replaceLines(200, 50, getLines(200, 50) + "added\n");
+		// then
+		assertTrue(fLineDiffer.isSynchronized());
+		assertEquals(ILineDiffInfo.ADDED, fLineDiffer.getLineInfo(250).getChangeType());
+		assertSameAsFullDiff();
+
+		// when
+		// replace lines including the existing differences by the same text
+		replaceLines(20, 100, getLines(20, 100));
+		// then
+		assertTrue(fLineDiffer.isSynchronized());
+		assertSameAsFullDiff();
+	}
+
+	/**
+	 * Connects the {@link #fLineDiffer} to {@link #fDocument}, both initialized with a reference of
+	 * distinct lines, so that there is only one way to diff it.
+	 */
+	private void connectToReference() throws InterruptedException {
+		fDocument.set(createReference());
+		fLineDiffer.setReferenceProvider(new ReferenceProvider(new Document(createReference())));
+		fLineDiffer.connect(fDocument);
+		waitForSynchronized(fLineDiffer);
+	}
+
+	private static String createReference() {
+		StringBuilder reference= new StringBuilder();
+		for (int i= 0; i < 300; i++) {
+			reference.append("line ").append(i).append('\n');
+		}
+		return reference.toString();
+	}
+
+	private static void waitForSynchronized(DocumentLineDiffer differ) throws InterruptedException {
+		long timeout= System.currentTimeMillis() + 10000;
+		while (!differ.isSynchronized() && System.currentTimeMillis() < timeout) {
+			Thread.sleep(10);
+		}
+		assertTrue(differ.isSynchronized());
+	}
+
+	private String getLines(int firstLine, int count) throws BadLocationException {
+		int offset= fDocument.getLineOffset(firstLine);
+		return fDocument.get(offset, fDocument.getLineOffset(firstLine + count) - offset);
+	}
+
+	private void replaceLines(int firstLine, int count, String text) throws BadLocationException {
+		int offset= fDocument.getLineOffset(firstLine);
+		fDocument.replace(offset, fDocument.getLineOffset(firstLine + count) - offset, text);
+	}
+
+	/**
+	 * Asserts that the incrementally updated differences of {@link #fLineDiffer} are the ones of a
+	 * full diff of the reference and the document.
+	 */
+	private void assertSameAsFullDiff() throws InterruptedException {
+		Document copy= new Document(fDocument.get());
+		DocumentLineDiffer fullDiffer= new DocumentLineDiffer();
+		fullDiffer.setReferenceProvider(new ReferenceProvider(new Document(createReference())));
+		fullDiffer.connect(copy);
+		try {
+			waitForSynchronized(fullDiffer);
+			for (int line= 0; line < copy.getNumberOfLines(); line++) {
+				assertEquals("line " + line, describe(fullDiffer.getLineInfo(line)), describe(fLineDiffer.getLineInfo(line)));
+			}
+		} finally {
+			fullDiffer.disconnect(copy);
+		}
+	}
+
+	private static String describe(ILineDiffInfo info) {
+		if (info == null) {
+			return "none";
+		}
+		return info.getChangeType() + " removed above: " + info.getRemovedLinesAbove() + " removed below: " + info.getRemovedLinesBelow();
+	}
+
 }